@@ -21,6 +21,9 @@
  */
 package org.jboss.bpm.console.client;
 
+import org.jboss.bpm.console.client.common.DefinitionIndex;
+import org.jboss.bpm.console.client.common.ModelCache;
+
 /**
  * Provides context information to console components and plugins.
  * 
@@ -36,5 +39,15 @@ public interface ApplicationContext
   ConsoleConfig getConfig();
 
   void refreshView();
+
+  /**
+   * Reference data shared across modules
+   */
+  ModelCache getModelCache();
+
+  /**
+   * Process definitions, kept up to date by the actions that load them
+   */
+  DefinitionIndex getDefinitionIndex();
     
 }
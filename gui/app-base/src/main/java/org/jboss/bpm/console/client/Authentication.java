@@ -29,12 +29,15 @@ import com.google.gwt.json.client.JSONValue;
 import com.google.gwt.user.client.Command;
 import com.google.gwt.user.client.DeferredCommand;
 import org.gwt.mosaic.ui.client.MessageBox;
+import org.jboss.bpm.console.client.common.BatchRequest;
+import org.jboss.bpm.console.client.common.ModelCache;
 import org.jboss.bpm.console.client.util.ConsoleLog;
 import org.jboss.bpm.console.client.util.JSONWalk;
 
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 public class Authentication
 {
@@ -140,6 +143,51 @@ public class Authentication
    * and {@link com.google.gwt.http.client.RequestBuilder#setPassword(String)}
    */
   private void requestAssignedRoles()
+  {
+    // the roles and the reference data the workspace needs first, in a single round trip
+    URLBuilder urls = URLBuilder.getInstance();
+    BatchRequest batch = new BatchRequest(config)
+        .add("roles", rolesUrl)
+        .prime(ModelCache.DEFINITIONS, urls.getProcessDefinitionsURL())
+        .prime(ModelCache.DEPLOYMENTS, urls.getDeploymentSummariesUrl())
+        .prime(ModelCache.HISTORY_DEFINITIONS, urls.getProcessHistoryDefinitionsURL());
+
+    batch.send(
+        new BatchRequest.Callback()
+        {
+          public void onResponses(Request request, Map<String, Response> responses)
+          {
+            Response response = responses.get("roles");
+            if (null == response)
+            {
+              onError(request, new Exception("Roles missing in batch response"));
+              return;
+            }
+
+            ConsoleLog.debug("requestAssignedRoles() HTTP "+response.getStatusCode());
+
+            if (200 == response.getStatusCode())
+            {
+              rolesAssigned = Authentication.parseRolesAssigned(response.getText());
+              if (callback != null) callback.onLoginSuccess(request, response);
+            }
+            else if (callback != null)
+            {
+              callback.onLoginFailed(request, new Exception(response.getText()));
+            }
+          }
+
+          public void onError(Request request, Throwable t)
+          {
+            // i.e. a server without batch support
+            ConsoleLog.warn("Batch request failed, falling back to single requests: " + t.getMessage());
+            requestAssignedRolesOnly();
+          }
+        }
+    );
+  }
+
+  private void requestAssignedRolesOnly()
   {
     RequestBuilder rb = new RequestBuilder(RequestBuilder.GET, rolesUrl );
 
@@ -25,6 +25,7 @@ import com.google.gwt.http.client.RequestBuilder;
 import com.google.gwt.http.client.Response;
 import com.mvc4g.client.Controller;
 import org.jboss.bpm.console.client.common.AbstractRESTAction;
+import org.jboss.bpm.console.client.common.ModelCache;
 import org.jboss.bpm.console.client.model.JSOParser;
 import org.jboss.bpm.console.client.model.ServerStatus;
 import org.jboss.errai.workspaces.client.framework.Registry;
@@ -61,6 +62,11 @@ public class BootstrapAction extends AbstractRESTAction
     return RequestBuilder.GET;
   }
 
+  protected String getCachedModel(Object event)
+  {
+    return ModelCache.SERVER_STATUS;
+  }
+
   public void handleSuccessfulResponse(final Controller controller, final Object event, Response response)
   {
     ServerStatus status = JSOParser.parseStatus(response.getText());
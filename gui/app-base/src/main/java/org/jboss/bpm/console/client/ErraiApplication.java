@@ -31,6 +31,8 @@ import com.mvc4g.client.Controller;
 import com.mvc4g.client.Event;
 import org.gwt.mosaic.ui.client.MessageBox;
 import org.jboss.bpm.console.client.common.Model;
+import org.jboss.bpm.console.client.common.DefinitionIndex;
+import org.jboss.bpm.console.client.common.ModelCache;
 import org.jboss.bpm.console.client.common.ModelCommands;
 import org.jboss.bpm.console.client.common.ModelParts;
 import org.jboss.bpm.console.client.icons.ConsoleIconBundle;
@@ -112,6 +114,9 @@ public class ErraiApplication implements EntryPoint, SubscribeListener
 
         // ------
 
+        final ModelCache modelCache = new ModelCache();
+        final DefinitionIndex definitionIndex = new DefinitionIndex();
+
         ApplicationContext appContext = new ApplicationContext()
         {
 
@@ -140,6 +145,18 @@ public class ErraiApplication implements EntryPoint, SubscribeListener
             {
 
             }
+
+
+            public ModelCache getModelCache()
+            {
+                return modelCache;
+            }
+
+
+            public DefinitionIndex getDefinitionIndex()
+            {
+                return definitionIndex;
+            }
         };
 
         Registry.set(ApplicationContext.class, appContext);
@@ -21,6 +21,9 @@
  */
 package org.jboss.bpm.console.client;
 
+import com.google.gwt.event.dom.client.ClickEvent;
+import com.google.gwt.event.dom.client.ClickHandler;
+import com.google.gwt.user.client.ui.Button;
 import com.google.gwt.user.client.ui.Grid;
 import com.google.gwt.user.client.ui.HTML;
 import com.google.gwt.user.client.ui.Image;
@@ -32,6 +35,7 @@ import org.gwt.mosaic.ui.client.layout.BoxLayoutData;
 import org.gwt.mosaic.ui.client.layout.GridLayout;
 import org.gwt.mosaic.ui.client.layout.MosaicPanel;
 import org.jboss.bpm.console.client.common.HeaderLabel;
+import org.jboss.bpm.console.client.model.ParserBenchmark;
 import org.jboss.bpm.console.client.model.PluginInfo;
 import org.jboss.bpm.console.client.model.ServerStatus;
 import org.jboss.errai.workspaces.client.api.WidgetProvider;
@@ -55,6 +59,7 @@ public class ServerStatusView
 
   MosaicPanel layoutPanel;
   MosaicPanel pluginPanel;
+  MosaicPanel benchmarkPanel;
 
   public ServerStatusView()
   {
@@ -91,6 +96,26 @@ public class ServerStatusView
 
     layoutPanel.add(layout2, new BoxLayoutData(BoxLayoutData.FillStyle.HORIZONTAL));
 
+    // parser benchmark
+    HeaderLabel benchmark = new HeaderLabel("Parser Benchmark");
+    layoutPanel.add(benchmark, new BoxLayoutData(BoxLayoutData.FillStyle.HORIZONTAL));
+
+    final Button runBenchmark = new Button("Run ("+ParserBenchmark.DEFAULT_ROWS+" rows)");
+    runBenchmark.addClickHandler(
+        new ClickHandler()
+        {
+          public void onClick(ClickEvent clickEvent)
+          {
+            runBenchmark.setEnabled(false);
+            runParserBenchmark(runBenchmark);
+          }
+        }
+    );
+    layoutPanel.add(runBenchmark);
+
+    benchmarkPanel = new MosaicPanel();
+    layoutPanel.add(benchmarkPanel, new BoxLayoutData(BoxLayoutData.FillStyle.HORIZONTAL));
+
     // ---
 
     controller.addView(ServerStatusView.ID, this);
@@ -120,6 +145,42 @@ public class ServerStatusView
     }
   }
 
+  private void runParserBenchmark(final Button trigger)
+  {
+    benchmarkPanel.clear();
+
+    final Grid g = new Grid(1, 4);
+    g.setWidth("100%");
+    g.setText(0, 0, "Payload");
+    g.setText(0, 1, "Rows");
+    g.setText(0, 2, "Previous parser (ms)");
+    g.setText(0, 3, "Overlay parser (ms)");
+    benchmarkPanel.add(g);
+    benchmarkPanel.layout();
+
+    ParserBenchmark.run(
+        ParserBenchmark.DEFAULT_ROWS,
+        new ParserBenchmark.Callback()
+        {
+          public void onResult(String type, int rows, double legacyMillis, double overlayMillis)
+          {
+            int row = g.getRowCount();
+            g.resizeRows(row + 1);
+            g.setText(row, 0, type);
+            g.setText(row, 1, String.valueOf(rows));
+            g.setText(row, 2, String.valueOf(Math.round(legacyMillis)));
+            g.setText(row, 3, String.valueOf(Math.round(overlayMillis)));
+            benchmarkPanel.layout();
+          }
+
+          public void onFinished()
+          {
+            trigger.setEnabled(true);
+          }
+        }
+    );
+  }
+
   private void update(ServerStatus status)
   {
     pluginPanel.clear();
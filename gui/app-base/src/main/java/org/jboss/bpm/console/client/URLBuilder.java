@@ -99,6 +99,23 @@ public class URLBuilder
         return config.getConsoleServerUrl() + "/rs/process/definition/"+ encodedId+ "/image";
     }
 
+    public String getDiagramSvgURL(String processId)
+    {
+        String encodedId = URL.encode(processId);
+        return config.getConsoleServerUrl() + "/rs/process/definition/"+ encodedId+ "/svg";
+    }
+
+    public String getDiagramTilesURL(String processId)
+    {
+        String encodedId = URL.encode(processId);
+        return config.getConsoleServerUrl() + "/rs/process/definition/"+ encodedId+ "/tiles";
+    }
+
+    public String getDiagramTileURL(String processId, int level, int column, int row)
+    {
+        return getDiagramTilesURL(processId) + "/" + level + "/" + column + "/" + row;
+    }
+
     public String getActiveNodeInfoURL(String instanceId)
     {
         return config.getConsoleServerUrl() + "/rs/process/instance/" + instanceId + "/activeNodeInfo";
@@ -210,6 +227,17 @@ public class URLBuilder
         return config.getConsoleServerUrl() + "/rs/engine/deployments";
     }
 
+    public String getDeploymentSummariesUrl()
+    {
+        return getDeploymentsUrl() + "?view=summary";
+    }
+
+    public String getDeploymentUrl(String id)
+    {
+        String encodedId = URL.encode(id);
+        return config.getConsoleServerUrl() + "/rs/engine/deployment/"+encodedId;
+    }
+
     public String getSuspendDeploymentUrl(String id)
     {
         String encodedId = URL.encode(id);
@@ -228,11 +256,49 @@ public class URLBuilder
         return config.getConsoleServerUrl() + "/rs/engine/deployment/"+encodedId+"/delete";
     }
 
+    /**
+     * @param since last sequence seen, negative for the initial handshake
+     */
+    public String getNotificationsUrl(long since, String idRef, String definitionId)
+    {
+        StringBuffer sb = new StringBuffer(config.getConsoleServerUrl());
+        sb.append("/rs/notifications");
+        sb.append("?since=").append(since);
+        if(idRef!=null)
+            sb.append("&task=").append(URL.encodeComponent(idRef));
+        if(definitionId!=null)
+            sb.append("&instance=").append(URL.encodeComponent(definitionId));
+        return sb.toString();
+    }
+
     public String getJobsUrl()
     {
         return config.getConsoleServerUrl() + "/rs/engine/jobs";
     }
 
+    public String getJobsUrl(String type, boolean failedOnly, int firstResult, int maxResults)
+    {
+        StringBuffer sb = new StringBuffer(getJobsUrl());
+        sb.append("?firstResult=").append(firstResult);
+        sb.append("&maxResults=").append(maxResults);
+        if(type!=null)
+            sb.append("&type=").append(URL.encodeComponent(type));
+        if(failedOnly)
+            sb.append("&failed=true");
+        return sb.toString();
+    }
+
+    public String getExecuteJobsURL(String type, boolean failedOnly)
+    {
+        StringBuffer sb = new StringBuffer(config.getConsoleServerUrl());
+        sb.append("/rs/engine/jobs/execute?");
+        if(failedOnly)
+            sb.append("failed=true&");
+        if(type!=null)
+            sb.append("type=").append(URL.encodeComponent(type));
+        return sb.toString();
+    }
+
     public String getExecuteJobURL(String id)
     {
         String encodedId = URL.encode(id);
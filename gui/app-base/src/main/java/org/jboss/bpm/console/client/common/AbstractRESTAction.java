@@ -22,7 +22,6 @@
 package org.jboss.bpm.console.client.common;
 
 import com.google.gwt.http.client.*;
-import com.google.gwt.user.client.Timer;
 import com.mvc4g.client.ActionInterface;
 import com.mvc4g.client.Controller;
 import org.jboss.bpm.console.client.ApplicationContext;
@@ -30,13 +29,17 @@ import org.jboss.bpm.console.client.LoadingStatusAction;
 import org.jboss.bpm.console.client.util.ConsoleLog;
 import org.jboss.errai.workspaces.client.framework.Registry;
 
-import java.io.IOException;
-
 /**
  * @author Heiko.Braun <heiko.braun@jboss.com>
  */
 public abstract class AbstractRESTAction implements ActionInterface
 {
+  // shared by all actions, keyed by URL
+  private static final ETagCache etags = new ETagCache();
+
+  // dedupes, debounces and times out the requests of all actions
+  private static final RequestCoordinator requests = new RequestCoordinator();
+
   protected ApplicationContext appContext;
 
   protected AbstractRESTAction()
@@ -53,89 +56,100 @@ public abstract class AbstractRESTAction implements ActionInterface
   {
     final String url = getUrl(object);
     RequestBuilder builder = new RequestBuilder(getRequestMethod(), URL.encode(url));
-    builder.setTimeoutMillis(0); // disabling timeouts on RequestBuilder
+    builder.setTimeoutMillis(0); // timeouts are handled by the coordinator
+
+    // conditional GET, a 304 is handled like the cached response
+    final boolean isGet = RequestBuilder.GET.equals(getRequestMethod());
+    if(isGet && etags.getETag(url)!=null)
+      builder.setHeader("If-None-Match", etags.getETag(url));
+
+    // shared reference data is served from the model cache
+    // and revalidated in the background once it has expired
+    final String model = isGet ? getCachedModel(object) : null;
+    final ModelCache cache = appContext.getModelCache();
+    final Response cached = model!=null ? cache.get(url) : null;
+    if(cached!=null)
+    {
+      handleSuccessfulResponse(controller, object, cached);
+      if(!cache.isStale(url))
+        return;
+    }
+    final boolean isRevalidation = cached!=null;
 
     ConsoleLog.debug(getRequestMethod() +": " + url);
 
-    try
+    //controller.handleEvent( LoadingStatusAction.ON );
+    if(getDataDriven(controller)!=null && !isRevalidation)
     {
-      //controller.handleEvent( LoadingStatusAction.ON );
-      if(getDataDriven(controller)!=null)
-      {
-         getDataDriven(controller).setLoading(true);
-      }
-
-      final Request request = builder.sendRequest(null,
-          new RequestCallback()
-          {
-            public void onError(Request request, Throwable exception) {
-              // Couldn't connect to server (could be timeout, SOP violation, etc.)
-              handleError(url, exception);
-              controller.handleEvent( LoadingStatusAction.OFF );
-            }
+      getDataDriven(controller).setLoading(true);
+    }
 
-            public void onResponseReceived(Request request, Response response) {
-              try
+    requests.send(getId(), url, builder,
+        new RequestCoordinator.Callback()
+        {
+          public void onError(Throwable exception) {
+            // Couldn't connect to server (could be timeout, SOP violation, etc.)
+            handleError(url, exception);
+            controller.handleEvent( LoadingStatusAction.OFF );
+            if(!isRevalidation) stopLoading(controller);
+          }
+
+          public void onCancel() {
+            // superseded by a more recent request of this action
+            if(!isRevalidation) stopLoading(controller);
+          }
+
+          public void onResponseReceived(Response response) {
+            try
+            {
+              if(response.getText().indexOf("HTTP 401")!=-1) // HACK
+              {
+                appContext.getAuthentication().handleSessionTimeout();
+              }
+              else if (200 == response.getStatusCode())
               {
-                if(response.getText().indexOf("HTTP 401")!=-1) // HACK
-                {
-                  appContext.getAuthentication().handleSessionTimeout();
-                }
-                else if (200 == response.getStatusCode())
-                {
-                  handleSuccessfulResponse(controller, object, response);
-                }
-                else
-                {
-                  final String msg = response.getText().equals("") ? "Unknown error" : response.getText();
-                  handleError(
-                      url,
-                      new RequestException("HTTP "+ response.getStatusCode()+ ": " + msg)
-                  );
-                  handlePostError(controller, object);
-                }
+                if(isGet) etags.put(url, response);
+                handleCacheableResponse(controller, object, response);
               }
-              finally
+              else if (304 == response.getStatusCode() && etags.getCachedResponse(url)!=null)
               {
-                //controller.handleEvent( LoadingStatusAction.OFF );
-                if(getDataDriven(controller)!=null)
-                {
-                  getDataDriven(controller).setLoading(false);
-                }
+                handleCacheableResponse(controller, object, etags.getCachedResponse(url));
+              }
+              else
+              {
+                final String msg = response.getText().equals("") ? "Unknown error" : response.getText();
+                handleError(
+                    url,
+                    new RequestException("HTTP "+ response.getStatusCode()+ ": " + msg)
+                );
+                handlePostError(controller, object);
               }
             }
+            finally
+            {
+              //controller.handleEvent( LoadingStatusAction.OFF );
+              if(!isRevalidation) stopLoading(controller);
+            }
           }
-      );
-
-      // Timer to handle pending request
-      Timer t = new Timer() {
 
-        public void run()
-        {
-          if(request.isPending())
+          private void handleCacheableResponse(Controller controller, Object object, Response response)
           {
-            request.cancel();
-            handleError(
-                url,
-                new IOException("Request timeout")
-            );
-          }
+            if(model!=null)
+              cache.put(model, url, response.getText());
 
+            // a revalidation that didn't change anything doesn't need to render again
+            if(!isRevalidation || !cached.getText().equals(response.getText()))
+              handleSuccessfulResponse(controller, object, response);
+          }
         }
-      };
-      t.schedule(60000);
+    );
+  }
 
-    }
-    catch (RequestException e)
+  private void stopLoading(Controller controller)
+  {
+    if(getDataDriven(controller)!=null)
     {
-      // Couldn't connect to server
-      handleError(url, e);
-      //controller.handleEvent( LoadingStatusAction.OFF );
-
-      if(getDataDriven(controller)!=null)
-      {
-         getDataDriven(controller).setLoading(false);
-      }
+      getDataDriven(controller).setLoading(false);
     }
   }
 
@@ -144,6 +158,17 @@ public abstract class AbstractRESTAction implements ActionInterface
     return null;
   }
 
+  /**
+   * GET actions that load shared reference data return the {@link ModelCache} model they belong to.
+   * Their responses are then served from the cache.
+   *
+   * @return null if the response should not be cached
+   */
+  protected String getCachedModel(Object event)
+  {
+    return null;
+  }
+
   protected void handleError(String url, Throwable t)
   {
     final String out =
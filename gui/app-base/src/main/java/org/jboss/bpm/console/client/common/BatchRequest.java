@@ -0,0 +1,179 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.client.common;
+
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestBuilder;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.RequestException;
+import com.google.gwt.http.client.Response;
+import com.google.gwt.http.client.URL;
+import com.google.gwt.json.client.JSONArray;
+import com.google.gwt.json.client.JSONObject;
+import com.google.gwt.json.client.JSONString;
+import org.jboss.bpm.console.client.ApplicationContext;
+import org.jboss.bpm.console.client.ConsoleConfig;
+import org.jboss.bpm.console.client.model.JSONOverlay;
+import org.jboss.bpm.console.client.util.ConsoleLog;
+import org.jboss.errai.workspaces.client.framework.Registry;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sends several GET requests as a single round trip to the server side batch resource.
+ * <p>
+ * Sub requests are given as the full URL (see {@link org.jboss.bpm.console.client.URLBuilder}).
+ * Sub requests that are added with a {@link ModelCache} model are not handed to the callback,
+ * a successful response primes the model cache instead.
+ */
+public class BatchRequest
+{
+  public interface Callback
+  {
+    /**
+     * @param responses by sub request id. Sub requests that failed carry their HTTP status.
+     */
+    void onResponses(Request request, Map<String, Response> responses);
+
+    /**
+     * The batch as a whole failed, i.e. because the server doesn't support it
+     */
+    void onError(Request request, Throwable t);
+  }
+
+  private final String rsRoot;
+
+  // id -> URL
+  private final Map<String, String> urls = new LinkedHashMap<String, String>();
+
+  // id -> model
+  private final Map<String, String> models = new HashMap<String, String>();
+
+  public BatchRequest(ConsoleConfig config)
+  {
+    this.rsRoot = config.getConsoleServerUrl() + "/rs";
+  }
+
+  public BatchRequest add(String id, String url)
+  {
+    urls.put(id, url);
+    return this;
+  }
+
+  /**
+   * Loads the URL into the model cache
+   */
+  public BatchRequest prime(String model, String url)
+  {
+    String id = model + ":" + url;
+    urls.put(id, url);
+    models.put(id, model);
+    return this;
+  }
+
+  public void send(final Callback callback)
+  {
+    RequestBuilder rb = new RequestBuilder(RequestBuilder.POST, rsRoot + "/batch");
+    rb.setHeader("Content-Type", "application/json");
+
+    ConsoleLog.debug("Batch of " + urls.size() + " requests");
+
+    try
+    {
+      rb.sendRequest(createPayload(),
+          new RequestCallback()
+          {
+            public void onResponseReceived(Request request, Response response)
+            {
+              if(response.getStatusCode()!=200 || response.getText().indexOf("HTTP 401")!=-1)
+              {
+                onError(request, new RequestException("HTTP " + response.getStatusCode() + ": " + response.getText()));
+                return;
+              }
+
+              callback.onResponses(request, unpack(response.getText()));
+            }
+
+            public void onError(Request request, Throwable t)
+            {
+              callback.onError(request, t);
+            }
+          });
+    }
+    catch (RequestException e)
+    {
+      callback.onError(null, e);
+    }
+  }
+
+  private String createPayload()
+  {
+    JSONArray items = new JSONArray();
+    int i = 0;
+    for(Map.Entry<String, String> entry : urls.entrySet())
+    {
+      String url = entry.getValue();
+      String path = url.startsWith(rsRoot) ? url.substring(rsRoot.length()) : url;
+
+      JSONObject item = new JSONObject();
+      item.put("id", new JSONString(entry.getKey()));
+      item.put("path", new JSONString(URL.encode(path)));
+      items.set(i++, item);
+    }
+
+    JSONObject batch = new JSONObject();
+    batch.put("items", items);
+    return batch.toString();
+  }
+
+  private Map<String, Response> unpack(String json)
+  {
+    ModelCache cache = Registry.get(ApplicationContext.class).getModelCache();
+    Map<String, Response> responses = new HashMap<String, Response>();
+
+    JsArray<JSONOverlay> items = JSONOverlay.<JSONOverlay>parse(json).getArray("items");
+    for(int i=0; items!=null && i<items.length(); i++)
+    {
+      JSONOverlay item = items.get(i);
+      String id = item.getString("id");
+      int status = item.getInt("status", 500);
+      String body = item.getString("body", "");
+
+      String model = models.get(id);
+      if(model!=null)
+      {
+        if(200==status)
+          cache.put(model, urls.get(id), body);
+        else
+          ConsoleLog.warn("Failed to prime " + urls.get(id) + ": HTTP " + status);
+      }
+      else
+      {
+        responses.put(id, new CachedResponse(status, null, body));
+      }
+    }
+    return responses;
+  }
+}
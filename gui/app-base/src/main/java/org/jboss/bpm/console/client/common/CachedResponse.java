@@ -0,0 +1,86 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.client.common;
+
+import com.google.gwt.http.client.Header;
+import com.google.gwt.http.client.Response;
+
+/**
+ * A response that has been kept on the client, or unpacked from a batch.
+ */
+class CachedResponse extends Response
+{
+  private final int statusCode;
+  private final String etag;
+  private final String text;
+
+  /**
+   * @param etag may be null
+   */
+  CachedResponse(String etag, String text)
+  {
+    this(200, etag, text);
+  }
+
+  CachedResponse(int statusCode, String etag, String text)
+  {
+    this.statusCode = statusCode;
+    this.etag = etag;
+    this.text = text;
+  }
+
+  @Override
+  public String getHeader(String header)
+  {
+    return "ETag".equalsIgnoreCase(header) ? etag : null;
+  }
+
+  @Override
+  public Header[] getHeaders()
+  {
+    return new Header[0];
+  }
+
+  @Override
+  public String getHeadersAsString()
+  {
+    return etag!=null ? "ETag: " + etag : "";
+  }
+
+  @Override
+  public int getStatusCode()
+  {
+    return statusCode;
+  }
+
+  @Override
+  public String getStatusText()
+  {
+    return 200==statusCode ? "OK" : String.valueOf(statusCode);
+  }
+
+  @Override
+  public String getText()
+  {
+    return text!=null ? text : "";
+  }
+}
@@ -0,0 +1,244 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.client.common;
+
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestBuilder;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.RequestException;
+import com.google.gwt.http.client.Response;
+import com.google.gwt.json.client.JSONArray;
+import com.google.gwt.json.client.JSONParser;
+import com.google.gwt.json.client.JSONValue;
+import com.google.gwt.user.client.Timer;
+import com.mvc4g.client.Controller;
+import com.mvc4g.client.Event;
+import org.jboss.bpm.console.client.URLBuilder;
+import org.jboss.bpm.console.client.util.ConsoleLog;
+import org.jboss.bpm.console.client.util.JSONWalk;
+import org.jboss.errai.workspaces.client.framework.Registry;
+
+/**
+ * Long polls the server for change notifications and fires
+ * the subscribed controller events when something relevant has changed.
+ * Replaces timer based reloads of the task and instance lists.<p/>
+ *
+ * There is a single subscription per topic:
+ * the task list of the current user and the instances of the selected definition.
+ * Tasks that a process creates as it moves on are not attributed to their participants
+ * on the server, so the task list is also reloaded if it hasn't changed for {@link #TASK_RESYNC}.
+ */
+public class ChangeSubscriber
+{
+  private static final String TASK = "task";
+  private static final String INSTANCE = "instance";
+
+  // delay before the next poll, lets a burst of changes coalesce
+  private static final int POLL_DELAY = 500;
+
+  // delay after failures, or when the server didn't hold the request
+  private static final int BACKOFF_DELAY = 10000;
+
+  private static final int REQUEST_TIMEOUT = 60000;
+
+  private static final int TASK_RESYNC = 5 * 60 * 1000;
+
+  private static ChangeSubscriber instance;
+
+  private Controller controller;
+
+  private String idRef;
+  private Event taskEvent;
+  private long tasksLoaded = System.currentTimeMillis();
+
+  private String definitionId;
+  private Event instanceEvent;
+
+  private long sequence = -1;
+  private Request pending;
+
+  private Timer timer = new Timer()
+  {
+    @Override
+    public void run()
+    {
+      poll();
+    }
+  };
+
+  private ChangeSubscriber()
+  {
+    this.controller = Registry.get(Controller.class);
+  }
+
+  public static ChangeSubscriber getInstance()
+  {
+    if(null==instance)
+      instance = new ChangeSubscriber();
+    return instance;
+  }
+
+  /**
+   * Fire <code>event</code> whenever the task lists of <code>idRef</code> change.
+   */
+  public void subscribeTasks(String idRef, Event event)
+  {
+    this.idRef = idRef;
+    this.taskEvent = event;
+    this.tasksLoaded = System.currentTimeMillis();
+    restart();
+  }
+
+  /**
+   * Fire <code>event</code> whenever instances of <code>definitionId</code> change.
+   * Replaces any previous instance subscription.
+   */
+  public void subscribeInstances(String definitionId, Event event)
+  {
+    if(definitionId!=null && definitionId.equals(this.definitionId))
+    {
+      this.instanceEvent = event;
+      return;
+    }
+
+    this.definitionId = definitionId;
+    this.instanceEvent = event;
+    restart();
+  }
+
+  public void unsubscribeInstances()
+  {
+    this.definitionId = null;
+    this.instanceEvent = null;
+  }
+
+  /**
+   * The server only holds requests for the current subscription,
+   * a new one needs a new request.
+   */
+  private void restart()
+  {
+    if(pending!=null && pending.isPending())
+      pending.cancel();
+    pending = null;
+
+    timer.cancel();
+    poll();
+  }
+
+  private void poll()
+  {
+    if(null==idRef && null==definitionId)
+      return;
+
+    final String url = URLBuilder.getInstance().getNotificationsUrl(sequence, idRef, definitionId);
+    final long started = System.currentTimeMillis();
+
+    RequestBuilder builder = new RequestBuilder(RequestBuilder.GET, url);
+    builder.setTimeoutMillis(REQUEST_TIMEOUT);
+
+    try
+    {
+      pending = builder.sendRequest(null,
+          new RequestCallback()
+          {
+            public void onResponseReceived(Request request, Response response)
+            {
+              if(request!=pending)
+                return; // superseded
+
+              pending = null;
+              if(200 == response.getStatusCode())
+              {
+                boolean handshake = sequence < 0;
+                boolean changed = handleChanges(response.getText());
+                boolean held = System.currentTimeMillis() - started > 1000;
+                timer.schedule(handshake || changed || held ? POLL_DELAY : BACKOFF_DELAY);
+              }
+              else
+              {
+                ConsoleLog.warn("Change notifications failed: HTTP " + response.getStatusCode());
+                timer.schedule(BACKOFF_DELAY);
+              }
+            }
+
+            public void onError(Request request, Throwable exception)
+            {
+              if(request!=pending)
+                return;
+
+              pending = null;
+              ConsoleLog.warn("Change notifications failed: " + exception.getMessage());
+              timer.schedule(BACKOFF_DELAY);
+            }
+          }
+      );
+    }
+    catch (RequestException e)
+    {
+      ConsoleLog.warn("Change notifications failed: " + e.getMessage());
+      timer.schedule(BACKOFF_DELAY);
+    }
+  }
+
+  /**
+   * @return true if any of the subscribed lists did change
+   */
+  private boolean handleChanges(String text)
+  {
+    JSONValue json = JSONParser.parse(text);
+
+    boolean handshake = sequence < 0;
+    sequence = JSONWalk.on(json).next("sequence").asLong();
+    if(handshake)
+      return false;
+
+    boolean reset = JSONWalk.on(json).next("reset").asBool();
+    boolean tasks = reset;
+    boolean instances = reset;
+
+    JSONArray changes = JSONWalk.on(json).next("changes").asArray();
+    for(int i=0; i<changes.size(); i++)
+    {
+      String topic = JSONWalk.on(changes.get(i)).next("topic").asString();
+      if(TASK.equals(topic))
+        tasks = true;
+      else if(INSTANCE.equals(topic))
+        instances = true;
+    }
+
+    long now = System.currentTimeMillis();
+    if(now - tasksLoaded > TASK_RESYNC)
+      tasks = true;
+
+    // the server only returns changes for the current subscription
+    if(tasks && taskEvent!=null)
+    {
+      tasksLoaded = now;
+      controller.handleEvent(taskEvent);
+    }
+    if(instances && instanceEvent!=null)
+      controller.handleEvent(instanceEvent);
+
+    return tasks || instances;
+  }
+}
@@ -0,0 +1,264 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.client.common;
+
+import org.jboss.bpm.console.client.model.ProcessDefinitionRef;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Client side index of the process definitions.<br>
+ * Definitions are grouped by name and searchable by prefix over the tokens of their
+ * name, key, version and id. A token is the whole (lower case) value,
+ * as well as each of its alphanumeric parts, so that "order" finds both
+ * "OrderProcess" and "{urn:shop}order-fulfillment".
+ * Queries with several words match definitions that have a token for each of them.
+ * The index is updated incrementally, only definitions that were added, removed or changed are (re)indexed.
+ */
+public class DefinitionIndex
+{
+  private static final Comparator<ProcessDefinitionRef> BY_NAME_AND_VERSION =
+      new Comparator<ProcessDefinitionRef>()
+      {
+        public int compare(ProcessDefinitionRef a, ProcessDefinitionRef b)
+        {
+          int result = String.valueOf(a.getName()).compareTo(String.valueOf(b.getName()));
+          if(result!=0) return result;
+
+          // most recent version first
+          return a.getVersion()==b.getVersion() ? 0 : (a.getVersion()>b.getVersion() ? -1 : 1);
+        }
+      };
+
+  private final Map<String, ProcessDefinitionRef> byId = new HashMap<String, ProcessDefinitionRef>();
+
+  // definition ids keyed by name
+  private final TreeMap<String, Set<String>> byName = new TreeMap<String, Set<String>>();
+
+  // definition ids keyed by token
+  private final TreeMap<String, Set<String>> tokens = new TreeMap<String, Set<String>>();
+
+  /**
+   * Brings the index in line with a complete definition list.
+   *
+   * @return true if anything changed
+   */
+  public boolean sync(Collection<ProcessDefinitionRef> definitions)
+  {
+    boolean changed = false;
+
+    Set<String> current = new HashSet<String>();
+    for(ProcessDefinitionRef def : definitions)
+    {
+      current.add(def.getId());
+      ProcessDefinitionRef existing = byId.get(def.getId());
+      if(null==existing || !existing.equals(def) || existing.isSuspended()!=def.isSuspended())
+      {
+        add(def);
+        changed = true;
+      }
+      else
+      {
+        // keep the most recent instance, other properties may have changed
+        byId.put(def.getId(), def);
+      }
+    }
+
+    for(String id : new ArrayList<String>(byId.keySet()))
+    {
+      if(!current.contains(id))
+      {
+        remove(id);
+        changed = true;
+      }
+    }
+
+    return changed;
+  }
+
+  public void add(ProcessDefinitionRef def)
+  {
+    remove(def.getId());
+
+    byId.put(def.getId(), def);
+    put(byName, String.valueOf(def.getName()), def.getId());
+    for(String token : tokenize(def))
+      put(tokens, token, def.getId());
+  }
+
+  public void remove(String id)
+  {
+    ProcessDefinitionRef def = byId.remove(id);
+    if(null==def)
+      return;
+
+    take(byName, String.valueOf(def.getName()), id);
+    for(String token : tokenize(def))
+      take(tokens, token, id);
+  }
+
+  public void clear()
+  {
+    byId.clear();
+    byName.clear();
+    tokens.clear();
+  }
+
+  public int size()
+  {
+    return byId.size();
+  }
+
+  public ProcessDefinitionRef get(String id)
+  {
+    return byId.get(id);
+  }
+
+  /**
+   * @return the definition names in alphabetical order
+   */
+  public List<String> getNames()
+  {
+    return new ArrayList<String>(byName.keySet());
+  }
+
+  /**
+   * @return the definitions of that name, most recent version first
+   */
+  public List<ProcessDefinitionRef> getVersions(String name)
+  {
+    Set<String> ids = byName.get(name);
+    return ids!=null ? resolve(ids, Integer.MAX_VALUE) : new ArrayList<ProcessDefinitionRef>();
+  }
+
+  /**
+   * @param query words to be matched by prefix, an empty query matches all definitions
+   * @param limit max number of results
+   * @return matching definitions, ordered by name and most recent version first
+   */
+  public List<ProcessDefinitionRef> search(String query, int limit)
+  {
+    Set<String> matches = null;
+    for(String word : split(query))
+    {
+      Set<String> ids = new HashSet<String>();
+      SortedMap<String, Set<String>> range = tokens.subMap(word, word + '\uffff');
+      for(Set<String> tokenIds : range.values())
+        ids.addAll(tokenIds);
+
+      if(null==matches)
+        matches = ids;
+      else
+        matches.retainAll(ids);
+
+      if(matches.isEmpty())
+        break;
+    }
+
+    return resolve(matches!=null ? matches : byId.keySet(), limit);
+  }
+
+  private List<ProcessDefinitionRef> resolve(Set<String> ids, int limit)
+  {
+    List<ProcessDefinitionRef> result = new ArrayList<ProcessDefinitionRef>(ids.size());
+    for(String id : ids)
+      result.add(byId.get(id));
+    Collections.sort(result, BY_NAME_AND_VERSION);
+    return result.size()>limit ? new ArrayList<ProcessDefinitionRef>(result.subList(0, limit)) : result;
+  }
+
+  private static Set<String> tokenize(ProcessDefinitionRef def)
+  {
+    Set<String> result = new HashSet<String>();
+    String[] values = new String[] {
+        def.getName(), def.getKey(), String.valueOf(def.getVersion()), def.getId()
+    };
+    for(String value : values)
+    {
+      if(null==value || value.length()==0)
+        continue;
+
+      result.add(value.toLowerCase());
+      result.addAll(split(value));
+    }
+    return result;
+  }
+
+  /**
+   * Lower case alphanumeric parts
+   */
+  private static List<String> split(String value)
+  {
+    List<String> result = new ArrayList<String>();
+    if(null==value)
+      return result;
+
+    String lower = value.toLowerCase();
+    int start = -1;
+    for(int i=0; i<=lower.length(); i++)
+    {
+      boolean isPart = i<lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+      if(isPart && start==-1)
+      {
+        start = i;
+      }
+      else if(!isPart && start!=-1)
+      {
+        result.add(lower.substring(start, i));
+        start = -1;
+      }
+    }
+    return result;
+  }
+
+  private static void put(Map<String, Set<String>> map, String key, String id)
+  {
+    Set<String> ids = map.get(key);
+    if(null==ids)
+    {
+      ids = new HashSet<String>();
+      map.put(key, ids);
+    }
+    ids.add(id);
+  }
+
+  private static void take(Map<String, Set<String>> map, String key, String id)
+  {
+    Set<String> ids = map.get(key);
+    if(ids!=null)
+    {
+      ids.remove(id);
+      if(ids.isEmpty())
+        map.remove(key);
+    }
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.client.common;
+
+import com.google.gwt.http.client.Response;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the ETag and payload of the most recent GET responses per URL,
+ * so that a 304 can be handled like the original response.
+ */
+class ETagCache
+{
+  private static final int MAX_ENTRIES = 50;
+
+  // larger payloads are not worth keeping around
+  private static final int MAX_PAYLOAD = 512 * 1024;
+
+  private final Map<String, Entry> entries =
+      new LinkedHashMap<String, Entry>(16, 0.75f, true)
+      {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest)
+        {
+          return size() > MAX_ENTRIES;
+        }
+      };
+
+  /**
+   * @return the ETag to send as <code>If-None-Match</code>, or null
+   */
+  String getETag(String url)
+  {
+    Entry entry = entries.get(url);
+    return entry!=null ? entry.etag : null;
+  }
+
+  void put(String url, Response response)
+  {
+    String etag = response.getHeader("ETag");
+    String text = response.getText();
+    if(etag!=null && text!=null && text.length() <= MAX_PAYLOAD)
+      entries.put(url, new Entry(etag, text));
+    else
+      entries.remove(url);
+  }
+
+  /**
+   * @return the cached response for a 304, or null if it has been evicted
+   */
+  Response getCachedResponse(String url)
+  {
+    Entry entry = entries.get(url);
+    return entry!=null ? new CachedResponse(entry.etag, entry.text) : null;
+  }
+
+  private static class Entry
+  {
+    final String etag;
+    final String text;
+
+    Entry(String etag, String text)
+    {
+      this.etag = etag;
+      this.text = text;
+    }
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.client.common;
+
+import com.google.gwt.http.client.Response;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Client side cache for reference data that is shared across modules,
+ * i.e. the process definitions, deployments and the server status.
+ * <p>
+ * Payloads are kept per URL and grouped by model. Each model has a time to live.
+ * Expired entries are still handed out, but the caller is expected to revalidate them
+ * (stale-while-revalidate). Actions that change a model invalidate it explicitly,
+ * which removes its entries.
+ * <p>
+ * REST actions opt in through {@link AbstractRESTAction#getCachedModel(Object)}.
+ */
+public class ModelCache
+{
+  public final static String DEFINITIONS = "definitions";
+  public final static String HISTORY_DEFINITIONS = "history.definitions";
+  public final static String DEPLOYMENTS = "deployments";
+  public final static String SERVER_STATUS = "server.status";
+
+  private static final int DEFAULT_TTL = 30 * 1000;
+
+  private final Map<String, Integer> timeToLive = new HashMap<String, Integer>();
+
+  private final Map<String, Entry> entries = new HashMap<String, Entry>();
+
+  public ModelCache()
+  {
+    timeToLive.put(SERVER_STATUS, 5 * 60 * 1000);
+  }
+
+  public void setTimeToLive(String model, int millis)
+  {
+    timeToLive.put(model, millis);
+  }
+
+  public int getTimeToLive(String model)
+  {
+    Integer ttl = timeToLive.get(model);
+    return ttl!=null ? ttl : DEFAULT_TTL;
+  }
+
+  /**
+   * @return the cached response, fresh or stale. Null if there is none.
+   */
+  public Response get(String url)
+  {
+    Entry entry = entries.get(url);
+    return entry!=null ? new CachedResponse(null, entry.text) : null;
+  }
+
+  /**
+   * @return true if there is no entry or it has outlived its TTL
+   */
+  public boolean isStale(String url)
+  {
+    Entry entry = entries.get(url);
+    return null==entry
+        || System.currentTimeMillis() - entry.timestamp > getTimeToLive(entry.model);
+  }
+
+  public void put(String model, String url, String text)
+  {
+    entries.put(url, new Entry(model, text, System.currentTimeMillis()));
+  }
+
+  /**
+   * Drop all entries of a model, i.e. after it has been changed
+   */
+  public void invalidate(String model)
+  {
+    List<String> urls = new ArrayList<String>();
+    for(Map.Entry<String, Entry> e : entries.entrySet())
+    {
+      if(e.getValue().model.equals(model))
+        urls.add(e.getKey());
+    }
+
+    for(String url : urls)
+      entries.remove(url);
+  }
+
+  public void clear()
+  {
+    entries.clear();
+  }
+
+  private static class Entry
+  {
+    final String model;
+    final String text;
+    final long timestamp;
+
+    Entry(String model, String text, long timestamp)
+    {
+      this.model = model;
+      this.text = text;
+      this.timestamp = timestamp;
+    }
+  }
+}
@@ -0,0 +1,238 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.client.common;
+
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestBuilder;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.RequestException;
+import com.google.gwt.http.client.Response;
+import com.google.gwt.user.client.Timer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coordinates the requests issued by the REST actions:
+ * <ul>
+ * <li>GET requests are held back for {@link #DEBOUNCE_MILLIS}, so that a burst of
+ * identical requests results in a single one</li>
+ * <li>an identical GET that is already pending is joined, all callers receive the same response</li>
+ * <li>a GET supersedes the pending GET of the same source (action) for a different URL.
+ * The superseded one is cancelled if nobody else is waiting for it</li>
+ * <li>a timeout {@link Timer} exists only while a request is pending</li>
+ * </ul>
+ * Other methods are sent right away and never shared.
+ */
+class RequestCoordinator
+{
+  static final int DEBOUNCE_MILLIS = 50;
+
+  static final int TIMEOUT_MILLIS = 60000;
+
+  interface Callback
+  {
+    void onResponseReceived(Response response);
+
+    void onError(Throwable exception);
+
+    /**
+     * The request has been superseded, no response will follow
+     */
+    void onCancel();
+  }
+
+  // pending GET requests, keyed by URL
+  private final Map<String, Pending> pendingGets = new HashMap<String, Pending>();
+
+  // the most recent GET per source
+  private final Map<String, Pending> latestBySource = new HashMap<String, Pending>();
+
+  /**
+   * @param source identifies the issuer, usually the action id
+   * @param builder with all headers set. The builder of a joined request is discarded.
+   */
+  void send(String source, String url, RequestBuilder builder, Callback callback)
+  {
+    if(!RequestBuilder.GET.toString().equals(builder.getHTTPMethod()))
+    {
+      Pending pending = new Pending(null, builder);
+      pending.subscribers.add(new Subscriber(source, callback));
+      pending.dispatch();
+      return;
+    }
+
+    Pending previous = latestBySource.get(source);
+    if(previous!=null && !previous.url.equals(url))
+      previous.unsubscribe(source);
+
+    Pending pending = pendingGets.get(url);
+    if(null==pending)
+    {
+      pending = new Pending(url, builder);
+      pendingGets.put(url, pending);
+      pending.schedule();
+    }
+
+    pending.subscribers.add(new Subscriber(source, callback));
+    latestBySource.put(source, pending);
+  }
+
+  private static class Subscriber
+  {
+    final String source;
+    final Callback callback;
+
+    Subscriber(String source, Callback callback)
+    {
+      this.source = source;
+      this.callback = callback;
+    }
+  }
+
+  private class Pending implements RequestCallback
+  {
+    final String url;
+    final RequestBuilder builder;
+    final List<Subscriber> subscribers = new ArrayList<Subscriber>();
+
+    Timer sendTimer;
+    Timer timeoutTimer;
+    Request request;
+
+    /**
+     * @param url null for requests that can't be shared
+     */
+    Pending(String url, RequestBuilder builder)
+    {
+      this.url = url;
+      this.builder = builder;
+    }
+
+    void schedule()
+    {
+      sendTimer = new Timer()
+      {
+        public void run()
+        {
+          sendTimer = null;
+          dispatch();
+        }
+      };
+      sendTimer.schedule(DEBOUNCE_MILLIS);
+    }
+
+    void dispatch()
+    {
+      try
+      {
+        request = builder.sendRequest(null, this);
+      }
+      catch (RequestException e)
+      {
+        onError(null, e);
+        return;
+      }
+
+      timeoutTimer = new Timer()
+      {
+        public void run()
+        {
+          timeoutTimer = null;
+          if(request.isPending())
+          {
+            request.cancel();
+            onError(request, new IOException("Request timeout"));
+          }
+        }
+      };
+      timeoutTimer.schedule(TIMEOUT_MILLIS);
+    }
+
+    void unsubscribe(String source)
+    {
+      List<Subscriber> removed = new ArrayList<Subscriber>();
+      for(Subscriber s : subscribers)
+      {
+        if(s.source.equals(source))
+          removed.add(s);
+      }
+      subscribers.removeAll(removed);
+
+      if(subscribers.isEmpty())
+      {
+        if(request!=null)
+          request.cancel();
+        finish();
+      }
+
+      for(Subscriber s : removed)
+        s.callback.onCancel();
+    }
+
+    public void onResponseReceived(Request request, Response response)
+    {
+      for(Subscriber s : finish())
+        s.callback.onResponseReceived(response);
+    }
+
+    public void onError(Request request, Throwable exception)
+    {
+      for(Subscriber s : finish())
+        s.callback.onError(exception);
+    }
+
+    /**
+     * Releases the timers and map entries
+     * @return the subscribers to be notified
+     */
+    private List<Subscriber> finish()
+    {
+      if(sendTimer!=null)
+      {
+        sendTimer.cancel();
+        sendTimer = null;
+      }
+
+      if(timeoutTimer!=null)
+      {
+        timeoutTimer.cancel();
+        timeoutTimer = null;
+      }
+
+      if(url!=null && pendingGets.get(url)==this)
+        pendingGets.remove(url);
+
+      List<Subscriber> result = new ArrayList<Subscriber>(subscribers);
+      for(Subscriber s : result)
+      {
+        if(latestBySource.get(s.source)==this)
+          latestBySource.remove(s.source);
+      }
+      subscribers.clear();
+      return result;
+    }
+  }
+}
@@ -0,0 +1,388 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.client.common;
+
+import com.google.gwt.event.dom.client.ClickEvent;
+import com.google.gwt.event.dom.client.ClickHandler;
+import com.google.gwt.event.dom.client.DoubleClickEvent;
+import com.google.gwt.event.dom.client.DoubleClickHandler;
+import com.google.gwt.event.dom.client.ScrollEvent;
+import com.google.gwt.event.dom.client.ScrollHandler;
+import com.google.gwt.event.logical.shared.HasSelectionHandlers;
+import com.google.gwt.event.logical.shared.ResizeEvent;
+import com.google.gwt.event.logical.shared.ResizeHandler;
+import com.google.gwt.event.logical.shared.SelectionEvent;
+import com.google.gwt.event.logical.shared.SelectionHandler;
+import com.google.gwt.event.shared.HandlerRegistration;
+import com.google.gwt.user.client.DOM;
+import com.google.gwt.user.client.Window;
+import com.google.gwt.user.client.ui.Composite;
+import com.google.gwt.user.client.ui.FlowPanel;
+import com.google.gwt.user.client.ui.Grid;
+import com.google.gwt.user.client.ui.HTMLTable;
+import com.google.gwt.user.client.ui.ScrollPanel;
+import com.google.gwt.user.client.ui.Widget;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Multi column list that only renders the rows within the visible part of the viewport.
+ * The row widgets are recycled when scrolling, so that the DOM size doesn't depend
+ * on the number of items. Rows have a fixed height of {@link #ROW_HEIGHT} pixels.
+ * <p>
+ * The API follows the mosaic <code>ListBox</code>: the {@link CellRenderer}
+ * is invoked with the item index and calls {@link #setText(int, int, String)}
+ * or {@link #setWidget(int, int, Widget)}.
+ */
+public class VirtualListBox<T> extends Composite implements HasSelectionHandlers<T>
+{
+  public static final int ROW_HEIGHT = 22;
+
+  /**
+   * Used while the viewport hasn't been laid out
+   */
+  private static final int DEFAULT_VISIBLE_ROWS = 30;
+
+  public interface CellRenderer<T>
+  {
+    void renderCell(VirtualListBox<T> listBox, int row, int column, T item);
+  }
+
+  /**
+   * Identifies an item across {@link VirtualListBox#setItems(List)} calls,
+   * when the refreshed items are new instances without <code>equals()</code>
+   */
+  public interface KeyProvider<T>
+  {
+    Object getKey(T item);
+  }
+
+  private final int columnCount;
+
+  private final ScrollPanel viewport;
+  private final FlowPanel canvas;
+  private final Grid rows;
+
+  private CellRenderer<T> cellRenderer;
+  private KeyProvider<T> keyProvider;
+
+  private List<T> items = Collections.emptyList();
+  private int selectedIndex = -1;
+
+  /**
+   * Item index of the first row
+   */
+  private int firstVisible = 0;
+
+  private HandlerRegistration resizeRegistration;
+
+  public VirtualListBox(String[] columns)
+  {
+    this.columnCount = columns.length;
+
+    FlowPanel root = new FlowPanel();
+    root.setStyleName("bpm-virtual-list");
+    DOM.setStyleAttribute(root.getElement(), "position", "relative");
+    DOM.setStyleAttribute(root.getElement(), "overflow", "hidden");
+
+    Grid header = createTable(1);
+    header.setStyleName("bpm-virtual-list-header");
+    for(int i=0; i<columns.length; i++)
+      header.setHTML(0, i, columns[i]);
+    root.add(header);
+
+    canvas = new FlowPanel();
+    DOM.setStyleAttribute(canvas.getElement(), "position", "relative");
+    DOM.setStyleAttribute(canvas.getElement(), "overflow", "hidden");
+
+    rows = createTable(0);
+    DOM.setStyleAttribute(rows.getElement(), "position", "absolute");
+    DOM.setStyleAttribute(rows.getElement(), "left", "0px");
+    canvas.add(rows);
+
+    viewport = new ScrollPanel(canvas);
+    DOM.setStyleAttribute(viewport.getElement(), "position", "absolute");
+    DOM.setStyleAttribute(viewport.getElement(), "top", ROW_HEIGHT + "px");
+    DOM.setStyleAttribute(viewport.getElement(), "bottom", "0px");
+    DOM.setStyleAttribute(viewport.getElement(), "left", "0px");
+    DOM.setStyleAttribute(viewport.getElement(), "right", "0px");
+    root.add(viewport);
+
+    viewport.addScrollHandler(
+        new ScrollHandler()
+        {
+          public void onScroll(ScrollEvent event)
+          {
+            int first = viewport.getScrollPosition() / ROW_HEIGHT;
+            if(first!=firstVisible || rows.getRowCount()<getVisibleRowCount())
+              render();
+          }
+        }
+    );
+
+    rows.addClickHandler(
+        new ClickHandler()
+        {
+          public void onClick(ClickEvent event)
+          {
+            HTMLTable.Cell cell = rows.getCellForEvent(event);
+            if(cell!=null)
+            {
+              int index = firstVisible + cell.getRowIndex();
+              if(index<items.size())
+              {
+                setSelectedIndex(index);
+                SelectionEvent.fire(VirtualListBox.this, items.get(index));
+              }
+            }
+          }
+        }
+    );
+
+    initWidget(root);
+  }
+
+  private Grid createTable(int rowCount)
+  {
+    Grid table = new Grid(rowCount, columnCount);
+    table.setCellSpacing(0);
+    table.setCellPadding(0);
+    table.setWidth("100%");
+    DOM.setStyleAttribute(table.getElement(), "tableLayout", "fixed");
+    return table;
+  }
+
+  public void setCellRenderer(CellRenderer<T> cellRenderer)
+  {
+    this.cellRenderer = cellRenderer;
+  }
+
+  public void setKeyProvider(KeyProvider<T> keyProvider)
+  {
+    this.keyProvider = keyProvider;
+  }
+
+  public HandlerRegistration addSelectionHandler(SelectionHandler<T> handler)
+  {
+    return addHandler(handler, SelectionEvent.getType());
+  }
+
+  /**
+   * Double clicks follow the selection of the clicked row
+   */
+  public HandlerRegistration addDoubleClickHandler(DoubleClickHandler handler)
+  {
+    return rows.addDomHandler(handler, DoubleClickEvent.getType());
+  }
+
+  /**
+   * Replaces the items. The scroll offset is kept and the selected item
+   * is selected again if it's still contained, matched through the
+   * {@link KeyProvider} or <code>equals()</code>.
+   * The list keeps a reference, it's not copied.
+   */
+  public void setItems(List<T> items)
+  {
+    Object selectedKey = selectedIndex!=-1 && selectedIndex<this.items.size() ? keyOf(this.items.get(selectedIndex)) : null;
+
+    this.items = items!=null ? items : Collections.<T>emptyList();
+    this.selectedIndex = -1;
+
+    if(selectedKey!=null)
+    {
+      for(int i=0; i<this.items.size(); i++)
+      {
+        if(selectedKey.equals(keyOf(this.items.get(i))))
+        {
+          selectedIndex = i;
+          break;
+        }
+      }
+    }
+
+    render();
+  }
+
+  private Object keyOf(T item)
+  {
+    return keyProvider!=null && item!=null ? keyProvider.getKey(item) : item;
+  }
+
+  public void clear()
+  {
+    setItems(new ArrayList<T>());
+  }
+
+  public int getItemCount()
+  {
+    return items.size();
+  }
+
+  public T getItem(int index)
+  {
+    return items.get(index);
+  }
+
+  public int getSelectedIndex()
+  {
+    return selectedIndex;
+  }
+
+  /**
+   * Selects and scrolls to an item. Doesn't fire a selection event.
+   *
+   * @param index -1 to clear the selection
+   */
+  public void setSelectedIndex(int index)
+  {
+    this.selectedIndex = index>=0 && index<items.size() ? index : -1;
+
+    if(selectedIndex!=-1)
+    {
+      int top = selectedIndex * ROW_HEIGHT;
+      int height = viewport.getOffsetHeight();
+      int scroll = viewport.getScrollPosition();
+      if(top<scroll)
+        viewport.setScrollPosition(top);
+      else if(height>0 && top + ROW_HEIGHT > scroll + height)
+        viewport.setScrollPosition(top + ROW_HEIGHT - height);
+    }
+
+    render();
+  }
+
+  public void setItemSelected(int index, boolean selected)
+  {
+    if(selected)
+      setSelectedIndex(index);
+    else if(index==selectedIndex)
+      setSelectedIndex(-1);
+  }
+
+  /**
+   * Only valid for rows that are currently rendered, invoked by the {@link CellRenderer}
+   *
+   * @param row item index
+   */
+  public void setText(int row, int column, String text)
+  {
+    int slot = row - firstVisible;
+    if(slot>=0 && slot<rows.getRowCount())
+      rows.setText(slot, column, text);
+  }
+
+  /**
+   * Only valid for rows that are currently rendered, invoked by the {@link CellRenderer}
+   *
+   * @param row item index
+   */
+  public void setWidget(int row, int column, Widget widget)
+  {
+    int slot = row - firstVisible;
+    if(slot>=0 && slot<rows.getRowCount())
+      rows.setWidget(slot, column, widget);
+  }
+
+  /**
+   * Renders the rows again, i.e. after items have been changed in place
+   */
+  public void refresh()
+  {
+    render();
+  }
+
+  @Override
+  protected void onLoad()
+  {
+    resizeRegistration = Window.addResizeHandler(
+        new ResizeHandler()
+        {
+          public void onResize(ResizeEvent event)
+          {
+            render();
+          }
+        }
+    );
+    render();
+  }
+
+  @Override
+  protected void onUnload()
+  {
+    if(resizeRegistration!=null)
+    {
+      resizeRegistration.removeHandler();
+      resizeRegistration = null;
+    }
+  }
+
+  private int getVisibleRowCount()
+  {
+    int height = viewport.getOffsetHeight();
+    return height>0 ? height / ROW_HEIGHT + 2 : DEFAULT_VISIBLE_ROWS;
+  }
+
+  private void render()
+  {
+    canvas.setHeight(Math.max(items.size() * ROW_HEIGHT, 1) + "px");
+
+    int visible = getVisibleRowCount();
+    if(rows.getRowCount()<visible)
+    {
+      int before = rows.getRowCount();
+      rows.resizeRows(visible);
+      for(int i=before; i<visible; i++)
+        rows.getRowFormatter().setStyleName(i, "bpm-virtual-list-row");
+    }
+
+    int first = Math.min(
+        viewport.getScrollPosition() / ROW_HEIGHT,
+        Math.max(items.size() - visible + 1, 0)
+    );
+    firstVisible = first;
+    DOM.setStyleAttribute(rows.getElement(), "top", (first * ROW_HEIGHT) + "px");
+
+    HTMLTable.RowFormatter formatter = rows.getRowFormatter();
+    for(int slot=0; slot<rows.getRowCount(); slot++)
+    {
+      int index = first + slot;
+      boolean inRange = index<items.size();
+      formatter.setVisible(slot, inRange);
+      if(!inRange)
+        continue;
+
+      formatter.setStyleName(
+          slot,
+          index==selectedIndex ? "bpm-virtual-list-row bpm-virtual-list-row-selected" : "bpm-virtual-list-row"
+      );
+
+      if(cellRenderer!=null)
+      {
+        T item = items.get(index);
+        for(int column=0; column<columnCount; column++)
+          cellRenderer.renderCell(this, index, column, item);
+      }
+    }
+  }
+}
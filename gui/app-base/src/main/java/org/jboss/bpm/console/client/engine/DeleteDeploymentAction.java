@@ -27,6 +27,7 @@ import com.mvc4g.client.Controller;
 import com.mvc4g.client.Event;
 import org.jboss.bpm.console.client.URLBuilder;
 import org.jboss.bpm.console.client.common.AbstractRESTAction;
+import org.jboss.bpm.console.client.common.ModelCache;
 
 /**
  * @author Heiko.Braun <heiko.braun@jboss.com>
@@ -54,6 +55,11 @@ public class DeleteDeploymentAction extends AbstractRESTAction
 
   public void handleSuccessfulResponse(final Controller controller, final Object event, Response response)
   {
+    // deployments carry the process definitions
+    appContext.getModelCache().invalidate(ModelCache.DEPLOYMENTS);
+    appContext.getModelCache().invalidate(ModelCache.DEFINITIONS);
+    appContext.getModelCache().invalidate(ModelCache.HISTORY_DEFINITIONS);
+
     // refresh view
     controller.handleEvent(
         new Event(UpdateDeploymentsAction.ID, null)
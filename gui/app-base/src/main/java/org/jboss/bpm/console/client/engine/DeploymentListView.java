@@ -23,6 +23,8 @@ package org.jboss.bpm.console.client.engine;
 
 import com.google.gwt.event.dom.client.ClickEvent;
 import com.google.gwt.event.dom.client.ClickHandler;
+import com.google.gwt.event.logical.shared.SelectionEvent;
+import com.google.gwt.event.logical.shared.SelectionHandler;
 import com.google.gwt.user.client.Timer;
 import com.google.gwt.user.client.ui.Button;
 import com.google.gwt.user.client.ui.ChangeListener;
@@ -31,23 +33,22 @@ import com.google.gwt.user.client.ui.Widget;
 import com.mvc4g.client.Controller;
 import com.mvc4g.client.Event;
 import com.mvc4g.client.ViewInterface;
-import org.gwt.mosaic.ui.client.ListBox;
 import org.gwt.mosaic.ui.client.MessageBox;
 import org.gwt.mosaic.ui.client.ToolBar;
-import org.gwt.mosaic.ui.client.event.RowSelectionEvent;
-import org.gwt.mosaic.ui.client.event.RowSelectionHandler;
 import org.gwt.mosaic.ui.client.layout.*;
-import org.gwt.mosaic.ui.client.list.DefaultListModel;
 import org.jboss.bpm.console.client.ApplicationContext;
 import org.jboss.bpm.console.client.ConsoleConfig;
 import org.jboss.bpm.console.client.common.DataDriven;
 import org.jboss.bpm.console.client.common.LoadingOverlay;
+import org.jboss.bpm.console.client.common.ModelCache;
+import org.jboss.bpm.console.client.common.VirtualListBox;
 import org.jboss.bpm.console.client.model.DeploymentRef;
 import org.jboss.bpm.console.client.util.SimpleDateFormat;
 import org.jboss.errai.workspaces.client.api.ProvisioningCallback;
 import org.jboss.errai.workspaces.client.api.WidgetProvider;
 import org.jboss.errai.workspaces.client.framework.Registry;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -64,7 +65,7 @@ public class DeploymentListView implements ViewInterface, WidgetProvider, DataDr
 
   private MosaicPanel deploymentList = null;
 
-  private ListBox<DeploymentRef> listBox;
+  private VirtualListBox<DeploymentRef> listBox;
 
   private DeploymentRef selection = null;
 
@@ -105,6 +106,7 @@ public class DeploymentListView implements ViewInterface, WidgetProvider, DataDr
     // create and register actions
     controller.addAction(UpdateDeploymentsAction.ID, new UpdateDeploymentsAction());
     controller.addAction(UpdateDeploymentDetailAction.ID, new UpdateDeploymentDetailAction());
+    controller.addAction(LoadDeploymentDetailAction.ID, new LoadDeploymentDetailAction());
     controller.addAction(DeleteDeploymentAction.ID, new DeleteDeploymentAction());
     controller.addAction(SuspendDeploymentAction.ID, new SuspendDeploymentAction());
     controller.addAction(ResumeDeploymentAction.ID, new ResumeDeploymentAction());    
@@ -117,17 +119,17 @@ public class DeploymentListView implements ViewInterface, WidgetProvider, DataDr
     
   }
 
-  private ListBox createListBox()
+  private VirtualListBox<DeploymentRef> createListBox()
   {
-    final ListBox<DeploymentRef> listBox =
-        new ListBox<DeploymentRef>(
+    final VirtualListBox<DeploymentRef> listBox =
+        new VirtualListBox<DeploymentRef>(
             new String[] {
                 "Deployment", "Status"}
         );
 
 
-    listBox.setCellRenderer(new ListBox.CellRenderer<DeploymentRef>() {
-      public void renderCell(ListBox<DeploymentRef> listBox, int row, int column,
+    listBox.setCellRenderer(new VirtualListBox.CellRenderer<DeploymentRef>() {
+      public void renderCell(VirtualListBox<DeploymentRef> listBox, int row, int column,
                              DeploymentRef item) {
 
         String color= item.isSuspended() ? "#CCCCCC" : "#000000";
@@ -148,18 +150,19 @@ public class DeploymentListView implements ViewInterface, WidgetProvider, DataDr
       }
     });
 
-    listBox.addRowSelectionHandler(
-        new RowSelectionHandler()
+    listBox.addSelectionHandler(
+        new SelectionHandler<DeploymentRef>()
         {
-          public void onRowSelection(RowSelectionEvent rowSelectionEvent)
+          public void onSelection(SelectionEvent<DeploymentRef> event)
           {
             int index = listBox.getSelectedIndex();
             if(index!=-1)
             {
               DeploymentRef item = listBox.getItem(index);
 
+              // the list only holds summaries
               controller.handleEvent(
-                  new Event(UpdateDeploymentDetailAction.ID, item)
+                  new Event(LoadDeploymentDetailAction.ID, item.getId())
               );
             }
           }
@@ -200,7 +203,9 @@ public class DeploymentListView implements ViewInterface, WidgetProvider, DataDr
             public void onClick(ClickEvent clickEvent)
             {
               reset();
-              
+              Registry.get(ApplicationContext.class).getModelCache()
+                  .invalidate(ModelCache.DEPLOYMENTS);
+
               // force loading
               controller.handleEvent(
                   new Event(UpdateDeploymentsAction.ID, null)
@@ -317,10 +322,7 @@ public class DeploymentListView implements ViewInterface, WidgetProvider, DataDr
 
   public void reset()
   {
-    final DefaultListModel<DeploymentRef> model =
-        (DefaultListModel<DeploymentRef>) listBox.getModel();
-
-    model.clear();
+    listBox.clear();
 
     // clear details
     controller.handleEvent(
@@ -346,22 +348,21 @@ public class DeploymentListView implements ViewInterface, WidgetProvider, DataDr
     {
       reset();
 
-      final DefaultListModel<DeploymentRef> model =
-          (DefaultListModel<DeploymentRef>) listBox.getModel();
-
+      List<DeploymentRef> filtered = new ArrayList<DeploymentRef>(deployments.size());
       for(DeploymentRef dpl : deployments)
       {
         if(FILTER_NONE==currentFilter)
         {
-          model.add(dpl);
+          filtered.add(dpl);
         }
         else
         {
           boolean showSuspended = (FILTER_SUSPENDED==currentFilter);
           if(dpl.isSuspended()==showSuspended)
-            model.add(dpl);
+            filtered.add(dpl);
         }
       }
+      listBox.setItems(filtered);
 
       if(listBox.getSelectedIndex()!=-1)
         listBox.setItemSelected(listBox.getSelectedIndex(), false);
@@ -371,15 +372,13 @@ public class DeploymentListView implements ViewInterface, WidgetProvider, DataDr
 
   public void select(String deploymentId)
   {
-    final DefaultListModel<DeploymentRef> model =
-        (DefaultListModel<DeploymentRef>) listBox.getModel();
-
-    for(int i=0; i<model.getSize(); i++)
+    for(int i=0; i<listBox.getItemCount(); i++)
     {
-      DeploymentRef ref = model.getElementAt(i);
+      DeploymentRef ref = listBox.getItem(i);
       if(ref.getId().equals(deploymentId))
       {
         listBox.setSelectedIndex(i);
+        SelectionEvent.fire(listBox, ref);
         break;
       }
     }
@@ -23,30 +23,31 @@ package org.jboss.bpm.console.client.engine;
 
 import com.google.gwt.event.dom.client.ClickEvent;
 import com.google.gwt.event.dom.client.ClickHandler;
+import com.google.gwt.event.logical.shared.SelectionEvent;
+import com.google.gwt.event.logical.shared.SelectionHandler;
 import com.google.gwt.user.client.Timer;
 import com.google.gwt.user.client.ui.Button;
 import com.google.gwt.user.client.ui.ChangeListener;
+import com.google.gwt.user.client.ui.Label;
 import com.google.gwt.user.client.ui.Widget;
 import com.mvc4g.client.Controller;
 import com.mvc4g.client.Event;
 import com.mvc4g.client.ViewInterface;
-import org.gwt.mosaic.ui.client.ListBox;
 import org.gwt.mosaic.ui.client.MessageBox;
 import org.gwt.mosaic.ui.client.ToolBar;
-import org.gwt.mosaic.ui.client.event.RowSelectionEvent;
-import org.gwt.mosaic.ui.client.event.RowSelectionHandler;
 import org.gwt.mosaic.ui.client.layout.BoxLayout;
 import org.gwt.mosaic.ui.client.layout.BoxLayoutData;
 import org.gwt.mosaic.ui.client.layout.MosaicPanel;
-import org.gwt.mosaic.ui.client.list.DefaultListModel;
 import org.jboss.bpm.console.client.common.DataDriven;
 import org.jboss.bpm.console.client.common.LoadingOverlay;
+import org.jboss.bpm.console.client.common.VirtualListBox;
 import org.jboss.bpm.console.client.model.JobRef;
 import org.jboss.bpm.console.client.util.SimpleDateFormat;
 import org.jboss.errai.workspaces.client.api.ProvisioningCallback;
 import org.jboss.errai.workspaces.client.api.WidgetProvider;
 import org.jboss.errai.workspaces.client.framework.Registry;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -64,18 +65,17 @@ public class JobListView implements ViewInterface, WidgetProvider, DataDriven
 
   private MosaicPanel jobList = null;
 
-  private ListBox<JobRef> listBox;
+  private VirtualListBox<JobRef> listBox;
 
   private JobRef selection = null;
 
   private SimpleDateFormat dateFormat = new SimpleDateFormat();
 
-  private int FILTER_NONE       = 10;
-  private int FILTER_TIMER     = 20;
-  private int FILTER_MESSAGE  = 30;
-  private int currentFilter = FILTER_NONE;
+  private JobQuery query = new JobQuery(null, false, 0);
 
-  private List<JobRef> jobs = null;
+  private int totalCount = 0;
+
+  private Label pageLabel;
 
   MosaicPanel panel;
 
@@ -98,20 +98,21 @@ public class JobListView implements ViewInterface, WidgetProvider, DataDriven
 
     controller.addView(JobListView.ID, this);
     controller.addAction(ExecuteJobAction.ID, new ExecuteJobAction());
+    controller.addAction(ExecuteJobsAction.ID, new ExecuteJobsAction());
     callback.onSuccess(panel);
   }
 
-  private ListBox createListBox()
+  private VirtualListBox<JobRef> createListBox()
   {
-    final ListBox<JobRef> listBox =
-        new ListBox<JobRef>(
+    final VirtualListBox<JobRef> listBox =
+        new VirtualListBox<JobRef>(
             new String[] {
                 "ID", "Due Date", "Type"}
         );
 
 
-    listBox.setCellRenderer(new ListBox.CellRenderer<JobRef>() {
-      public void renderCell(ListBox<JobRef> listBox, int row, int column,
+    listBox.setCellRenderer(new VirtualListBox.CellRenderer<JobRef>() {
+      public void renderCell(VirtualListBox<JobRef> listBox, int row, int column,
                              JobRef item) {
         switch (column) {
           case 0:
@@ -131,10 +132,10 @@ public class JobListView implements ViewInterface, WidgetProvider, DataDriven
       }
     });
 
-    listBox.addRowSelectionHandler(
-        new RowSelectionHandler()
+    listBox.addSelectionHandler(
+        new SelectionHandler<JobRef>()
         {
-          public void onRowSelection(RowSelectionEvent rowSelectionEvent)
+          public void onSelection(SelectionEvent<JobRef> event)
           {
             int index = listBox.getSelectedIndex();
             if(index!=-1)
@@ -215,6 +216,63 @@ public class JobListView implements ViewInterface, WidgetProvider, DataDriven
           )
       );
 
+      toolBar.add(
+          new Button("Execute all", new ClickHandler() {
+
+            public void onClick(ClickEvent clickEvent)
+            {
+              if(null==query.getType() && !query.isFailedOnly())
+              {
+                MessageBox.alert("Missing filter", "Please choose the jobs to execute!");
+                return;
+              }
+
+              MessageBox.confirm("Execute jobs",
+                  "Do you want to execute all " + totalCount + " jobs matching the current filter?",
+                  new MessageBox.ConfirmationCallback()
+                  {
+                    public void onResult(boolean doIt)
+                    {
+                      if(doIt)
+                      {
+                        controller.handleEvent(
+                            new Event(ExecuteJobsAction.ID, query)
+                        );
+                      }
+                    }
+                  });
+            }
+          }
+          )
+      );
+
+      toolBar.add(
+          new Button("&laquo;", new ClickHandler() {
+            public void onClick(ClickEvent clickEvent)
+            {
+              if(query.getFirstResult()>0)
+                load(query.page(query.getFirstResult()-query.getMaxResults()));
+            }
+          }
+          )
+      );
+
+      toolBar.add(
+          new Button("&raquo;", new ClickHandler() {
+            public void onClick(ClickEvent clickEvent)
+            {
+              int next = query.getFirstResult()+query.getMaxResults();
+              if(next<totalCount)
+                load(query.page(next));
+            }
+          }
+          )
+      );
+
+      pageLabel = new Label();
+      pageLabel.setStyleName("bpm-operation-ui");
+      toolBar.add(pageLabel);
+
       toolBox.add(toolBar, new BoxLayoutData(BoxLayoutData.FillStyle.HORIZONTAL));
 
       // filter
@@ -225,25 +283,28 @@ public class JobListView implements ViewInterface, WidgetProvider, DataDriven
       dropBox.addItem("All");
       dropBox.addItem("Timers");
       dropBox.addItem("Messages");
+      dropBox.addItem("Failed");
 
       dropBox.addChangeListener(new ChangeListener() {
         public void onChange(Widget sender) {
+          // filtering and paging happen on the server
           switch (dropBox.getSelectedIndex())
           {
             case 0:
-              currentFilter = FILTER_NONE;
+              load(new JobQuery(null, false, 0));
               break;
             case 1:
-              currentFilter = FILTER_TIMER;
+              load(new JobQuery("timer", false, 0));
               break;
             case 2:
-              currentFilter = FILTER_MESSAGE;
+              load(new JobQuery("message", false, 0));
+              break;
+            case 3:
+              load(new JobQuery(null, true, 0));
               break;
             default:
               throw new IllegalArgumentException("No such index");
           }
-
-          renderFiltered();
         }
       });
       filterPanel.add(dropBox);
@@ -279,17 +340,23 @@ public class JobListView implements ViewInterface, WidgetProvider, DataDriven
 
   public void reset()
   {
-    final DefaultListModel<JobRef> model =
-        (DefaultListModel<JobRef>) listBox.getModel();
-
-    model.clear();
+    listBox.clear();
 
   }
 
   public void update(Object... data)
   {
-    this.jobs = (List<JobRef>)data[0];
-    renderFiltered();
+    List<JobRef> jobs = (List<JobRef>)data[0];
+    this.query = (JobQuery)data[1];
+    this.totalCount = (Integer)data[2];
+    render(jobs);
+  }
+
+  private void load(JobQuery query)
+  {
+    controller.handleEvent(
+        new Event(UpdateJobsAction.ID, query)
+    );
   }
 
   public void setLoading(boolean isLoading)
@@ -297,44 +364,22 @@ public class JobListView implements ViewInterface, WidgetProvider, DataDriven
     LoadingOverlay.on(jobList, isLoading);
   }
 
-  private void renderFiltered()
+  private void render(List<JobRef> jobs)
   {
-    if(this.jobs!=null)
-    {
-      reset();
-      
-      final DefaultListModel<JobRef> model =
-          (DefaultListModel<JobRef>) listBox.getModel();
+    reset();
 
-      for(JobRef def : jobs)
-      {
-        if(FILTER_NONE==currentFilter)
-        {
-          model.add(def);
-        }
-        else
-        {
-          if(FILTER_TIMER==currentFilter
-              && def.getType().equals("timer"))
-          {
-            model.add(def);
-          }
-          else if(FILTER_MESSAGE==currentFilter
-              && def.getType().equals("message"))
-          {
-            model.add(def);
-          }
-        }
-      }
+    listBox.setItems(new ArrayList<JobRef>(jobs));
 
-      if(listBox.getSelectedIndex()!=-1)
-        listBox.setItemSelected(listBox.getSelectedIndex(), false);
+    if(listBox.getSelectedIndex()!=-1)
+      listBox.setItemSelected(listBox.getSelectedIndex(), false);
 
-      // clear details
-      /* controller.handleEvent(
-         new Event(UpdateJobDetailAction.ID, null)
-     ); */
-    }
+    int first = jobs.isEmpty() ? 0 : query.getFirstResult()+1;
+    pageLabel.setText(first + "-" + (query.getFirstResult()+jobs.size()) + " of " + totalCount);
+
+    // clear details
+    /* controller.handleEvent(
+       new Event(UpdateJobDetailAction.ID, null)
+   ); */
   }
 
   public JobRef getSelection()
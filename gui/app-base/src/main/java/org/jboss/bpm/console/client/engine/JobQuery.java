@@ -0,0 +1,69 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.client.engine;
+
+/**
+ * Filter and page requested by the {@link JobListView}.
+ */
+public class JobQuery
+{
+  public static final int PAGE_SIZE = 100;
+
+  private String type;
+  private boolean failedOnly;
+  private int firstResult;
+
+  /**
+   * @param type "timer", "message" or <code>null</code> for any
+   */
+  public JobQuery(String type, boolean failedOnly, int firstResult)
+  {
+    this.type = type;
+    this.failedOnly = failedOnly;
+    this.firstResult = firstResult;
+  }
+
+  public String getType()
+  {
+    return type;
+  }
+
+  public boolean isFailedOnly()
+  {
+    return failedOnly;
+  }
+
+  public int getFirstResult()
+  {
+    return firstResult;
+  }
+
+  public int getMaxResults()
+  {
+    return PAGE_SIZE;
+  }
+
+  public JobQuery page(int firstResult)
+  {
+    return new JobQuery(type, failedOnly, Math.max(0, firstResult));
+  }
+}
@@ -23,13 +23,11 @@ package org.jboss.bpm.console.client.engine;
 
 import com.google.gwt.http.client.RequestBuilder;
 import com.google.gwt.http.client.Response;
-import com.google.gwt.json.client.JSONParser;
-import com.google.gwt.json.client.JSONValue;
 import com.mvc4g.client.Controller;
 import org.jboss.bpm.console.client.URLBuilder;
 import org.jboss.bpm.console.client.common.*;
-import org.jboss.bpm.console.client.model.DTOParser;
 import org.jboss.bpm.console.client.model.DeploymentRef;
+import org.jboss.bpm.console.client.model.OverlayParser;
 import org.jboss.errai.bus.client.ErraiBus;
 import org.jboss.errai.bus.client.api.base.MessageBuilder;
 
@@ -52,7 +50,7 @@ public class UpdateDeploymentsAction extends AbstractRESTAction
 
   public String getUrl(Object event)
   {
-    return URLBuilder.getInstance().getDeploymentsUrl();
+    return URLBuilder.getInstance().getDeploymentSummariesUrl();
   }
 
   public RequestBuilder.Method getRequestMethod()
@@ -60,6 +58,11 @@ public class UpdateDeploymentsAction extends AbstractRESTAction
     return RequestBuilder.GET;
   }
 
+  protected String getCachedModel(Object event)
+  {
+    return ModelCache.DEPLOYMENTS;
+  }
+
   @Override
   protected DataDriven getDataDriven(Controller controller)
   {
@@ -74,8 +77,7 @@ public class UpdateDeploymentsAction extends AbstractRESTAction
     // deployment could be disabled
     if(view!=null)
     {
-      JSONValue json = JSONParser.parse(response.getText());
-      List<DeploymentRef> deployments = DTOParser.parseDeploymentRefList(json);
+      List<DeploymentRef> deployments = OverlayParser.parseDeploymentRefList(response.getText());
 
       if(null==view)
         throw new RuntimeException("View not initialized: " + DeploymentListView.ID);
@@ -31,6 +31,7 @@ import org.jboss.bpm.console.client.common.AbstractRESTAction;
 import org.jboss.bpm.console.client.common.DataDriven;
 import org.jboss.bpm.console.client.model.DTOParser;
 import org.jboss.bpm.console.client.model.JobRef;
+import org.jboss.bpm.console.client.util.JSONWalk;
 
 import java.util.List;
 
@@ -41,6 +42,8 @@ public class UpdateJobsAction extends AbstractRESTAction
 {
   public final static String ID = UpdateJobsAction.class.getName();
 
+  private JobQuery query = new JobQuery(null, false, 0);
+
   public String getId()
   {
     return ID;
@@ -48,7 +51,14 @@ public class UpdateJobsAction extends AbstractRESTAction
 
   public String getUrl(Object event)
   {
-    return URLBuilder.getInstance().getJobsUrl();
+    // a null event refreshes the current page
+    if(event!=null)
+      query = (JobQuery)event;
+
+    return URLBuilder.getInstance().getJobsUrl(
+        query.getType(), query.isFailedOnly(),
+        query.getFirstResult(), query.getMaxResults()
+    );
   }
 
   public RequestBuilder.Method getRequestMethod()
@@ -66,8 +76,12 @@ public class UpdateJobsAction extends AbstractRESTAction
   {
     JSONValue json = JSONParser.parse(response.getText());
     List<JobRef> jobs = DTOParser.parseJobRefList(json);
+
+    JSONWalk.JSONWrapper total = JSONWalk.on(json).next("totalCount");
+    int totalCount = total!=null ? total.asInt() : jobs.size();
+
     JobListView view = (JobListView)controller.getView(JobListView.ID);
-    view.update(jobs);
+    view.update(jobs, query, totalCount);
 
   }
 }
@@ -9,7 +9,7 @@ import org.jboss.bpm.console.client.URLBuilder;
 import org.jboss.bpm.console.client.common.AbstractRESTAction;
 import org.jboss.bpm.console.client.common.DataDriven;
 import org.jboss.bpm.console.client.model.HistoryProcessInstanceRef;
-import org.jboss.bpm.console.client.model.JSOParser;
+import org.jboss.bpm.console.client.model.OverlayParser;
 import org.jboss.bpm.console.client.util.ConsoleLog;
 
 import com.google.gwt.http.client.RequestBuilder;
@@ -66,10 +66,11 @@ public class LoadProcessHistoryAction extends AbstractRESTAction {
 	@Override
 	public void handleSuccessfulResponse(Controller controller, Object event, Response response) {
 		ProcessHistoryInstanceListView view = (ProcessHistoryInstanceListView) controller.getView(ProcessHistoryInstanceListView.ID);
-		List<HistoryProcessInstanceRef> ref = JSOParser.parseProcessDefinitionHistory(response.getText());
+		List<HistoryProcessInstanceRef> ref = OverlayParser.parseProcessDefinitionHistory(response.getText());
 		view.update(ref);
 		
-		ConsoleLog.debug("Loaded " + ref.size() + " process instance(s) : " + response.getText());
+		if(ConsoleLog.isDebugEnabled())
+			ConsoleLog.debug("Loaded " + ref.size() + " process instance(s) : " + response.getText());
 	}
 
 }
@@ -20,6 +20,7 @@ import org.gwt.mosaic.ui.client.layout.MosaicPanel;
 import org.gwt.mosaic.ui.client.list.DefaultListModel;
 import org.jboss.bpm.console.client.common.DataDriven;
 import org.jboss.bpm.console.client.common.LoadingOverlay;
+import org.jboss.bpm.console.client.common.VirtualListBox;
 import org.jboss.bpm.console.client.common.WidgetWindowPanel;
 import org.jboss.bpm.console.client.model.HistoryProcessInstanceRef;
 import org.jboss.bpm.console.client.model.StringRef;
@@ -28,6 +29,7 @@ import org.jboss.errai.workspaces.client.api.ProvisioningCallback;
 import org.jboss.errai.workspaces.client.api.WidgetProvider;
 import org.jboss.errai.workspaces.client.framework.Registry;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.StringTokenizer;
 
@@ -45,7 +47,7 @@ public class ProcessHistoryInstanceListView implements ViewInterface, WidgetProv
 	
 	private MosaicPanel instanceList;
 	
-	private ListBox<HistoryProcessInstanceRef> listbox;
+	private VirtualListBox<HistoryProcessInstanceRef> listbox;
 	
 	private SimpleDateFormat dateFormat = new SimpleDateFormat();
 	
@@ -70,11 +72,18 @@ public class ProcessHistoryInstanceListView implements ViewInterface, WidgetProv
 		instanceList.setPadding(0);
 		instanceList.setWidgetSpacing(5);
 		
-		listbox = new org.gwt.mosaic.ui.client.ListBox<HistoryProcessInstanceRef>(new String[]{"Instance Id", "Correlation Key", "Status", "Start Time", "Finish Time"});
-		listbox.setCellRenderer(new org.gwt.mosaic.ui.client.ListBox.CellRenderer<HistoryProcessInstanceRef>(){
+		listbox = new VirtualListBox<HistoryProcessInstanceRef>(new String[]{"Instance Id", "Correlation Key", "Status", "Start Time", "Finish Time"});
+		listbox.setKeyProvider(new VirtualListBox.KeyProvider<HistoryProcessInstanceRef>(){
 
 			@Override
-			public void renderCell(org.gwt.mosaic.ui.client.ListBox<HistoryProcessInstanceRef> listBox, int row, int column, HistoryProcessInstanceRef item) {
+			public Object getKey(HistoryProcessInstanceRef item) {
+				return item.getProcessInstanceId();
+			}
+		});
+		listbox.setCellRenderer(new VirtualListBox.CellRenderer<HistoryProcessInstanceRef>(){
+
+			@Override
+			public void renderCell(VirtualListBox<HistoryProcessInstanceRef> listBox, int row, int column, HistoryProcessInstanceRef item) {
 				switch(column) {
 				case 0:
 					listBox.setText(row, column, item.getProcessInstanceId());
@@ -138,12 +147,7 @@ public class ProcessHistoryInstanceListView implements ViewInterface, WidgetProv
 	@Override
 	public void update(Object... data) {
 		List<HistoryProcessInstanceRef> result = (List<HistoryProcessInstanceRef>)data[0];
-		DefaultListModel<HistoryProcessInstanceRef> model = (DefaultListModel<HistoryProcessInstanceRef>)listbox.getModel();
-		model.clear();
-		
-		for (HistoryProcessInstanceRef ref : result) {
-			model.add(ref);
-		}
+		listbox.setItems(new ArrayList<HistoryProcessInstanceRef>(result));
 		panel.invalidate();		
 		
 	}
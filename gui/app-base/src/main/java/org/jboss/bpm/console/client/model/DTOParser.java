@@ -38,7 +38,8 @@ public class DTOParser
 {  
   public static List<TaskRef> parseTaskReferenceList(String json)
   {
-    ConsoleLog.debug("parse " + json);
+    if(ConsoleLog.isDebugEnabled())
+      ConsoleLog.debug("parse " + json);
 
     List<TaskRef> results = new ArrayList<TaskRef>();
 
@@ -57,7 +58,8 @@ public class DTOParser
 
   public static TaskRef parseTaskReference(JSONObject item)
   {
-    ConsoleLog.debug("parse " + item);
+    if(ConsoleLog.isDebugEnabled())
+      ConsoleLog.debug("parse " + item);
 
     long id = JSONWalk.on(item).next("id").asLong();
 
@@ -174,7 +176,8 @@ public class DTOParser
 
   public static ProcessInstanceRef parseProcessInstance(JSONValue root)
   {
-    ConsoleLog.debug("parse " + root);
+    if(ConsoleLog.isDebugEnabled())
+      ConsoleLog.debug("parse " + root);
 
     String id = JSONWalk.on(root).next("id").asString();
     String definitionId = JSONWalk.on(root).next("definitionId").asString();
@@ -207,7 +210,8 @@ public class DTOParser
 
   public static TokenReference parseTokenReference(JSONObject jso)
   {
-    ConsoleLog.debug("parse " + jso);
+    if(ConsoleLog.isDebugEnabled())
+      ConsoleLog.debug("parse " + jso);
 
     String rootTokenId = JSONWalk.on(jso).next("id").asString();
     //String name = JSONWalk.on(jso).next("name").asString();
@@ -269,50 +273,68 @@ public class DTOParser
 
   public static List<DeploymentRef> parseDeploymentRefList(JSONValue json)
   {
-    ConsoleLog.debug("parse " + json);
+    if(ConsoleLog.isDebugEnabled())
+      ConsoleLog.debug("parse " + json);
 
     List<DeploymentRef> result = new ArrayList<DeploymentRef>();
 
     JSONArray jsonArray = JSONWalk.on(json).next("deployments").asArray();
     for (int i = 0; i < jsonArray.size(); i++)
     {
-      JSONValue item = jsonArray.get(i);
-      String id = JSONWalk.on(item).next("id").asString();
-      boolean suspended = JSONWalk.on(item).next("suspended").asBool();
+      result.add(parseDeploymentRef(jsonArray.get(i)));
+    }
 
-      String name = JSONWalk.on(item).next("name").asString();
-      JSONWalk.JSONWrapper tsWrapper = JSONWalk.on(item).next("timestamp");
-      long ts = tsWrapper != null ? tsWrapper.asLong() : -1;
-      
-      DeploymentRef ref = new DeploymentRef(id, suspended);
-      ref.setName(name);
-      ref.setTimestamp(ts);
+    return result;
+  }
 
-      // definitions
-      JSONArray defArr = JSONWalk.on(item).next("definitions").asArray();
+  /**
+   * Definitions and resource names are optional,
+   * they are left out of deployment summaries.
+   */
+  public static DeploymentRef parseDeploymentRef(JSONValue item)
+  {
+    String id = JSONWalk.on(item).next("id").asString();
+    boolean suspended = JSONWalk.on(item).next("suspended").asBool();
+
+    String name = JSONWalk.on(item).next("name").asString();
+    JSONWalk.JSONWrapper tsWrapper = JSONWalk.on(item).next("timestamp");
+    long ts = tsWrapper != null ? tsWrapper.asLong() : -1;
+    
+    DeploymentRef ref = new DeploymentRef(id, suspended);
+    ref.setName(name);
+    ref.setTimestamp(ts);
+
+    // definitions
+    JSONWalk.JSONWrapper defEl = JSONWalk.on(item).next("definitions");
+    if(defEl!=null)
+    {
+      JSONArray defArr = defEl.asArray();
       for (int c = 0; c < defArr.size(); c++)
       {
         String defId = defArr.get(c).isString().stringValue();
         ref.getDefinitions().add(defId);
       }
+    }
 
-      // resource names
-      JSONArray resArr = JSONWalk.on(item).next("resourceNames").asArray();
+    // resource names
+    JSONWalk.JSONWrapper resEl = JSONWalk.on(item).next("resourceNames");
+    if(resEl!=null)
+    {
+      JSONArray resArr = resEl.asArray();
       for (int c = 0; c < resArr.size(); c++)
       {
         String resourceName = resArr.get(c).isString().stringValue();
         ref.getResourceNames().add(resourceName);
       }
-
-      result.add(ref);
     }
 
-    return result;
+    return ref;
   }
 
   public static List<JobRef> parseJobRefList(JSONValue json)
   {
-    ConsoleLog.debug("parse " + json);
+    if(ConsoleLog.isDebugEnabled())
+      ConsoleLog.debug("parse " + json);
 
     List<JobRef> result = new ArrayList<JobRef>();
 
@@ -341,8 +363,20 @@ public class DTOParser
     return result;
   }  
   
+  public static DiagramTileInfo parseDiagramTileInfo(String json)
+  {
+    JSONValue root = JSONParser.parse(json);
+    return new DiagramTileInfo(
+        JSONWalk.on(root).next("width").asInt(),
+        JSONWalk.on(root).next("height").asInt(),
+        JSONWalk.on(root).next("tileSize").asInt(),
+        JSONWalk.on(root).next("levels").asInt()
+    );
+  }
+
   public static List<ActiveNodeInfo> parseActiveNodeInfo(String json) {
-    ConsoleLog.debug("Parse: " + json);
+    if(ConsoleLog.isDebugEnabled())
+      ConsoleLog.debug("Parse: " + json);
 
     List<ActiveNodeInfo> activeNodeInfos = new ArrayList<ActiveNodeInfo>();
     JSONValue root = JSONParser.parse(json);
@@ -57,9 +57,9 @@ public abstract class JSOModel extends JavaScriptObject {
    *
    * @return a populated JSOModel object
    */
-  public static native JSOModel fromJson(String jsonString) /*-{
-        return eval('(' + jsonString + ')');
-    }-*/;
+  public static JSOModel fromJson(String jsonString) {
+    return JSONOverlay.parse(jsonString);
+  }
 
   /**
    * Convert a JSON encoded string into an array of JSOModel instance.
@@ -68,9 +68,9 @@ public abstract class JSOModel extends JavaScriptObject {
    *
    * @return a populated JsArray
    */
-  public static native JsArray<JSOModel> arrayFromJson(String jsonString) /*-{
-        return eval('(' + jsonString + ')');
-    }-*/;
+  public static JsArray<JSOModel> arrayFromJson(String jsonString) {
+    return JSONOverlay.parse(jsonString);
+  }
 
   public final native boolean hasKey(String key) /*-{
         return this[key] != undefined;
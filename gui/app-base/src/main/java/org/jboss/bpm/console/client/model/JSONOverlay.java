@@ -0,0 +1,144 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.client.model;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.core.client.JsArrayString;
+import org.jboss.bpm.console.client.util.SimpleDateFormat;
+
+import java.util.Date;
+
+/**
+ * Overlay of a parsed JSON object.<br>
+ * Parsing uses the browser's native <code>JSON.parse</code> (and falls back to
+ * <code>eval</code> on browsers that don't provide it). The accessors read
+ * the properties of this object directly, they don't allocate wrappers
+ * and missing properties are reported as defaults instead of exceptions.
+ */
+public class JSONOverlay extends JavaScriptObject
+{
+  private static SimpleDateFormat dateFormat;
+
+  protected JSONOverlay()
+  {
+  }
+
+  public static native <T extends JavaScriptObject> T parse(String json) /*-{
+    if($wnd.JSON && typeof $wnd.JSON.parse == 'function')
+      return $wnd.JSON.parse(json);
+    return eval('(' + json + ')');
+  }-*/;
+
+  /**
+   * @return true if the property exists and is not null
+   */
+  public final native boolean has(String key) /*-{
+    return this[key] != null;
+  }-*/;
+
+  /**
+   * @return the property as string (numbers and booleans are converted), null if absent
+   */
+  public final native String getString(String key) /*-{
+    var v = this[key];
+    return v == null ? null : '' + v;
+  }-*/;
+
+  public final String getString(String key, String defaultValue)
+  {
+    String value = getString(key);
+    return value!=null ? value : defaultValue;
+  }
+
+  public final native double getNumber(String key, double defaultValue) /*-{
+    var v = this[key];
+    return typeof v == 'number' ? v : defaultValue;
+  }-*/;
+
+  public final int getInt(String key, int defaultValue)
+  {
+    return (int)getNumber(key, defaultValue);
+  }
+
+  public final long getLong(String key, long defaultValue)
+  {
+    return (long)getNumber(key, defaultValue);
+  }
+
+  public final native boolean getBoolean(String key) /*-{
+    return this[key] === true;
+  }-*/;
+
+  /**
+   * @return null if absent
+   */
+  public final native JSONOverlay getObject(String key) /*-{
+    var v = this[key];
+    return v == null ? null : v;
+  }-*/;
+
+  /**
+   * @return null if absent
+   */
+  public final native <T extends JavaScriptObject> JsArray<T> getArray(String key) /*-{
+    var v = this[key];
+    return v == null ? null : v;
+  }-*/;
+
+  /**
+   * @return null if absent. Null elements are kept.
+   */
+  public final native JsArrayString getStringArray(String key) /*-{
+    var v = this[key];
+    return v == null ? null : v;
+  }-*/;
+
+  /**
+   * Dates are expected in {@link SimpleDateFormat#DEFAULT_FORMAT}.
+   *
+   * @return null if absent
+   */
+  public final Date getDate(String key)
+  {
+    String value = getString(key);
+    if(null==value)
+      return null;
+
+    double millis = parseDefaultDate(value);
+    if(!Double.isNaN(millis))
+      return new Date((long)millis);
+
+    if(null==dateFormat)
+      dateFormat = new SimpleDateFormat();
+    return dateFormat.parse(value);
+  }
+
+  /**
+   * Fast path for <code>yyyy-MM-dd HH:mm:ss</code> in local time
+   */
+  private static native double parseDefaultDate(String value) /*-{
+    var m = /^(\d{4})-(\d{2})-(\d{2}) (\d{2}):(\d{2}):(\d{2})$/.exec(value);
+    if(!m) return NaN;
+    return new Date(+m[1], m[2]-1, +m[3], +m[4], +m[5], +m[6]).getTime();
+  }-*/;
+}
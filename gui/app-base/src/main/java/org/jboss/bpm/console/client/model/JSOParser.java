@@ -67,7 +67,6 @@ public class JSOParser
 
   public static List<ProcessInstanceRef> parseProcessInstances(String json)
   {
-    System.out.println(json);
     List<ProcessInstanceRef> results = new ArrayList<ProcessInstanceRef>();
     JSOModel rootModel = JSOModel.fromJson(json);
 
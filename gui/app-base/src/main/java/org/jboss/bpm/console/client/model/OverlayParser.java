@@ -0,0 +1,213 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.client.model;
+
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.core.client.JsArrayString;
+import org.jboss.bpm.console.client.util.ConsoleLog;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses the list payloads through {@link JSONOverlay}s.
+ * Replaces the {@link DTOParser} and {@link JSOParser} methods for
+ * tasks, process instances, tokens, history instances and deployments,
+ * which walk a <code>JSONValue</code> tree (or use <code>eval</code>) instead.
+ */
+public class OverlayParser
+{
+  public static List<TaskRef> parseTaskReferenceList(String json)
+  {
+    if(ConsoleLog.isDebugEnabled())
+      ConsoleLog.debug("parse " + json);
+
+    JsArray<JSONOverlay> tasks = JSONOverlay.<JSONOverlay>parse(json).getArray("tasks");
+    List<TaskRef> results = new ArrayList<TaskRef>(length(tasks));
+    for(int i=0; i<length(tasks); i++)
+      results.add(parseTaskReference(tasks.get(i)));
+
+    return results;
+  }
+
+  public static TaskRef parseTaskReference(JSONOverlay item)
+  {
+    boolean isBlocking = item.getBoolean("isBlocking");
+    boolean isSignalling = item.getBoolean("isSignalling");
+
+    TaskRef ref = new TaskRef(
+        item.getLong("id", 0),
+        item.getString("processInstanceId", "n/a"),
+        item.getString("processId", "n/a"),
+        item.getString("name"),
+        item.getString("assignee"),
+        isBlocking, isSignalling
+    );
+    ref.setUrl(item.getString("url", ""));
+
+    parseParticipants(item.<JSONOverlay>getArray("participantUsers"), ref.getParticipantUsers());
+    parseParticipants(item.<JSONOverlay>getArray("participantGroups"), ref.getParticipantGroups());
+
+    if(isSignalling)
+      addStrings(item.getStringArray("outcomes"), ref.getOutcomes());
+
+    ref.setPriority(item.getInt("priority", 0));
+    ref.setDueDate(item.getDate("dueDate"));
+    ref.setCreateDate(item.getDate("createDate"));
+
+    return ref;
+  }
+
+  private static void parseParticipants(JsArray<JSONOverlay> array, List<ParticipantRef> result)
+  {
+    for(int i=0; i<length(array); i++)
+    {
+      JSONOverlay item = array.get(i);
+      ParticipantRef p = new ParticipantRef(item.getString("type"), item.getString("idRef"));
+      p.setGroup(item.getBoolean("isGroup"));
+      result.add(p);
+    }
+  }
+
+  public static List<ProcessInstanceRef> parseProcessInstances(String json)
+  {
+    if(ConsoleLog.isDebugEnabled())
+      ConsoleLog.debug("parse " + json);
+
+    JsArray<JSONOverlay> instances = JSONOverlay.<JSONOverlay>parse(json).getArray("instances");
+    List<ProcessInstanceRef> results = new ArrayList<ProcessInstanceRef>(length(instances));
+    for(int i=0; i<length(instances); i++)
+      results.add(parseProcessInstance(instances.get(i)));
+
+    return results;
+  }
+
+  public static ProcessInstanceRef parseProcessInstance(JSONOverlay item)
+  {
+    ProcessInstanceRef processInstance = new ProcessInstanceRef(
+        item.getString("id"), item.getString("definitionId"),
+        item.getDate("startDate"), item.getDate("endDate"),
+        item.getBoolean("suspended")
+    );
+
+    JSONOverlay rootToken = item.getObject("rootToken");
+    if(rootToken!=null)
+      processInstance.setRootToken(parseTokenReference(rootToken));
+
+    return processInstance;
+  }
+
+  public static TokenReference parseTokenReference(JSONOverlay item)
+  {
+    TokenReference token = new TokenReference(
+        item.getString("id"),
+        item.getString("name", ""),
+        item.getString("currentNodeName", "")
+    );
+    token.setCanBeSignaled(item.getBoolean("canBeSignaled"));
+
+    addStrings(item.getStringArray("availableSignals"), token.getAvailableSignals());
+
+    JsArray<JSONOverlay> children = item.getArray("children");
+    for(int i=0; i<length(children); i++)
+      token.getChildren().add(parseTokenReference(children.get(i)));
+
+    return token;
+  }
+
+  public static List<HistoryProcessInstanceRef> parseProcessDefinitionHistory(String json)
+  {
+    JsArray<JSONOverlay> entries = JSONOverlay.<JSONOverlay>parse(json).getArray("historyEntires");
+    List<HistoryProcessInstanceRef> results = new ArrayList<HistoryProcessInstanceRef>(length(entries));
+    for(int i=0; i<length(entries); i++)
+      results.add(parseProcessDefinitionHistory(entries.get(i)));
+
+    return results;
+  }
+
+  public static HistoryProcessInstanceRef parseProcessDefinitionHistory(JSONOverlay item)
+  {
+    HistoryProcessInstanceRef ref = new HistoryProcessInstanceRef();
+    ref.setProcessDefinitionId(item.getString("processDefinitionId"));
+    ref.setProcessInstanceId(item.getString("processInstanceId"));
+    ref.setStartTime(item.getDate("startTime"));
+    ref.setEndTime(item.getDate("endTime"));
+    ref.setEndActivityName(item.getString("endActivityName"));
+    ref.setState(item.getString("state"));
+    ref.setKey(item.getString("key"));
+    ref.setDuration(item.getLong("duration", 0));
+    return ref;
+  }
+
+  public static List<DeploymentRef> parseDeploymentRefList(String json)
+  {
+    if(ConsoleLog.isDebugEnabled())
+      ConsoleLog.debug("parse " + json);
+
+    JsArray<JSONOverlay> deployments = JSONOverlay.<JSONOverlay>parse(json).getArray("deployments");
+    List<DeploymentRef> results = new ArrayList<DeploymentRef>(length(deployments));
+    for(int i=0; i<length(deployments); i++)
+      results.add(parseDeploymentRef(deployments.get(i)));
+
+    return results;
+  }
+
+  public static DeploymentRef parseDeploymentRef(String json)
+  {
+    return parseDeploymentRef(JSONOverlay.<JSONOverlay>parse(json));
+  }
+
+  /**
+   * Definitions and resource names are optional,
+   * they are left out of deployment summaries.
+   */
+  public static DeploymentRef parseDeploymentRef(JSONOverlay item)
+  {
+    DeploymentRef ref = new DeploymentRef(item.getString("id"), item.getBoolean("suspended"));
+    ref.setName(item.getString("name"));
+    ref.setTimestamp(item.getLong("timestamp", -1));
+
+    addStrings(item.getStringArray("definitions"), ref.getDefinitions());
+    addStrings(item.getStringArray("resourceNames"), ref.getResourceNames());
+
+    return ref;
+  }
+
+  /**
+   * Null elements are skipped (JBPM-1828)
+   */
+  private static void addStrings(JsArrayString array, List<String> result)
+  {
+    if(null==array) return;
+
+    for(int i=0; i<array.length(); i++)
+    {
+      String s = array.get(i);
+      if(s!=null) result.add(s);
+    }
+  }
+
+  private static int length(JsArray<?> array)
+  {
+    return array!=null ? array.length() : 0;
+  }
+}
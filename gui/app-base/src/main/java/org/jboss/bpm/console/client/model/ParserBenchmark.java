@@ -0,0 +1,210 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.client.model;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.json.client.JSONParser;
+import com.google.gwt.user.client.DeferredCommand;
+import com.google.gwt.user.client.IncrementalCommand;
+
+/**
+ * Compares the {@link OverlayParser} with the {@link DTOParser} and {@link JSOParser}
+ * methods it replaces, on synthetic list payloads.
+ * Each measurement runs as a separate step, so that the UI stays responsive.
+ */
+public class ParserBenchmark
+{
+  public static final int DEFAULT_ROWS = 10000;
+
+  public interface Callback
+  {
+    /**
+     * @param type the payload, i.e. "tasks"
+     * @param legacyMillis parse time of the previous parser
+     * @param overlayMillis parse time of the {@link OverlayParser}
+     */
+    void onResult(String type, int rows, double legacyMillis, double overlayMillis);
+
+    void onFinished();
+  }
+
+  private static final String DATE = "\"2010-05-03 12:30:00\"";
+
+  private ParserBenchmark()
+  {
+  }
+
+  public static void run(final int rows, final Callback callback)
+  {
+    DeferredCommand.addCommand(
+        new IncrementalCommand()
+        {
+          int step = 0;
+
+          public boolean execute()
+          {
+            switch(step++)
+            {
+              case 0:
+                benchmarkTasks(rows, callback);
+                return true;
+              case 1:
+                benchmarkInstances(rows, callback);
+                return true;
+              case 2:
+                benchmarkHistory(rows, callback);
+                return true;
+              case 3:
+                benchmarkDeployments(rows, callback);
+                return true;
+              default:
+                callback.onFinished();
+                return false;
+            }
+          }
+        }
+    );
+  }
+
+  private static void benchmarkTasks(int rows, Callback callback)
+  {
+    StringBuilder sb = new StringBuilder(rows * 300);
+    sb.append("{\"tasks\":[");
+    for(int i=0; i<rows; i++)
+    {
+      if(i>0) sb.append(',');
+      sb.append("{\"id\":").append(i)
+          .append(",\"processInstanceId\":\"instance.").append(i).append('"')
+          .append(",\"processId\":\"process\"")
+          .append(",\"name\":\"Task ").append(i).append('"')
+          .append(",\"assignee\":\"john\"")
+          .append(",\"isBlocking\":false,\"isSignalling\":true")
+          .append(",\"participantUsers\":[{\"type\":\"candidate\",\"idRef\":\"mary\",\"isGroup\":false}]")
+          .append(",\"participantGroups\":[{\"type\":\"candidate\",\"idRef\":\"sales\",\"isGroup\":true}]")
+          .append(",\"outcomes\":[\"accept\",\"reject\"]")
+          .append(",\"priority\":3,\"dueDate\":").append(DATE)
+          .append('}');
+    }
+    sb.append("]}");
+    String json = sb.toString();
+
+    double start = Duration.currentTimeMillis();
+    DTOParser.parseTaskReferenceList(json);
+    double legacy = Duration.currentTimeMillis() - start;
+
+    start = Duration.currentTimeMillis();
+    OverlayParser.parseTaskReferenceList(json);
+    double overlay = Duration.currentTimeMillis() - start;
+
+    callback.onResult("tasks", rows, legacy, overlay);
+  }
+
+  private static void benchmarkInstances(int rows, Callback callback)
+  {
+    StringBuilder sb = new StringBuilder(rows * 300);
+    sb.append("{\"instances\":[");
+    for(int i=0; i<rows; i++)
+    {
+      if(i>0) sb.append(',');
+      sb.append("{\"id\":\"instance.").append(i).append('"')
+          .append(",\"definitionId\":\"process-1\"")
+          .append(",\"startDate\":").append(DATE)
+          .append(",\"suspended\":false")
+          .append(",\"rootToken\":{\"id\":\"instance.").append(i).append('"')
+          .append(",\"currentNodeName\":\"fork\",\"canBeSignaled\":false,\"availableSignals\":[]")
+          .append(",\"children\":[{\"id\":\"instance.").append(i).append(".a\"")
+          .append(",\"name\":\"a\",\"currentNodeName\":\"review\",\"canBeSignaled\":true")
+          .append(",\"availableSignals\":[\"done\"],\"children\":[]}]}")
+          .append('}');
+    }
+    sb.append("]}");
+    String json = sb.toString();
+
+    double start = Duration.currentTimeMillis();
+    JSOParser.parseProcessInstances(json);
+    double legacy = Duration.currentTimeMillis() - start;
+
+    start = Duration.currentTimeMillis();
+    OverlayParser.parseProcessInstances(json);
+    double overlay = Duration.currentTimeMillis() - start;
+
+    callback.onResult("instances (with tokens)", rows, legacy, overlay);
+  }
+
+  private static void benchmarkHistory(int rows, Callback callback)
+  {
+    StringBuilder sb = new StringBuilder(rows * 250);
+    sb.append("{\"historyEntires\":[");
+    for(int i=0; i<rows; i++)
+    {
+      if(i>0) sb.append(',');
+      sb.append("{\"processDefinitionId\":\"process-1\"")
+          .append(",\"processInstanceId\":\"instance.").append(i).append('"')
+          .append(",\"startTime\":").append(DATE)
+          .append(",\"endTime\":").append(DATE)
+          .append(",\"endActivityName\":\"end\",\"state\":\"COMPLETED\"")
+          .append(",\"key\":\"key-").append(i).append('"')
+          .append(",\"duration\":").append(i * 10)
+          .append('}');
+    }
+    sb.append("]}");
+    String json = sb.toString();
+
+    double start = Duration.currentTimeMillis();
+    JSOParser.parseProcessDefinitionHistory(json);
+    double legacy = Duration.currentTimeMillis() - start;
+
+    start = Duration.currentTimeMillis();
+    OverlayParser.parseProcessDefinitionHistory(json);
+    double overlay = Duration.currentTimeMillis() - start;
+
+    callback.onResult("history instances", rows, legacy, overlay);
+  }
+
+  private static void benchmarkDeployments(int rows, Callback callback)
+  {
+    StringBuilder sb = new StringBuilder(rows * 200);
+    sb.append("{\"deployments\":[");
+    for(int i=0; i<rows; i++)
+    {
+      if(i>0) sb.append(',');
+      sb.append("{\"id\":\"").append(i).append('"')
+          .append(",\"name\":\"deployment-").append(i).append(".bar\"")
+          .append(",\"suspended\":false,\"timestamp\":1272882600000")
+          .append(",\"definitions\":[\"process-").append(i).append("\"]")
+          .append(",\"resourceNames\":[\"process.jpdl.xml\",\"process.png\"]")
+          .append('}');
+    }
+    sb.append("]}");
+    String json = sb.toString();
+
+    double start = Duration.currentTimeMillis();
+    DTOParser.parseDeploymentRefList(JSONParser.parse(json));
+    double legacy = Duration.currentTimeMillis() - start;
+
+    start = Duration.currentTimeMillis();
+    OverlayParser.parseDeploymentRefList(json);
+    double overlay = Duration.currentTimeMillis() - start;
+
+    callback.onResult("deployments", rows, legacy, overlay);
+  }
+}
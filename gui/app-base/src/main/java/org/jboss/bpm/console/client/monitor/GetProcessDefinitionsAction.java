@@ -5,6 +5,7 @@ import com.google.gwt.http.client.Response;
 import com.mvc4g.client.Controller;
 import org.jboss.bpm.console.client.URLBuilder;
 import org.jboss.bpm.console.client.common.AbstractRESTAction;
+import org.jboss.bpm.console.client.common.ModelCache;
 import org.jboss.bpm.console.client.model.JSOParser;
 import org.jboss.bpm.console.client.model.ProcessDefinitionRef;
 import org.jboss.bpm.console.client.util.ConsoleLog;
@@ -34,12 +35,18 @@ public class GetProcessDefinitionsAction extends AbstractRESTAction {
         return RequestBuilder.GET;
     }
 
+    @Override
+    protected String getCachedModel(Object event) {
+        return ModelCache.HISTORY_DEFINITIONS;
+    }
+
     @Override
     public void handleSuccessfulResponse(Controller controller, Object event, Response response) {
 
         ExecutionHistoryView view = (ExecutionHistoryView)controller.getView(ExecutionHistoryView.ID);
         List<ProcessDefinitionRef> refs = JSOParser.parseProcessDefinitions(response.getText());
         view.selectDefinition(refs);
-        ConsoleLog.debug("loaded " + refs.size() + " historic process definitions : " + response.getText());
+        if(ConsoleLog.isDebugEnabled())
+            ConsoleLog.debug("loaded " + refs.size() + " historic process definitions : " + response.getText());
     }
 }
@@ -59,6 +59,7 @@ public class LoadChartProcessInstancesAction extends AbstractRESTAction{
 
         view.updateProcessInstances(data);
 
-        ConsoleLog.debug("loaded chart data process instances : " + response.getText());
+        if(ConsoleLog.isDebugEnabled())
+            ConsoleLog.debug("loaded chart data process instances : " + response.getText());
     }
 }
@@ -44,6 +44,7 @@ public class LoadDatasetsAction extends AbstractRESTAction{
         ExecutionHistoryView view = (ExecutionHistoryView)controller.getView(ExecutionHistoryView.ID);
         view.updateChart(response.getText());
 
-        ConsoleLog.debug("Loaded chart data : " + response.getText());
+        if(ConsoleLog.isDebugEnabled())
+            ConsoleLog.debug("Loaded chart data : " + response.getText());
     }
 }
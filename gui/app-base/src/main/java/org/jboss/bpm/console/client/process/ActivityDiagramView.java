@@ -21,11 +21,18 @@
  */
 package org.jboss.bpm.console.client.process;
 
-import com.google.gwt.user.client.ui.HTML;
+import com.google.gwt.event.dom.client.ClickEvent;
+import com.google.gwt.event.dom.client.ClickHandler;
+import com.google.gwt.user.client.ui.Button;
 import com.mvc4g.client.Controller;
+import com.mvc4g.client.Event;
 import com.mvc4g.client.ViewInterface;
-import org.gwt.mosaic.ui.client.ScrollLayoutPanel;
+import org.gwt.mosaic.ui.client.ToolBar;
+import org.gwt.mosaic.ui.client.layout.BoxLayout;
+import org.gwt.mosaic.ui.client.layout.BoxLayoutData;
+import org.gwt.mosaic.ui.client.layout.MosaicPanel;
 import org.jboss.bpm.console.client.model.ActiveNodeInfo;
+import org.jboss.bpm.console.client.model.DiagramTileInfo;
 import org.jboss.bpm.console.client.model.ProcessDefinitionRef;
 import org.jboss.bpm.console.client.model.ProcessInstanceRef;
 import org.jboss.bpm.console.client.process.events.ActivityDiagramResultEvent;
@@ -34,9 +41,14 @@ import org.jboss.bpm.console.client.util.ConsoleLog;
 import java.util.List;
 
 /**
+ * Process diagram with the active nodes marked.<br>
+ * Diagrams of a definition are loaded as SVG if the server can render them,
+ * else as tiles if it provides them,
+ * otherwise (and for images that encode the activity themselves) as a single image.
+ *
  * @author Heiko.Braun <heiko.braun@jboss.com>
  */
-public class ActivityDiagramView extends ScrollLayoutPanel
+public class ActivityDiagramView extends MosaicPanel
         implements ViewInterface
 {
 
@@ -48,43 +60,77 @@ public class ActivityDiagramView extends ScrollLayoutPanel
 
     private Controller controller;
 
+    private final DiagramOverlay diagram = new DiagramOverlay();
+
+    private Button zoomIn;
+    private Button zoomOut;
+
+    /**
+     * The diagram currently shown or waiting for its tiles
+     */
+    private ActivityDiagramResultEvent current;
+
     public ActivityDiagramView()
     {
-        super();
+        super(new BoxLayout(BoxLayout.Orientation.VERTICAL));
+        setPadding(0);
+        setWidgetSpacing(0);
+
+        ToolBar toolBar = new ToolBar();
+        zoomIn = new Button("Zoom in", new ClickHandler()
+        {
+            public void onClick(ClickEvent clickEvent)
+            {
+                diagram.setZoomLevel(diagram.getZoomLevel()-1);
+                updateZoomButtons();
+            }
+        });
+        zoomOut = new Button("Zoom out", new ClickHandler()
+        {
+            public void onClick(ClickEvent clickEvent)
+            {
+                diagram.setZoomLevel(diagram.getZoomLevel()+1);
+                updateZoomButtons();
+            }
+        });
+        toolBar.add(zoomIn);
+        toolBar.add(zoomOut);
+        updateZoomButtons();
+
+        this.add(toolBar, new BoxLayoutData(BoxLayoutData.FillStyle.HORIZONTAL));
+        this.add(diagram, new BoxLayoutData(BoxLayoutData.FillStyle.BOTH));
     }
 
 
     public void setController(Controller controller)
     {
         this.controller = controller;
+        controller.addAction(LoadDiagramSvgAction.ID, new LoadDiagramSvgAction(this));
+        controller.addAction(LoadDiagramTilesAction.ID, new LoadDiagramTilesAction(this));
     }
 
     public void update(ActivityDiagramResultEvent event)
     {
-
-        List<ActiveNodeInfo> activeNodeInfos = event.getActiveNodeInfo();
-        String imageUrl = event.getImageUrl();
-        String imageUrlNoCache = imageUrl+"?"+System.currentTimeMillis();
-        ConsoleLog.debug("Getting image from " + imageUrlNoCache);
-
-        // remove contents
-        this.clear();
-
-        String s =
-                "<div style='width:1024px; height:768px; background-color:#ffffff;'>" +
-                        "<div id=\"imageContainer\" style=\"position:relative;top:-1;left:-1;\">" +
-                        "<img src=\""+imageUrlNoCache+"\" style=\"position:absolute;top:0;left:0\" />";
-        for (ActiveNodeInfo activeNodeInfo: activeNodeInfos) {
-
-            s+= 	"<div class=\"bpm-graphView-activityImage\" style=\"position:absolute;top:"+ (activeNodeInfo.getActiveNode().getY()-8) +"px;left:"+(activeNodeInfo.getActiveNode().getX()-8)+"px;width:50px;height:50px; z-index:1000;background-image: url(images/icons/play_red_big.png);background-repeat:no-repeat;\"></div>";
+        boolean isNewDiagram = null==current || !current.getImageUrl().equals(event.getImageUrl());
+        current = event;
+
+        if(isNewDiagram)
+        {
+            ConsoleLog.debug("Getting diagram " + event.getImageUrl());
+            if(event.getDefinitionId()!=null)
+            {
+                diagram.clear();
+                controller.handleEvent(new Event(LoadDiagramSvgAction.ID, event));
+            }
+            else
+            {
+                showImage();
+            }
+            updateZoomButtons();
         }
-        s+= 	"</div>" +
-                "</div>";
 
-        HTML html = new HTML(s);
-
-        this.add(html);
-        invalidate();
+        // the diagram stays loaded, only the markers that changed are updated
+        diagram.setActiveNodes(event.getActiveNodeInfo());
     }
 
     /**
@@ -93,20 +139,73 @@ public class ActivityDiagramView extends ScrollLayoutPanel
      */
     public void update(String imageUrl)
     {
-        // remove contents
-        this.clear();
-        String imageUrlNoCache = imageUrl+"?"+System.currentTimeMillis();
-        ConsoleLog.debug("Getting image from " + imageUrlNoCache);
-        String s =
-                "<div style='width:1024px; height:768px; background-color:#ffffff;'>" +
-                        "<div id=\"imageContainer\" style=\"position:relative;top:-1;left:-1;\">" +
-                        "<img src=\""+imageUrlNoCache+"\" style=\"position:absolute;top:0;left:0\" />";
-        s+= 	"</div>" +
-                "</div>";
-
-        HTML html = new HTML(s);
-
-        this.add(html);
+        ConsoleLog.debug("Getting image from " + imageUrl);
+        current = new ActivityDiagramResultEvent(imageUrl, null);
+        diagram.setActiveNodes(null);
+        diagram.setImageUrl(imageUrl, true);
+        updateZoomButtons();
         invalidate();
-    }    
-}
\ No newline at end of file
+    }
+
+    void showSvg(ActivityDiagramResultEvent event, String svg)
+    {
+        if(isCurrent(event))
+        {
+            diagram.setSvg(event.getDefinitionId(), event.getImageUrl(), svg);
+            updateZoomButtons();
+            invalidate();
+        }
+    }
+
+    /**
+     * Loads the current diagram as tiles
+     */
+    void requestTiles()
+    {
+        if(current!=null && current.getDefinitionId()!=null)
+            controller.handleEvent(new Event(LoadDiagramTilesAction.ID, current));
+    }
+
+    void showTiles(ActivityDiagramResultEvent event, DiagramTileInfo info)
+    {
+        if(isCurrent(event))
+        {
+            diagram.setTiles(event.getDefinitionId(), event.getImageUrl(), info);
+            updateZoomButtons();
+            invalidate();
+        }
+    }
+
+    /**
+     * Shows the current diagram as a single image
+     */
+    void showImage()
+    {
+        if(current!=null && diagram.setImageUrl(current.getImageUrl(), false))
+        {
+            List<ActiveNodeInfo> activeNodeInfos = current.getActiveNodeInfo();
+            if(activeNodeInfos!=null && !activeNodeInfos.isEmpty())
+            {
+                ActiveNodeInfo first = activeNodeInfos.get(0);
+                diagram.setDiagramSize(first.getWidth(), first.getHeight());
+            }
+            diagram.setActiveNodes(activeNodeInfos);
+            updateZoomButtons();
+            invalidate();
+        }
+    }
+
+    /**
+     * A different diagram may have been requested meanwhile
+     */
+    private boolean isCurrent(ActivityDiagramResultEvent event)
+    {
+        return current!=null && current.getImageUrl().equals(event.getImageUrl());
+    }
+
+    private void updateZoomButtons()
+    {
+        zoomIn.setEnabled(diagram.getZoomLevel()>0);
+        zoomOut.setEnabled(diagram.getZoomLevel()<diagram.getZoomLevels()-1);
+    }
+}
@@ -33,8 +33,10 @@ import org.gwt.mosaic.ui.client.layout.BoxLayoutData;
 import org.gwt.mosaic.ui.client.layout.MosaicPanel;
 import org.gwt.mosaic.ui.client.list.DefaultListModel;
 import org.gwt.mosaic.ui.client.table.AbstractScrollTable;
+import org.jboss.bpm.console.client.ApplicationContext;
 import org.jboss.bpm.console.client.common.DataDriven;
 import org.jboss.bpm.console.client.common.LoadingOverlay;
+import org.jboss.bpm.console.client.common.ModelCache;
 import org.jboss.bpm.console.client.common.Model;
 import org.jboss.bpm.console.client.common.ModelCommands;
 import org.jboss.bpm.console.client.common.ModelParts;
@@ -141,6 +143,9 @@ public class DefinitionHistoryListView implements WidgetProvider, ViewInterface,
       {
         public void onClick(ClickEvent clickEvent)
         {
+          // the list is loaded from the process definitions, see UpdateHistoryDefinitionsAction
+          Registry.get(ApplicationContext.class).getModelCache()
+              .invalidate(ModelCache.DEFINITIONS);
           reload();
         }
       };
@@ -42,6 +42,7 @@ import org.gwt.mosaic.ui.client.layout.BoxLayoutData;
 import org.gwt.mosaic.ui.client.layout.MosaicPanel;
 import org.gwt.mosaic.ui.client.list.DefaultListModel;
 import org.gwt.mosaic.ui.client.table.AbstractScrollTable;
+import org.jboss.bpm.console.client.ApplicationContext;
 import org.jboss.bpm.console.client.common.*;
 import org.jboss.bpm.console.client.model.ProcessDefinitionRef;
 import org.jboss.errai.bus.client.ErraiBus;
@@ -143,6 +144,8 @@ public class DefinitionListView implements WidgetProvider, ViewInterface, DataDr
       {
         public void onClick(ClickEvent clickEvent)
         {
+          Registry.get(ApplicationContext.class).getModelCache()
+              .invalidate(ModelCache.DEFINITIONS);
           reload();
         }
       };
@@ -27,6 +27,7 @@ import com.mvc4g.client.Controller;
 import com.mvc4g.client.Event;
 import org.jboss.bpm.console.client.URLBuilder;
 import org.jboss.bpm.console.client.common.AbstractRESTAction;
+import org.jboss.bpm.console.client.common.ModelCache;
 import org.jboss.bpm.console.client.model.ProcessDefinitionRef;
 
 /**
@@ -54,6 +55,10 @@ public class DeleteDefinitionAction extends AbstractRESTAction
 
   public void handleSuccessfulResponse(final Controller controller, final Object event, Response response)
   {
+    appContext.getModelCache().invalidate(ModelCache.DEFINITIONS);
+    appContext.getModelCache().invalidate(ModelCache.HISTORY_DEFINITIONS);
+    appContext.getDefinitionIndex().remove(((ProcessDefinitionRef)event).getId());
+
     // refresh
     controller.handleEvent(
         new Event(UpdateDefinitionsAction.ID, null)
@@ -0,0 +1,521 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.client.process;
+
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.dom.client.NodeList;
+import com.google.gwt.event.dom.client.ScrollEvent;
+import com.google.gwt.event.dom.client.ScrollHandler;
+import com.google.gwt.event.logical.shared.ResizeEvent;
+import com.google.gwt.event.logical.shared.ResizeHandler;
+import com.google.gwt.event.shared.HandlerRegistration;
+import com.google.gwt.user.client.Window;
+import com.google.gwt.user.client.ui.AbsolutePanel;
+import com.google.gwt.user.client.ui.Composite;
+import com.google.gwt.user.client.ui.HTML;
+import com.google.gwt.user.client.ui.Image;
+import com.google.gwt.user.client.ui.ScrollPanel;
+import com.google.gwt.user.client.ui.SimplePanel;
+import com.google.gwt.user.client.ui.Widget;
+import org.jboss.bpm.console.client.URLBuilder;
+import org.jboss.bpm.console.client.model.ActiveNodeInfo;
+import org.jboss.bpm.console.client.model.DiagramNodeInfo;
+import org.jboss.bpm.console.client.model.DiagramTileInfo;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Process diagram with the active nodes marked.<br>
+ * The diagram is shown in one of three ways:
+ * <ul>
+ *   <li>as SVG, where active nodes are highlighted by adding the <code>active</code> class to their element
+ *   <li>as a tile grid, of which only the tiles intersecting the visible area are loaded
+ *   <li>as a single image
+ * </ul>
+ * SVG and tiled diagrams can be zoomed out.
+ * On images and tiles, active nodes get a marker styled through the <code>bpm-diagram-marker</code> CSS class.
+ * Only the nodes that differ from the previous update are touched,
+ * so that the diagram can be refreshed frequently without flicker.
+ */
+public class DiagramOverlay extends Composite
+{
+  private static final int DEFAULT_WIDTH = 1024;
+  private static final int DEFAULT_HEIGHT = 768;
+
+  private static final int SVG_LEVELS = 3;
+
+  // markers are centered on the top left corner of a node
+  private static final int MARKER_OFFSET = 8;
+
+  private final ScrollPanel viewport;
+  private final AbsolutePanel canvas = new AbsolutePanel();
+  private final Image image = new Image();
+
+  private String imageUrl;
+
+  // set for tiled and SVG diagrams
+  private String definitionId;
+  private int zoomLevel = 0;
+
+  private DiagramTileInfo tileInfo;
+
+  // keyed by level, column and row
+  private final Map<String, Widget> tiles = new HashMap<String, Widget>();
+
+  private HTML svg;
+  private int svgWidth;
+  private int svgHeight;
+
+  // node elements keyed by name
+  private final Map<String, Element> svgNodes = new HashMap<String, Element>();
+
+  // keyed by node name and position, SVG highlights don't have a marker widget
+  private final Map<String, Widget> markers = new HashMap<String, Widget>();
+  private final Map<String, DiagramNodeInfo> markedNodes = new HashMap<String, DiagramNodeInfo>();
+
+  private HandlerRegistration resizeRegistration;
+
+  public DiagramOverlay()
+  {
+    canvas.setStyleName("bpm-diagram");
+    canvas.setPixelSize(DEFAULT_WIDTH, DEFAULT_HEIGHT);
+
+    viewport = new ScrollPanel(canvas);
+    viewport.addScrollHandler(
+        new ScrollHandler()
+        {
+          public void onScroll(ScrollEvent event)
+          {
+            renderTiles();
+          }
+        }
+    );
+
+    initWidget(viewport);
+  }
+
+  /**
+   * Shows the diagram as a single image, unless it's already showing.
+   * Markers of a previous diagram are removed.
+   *
+   * @param reload load the image again, even if the URL didn't change
+   * @return true if the image has been (re)loaded
+   */
+  public boolean setImageUrl(String url, boolean reload)
+  {
+    if(!reload && url.equals(imageUrl))
+      return false;
+
+    boolean isNewDiagram = !url.equals(imageUrl);
+    reset();
+    if(isNewDiagram)
+      setActiveNodes(null);
+
+    this.imageUrl = url;
+
+    // the diagram may have been redeployed, bypass the browser cache
+    image.setUrl(url + "?" + System.currentTimeMillis());
+    canvas.add(image, 0, 0);
+    return true;
+  }
+
+  public String getImageUrl()
+  {
+    return imageUrl;
+  }
+
+  /**
+   * Shows the diagram as tiles, unless it's already showing.
+   * Markers are kept, the tiles may replace the image of the same diagram.
+   *
+   * @param imageUrl the single image of the same diagram
+   */
+  public void setTiles(String definitionId, String imageUrl, DiagramTileInfo info)
+  {
+    if(tileInfo!=null && definitionId.equals(this.definitionId))
+      return;
+
+    reset();
+    this.imageUrl = imageUrl;
+    this.definitionId = definitionId;
+    this.tileInfo = info;
+
+    resizeCanvas();
+    remark();
+    renderTiles();
+  }
+
+  public boolean isTiled()
+  {
+    return tileInfo!=null;
+  }
+
+  /**
+   * Shows the diagram as SVG, unless it's already showing.
+   * Markers are kept as highlights, the SVG may replace the image of the same diagram.
+   *
+   * @param imageUrl the single image of the same diagram
+   * @param markup a standalone <code>svg</code> document
+   * with a <code>&lt;g data-node="name"&gt;</code> element per node
+   */
+  public void setSvg(String definitionId, String imageUrl, String markup)
+  {
+    if(svg!=null && definitionId.equals(this.definitionId))
+      return;
+
+    reset();
+    this.imageUrl = imageUrl;
+    this.definitionId = definitionId;
+
+    svg = new HTML(markup);
+    svg.setStyleName("bpm-diagram-svg");
+    canvas.add(svg, 0, 0);
+
+    Element root = svgRoot();
+    if(root!=null)
+    {
+      svgWidth = parseSize(root.getAttribute("width"), DEFAULT_WIDTH);
+      svgHeight = parseSize(root.getAttribute("height"), DEFAULT_HEIGHT);
+
+      NodeList<Element> groups = root.getElementsByTagName("g");
+      for(int i=0; i<groups.getLength(); i++)
+      {
+        Element group = groups.getItem(i);
+        String name = group.getAttribute("data-node");
+        if(name!=null && name.length()>0)
+          svgNodes.put(name, group);
+      }
+    }
+
+    resizeCanvas();
+    remark();
+  }
+
+  public boolean isSvg()
+  {
+    return svg!=null;
+  }
+
+  public int getZoomLevel()
+  {
+    return zoomLevel;
+  }
+
+  public int getZoomLevels()
+  {
+    if(tileInfo!=null)
+      return tileInfo.getLevels();
+    return svg!=null ? SVG_LEVELS : 1;
+  }
+
+  /**
+   * Zooming out is only available for SVG and tiled diagrams.
+   * The view stays centered on the same part of the diagram.
+   */
+  public void setZoomLevel(int level)
+  {
+    level = Math.max(0, Math.min(level, getZoomLevels()-1));
+    if(level==zoomLevel)
+      return;
+
+    int centerX = (viewport.getHorizontalScrollPosition() + viewport.getOffsetWidth()/2) << zoomLevel;
+    int centerY = (viewport.getScrollPosition() + viewport.getOffsetHeight()/2) << zoomLevel;
+
+    clearTiles();
+    zoomLevel = level;
+    resizeCanvas();
+    positionMarkers();
+
+    viewport.setHorizontalScrollPosition(Math.max(0, (centerX >> level) - viewport.getOffsetWidth()/2));
+    viewport.setScrollPosition(Math.max(0, (centerY >> level) - viewport.getOffsetHeight()/2));
+    renderTiles();
+  }
+
+  /**
+   * Grows the diagram beyond the default size of 1024x768.
+   * SVG and tiled diagrams are sized by themselves.
+   */
+  public void setDiagramSize(int width, int height)
+  {
+    if(null==tileInfo && null==svg)
+      canvas.setPixelSize(Math.max(width, DEFAULT_WIDTH), Math.max(height, DEFAULT_HEIGHT));
+  }
+
+  /**
+   * @param nodes null or empty to remove all markers
+   */
+  public void setActiveNodes(List<ActiveNodeInfo> nodes)
+  {
+    Map<String, DiagramNodeInfo> active = new HashMap<String, DiagramNodeInfo>();
+    if(nodes!=null)
+    {
+      for(ActiveNodeInfo info : nodes)
+      {
+        DiagramNodeInfo node = info.getActiveNode();
+        if(node!=null)
+          active.put(key(node), node);
+      }
+    }
+
+    Iterator<String> it = markers.keySet().iterator();
+    while(it.hasNext())
+    {
+      String key = it.next();
+      if(!active.containsKey(key))
+      {
+        unmark(key);
+        it.remove();
+      }
+    }
+
+    for(Map.Entry<String, DiagramNodeInfo> entry : active.entrySet())
+    {
+      if(!markers.containsKey(entry.getKey()))
+        mark(entry.getKey(), entry.getValue());
+    }
+  }
+
+  /**
+   * Removes the diagram and all markers
+   */
+  public void clear()
+  {
+    reset();
+    setActiveNodes(null);
+  }
+
+  private void mark(String key, DiagramNodeInfo node)
+  {
+    markedNodes.put(key, node);
+
+    Element element = svgNodes.get(node.getName());
+    if(element!=null)
+    {
+      element.setAttribute("class", "n active");
+      markers.put(key, null);
+      return;
+    }
+
+    SimplePanel marker = new SimplePanel();
+    marker.setStyleName("bpm-diagram-marker");
+    marker.setTitle(node.getName());
+    canvas.add(marker, markerX(node), markerY(node));
+    markers.put(key, marker);
+  }
+
+  private void unmark(String key)
+  {
+    DiagramNodeInfo node = markedNodes.remove(key);
+    Widget marker = markers.get(key);
+    if(marker!=null)
+    {
+      marker.removeFromParent();
+    }
+    else if(node!=null && svgNodes.containsKey(node.getName()))
+    {
+      svgNodes.get(node.getName()).setAttribute("class", "n");
+    }
+  }
+
+  /**
+   * Marks the nodes again, once the way the diagram is shown has changed
+   */
+  private void remark()
+  {
+    Map<String, DiagramNodeInfo> nodes = new HashMap<String, DiagramNodeInfo>(markedNodes);
+    for(String key : nodes.keySet())
+      unmark(key);
+    markers.clear();
+
+    for(Map.Entry<String, DiagramNodeInfo> entry : nodes.entrySet())
+      mark(entry.getKey(), entry.getValue());
+  }
+
+  private void reset()
+  {
+    clearTiles();
+    image.removeFromParent();
+    if(svg!=null)
+    {
+      svg.removeFromParent();
+      svg = null;
+      svgNodes.clear();
+    }
+    imageUrl = null;
+    definitionId = null;
+    tileInfo = null;
+    zoomLevel = 0;
+    resizeCanvas();
+    remark();
+  }
+
+  private void resizeCanvas()
+  {
+    if(tileInfo!=null)
+    {
+      canvas.setPixelSize(tileInfo.getWidth(zoomLevel), tileInfo.getHeight(zoomLevel));
+    }
+    else if(svg!=null)
+    {
+      int width = Math.max(1, svgWidth >> zoomLevel);
+      int height = Math.max(1, svgHeight >> zoomLevel);
+      Element root = svgRoot();
+      if(root!=null)
+      {
+        // the viewBox scales the content
+        root.setAttribute("width", String.valueOf(width));
+        root.setAttribute("height", String.valueOf(height));
+      }
+      canvas.setPixelSize(width, height);
+    }
+    else
+    {
+      canvas.setPixelSize(DEFAULT_WIDTH, DEFAULT_HEIGHT);
+    }
+  }
+
+  private Element svgRoot()
+  {
+    NodeList<Element> roots = svg.getElement().getElementsByTagName("svg");
+    return roots.getLength()>0 ? roots.getItem(0) : null;
+  }
+
+  private void positionMarkers()
+  {
+    for(String key : markers.keySet())
+    {
+      Widget marker = markers.get(key);
+      if(marker!=null)
+      {
+        DiagramNodeInfo node = markedNodes.get(key);
+        canvas.setWidgetPosition(marker, markerX(node), markerY(node));
+      }
+    }
+  }
+
+  private int markerX(DiagramNodeInfo node)
+  {
+    return (node.getX() >> zoomLevel) - MARKER_OFFSET;
+  }
+
+  private int markerY(DiagramNodeInfo node)
+  {
+    return (node.getY() >> zoomLevel) - MARKER_OFFSET;
+  }
+
+  /**
+   * Loads the tiles that intersect the visible area and drops the others
+   */
+  private void renderTiles()
+  {
+    if(null==tileInfo)
+      return;
+
+    // not laid out yet, assume the default size
+    int width = viewport.getOffsetWidth()>0 ? viewport.getOffsetWidth() : DEFAULT_WIDTH;
+    int height = viewport.getOffsetHeight()>0 ? viewport.getOffsetHeight() : DEFAULT_HEIGHT;
+
+    int size = tileInfo.getTileSize();
+    int firstColumn = viewport.getHorizontalScrollPosition() / size;
+    int firstRow = viewport.getScrollPosition() / size;
+    int lastColumn = Math.min(
+        (viewport.getHorizontalScrollPosition() + width) / size, tileInfo.getColumns(zoomLevel)-1
+    );
+    int lastRow = Math.min(
+        (viewport.getScrollPosition() + height) / size, tileInfo.getRows(zoomLevel)-1
+    );
+
+    Map<String, Widget> visible = new HashMap<String, Widget>();
+    for(int column=firstColumn; column<=lastColumn; column++)
+    {
+      for(int row=firstRow; row<=lastRow; row++)
+      {
+        String key = zoomLevel + "/" + column + "/" + row;
+        Widget tile = tiles.remove(key);
+        if(null==tile)
+        {
+          tile = new Image(
+              URLBuilder.getInstance().getDiagramTileURL(definitionId, zoomLevel, column, row)
+          );
+          tile.setStyleName("bpm-diagram-tile");
+          canvas.add(tile, column * size, row * size);
+        }
+        visible.put(key, tile);
+      }
+    }
+
+    clearTiles();
+    tiles.putAll(visible);
+  }
+
+  private void clearTiles()
+  {
+    for(Widget tile : tiles.values())
+      tile.removeFromParent();
+    tiles.clear();
+  }
+
+  private static int parseSize(String value, int defaultValue)
+  {
+    try
+    {
+      return Integer.parseInt(value);
+    }
+    catch (NumberFormatException e)
+    {
+      return defaultValue;
+    }
+  }
+
+  private static String key(DiagramNodeInfo node)
+  {
+    return node.getName() + "@" + node.getX() + "," + node.getY();
+  }
+
+  @Override
+  protected void onLoad()
+  {
+    resizeRegistration = Window.addResizeHandler(
+        new ResizeHandler()
+        {
+          public void onResize(ResizeEvent event)
+          {
+            renderTiles();
+          }
+        }
+    );
+    renderTiles();
+  }
+
+  @Override
+  protected void onUnload()
+  {
+    if(resizeRegistration!=null)
+    {
+      resizeRegistration.removeHandler();
+      resizeRegistration = null;
+    }
+  }
+}
@@ -33,8 +33,6 @@ import org.gwt.mosaic.core.client.Dimension;
 import org.gwt.mosaic.ui.client.ListBox;
 import org.gwt.mosaic.ui.client.MessageBox;
 import org.gwt.mosaic.ui.client.ToolBar;
-import org.gwt.mosaic.ui.client.event.RowSelectionEvent;
-import org.gwt.mosaic.ui.client.event.RowSelectionHandler;
 import org.gwt.mosaic.ui.client.layout.BorderLayout;
 import org.gwt.mosaic.ui.client.layout.BorderLayoutData;
 import org.gwt.mosaic.ui.client.layout.BoxLayout;
@@ -42,10 +40,12 @@ import org.gwt.mosaic.ui.client.layout.BoxLayoutData;
 import org.gwt.mosaic.ui.client.layout.MosaicPanel;
 import org.gwt.mosaic.ui.client.list.DefaultListModel;
 import org.jboss.bpm.console.client.ApplicationContext;
+import org.jboss.bpm.console.client.common.ChangeSubscriber;
 import org.jboss.bpm.console.client.common.DataDriven;
 import org.jboss.bpm.console.client.common.IFrameWindowCallback;
 import org.jboss.bpm.console.client.common.IFrameWindowPanel;
 import org.jboss.bpm.console.client.common.LoadingOverlay;
+import org.jboss.bpm.console.client.common.VirtualListBox;
 import org.jboss.bpm.console.client.common.WidgetWindowPanel;
 import org.jboss.bpm.console.client.icons.ConsoleIconBundle;
 import org.jboss.bpm.console.client.model.ProcessDefinitionRef;
@@ -63,6 +63,8 @@ import com.google.gwt.event.dom.client.ClickEvent;
 import com.google.gwt.event.dom.client.ClickHandler;
 import com.google.gwt.event.dom.client.FocusEvent;
 import com.google.gwt.event.dom.client.FocusHandler;
+import com.google.gwt.event.logical.shared.SelectionEvent;
+import com.google.gwt.event.logical.shared.SelectionHandler;
 import com.mvc4g.client.Controller;
 import com.mvc4g.client.Event;
 import com.mvc4g.client.ViewInterface;
@@ -78,7 +80,7 @@ public class InstanceListView implements WidgetProvider, ViewInterface, DataDriv
 
     private MosaicPanel instanceList = null;
 
-    private ListBox<ProcessInstanceRef> listBox;
+    private VirtualListBox<ProcessInstanceRef> listBox;
 
     private ProcessDefinitionRef currentDefinition;
 
@@ -148,13 +150,13 @@ public class InstanceListView implements WidgetProvider, ViewInterface, DataDriv
             instanceList.setWidgetSpacing(0);
 
             listBox =
-                    new ListBox<ProcessInstanceRef>(
+                    new VirtualListBox<ProcessInstanceRef>(
                             new String[] {
                                     "<b>Instance</b>", "State", "Start Date"}
                     );
 
-            listBox.setCellRenderer(new ListBox.CellRenderer<ProcessInstanceRef>() {
-                public void renderCell(ListBox<ProcessInstanceRef> listBox, int row, int column,
+            listBox.setCellRenderer(new VirtualListBox.CellRenderer<ProcessInstanceRef>() {
+                public void renderCell(VirtualListBox<ProcessInstanceRef> listBox, int row, int column,
                                        ProcessInstanceRef item) {
                     switch (column) {
                         case 0:
@@ -173,10 +175,10 @@ public class InstanceListView implements WidgetProvider, ViewInterface, DataDriv
                 }
             });
 
-            listBox.addRowSelectionHandler(
-                    new RowSelectionHandler()
+            listBox.addSelectionHandler(
+                    new SelectionHandler<ProcessInstanceRef>()
                     {
-                        public void onRowSelection(RowSelectionEvent rowSelectionEvent)
+                        public void onSelection(SelectionEvent<ProcessInstanceRef> event)
                         {
                             int index = listBox.getSelectedIndex();
                             if(index!=-1)
@@ -461,6 +463,7 @@ public class InstanceListView implements WidgetProvider, ViewInterface, DataDriv
     {
         this.currentDefinition = null;
         this.cachedInstances = new ArrayList<ProcessInstanceRef>();
+        ChangeSubscriber.getInstance().unsubscribeInstances();
         renderUpdate();
 
         startBtn.setEnabled(false);
@@ -475,6 +478,13 @@ public class InstanceListView implements WidgetProvider, ViewInterface, DataDriv
         this.currentDefinition = (ProcessDefinitionRef)data[0];
         this.cachedInstances = (List<ProcessInstanceRef>)data[1];
 
+        // reload when instances of this definition change on the server
+        if(currentDefinition!=null)
+            ChangeSubscriber.getInstance().subscribeInstances(
+                    currentDefinition.getId(),
+                    new Event(UpdateInstancesAction.ID, currentDefinition)
+            );
+
         //if(isInitialized()) pagingPanel.reset();
         renderUpdate();
     }
@@ -506,15 +516,8 @@ public class InstanceListView implements WidgetProvider, ViewInterface, DataDriv
 
     private void bindData(List<ProcessInstanceRef> instances)
     {
-        final DefaultListModel<ProcessInstanceRef> model =
-                (DefaultListModel<ProcessInstanceRef>) listBox.getModel();
-        model.clear();
-
         List<ProcessInstanceRef> list = instances;//pagingPanel.trim(instances);
-        for(ProcessInstanceRef inst : list)
-        {
-        	model.add(inst);
-        }
+        listBox.setItems(new ArrayList<ProcessInstanceRef>(list));
 
         // layout again
         panel.invalidate();
@@ -81,7 +81,7 @@ public class LoadActivityDiagramAction extends AbstractRESTAction
     	List<ActiveNodeInfo> activeNodeInfos = DTOParser.parseActiveNodeInfo(response.getText());
 	    // update view
 	    ActivityDiagramView view = (ActivityDiagramView) controller.getView(ActivityDiagramView.ID);
-	    view.update(new ActivityDiagramResultEvent(URLBuilder.getInstance().getProcessImageURL(inst.getDefinitionId()), activeNodeInfos));
+	    view.update(new ActivityDiagramResultEvent(URLBuilder.getInstance().getProcessImageURL(inst.getDefinitionId()), inst.getDefinitionId(), activeNodeInfos));
     }
     }
   
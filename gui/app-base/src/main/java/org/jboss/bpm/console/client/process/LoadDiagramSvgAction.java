@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.client.process;
+
+import com.google.gwt.http.client.RequestBuilder;
+import com.google.gwt.http.client.Response;
+import com.mvc4g.client.Controller;
+import org.jboss.bpm.console.client.URLBuilder;
+import org.jboss.bpm.console.client.common.AbstractRESTAction;
+import org.jboss.bpm.console.client.process.events.ActivityDiagramResultEvent;
+import org.jboss.bpm.console.client.util.ConsoleLog;
+
+/**
+ * Loads the SVG rendering of a process diagram.
+ * Falls back to the tiles if the server can't render the diagram.
+ */
+class LoadDiagramSvgAction extends AbstractRESTAction
+{
+  public final static String ID = LoadDiagramSvgAction.class.getName();
+
+  private final ActivityDiagramView view;
+
+  LoadDiagramSvgAction(ActivityDiagramView view)
+  {
+    this.view = view;
+  }
+
+  public String getId()
+  {
+    return ID;
+  }
+
+  public String getUrl(Object event)
+  {
+    return URLBuilder.getInstance().getDiagramSvgURL(
+        ((ActivityDiagramResultEvent)event).getDefinitionId()
+    );
+  }
+
+  public RequestBuilder.Method getRequestMethod()
+  {
+    return RequestBuilder.GET;
+  }
+
+  public void handleSuccessfulResponse(
+      final Controller controller, final Object event, Response response)
+  {
+    view.showSvg((ActivityDiagramResultEvent)event, response.getText());
+  }
+
+  @Override
+  protected void handleError(String url, Throwable t)
+  {
+    // not worth a message, the raster diagram will do
+    ConsoleLog.warn("No SVG diagram at " + url + ": " + t.getMessage());
+    view.requestTiles();
+  }
+}
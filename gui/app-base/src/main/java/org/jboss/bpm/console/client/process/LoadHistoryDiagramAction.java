@@ -71,6 +71,7 @@ public class LoadHistoryDiagramAction extends AbstractRESTAction
     view.update(
         new ActivityDiagramResultEvent(
             URLBuilder.getInstance().getProcessImageURL(inst.getId()),
+            inst.getId(),
             activeNodeInfos
         )
     );
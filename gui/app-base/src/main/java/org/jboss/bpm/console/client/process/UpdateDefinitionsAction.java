@@ -28,6 +28,7 @@ import com.mvc4g.client.Controller;
 import org.jboss.bpm.console.client.ApplicationContext;
 import org.jboss.bpm.console.client.URLBuilder;
 import org.jboss.bpm.console.client.common.AbstractRESTAction;
+import org.jboss.bpm.console.client.common.ModelCache;
 import org.jboss.bpm.console.client.common.DataDriven;
 import org.jboss.bpm.console.client.model.JSOParser;
 import org.jboss.bpm.console.client.model.ProcessDefinitionRef;
@@ -63,6 +64,11 @@ public class UpdateDefinitionsAction extends AbstractRESTAction
     return RequestBuilder.GET;
   }
 
+  protected String getCachedModel(Object event)
+  {
+    return ModelCache.DEFINITIONS;
+  }
+
   @Override
   protected DataDriven getDataDriven(Controller controller)
   {
@@ -74,12 +80,15 @@ public class UpdateDefinitionsAction extends AbstractRESTAction
 	  this.appContext = Registry.get(ApplicationContext.class);
 	  boolean isjBPMInstance = appContext.getConfig().getProfileName().equals("jBPM Console"); 
 	  long start = System.currentTimeMillis();
+
+	  List<ProcessDefinitionRef> definitions =
+	      JSOParser.parseProcessDefinitions(response.getText());
+	  appContext.getDefinitionIndex().sync(definitions);
+
 	  if(isjBPMInstance) {
 		  DefinitionListView view = (DefinitionListView) controller.getView(DefinitionListView.ID);
 		  if(view != null) // may not be initialized (lazy)
 		  {
-		    List<ProcessDefinitionRef> definitions =
-		        JSOParser.parseProcessDefinitions(response.getText());
 		    view.update(definitions);
 		    ConsoleLog.info("Loaded " + definitions.size() + " process definitions in " +(System.currentTimeMillis()-start)+" ms");
 		  }
@@ -87,8 +96,6 @@ public class UpdateDefinitionsAction extends AbstractRESTAction
 		  Explorer view = (Explorer) controller.getView(Explorer.class.getName());
 		  if(view != null) // may not be initialized (lazy)
 		  {      
-			  List<ProcessDefinitionRef> definitions =
-		            JSOParser.parseProcessDefinitions(response.getText());
 		      view.update(definitions);
 		      ConsoleLog.info("Loaded " + definitions.size() + " process definitions in " +(System.currentTimeMillis()-start)+" ms");
 		  }
@@ -26,6 +26,7 @@ import com.google.gwt.http.client.Response;
 import com.mvc4g.client.Controller;
 import org.jboss.bpm.console.client.URLBuilder;
 import org.jboss.bpm.console.client.common.AbstractRESTAction;
+import org.jboss.bpm.console.client.common.ModelCache;
 import org.jboss.bpm.console.client.common.DataDriven;
 import org.jboss.bpm.console.client.model.JSOParser;
 import org.jboss.bpm.console.client.model.ProcessDefinitionRef;
@@ -58,6 +59,11 @@ public class UpdateHistoryDefinitionsAction extends AbstractRESTAction
     return RequestBuilder.GET;
   }
 
+  protected String getCachedModel(Object event)
+  {
+    return ModelCache.DEFINITIONS;
+  }
+
   @Override
   protected DataDriven getDataDriven(Controller controller)
   {
@@ -26,7 +26,7 @@ import com.google.gwt.http.client.Response;
 import com.mvc4g.client.Controller;
 import org.jboss.bpm.console.client.URLBuilder;
 import org.jboss.bpm.console.client.common.*;
-import org.jboss.bpm.console.client.model.JSOParser;
+import org.jboss.bpm.console.client.model.OverlayParser;
 import org.jboss.bpm.console.client.model.ProcessDefinitionRef;
 import org.jboss.bpm.console.client.model.ProcessInstanceRef;
 import org.jboss.bpm.console.client.util.ConsoleLog;
@@ -73,7 +73,7 @@ public class UpdateInstancesAction extends AbstractRESTAction
     final long start = System.currentTimeMillis();
 
     final ProcessDefinitionRef def = (ProcessDefinitionRef)event;
-    List<ProcessInstanceRef> instances = JSOParser.parseProcessInstances(response.getText());
+    List<ProcessInstanceRef> instances = OverlayParser.parseProcessInstances(response.getText());
     InstanceListView view = (InstanceListView) controller.getView(InstanceListView.ID);
     if(view!=null) view.update(def, instances);
 
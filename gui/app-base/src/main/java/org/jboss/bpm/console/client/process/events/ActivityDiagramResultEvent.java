@@ -31,6 +31,7 @@ import java.util.List;
 public class ActivityDiagramResultEvent
 {
   private String imageUrl;
+  private String definitionId;
   private List<ActiveNodeInfo> activeNodeInfo;
 
   public ActivityDiagramResultEvent()
@@ -43,6 +44,15 @@ public class ActivityDiagramResultEvent
     this.activeNodeInfo = activeNodeInfo;
   }
 
+  /**
+   * @param definitionId the definition whose diagram may be loaded as tiles instead of the image
+   */
+  public ActivityDiagramResultEvent(String imageUrl, String definitionId, List<ActiveNodeInfo> activeNodeInfo)
+  {
+    this(imageUrl, activeNodeInfo);
+    this.definitionId = definitionId;
+  }
+
   public String getImageUrl()
   {
     return imageUrl;
@@ -53,6 +63,16 @@ public class ActivityDiagramResultEvent
     this.imageUrl = imageUrl;
   }
 
+  public String getDefinitionId()
+  {
+    return definitionId;
+  }
+
+  public void setDefinitionId(String definitionId)
+  {
+    this.definitionId = definitionId;
+  }
+
   public List<ActiveNodeInfo> getActiveNodeInfo()
   {
     return activeNodeInfo;
@@ -17,18 +17,23 @@ package org.jboss.bpm.console.client.process.v2;
 
 import com.google.gwt.event.dom.client.ClickEvent;
 import com.google.gwt.event.dom.client.ClickHandler;
+import com.google.gwt.event.dom.client.KeyUpEvent;
+import com.google.gwt.event.dom.client.KeyUpHandler;
 import com.google.gwt.user.client.Command;
 import com.google.gwt.user.client.DeferredCommand;
 import com.google.gwt.user.client.ui.Button;
 import com.google.gwt.user.client.ui.HTML;
 import com.google.gwt.user.client.ui.ListBox;
+import com.google.gwt.user.client.ui.TextBox;
 import com.google.gwt.user.client.ui.Widget;
 import com.mvc4g.client.Controller;
 import com.mvc4g.client.Event;
 import com.mvc4g.client.ViewInterface;
 import org.gwt.mosaic.ui.client.*;
 import org.gwt.mosaic.ui.client.layout.*;
+import org.jboss.bpm.console.client.ApplicationContext;
 import org.jboss.bpm.console.client.common.DataDriven;
+import org.jboss.bpm.console.client.common.DefinitionIndex;
 import org.jboss.bpm.console.client.common.LoadingOverlay;
 import org.jboss.bpm.console.client.model.ProcessDefinitionRef;
 import org.jboss.bpm.console.client.process.*;
@@ -43,7 +48,8 @@ import org.jboss.errai.workspaces.client.framework.Registry;
 import org.jboss.errai.workspaces.client.protocols.LayoutCommands;
 import org.jboss.errai.workspaces.client.protocols.LayoutParts;
 
-import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 /**
  * @author: Heiko Braun <hbraun@redhat.com>
@@ -53,6 +59,11 @@ import java.util.List;
 @LoadTool(name = "Manage Instances", group = "Processes", icon = "processIcon", priority = 1)
 public class Explorer implements WidgetProvider, DataDriven, ViewInterface {
 
+    /**
+     * Max number of process names offered for a filter
+     */
+    private static final int MAX_NAMES = 100;
+
     private LayoutPanel layout;
     private LayoutPanel definitionPanel;
 
@@ -62,7 +73,7 @@ public class Explorer implements WidgetProvider, DataDriven, ViewInterface {
 
     private Controller controller;
 
-    private ProcessGroups processGroups = null;
+    private DefinitionIndex definitions = null;
 
     private ProcessDefinitionRef activeDefinition;
 
@@ -203,6 +214,8 @@ public class Explorer implements WidgetProvider, DataDriven, ViewInterface {
     }
 
     private void initController() {
+        definitions = Registry.get(ApplicationContext.class).getDefinitionIndex();
+
         Controller controller = Registry.get(Controller.class);
         controller.addView(Explorer.class.getName(), this);
         controller.addAction(UpdateInstancesAction.ID, new UpdateInstancesAction());
@@ -217,8 +230,10 @@ public class Explorer implements WidgetProvider, DataDriven, ViewInterface {
 
     }
 
+    /**
+     * The definitions have been indexed by {@link UpdateDefinitionsAction} already
+     */
     public void update(Object... data) {
-        this.processGroups = new ProcessGroups((List<ProcessDefinitionRef>)data[0]);
         selectDefinition();
     }
 
@@ -233,18 +248,21 @@ public class Explorer implements WidgetProvider, DataDriven, ViewInterface {
         popup.setWidth("30%");
 
         final ListBox listBox = new ListBox();
-        listBox.addItem("");
+        fillProcessNames(listBox, "");
 
-        assert processGroups!=null : "process definitions not loaded";
-
-        for(String group : processGroups.getGroups())
-        {
-            listBox.addItem(group);
-        }
+        // narrows the names down by prefix of name, key or version
+        final TextBox filter = new TextBox();
+        filter.addKeyUpHandler(new KeyUpHandler() {
+            public void onKeyUp(KeyUpEvent keyUpEvent)
+            {
+                fillProcessNames(listBox, filter.getText());
+            }
+        });
 
         // show dialogue
         LayoutPanel p = new LayoutPanel(new BoxLayout(BoxLayout.Orientation.VERTICAL));
         p.add(new HTML("Please select a process:"));
+        p.add(filter);
         p.add(listBox);
 
         // -----
@@ -293,9 +311,32 @@ public class Explorer implements WidgetProvider, DataDriven, ViewInterface {
         popup.show();
     }
 
+    private void fillProcessNames(ListBox listBox, String query)
+    {
+        listBox.clear();
+        listBox.addItem("");
+
+        Set<String> names = new LinkedHashSet<String>();
+        if(query.trim().length()==0)
+        {
+            names.addAll(definitions.getNames());
+        }
+        else
+        {
+            for(ProcessDefinitionRef def : definitions.search(query, Integer.MAX_VALUE))
+            {
+                names.add(def.getName());
+                if(names.size()==MAX_NAMES) break;
+            }
+        }
+
+        for(String name : names)
+            listBox.addItem(name);
+    }
+
     private void identifyActiveVersion() {
         for(ProcessDefinitionRef groupMemmber :
-                processGroups.getProcessesForGroup(selectedGroup))
+                definitions.getVersions(selectedGroup))
         {
             if(!groupMemmber.isSuspended())
             {
@@ -309,7 +350,7 @@ public class Explorer implements WidgetProvider, DataDriven, ViewInterface {
         ProcessDefinitionRef mostRecent = null;
 
         for(ProcessDefinitionRef groupMember :
-                processGroups.getProcessesForGroup(selectedGroup))
+                definitions.getVersions(selectedGroup))
         {
             if(null==mostRecent || groupMember.getVersion()>mostRecent.getVersion())
                 mostRecent = groupMember;
@@ -371,7 +412,7 @@ public class Explorer implements WidgetProvider, DataDriven, ViewInterface {
 
         assert selectedGroup!=null : "no process selected";
 
-        for(ProcessDefinitionRef def : processGroups.getProcessesForGroup(selectedGroup))
+        for(ProcessDefinitionRef def : definitions.getVersions(selectedGroup))
         {
             listBox.addItem(String.valueOf(def.getVersion()));
         }
@@ -425,7 +466,7 @@ public class Explorer implements WidgetProvider, DataDriven, ViewInterface {
 
     private ProcessDefinitionRef getSelectedVersion(ListBox listBox) {
         ProcessDefinitionRef selection = null;
-        for(ProcessDefinitionRef ref : processGroups.getProcessesForGroup(selectedGroup))
+        for(ProcessDefinitionRef ref : definitions.getVersions(selectedGroup))
         {
             if(ref.getVersion() == Long.valueOf(listBox.getItemText(listBox.getSelectedIndex())))
             {
@@ -28,8 +28,10 @@ import org.gwt.mosaic.ui.client.layout.BoxLayout;
 import org.gwt.mosaic.ui.client.layout.BoxLayoutData;
 import org.gwt.mosaic.ui.client.layout.MosaicPanel;
 import org.jboss.bpm.console.client.ApplicationContext;
+import org.jboss.bpm.console.client.common.DefinitionIndex;
 import org.jboss.bpm.console.client.model.ProcessDefinitionRef;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -64,29 +66,20 @@ public class SearchDefinitionView
     this.controller = controller;
   }
 
-  private MultiWordSuggestOracle createOracle(List<ProcessDefinitionRef> definitions)
-  {
-    MultiWordSuggestOracle oracle = new MultiWordSuggestOracle();
-
-    for(ProcessDefinitionRef p : definitions)
-    {
-      oracle.add(p.getId());
-    }
-
-    return oracle;
-  }
-
+  /**
+   * The definitions have been indexed by {@link UpdateSearchDefinitionsAction} already
+   */
   public void update(List<ProcessDefinitionRef> definitions)
   {
     this.clear();
     this.selection = null;
 
-    Label desc = new Label("Please enter a process definition ID");
+    Label desc = new Label("Please enter a process definition name, key or ID");
     //desc.setStyleName("bpm-label-header");
     this.add(desc, new BoxLayoutData(BoxLayoutData.FillStyle.HORIZONTAL));
 
     suggestBox = new SuggestBox(
-        createOracle(definitions)
+        new DefinitionOracle(appContext.getDefinitionIndex())
     );
 
     suggestBox.addEventHandler(
@@ -128,4 +121,40 @@ public class SearchDefinitionView
   {
     this.parent = window;
   }
+
+  /**
+   * Suggests definitions by prefix of their name, key, version or id
+   */
+  private static class DefinitionOracle extends SuggestOracle
+  {
+    private final DefinitionIndex index;
+
+    DefinitionOracle(DefinitionIndex index)
+    {
+      this.index = index;
+    }
+
+    public void requestSuggestions(Request request, Callback callback)
+    {
+      List<Suggestion> suggestions = new ArrayList<Suggestion>();
+      for(final ProcessDefinitionRef def : index.search(request.getQuery(), request.getLimit()))
+      {
+        suggestions.add(
+            new Suggestion()
+            {
+              public String getDisplayString()
+              {
+                return def.getName() + " (" + def.getVersion() + ")";
+              }
+
+              public String getReplacementString()
+              {
+                return def.getId();
+              }
+            }
+        );
+      }
+      callback.onSuggestionsReady(request, new Response(suggestions));
+    }
+  }
 }
@@ -26,6 +26,7 @@ import com.google.gwt.http.client.Response;
 import com.mvc4g.client.Controller;
 import org.jboss.bpm.console.client.URLBuilder;
 import org.jboss.bpm.console.client.common.AbstractRESTAction;
+import org.jboss.bpm.console.client.common.ModelCache;
 import org.jboss.bpm.console.client.model.JSOParser;
 import org.jboss.bpm.console.client.model.ProcessDefinitionRef;
 import org.jboss.bpm.console.client.util.ConsoleLog;
@@ -57,11 +58,18 @@ public class UpdateSearchDefinitionsAction extends AbstractRESTAction
     return RequestBuilder.GET;
   }
 
+  protected String getCachedModel(Object event)
+  {
+    return ModelCache.DEFINITIONS;
+  }
+
   public void handleSuccessfulResponse(final Controller controller, final Object event, Response response)
   {
     String target = (String)event;
 
     List<ProcessDefinitionRef> definitions = JSOParser.parseProcessDefinitions(response.getText());
+    appContext.getDefinitionIndex().sync(definitions);
+
     SearchDefinitionView view = (SearchDefinitionView)controller.getView(target);
     view.update(definitions);
     
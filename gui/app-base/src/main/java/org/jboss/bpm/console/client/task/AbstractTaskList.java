@@ -23,9 +23,9 @@ package org.jboss.bpm.console.client.task;
 
 import com.mvc4g.client.Controller;
 import com.mvc4g.client.ViewInterface;
-import org.gwt.mosaic.ui.client.ListBox;
 import org.gwt.mosaic.ui.client.layout.MosaicPanel;
 import org.jboss.bpm.console.client.Authentication;
+import org.jboss.bpm.console.client.common.VirtualListBox;
 import org.jboss.bpm.console.client.model.TaskRef;
 import org.jboss.errai.workspaces.client.framework.Registry;
 
@@ -38,9 +38,21 @@ import java.util.List;
  */
 public abstract class AbstractTaskList implements ViewInterface
 {  
+  /**
+   * Keeps the selection when the task list is refreshed
+   */
+  protected static final VirtualListBox.KeyProvider<TaskRef> TASK_KEY =
+      new VirtualListBox.KeyProvider<TaskRef>()
+      {
+        public Object getKey(TaskRef item)
+        {
+          return item.getId();
+        }
+      };
+
   protected Controller controller;
   protected MosaicPanel taskList = null;
-  protected ListBox<TaskRef> listBox;
+  protected VirtualListBox<TaskRef> listBox;
   protected boolean isInitialized;
   protected String identity;
   protected List<TaskRef> cachedTasks;
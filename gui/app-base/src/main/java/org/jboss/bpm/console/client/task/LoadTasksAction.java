@@ -27,7 +27,7 @@ import com.mvc4g.client.Controller;
 import org.jboss.bpm.console.client.URLBuilder;
 import org.jboss.bpm.console.client.common.AbstractRESTAction;
 import org.jboss.bpm.console.client.common.DataDriven;
-import org.jboss.bpm.console.client.model.DTOParser;
+import org.jboss.bpm.console.client.model.OverlayParser;
 import org.jboss.bpm.console.client.model.TaskRef;
 import org.jboss.bpm.console.client.util.ConsoleLog;
 
@@ -71,7 +71,7 @@ public class LoadTasksAction extends AbstractRESTAction
   {
     String identity = (String)event;
 
-    List<TaskRef> tasks = DTOParser.parseTaskReferenceList(response.getText());
+    List<TaskRef> tasks = OverlayParser.parseTaskReferenceList(response.getText());
     AssignedTasksView view = (AssignedTasksView)controller.getView(AssignedTasksView.ID);
 
     view.update(identity, tasks);
@@ -23,17 +23,15 @@ package org.jboss.bpm.console.client.task;
 
 import com.google.gwt.event.dom.client.ClickEvent;
 import com.google.gwt.event.dom.client.ClickHandler;
+import com.google.gwt.event.logical.shared.SelectionEvent;
+import com.google.gwt.event.logical.shared.SelectionHandler;
 import com.google.gwt.user.client.Timer;
 import com.google.gwt.user.client.ui.Button;
 import com.mvc4g.client.Controller;
 import com.mvc4g.client.Event;
-import org.gwt.mosaic.ui.client.ListBox;
 import org.gwt.mosaic.ui.client.MessageBox;
 import org.gwt.mosaic.ui.client.ToolBar;
-import org.gwt.mosaic.ui.client.event.RowSelectionEvent;
-import org.gwt.mosaic.ui.client.event.RowSelectionHandler;
 import org.gwt.mosaic.ui.client.layout.*;
-import org.gwt.mosaic.ui.client.list.DefaultListModel;
 import org.jboss.bpm.console.client.ApplicationContext;
 import org.jboss.bpm.console.client.common.*;
 import org.jboss.bpm.console.client.model.TaskRef;
@@ -48,6 +46,7 @@ import org.jboss.errai.workspaces.client.api.WidgetProvider;
 import org.jboss.errai.workspaces.client.api.ProvisioningCallback;
 import org.jboss.errai.workspaces.client.framework.Registry;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -88,6 +87,12 @@ public class OpenTasksView extends AbstractTaskList implements WidgetProvider, D
       controller.addAction(ReloadAllTaskListsAction.ID, new ReloadAllTaskListsAction());
       controller.addAction(SkipTaskAction.ID, new SkipTaskAction());
 
+      // reload the task lists when the server tells they've changed
+      String currentUser = Registry.get(ApplicationContext.class).getAuthentication().getUsername();
+      ChangeSubscriber.getInstance().subscribeTasks(
+          currentUser, new Event(ReloadAllTaskListsAction.ID, null)
+      );
+
       actionSetup = true;
     }
   }
@@ -129,14 +134,15 @@ registerView(controller, tabPanel, AssignedTasksView.ID, new AssignedTasksView(a
       taskList.setWidgetSpacing(0);
 
       listBox =
-          new ListBox<TaskRef>(
+          new VirtualListBox<TaskRef>(
               new String[] {
                   "Priority", "Process", "Task Name", "Status", "Due Date"}
           );
 
 
-      listBox.setCellRenderer(new ListBox.CellRenderer<TaskRef>() {
-        public void renderCell(ListBox<TaskRef> listBox, int row, int column,
+      listBox.setKeyProvider(TASK_KEY);
+      listBox.setCellRenderer(new VirtualListBox.CellRenderer<TaskRef>() {
+        public void renderCell(VirtualListBox<TaskRef> listBox, int row, int column,
                                TaskRef item) {
           switch (column) {
             case 0:
@@ -162,10 +168,10 @@ registerView(controller, tabPanel, AssignedTasksView.ID, new AssignedTasksView(a
       });
 
 
-      listBox.addRowSelectionHandler(
-          new RowSelectionHandler()
+      listBox.addSelectionHandler(
+          new SelectionHandler<TaskRef>()
           {
-            public void onRowSelection(RowSelectionEvent rowSelectionEvent)
+            public void onSelection(SelectionEvent<TaskRef> event)
             {
               TaskRef task = getSelection(); // first call always null?
               if(task!=null)
@@ -323,10 +329,7 @@ registerView(controller, tabPanel, AssignedTasksView.ID, new AssignedTasksView(a
 
   public void reset()
   {
-    final DefaultListModel<TaskRef> model =
-        (DefaultListModel<TaskRef>) listBox.getModel();
-
-    model.clear();
+    listBox.clear();
 
     // clear details
     controller.handleEvent(
@@ -353,17 +356,19 @@ registerView(controller, tabPanel, AssignedTasksView.ID, new AssignedTasksView(a
     // lazy init
     initialize();
 
-    reset();
-
-    final DefaultListModel<TaskRef> model =
-        (DefaultListModel<TaskRef>) listBox.getModel();
-
     List<TaskRef> trimmed = pagingPanel.trim(cachedTasks);
+    List<TaskRef> tasks = new ArrayList<TaskRef>(trimmed.size());
     for(TaskRef task : trimmed)
     {
       if(TaskRef.STATE.OPEN ==task.getCurrentState())
-        model.add(task);
+        tasks.add(task);
     }
+    listBox.setItems(tasks);
+
+    // the selection survives the refresh if the task is still listed
+    controller.handleEvent(
+        new Event(UpdateDetailsAction.ID, new DetailViewEvent("OpenDetailView", getSelection()))
+    );
   }
 
 }
@@ -71,6 +71,14 @@ public class ConsoleLog
       com.allen_sauer.gwt.log.client.Log.setUncaughtExceptionHandler();
   }
 
+  /**
+   * Guard for debug messages that are expensive to build, i.e. contain a whole payload
+   */
+  public static boolean isDebugEnabled()
+  {
+    return enabled && com.allen_sauer.gwt.log.client.Log.isDebugEnabled();
+  }
+
   public static boolean isEnabled()
   {
     return enabled;
@@ -23,12 +23,17 @@ package org.jboss.bpm.console.server.integration;
 
 // $Id: $
 
+import org.jboss.bpm.console.server.utils.InstrumentationProxy;
+import org.jboss.bpm.console.server.utils.InvocationProxy;
 import org.jboss.bpm.console.server.utils.ServiceLoader;
 
 /**
  * Construct management implementation.
  * It uses the {@link org.jboss.bpm.console.server.utils.ServiceLoader} to load concrete
  * factory implementations. 
+ * The management implementations it creates are wrapped by an
+ * {@link org.jboss.bpm.console.server.utils.InstrumentationProxy} and, depending on the
+ * transaction demarcation, an {@link org.jboss.bpm.console.server.utils.InvocationProxy}.
  *
  * @author Heiko.Braun <heiko.braun@jboss.com>
  * @author Thomas.Diesler@jboss.com
@@ -37,11 +42,13 @@ public abstract class ManagementFactory
 {
   public static ManagementFactory newInstance()
   {
-    return (ManagementFactory)
+    ManagementFactory factory = (ManagementFactory)
         ServiceLoader.loadService(
             ManagementFactory.class.getName(),
             "org.jbpm.integration.console.ManagementFactoryImpl"
         );
+
+    return factory!=null ? new InstrumentedManagementFactory(factory) : null;
   }
 
   public abstract ProcessManagement createProcessManagement();
@@ -49,5 +56,34 @@ public abstract class ManagementFactory
   public abstract TaskManagement createTaskManagement();
 
   public abstract UserManagement createUserManagement();
-  
+
+  private static class InstrumentedManagementFactory extends ManagementFactory
+  {
+    private final ManagementFactory delegate;
+
+    InstrumentedManagementFactory(ManagementFactory delegate)
+    {
+      this.delegate = delegate;
+    }
+
+    public ProcessManagement createProcessManagement()
+    {
+      return decorate(delegate.createProcessManagement());
+    }
+
+    public TaskManagement createTaskManagement()
+    {
+      return decorate(delegate.createTaskManagement());
+    }
+
+    public UserManagement createUserManagement()
+    {
+      return decorate(delegate.createUserManagement());
+    }
+
+    private static <T> T decorate(T management)
+    {
+      return InstrumentationProxy.newInstance(InvocationProxy.newInstance(management));
+    }
+  }
 }
@@ -0,0 +1,43 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server.plugin;
+
+import org.jboss.bpm.console.client.model.HistoryProcessInstanceRef;
+
+import java.util.List;
+
+/**
+ * Optional companion to the {@link ProcessHistoryPlugin} for history stores
+ * that maintain an index on correlation keys.
+ * The console's correlation lookup across definitions depends on it:
+ * the history plugin alone could only answer it by querying the history of every definition.
+ */
+public interface CorrelationIndexPlugin
+{
+  /**
+   * Instances across all process definitions that share a correlation key.
+   *
+   * @param correlationKey i.e. <code>Session=[1]</code>
+   * @return matching instances, an empty list if there are none
+   */
+  List<HistoryProcessInstanceRef> getHistoryProcessInstances(String correlationKey);
+}
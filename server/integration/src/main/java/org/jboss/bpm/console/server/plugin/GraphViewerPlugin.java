@@ -39,6 +39,12 @@ public interface GraphViewerPlugin
    */
   byte[] getProcessImage(String processId);
 
+  /**
+   * The engine integration that implements this plugin is expected to pass the transitions
+   * through {@link DiagramInfo#DiagramInfo(int, int, List, List)}.
+   * None of the plugins in the console provide them, without edges
+   * <code>/definition/{id}/svg</code> answers 404 and clients fall back to the process image.
+   */
   DiagramInfo getDiagramInfo(String processId);
 
   List<ActiveNodeInfo> getActiveNodeInfo(String instanceId);
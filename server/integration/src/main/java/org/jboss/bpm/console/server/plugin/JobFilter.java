@@ -0,0 +1,88 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server.plugin;
+
+import org.jboss.bpm.console.client.model.JobRef;
+
+/**
+ * Criteria for job queries. Unset (<code>null</code>) criteria match any job.
+ */
+public final class JobFilter
+{
+  private final String type;
+  private final Boolean failed;
+  private final String errMsg;
+
+  /**
+   * @param type job type, i.e. "timer" or "message"
+   * @param failed <code>true</code> only jobs with an exception, <code>false</code> only jobs without
+   * @param errMsg substring the error message needs to contain. Implies failed jobs.
+   */
+  public JobFilter(String type, Boolean failed, String errMsg)
+  {
+    this.type = blankToNull(type);
+    this.errMsg = blankToNull(errMsg);
+    this.failed = this.errMsg!=null ? Boolean.TRUE : failed;
+  }
+
+  public String getType()
+  {
+    return type;
+  }
+
+  public Boolean getFailed()
+  {
+    return failed;
+  }
+
+  public String getErrMsg()
+  {
+    return errMsg;
+  }
+
+  public boolean isEmpty()
+  {
+    return null==type && null==failed && null==errMsg;
+  }
+
+  public boolean matches(JobRef job)
+  {
+    if(type!=null && !type.equals(job.getType()))
+      return false;
+
+    boolean hasError = job.getErrMsg()!=null;
+    if(failed!=null && failed.booleanValue()!=hasError)
+      return false;
+
+    return null==errMsg || (hasError && job.getErrMsg().indexOf(errMsg)!=-1);
+  }
+
+  public String toString()
+  {
+    return "JobFilter{type=" + type + ", failed=" + failed + ", errMsg=" + errMsg + "}";
+  }
+
+  private static String blankToNull(String s)
+  {
+    return (s==null || s.trim().length()==0) ? null : s.trim();
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server.plugin;
+
+import org.jboss.bpm.console.client.model.JobRef;
+
+import java.util.List;
+
+/**
+ * Optional extension for {@link ProcessEnginePlugin} implementations
+ * that can filter and page jobs within the engine.
+ * Otherwise the console falls back to filtering the result of
+ * {@link ProcessEnginePlugin#getJobs()}.
+ */
+public interface JobQueryPlugin extends ProcessEnginePlugin
+{
+  /**
+   * @param filter the query criteria
+   * @param firstResult offset of the first job, ordered by due date
+   * @param maxResults page size
+   * @return a page of matching jobs
+   */
+  List<JobRef> getJobs(JobFilter filter, int firstResult, int maxResults);
+
+  /**
+   * @return the total number of jobs matching the filter
+   */
+  int countJobs(JobFilter filter);
+}
@@ -21,6 +21,7 @@
  */
 package org.jboss.bpm.console.server.plugin;
 
+import org.jboss.bpm.console.server.utils.InstrumentationProxy;
 import org.jboss.bpm.console.server.utils.InvocationProxy;
 import org.jboss.bpm.console.server.utils.ServiceLoader;
 import org.apache.commons.logging.Log;
@@ -42,6 +43,8 @@ public class PluginMgr
   /**
    * Load a plugin through the {@link org.jboss.bpm.console.server.utils.ServiceLoader}.
    * The plugin interface name acts as the service key.
+   * The implementation is wrapped by an {@link org.jboss.bpm.console.server.utils.InstrumentationProxy}
+   * and, depending on the transaction demarcation, an {@link org.jboss.bpm.console.server.utils.InvocationProxy}.
    *
    * @param type plugin interface
    * @return a plugin implementation of type T or null if the plugin is not available.
@@ -59,8 +62,7 @@ public class PluginMgr
     if(pluginImpl!=null)
     {
       log.info("Successfully loaded plugin '" +type.getName()+ "': "+pluginImpl.getClass());
-      //return (T)InvocationProxy.newInstance(pluginImpl);
-      return pluginImpl;
+      return InstrumentationProxy.newInstance(InvocationProxy.newInstance(pluginImpl));
     }
     else
     {
@@ -0,0 +1,44 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server.plugin;
+
+/**
+ * Optional plugin for engines that can tell cheaply whether a list has changed,
+ * i.e. from a modification counter. The console uses the stamps as ETags
+ * and answers conditional requests without loading the list.
+ * Otherwise it hashes the serialized response.
+ * <p/>
+ * Resources are named after their REST path:
+ * <ul>
+ * <li><code>process/definitions</code>
+ * <li><code>tasks/{idRef}</code>
+ * <li><code>tasks/{idRef}/participation</code>
+ * </ul>
+ */
+public interface VersionStampPlugin
+{
+  /**
+   * @return an opaque value that changes whenever the resource changes,
+   * or null if it's not known for this resource
+   */
+  String getVersionStamp(String resource);
+}
@@ -0,0 +1,235 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server.utils;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the invocations on integration layer and plugin implementations
+ * and hands them to the registered {@link InvocationListener}s.
+ * Invocations that take longer than the threshold are logged.
+ * <p>
+ * The proxy implements all interfaces of the target, so that optional
+ * plugin extensions can still be detected with <code>instanceof</code>.
+ * Exceptions thrown by the target are passed through unchanged.
+ * <p>
+ * Configuration (system properties):
+ * <ul>
+ * <li>bpm.console.spi.instrumentation: set to "false" to disable the proxy
+ * <li>bpm.console.spi.slowcall: slow call threshold in milliseconds (default 1000)
+ * </ul>
+ */
+public class InstrumentationProxy implements InvocationHandler
+{
+  private static final Log log = LogFactory.getLog(InstrumentationProxy.class);
+
+  private static final boolean ENABLED =
+      !"false".equalsIgnoreCase(System.getProperty("bpm.console.spi.instrumentation"));
+
+  private static final long SLOW_CALL_NANOS =
+      TimeUnit.MILLISECONDS.toNanos(Long.getLong("bpm.console.spi.slowcall", 1000));
+
+  private static final int MAX_ARGUMENT_LENGTH = 100;
+
+  private static final CopyOnWriteArrayList<InvocationListener> listeners =
+      new CopyOnWriteArrayList<InvocationListener>();
+
+  private final Object target;
+
+  private InstrumentationProxy(Object target)
+  {
+    this.target = target;
+  }
+
+  /**
+   * @return a proxy for the target, or the target itself if it is null,
+   * already instrumented or instrumentation is disabled
+   */
+  public static <T> T newInstance(T target)
+  {
+    if(!ENABLED || null==target || isInstrumented(target))
+      return target;
+
+    Class[] interfaces = getInterfaces(target.getClass());
+    if(interfaces.length==0)
+      return target;
+
+    return (T)Proxy.newProxyInstance(
+        target.getClass().getClassLoader(),
+        interfaces,
+        new InstrumentationProxy(target)
+    );
+  }
+
+  public static boolean isInstrumented(Object obj)
+  {
+    return Proxy.isProxyClass(obj.getClass())
+        && Proxy.getInvocationHandler(obj) instanceof InstrumentationProxy;
+  }
+
+  /**
+   * @return slow call threshold in nanoseconds
+   */
+  public static long getSlowCallThreshold()
+  {
+    return SLOW_CALL_NANOS;
+  }
+
+  public static void addListener(InvocationListener listener)
+  {
+    listeners.addIfAbsent(listener);
+  }
+
+  public static void removeListener(InvocationListener listener)
+  {
+    listeners.remove(listener);
+  }
+
+  public Object invoke(Object proxy, Method m, Object[] args) throws Throwable
+  {
+    if(m.getDeclaringClass()==Object.class)
+      return invokeTarget(m, args);
+
+    long start = System.nanoTime();
+    Throwable failure = null;
+    try
+    {
+      return invokeTarget(m, args);
+    }
+    catch (Throwable t)
+    {
+      failure = t;
+      throw t;
+    }
+    finally
+    {
+      long duration = System.nanoTime() - start;
+      String method = m.getDeclaringClass().getSimpleName() + "." + m.getName();
+      int cardinality = cardinality(args);
+
+      for(InvocationListener listener : listeners)
+      {
+        try
+        {
+          listener.invoked(method, duration, cardinality, failure);
+        }
+        catch (RuntimeException e)
+        {
+          log.warn("Invocation listener failed: " + listener, e);
+        }
+      }
+
+      if(duration>=SLOW_CALL_NANOS)
+      {
+        log.warn("Slow call " + method + "(" + describe(args) + ") took "
+            + TimeUnit.NANOSECONDS.toMillis(duration) + " ms"
+            + (failure!=null ? ", failed: " + failure : ""));
+      }
+    }
+  }
+
+  private Object invokeTarget(Method m, Object[] args) throws Throwable
+  {
+    try
+    {
+      return m.invoke(target, args);
+    }
+    catch (InvocationTargetException e)
+    {
+      throw e.getCause();
+    }
+  }
+
+  static Class[] getInterfaces(Class type)
+  {
+    Set<Class> interfaces = new LinkedHashSet<Class>();
+    for(Class c = type; c!=null; c = c.getSuperclass())
+      collectInterfaces(c, interfaces);
+    return interfaces.toArray(new Class[interfaces.size()]);
+  }
+
+  private static void collectInterfaces(Class type, Set<Class> interfaces)
+  {
+    for(Class i : type.getInterfaces())
+    {
+      if(interfaces.add(i))
+        collectInterfaces(i, interfaces);
+    }
+  }
+
+  static int cardinality(Object[] args)
+  {
+    if(null==args) return 0;
+
+    int max = 0;
+    for(Object arg : args)
+      max = Math.max(max, size(arg));
+    return max;
+  }
+
+  private static int size(Object arg)
+  {
+    if(arg instanceof Collection)
+      return ((Collection)arg).size();
+    else if(arg instanceof Map)
+      return ((Map)arg).size();
+    else if(arg!=null && arg.getClass().isArray())
+      return java.lang.reflect.Array.getLength(arg);
+    else
+      return 1;
+  }
+
+  private static String describe(Object[] args)
+  {
+    if(null==args) return "";
+
+    StringBuilder sb = new StringBuilder();
+    for(int i=0; i<args.length; i++)
+    {
+      Object arg = args[i];
+      String s;
+      if(arg instanceof Collection || arg instanceof Map || (arg!=null && arg.getClass().isArray()))
+        s = "[" + size(arg) + " elements]";
+      else
+        s = String.valueOf(arg);
+
+      if(s.length()>MAX_ARGUMENT_LENGTH)
+        s = s.substring(0, MAX_ARGUMENT_LENGTH) + "...";
+
+      if(i>0) sb.append(", ");
+      sb.append(s);
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server.utils;
+
+/**
+ * Receives the SPI invocations recorded by the {@link InstrumentationProxy}.
+ * Implementations are called on the invoking thread and should return quickly.
+ */
+public interface InvocationListener
+{
+  /**
+   * @param method i.e. <code>ProcessManagement.getInstances</code>
+   * @param durationNanos the time spent in the target
+   * @param cardinality size of the largest collection, map or array argument, 1 for scalar arguments, 0 if there are none
+   * @param failure the exception thrown by the target or null
+   */
+  void invoked(String method, long durationNanos, int cardinality, Throwable failure);
+}
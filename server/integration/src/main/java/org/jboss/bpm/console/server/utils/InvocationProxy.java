@@ -21,24 +21,33 @@
  */
 package org.jboss.bpm.console.server.utils;
 
-import javax.transaction.UserTransaction;
-import javax.transaction.SystemException;
-import javax.naming.InitialContext;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 
 /**
  * Decorates process engine invocations with common system aspects, i.e. transaction demarcation.
+ * See {@link TransactionScope} for the configuration.
  *
  * @author Heiko.Braun <heiko.braun@jboss.com>
  */
-public class InvocationProxy implements java.lang.reflect.InvocationHandler
+public class InvocationProxy implements InvocationHandler
 {
   private Object obj;
 
-  public static Object newInstance(Object obj) {
-    return java.lang.reflect.Proxy.newProxyInstance(
+  /**
+   * @return a proxy for the target, or the target itself if the
+   * transaction demarcation is {@link TransactionScope.Demarcation#NONE}
+   */
+  public static <T> T newInstance(T obj)
+  {
+    if(null==obj || TransactionScope.getDemarcation()==TransactionScope.Demarcation.NONE)
+      return obj;
+
+    return (T)Proxy.newProxyInstance(
         obj.getClass().getClassLoader(),
-        obj.getClass().getInterfaces(),
+        InstrumentationProxy.getInterfaces(obj.getClass()),
         new InvocationProxy(obj));
   }
 
@@ -49,43 +58,35 @@ public class InvocationProxy implements java.lang.reflect.InvocationHandler
   public Object invoke(Object proxy, Method m, Object[] args)
       throws Throwable
   {
-    Object result;
+    if(m.getDeclaringClass()==Object.class)
+      return invokeTarget(m, args);
 
-    InitialContext ctx = new InitialContext();
-    UserTransaction tx = (UserTransaction)ctx.lookup("UserTransaction");
-    
+    TransactionScope scope = TransactionScope.begin();
 
+    Object result;
     try
     {
-      // before method invocation
-      tx.begin();
-
-      // field target invocation
-      result = m.invoke(obj, args);
-
-      tx.commit();
-
+      result = invokeTarget(m, args);
     }
-    catch (Exception e)
+    catch (Throwable t)
     {
-      if(tx!=null)
-      {
-        try
-        {
-          tx.rollback();
-        }
-        catch (SystemException e1) {}
-      }
+      scope.rollback();
+      throw t;
+    }
 
-      throw new RuntimeException("Unexpected invocation exception: " + e.getMessage(), e);
+    scope.commit();
+    return result;
+  }
 
+  private Object invokeTarget(Method m, Object[] args) throws Throwable
+  {
+    try
+    {
+      return m.invoke(obj, args);
     }
-    finally
+    catch (InvocationTargetException e)
     {
-      // after method invocation
-
+      throw e.getCause();
     }
-
-    return result;
   }
-}
\ No newline at end of file
+}
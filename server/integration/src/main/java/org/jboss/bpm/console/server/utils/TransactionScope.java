@@ -0,0 +1,204 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server.utils;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.transaction.Status;
+import javax.transaction.SystemException;
+import javax.transaction.UserTransaction;
+
+/**
+ * Transaction demarcation for the {@link InvocationProxy}.
+ * The <code>UserTransaction</code> is looked up once and cached.
+ * An active transaction is always joined: the invocation doesn't commit it
+ * and only marks it rollback-only when it fails.
+ * <p>
+ * Configuration (system properties):
+ * <ul>
+ * <li>bpm.console.tx.demarcation:
+ *   <ul>
+ *   <li>none (default): invocations are not decorated
+ *   <li>invocation: each invocation runs in its own transaction
+ *   <li>request: the first invocation within a request begins a transaction,
+ *   subsequent invocations join it and it completes with the request
+ *   (see {@link #beginRequest()} and {@link #endRequest(boolean)})
+ *   </ul>
+ * <li>bpm.console.tx.jndi: JNDI name of the <code>UserTransaction</code> (default "UserTransaction")
+ * </ul>
+ */
+public final class TransactionScope
+{
+  public enum Demarcation { NONE, INVOCATION, REQUEST }
+
+  private static final Log log = LogFactory.getLog(TransactionScope.class);
+
+  private static final Demarcation DEMARCATION = parseDemarcation(
+      System.getProperty("bpm.console.tx.demarcation")
+  );
+
+  private static final String JNDI_NAME = System.getProperty("bpm.console.tx.jndi", "UserTransaction");
+
+  private static volatile UserTransaction userTransaction;
+
+  /**
+   * Set while a request is being processed, holds the transaction once it has begun
+   */
+  private static final ThreadLocal<TransactionScope[]> request = new ThreadLocal<TransactionScope[]>();
+
+  private final UserTransaction tx;
+  private final boolean owner;
+
+  private TransactionScope(UserTransaction tx, boolean owner)
+  {
+    this.tx = tx;
+    this.owner = owner;
+  }
+
+  public static Demarcation getDemarcation()
+  {
+    return DEMARCATION;
+  }
+
+  /**
+   * Joins the active transaction or begins a new one.
+   */
+  public static TransactionScope begin() throws Exception
+  {
+    UserTransaction tx = getUserTransaction();
+    if(tx.getStatus()!=Status.STATUS_NO_TRANSACTION)
+      return new TransactionScope(tx, false);
+
+    tx.begin();
+
+    TransactionScope[] current = request.get();
+    if(current!=null)
+    {
+      // completed by endRequest()
+      current[0] = new TransactionScope(tx, true);
+      return new TransactionScope(tx, false);
+    }
+
+    return new TransactionScope(tx, true);
+  }
+
+  /**
+   * Commits the transaction if it has been started by this scope.
+   * A transaction that has been marked rollback-only is rolled back instead.
+   */
+  public void commit() throws Exception
+  {
+    if(!owner) return;
+
+    if(tx.getStatus()==Status.STATUS_MARKED_ROLLBACK)
+      tx.rollback();
+    else
+      tx.commit();
+  }
+
+  /**
+   * Rolls back the transaction if it has been started by this scope,
+   * otherwise marks it rollback-only.
+   */
+  public void rollback()
+  {
+    try
+    {
+      if(owner)
+        tx.rollback();
+      else if(tx.getStatus()==Status.STATUS_ACTIVE)
+        tx.setRollbackOnly();
+    }
+    catch (SystemException e)
+    {
+      log.error("Failed to roll back transaction", e);
+    }
+  }
+
+  /**
+   * Marks the start of a request on the current thread.
+   * Has no effect unless the demarcation is {@link Demarcation#REQUEST}.
+   */
+  public static void beginRequest()
+  {
+    if(DEMARCATION==Demarcation.REQUEST)
+      request.set(new TransactionScope[1]);
+  }
+
+  /**
+   * Completes the transaction begun within the current request, if any.
+   * Subsequent calls within the same request have no effect.
+   *
+   * @param failed roll back instead of commit
+   */
+  public static void endRequest(boolean failed) throws Exception
+  {
+    TransactionScope[] current = request.get();
+    request.remove();
+
+    if(current!=null && current[0]!=null)
+    {
+      if(failed)
+        current[0].rollback();
+      else
+        current[0].commit();
+    }
+  }
+
+  static UserTransaction getUserTransaction() throws NamingException
+  {
+    UserTransaction tx = userTransaction;
+    if(null==tx)
+    {
+      InitialContext ctx = new InitialContext();
+      try
+      {
+        tx = (UserTransaction)ctx.lookup(JNDI_NAME);
+        userTransaction = tx;
+      }
+      finally
+      {
+        ctx.close();
+      }
+    }
+    return tx;
+  }
+
+  private static Demarcation parseDemarcation(String value)
+  {
+    if(null==value)
+      return Demarcation.NONE;
+
+    try
+    {
+      return Demarcation.valueOf(value.trim().toUpperCase());
+    }
+    catch (IllegalArgumentException e)
+    {
+      log.warn("Unknown transaction demarcation '" + value + "', using none");
+      return Demarcation.NONE;
+    }
+  }
+}
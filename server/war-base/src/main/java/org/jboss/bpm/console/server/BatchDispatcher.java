@@ -0,0 +1,825 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server;
+
+import org.jboss.bpm.console.client.model.BatchItemRef;
+import org.jboss.bpm.console.server.util.ExecutorRegistry;
+import org.jboss.bpm.console.server.util.GWTJsonFilter;
+import org.jboss.bpm.console.server.utils.TransactionScope;
+import org.jboss.resteasy.specimpl.MultivaluedMapImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
+import java.io.UnsupportedEncodingException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URLDecoder;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringTokenizer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Executes the sub requests of a batch in-process and concurrently.<br>
+ * Only the read-only resources listed in {@link #BATCHABLE} can be batched,
+ * anything else (i.e. the notification long poll) is answered with 415.
+ * Sub requests bypass the container's security constraints, so resources that
+ * are restricted to certain roles in web.xml are checked against the same roles here (403 otherwise).
+ * Sub requests don't see the live <code>HttpServletRequest</code>:
+ * they get a snapshot of the caller's principal and of the roles named in
+ * <code>roleCheck</code> parameters, taken on the request thread before the batch starts.
+ * The snapshot is closed when the batch returns, sub requests that are still running
+ * are interrupted and their results dropped.
+ * Resource methods can take the <code>HttpServletRequest</code>, the <code>Request</code>,
+ * which has no preconditions, and the <code>UriInfo</code> of a sub request as <code>@Context</code>,
+ * a batchable resource that needs anything else is rejected when the routes are built.
+ * Sub requests run on a thread pool of all batches, shut down with the web application,
+ * with the caller's access control context (see {@link ExecutorRegistry}).
+ * Each sub request is a transaction scope of its own.
+ *
+ * <ul>
+ * <li>bpm.console.batch.threads: max number of sub requests of a single batch executed concurrently (default 4)
+ * <li>bpm.console.batch.pool: max number of sub requests of all batches executed concurrently (default 16)
+ * <li>bpm.console.batch.max: max number of sub requests per batch (default 20)
+ * <li>bpm.console.batch.timeout: max time a batch waits for its sub requests in ms (default 30000)
+ * </ul>
+ */
+class BatchDispatcher
+{
+  private static final Logger log = LoggerFactory.getLogger(BatchDispatcher.class);
+
+  private static final String[] ANY_ROLE = new String[0];
+
+  private static final String[] ADMINISTRATION = new String[] {"administrator", "manager"};
+
+  /**
+   * Path templates of the resources that can be batched,
+   * and the roles they require as in web.xml (any authenticated caller if empty)
+   */
+  static final Map<String, String[]> BATCHABLE;
+
+  static
+  {
+    Map<String, String[]> batchable = new HashMap<String, String[]>();
+    batchable.put("/identity/user/roles", ANY_ROLE);
+    batchable.put("/process/definitions", ANY_ROLE);
+    batchable.put("/history/definitions", ANY_ROLE);
+    batchable.put("/engine/deployments", ADMINISTRATION);
+    BATCHABLE = Collections.unmodifiableMap(batchable);
+  }
+
+  private static final String ROLE_CHECK = "roleCheck";
+
+  private final int threads = Integer.getInteger("bpm.console.batch.threads", 4).intValue();
+  private final int poolSize = Integer.getInteger("bpm.console.batch.pool", 16).intValue();
+  private final int maxItems = Integer.getInteger("bpm.console.batch.max", 20).intValue();
+  private final long timeout = Long.getLong("bpm.console.batch.timeout", 30000L).longValue();
+
+  private final List<Route> routes = new ArrayList<Route>();
+
+  private ExecutorService executor;
+
+  BatchDispatcher(Collection<Object> resources)
+  {
+    this(resources, BATCHABLE);
+  }
+
+  /**
+   * @param batchable path templates of the resources that can be batched and the roles they require
+   * @throws IllegalStateException if a batchable resource method takes an unsupported <code>@Context</code>
+   */
+  BatchDispatcher(Collection<Object> resources, Map<String, String[]> batchable)
+  {
+    for(Object resource : resources)
+    {
+      Path root = resource.getClass().getAnnotation(Path.class);
+      if(null==root || resource instanceof NotificationFacade)
+        continue;
+
+      for(Method method : resource.getClass().getMethods())
+      {
+        if(method.isAnnotationPresent(GET.class))
+        {
+          Path path = method.getAnnotation(Path.class);
+          routes.add(new Route(resource, method, root.value(), path!=null ? path.value() : "", batchable));
+        }
+      }
+    }
+
+    // literal paths take precedence over templates
+    Collections.sort(routes, new Comparator<Route>()
+    {
+      public int compare(Route r1, Route r2)
+      {
+        return r2.literals - r1.literals;
+      }
+    });
+  }
+
+  int getMaxItems()
+  {
+    return maxItems;
+  }
+
+  /**
+   * @return the items with status and body, in the order of the request
+   */
+  List<BatchItemRef> execute(HttpServletRequest request, List<BatchItemRef> items)
+  {
+    if(items.size()>maxItems)
+      throw new IllegalArgumentException("Too many sub requests: "+ items.size() + ", max is " + maxItems);
+
+    // everything that needs the live request happens on this thread
+    final List<Call> calls = new ArrayList<Call>(items.size());
+    Set<String> roles = new HashSet<String>();
+    for(BatchItemRef item : items)
+    {
+      Call call = resolve(request, item);
+      calls.add(call);
+
+      List<String> roleCheck = call.query!=null ? call.query.get(ROLE_CHECK) : null;
+      if(roleCheck!=null)
+      {
+        for(String value : roleCheck)
+        {
+          StringTokenizer tok = new StringTokenizer(value, ",");
+          while(tok.hasMoreTokens())
+            roles.add(tok.nextToken());
+        }
+      }
+    }
+
+    final RequestSnapshot snapshot = RequestSnapshot.capture(request, roles);
+    final AtomicReferenceArray<BatchItemRef> results = new AtomicReferenceArray<BatchItemRef>(calls.size());
+    final AtomicInteger next = new AtomicInteger();
+    final CountDownLatch done = new CountDownLatch(calls.size());
+
+    Runnable worker = new Runnable()
+    {
+      public void run()
+      {
+        int i;
+        while(!snapshot.isClosed() && (i = next.getAndIncrement()) < calls.size())
+        {
+          // a result that comes in after the batch has given up on it is dropped
+          try
+          {
+            results.compareAndSet(i, null, calls.get(i).run(snapshot.getRequest()));
+          }
+          catch (RuntimeException e)
+          {
+            log.error("Batch sub request failed: " + calls.get(i).item.getPath(), e);
+            results.compareAndSet(i, null, createItem(calls.get(i).item, 500, String.valueOf(e)));
+          }
+          finally
+          {
+            done.countDown();
+          }
+        }
+      }
+    };
+
+    List<Future<?>> workers = new ArrayList<Future<?>>();
+    boolean interrupted = false;
+    boolean completed = false;
+    try
+    {
+      for(int w=0; w<Math.min(threads, calls.size()); w++)
+        workers.add(getExecutor().submit(ExecutorRegistry.withCallerContext(worker)));
+
+      completed = done.await(timeout, TimeUnit.MILLISECONDS);
+    }
+    catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      interrupted = true;
+    }
+    finally
+    {
+      snapshot.close();
+      if(!completed)
+      {
+        for(int i=0; i<calls.size(); i++)
+        {
+          results.compareAndSet(i, null, interrupted ?
+              createItem(calls.get(i).item, 503, "Interrupted") :
+              createItem(calls.get(i).item, 504, "Sub request timed out"));
+        }
+        for(Future<?> future : workers)
+          future.cancel(true);
+      }
+    }
+
+    List<BatchItemRef> result = new ArrayList<BatchItemRef>(calls.size());
+    for(int i=0; i<calls.size(); i++)
+      result.add(results.get(i));
+    return result;
+  }
+
+  /**
+   * Matches a sub request against the routes and checks the required roles
+   */
+  private Call resolve(HttpServletRequest request, BatchItemRef item)
+  {
+    String path = item.getPath()!=null ? item.getPath() : "";
+    String query = null;
+    int q = path.indexOf('?');
+    if(q!=-1)
+    {
+      query = path.substring(q+1);
+      path = path.substring(0, q);
+    }
+    path = normalize(path);
+
+    for(Route route : routes)
+    {
+      Matcher matcher = route.pattern.matcher(path);
+      if(matcher.matches())
+      {
+        if(!route.batchable)
+          return new Call(item, createItem(item, 415, "Not batchable: " + item.getPath()));
+        if(!isPermitted(request, route.roles))
+          return new Call(item, createItem(item, 403, "Forbidden: " + item.getPath()));
+
+        Map<String, List<String>> params;
+        try
+        {
+          params = parseQuery(query);
+        }
+        catch (IllegalArgumentException e)
+        {
+          return new Call(item, createItem(item, 400, e.getMessage()));
+        }
+        return new Call(item, route, path, matcher, params);
+      }
+    }
+
+    return new Call(item, createItem(item, 404, "No such resource: " + item.getPath()));
+  }
+
+  private BatchItemRef invoke(
+      HttpServletRequest request, BatchItemRef item, Route route,
+      String path, Matcher matcher, Map<String, List<String>> query)
+  {
+    boolean failed = true;
+    TransactionScope.beginRequest();
+    try
+    {
+      Object[] args = route.createArguments(request, path, matcher, query);
+      Object returned = route.method.invoke(route.resource, args);
+
+      BatchItemRef result = toItem(item, route, returned);
+      failed = result.getStatus() >= 500;
+      return result;
+    }
+    catch (IllegalArgumentException e)
+    {
+      return createItem(item, 400, e.getMessage());
+    }
+    catch (InvocationTargetException e)
+    {
+      Throwable cause = e.getCause();
+      if(cause instanceof WebApplicationException)
+      {
+        Response response = ((WebApplicationException)cause).getResponse();
+        int status = response!=null ? response.getStatus() : 500;
+        Object entity = response!=null ? response.getEntity() : null;
+        failed = status >= 500;
+        return createItem(item, status,
+            entity instanceof String ? (String)entity : String.valueOf(cause.getCause()));
+      }
+
+      log.error("Batch sub request failed: " + item.getPath(), cause);
+      return createItem(item, 500, String.valueOf(cause));
+    }
+    catch (IllegalAccessException e)
+    {
+      return createItem(item, 500, e.getMessage());
+    }
+    finally
+    {
+      try
+      {
+        TransactionScope.endRequest(failed);
+      }
+      catch (Exception e)
+      {
+        log.error("Failed to complete transaction of " + item.getPath(), e);
+      }
+    }
+  }
+
+  private BatchItemRef toItem(BatchItemRef item, Route route, Object returned)
+  {
+    int status = 200;
+    Object entity = returned;
+    String type = route.produces;
+
+    if(returned instanceof Response)
+    {
+      Response response = (Response)returned;
+      status = response.getStatus();
+      entity = response.getEntity();
+      Object contentType = response.getMetadata().getFirst("Content-Type");
+      if(contentType!=null)
+        type = contentType.toString();
+    }
+
+    if(entity!=null && !(entity instanceof String))
+      return createItem(item, 500, "Unsupported entity: " + entity.getClass().getName());
+
+    String body = (String)entity;
+    if(body!=null && type!=null && type.startsWith("application/json"))
+      body = GWTJsonFilter.trimPayload(body); // same as a direct request
+
+    return createItem(item, status, body);
+  }
+
+  private static BatchItemRef createItem(BatchItemRef request, int status, String body)
+  {
+    BatchItemRef item = new BatchItemRef(request.getId(), request.getPath());
+    item.setStatus(status);
+    item.setBody(body);
+    return item;
+  }
+
+
+  private static boolean isPermitted(HttpServletRequest request, String[] roles)
+  {
+    if(roles.length==0)
+      return true;
+
+    for(String role : roles)
+    {
+      if(request.isUserInRole(role))
+        return true;
+    }
+    return false;
+  }
+
+  private static String normalize(String path)
+  {
+    StringBuilder sb = new StringBuilder();
+    for(String segment : path.split("/"))
+    {
+      if(segment.length()>0)
+        sb.append('/').append(segment);
+    }
+    return sb.toString();
+  }
+
+  private static Map<String, List<String>> parseQuery(String query)
+  {
+    Map<String, List<String>> params = new HashMap<String, List<String>>();
+    if(null==query || query.length()==0)
+      return params;
+
+    for(String pair : query.split("&"))
+    {
+      if(pair.length()==0) continue;
+
+      int eq = pair.indexOf('=');
+      String name = decode(eq!=-1 ? pair.substring(0, eq) : pair);
+      String value = eq!=-1 ? decode(pair.substring(eq+1)) : "";
+
+      List<String> values = params.get(name);
+      if(null==values)
+      {
+        values = new ArrayList<String>();
+        params.put(name, values);
+      }
+      values.add(value);
+    }
+    return params;
+  }
+
+  private static String decode(String s)
+  {
+    try
+    {
+      return URLDecoder.decode(s, "UTF-8");
+    }
+    catch (UnsupportedEncodingException e)
+    {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Shared by all batches, the workers of a batch queue up when it's busy
+   */
+  private synchronized ExecutorService getExecutor()
+  {
+    if(null==executor)
+      executor = ExecutorRegistry.newFixedThreadPool("batch", poolSize);
+    return executor;
+  }
+
+  /**
+   * A resolved sub request, or its result if it can't be executed
+   */
+  private class Call
+  {
+    final BatchItemRef item;
+    final Route route;
+    final String path;
+    final Matcher matcher;
+    final Map<String, List<String>> query;
+    final BatchItemRef rejected;
+
+    Call(BatchItemRef item, Route route, String path, Matcher matcher, Map<String, List<String>> query)
+    {
+      this.item = item;
+      this.route = route;
+      this.path = path;
+      this.matcher = matcher;
+      this.query = query;
+      this.rejected = null;
+    }
+
+    Call(BatchItemRef item, BatchItemRef rejected)
+    {
+      this.item = item;
+      this.route = null;
+      this.path = null;
+      this.matcher = null;
+      this.query = null;
+      this.rejected = rejected;
+    }
+
+    BatchItemRef run(HttpServletRequest request)
+    {
+      return rejected!=null ? rejected : invoke(request, item, route, path, matcher, query);
+    }
+  }
+
+  /**
+   * The caller's principal and the roles checked on its behalf.
+   * Anything else a resource asks the request for fails,
+   * and so does every call once the batch has returned.
+   */
+  private static class RequestSnapshot implements InvocationHandler
+  {
+    private final Principal principal;
+    private final Map<String, Boolean> roles;
+    private final HttpServletRequest proxy;
+    private volatile boolean closed;
+
+    private RequestSnapshot(Principal principal, Map<String, Boolean> roles)
+    {
+      this.principal = principal;
+      this.roles = roles;
+      this.proxy = (HttpServletRequest)Proxy.newProxyInstance(
+          HttpServletRequest.class.getClassLoader(),
+          new Class[] {HttpServletRequest.class},
+          this
+      );
+    }
+
+    static RequestSnapshot capture(HttpServletRequest request, Set<String> checkedRoles)
+    {
+      Principal principal = request.getUserPrincipal();
+      Map<String, Boolean> roles = new HashMap<String, Boolean>();
+      for(String role : checkedRoles)
+        roles.put(role, Boolean.valueOf(principal!=null && request.isUserInRole(role)));
+      return new RequestSnapshot(principal, Collections.unmodifiableMap(roles));
+    }
+
+    HttpServletRequest getRequest()
+    {
+      return proxy;
+    }
+
+    boolean isClosed()
+    {
+      return closed;
+    }
+
+    void close()
+    {
+      closed = true;
+    }
+
+    public Object invoke(Object proxy, Method method, Object[] args)
+    {
+      String name = method.getName();
+      if(name.equals("hashCode"))
+        return Integer.valueOf(System.identityHashCode(proxy));
+      if(name.equals("equals"))
+        return Boolean.valueOf(proxy==args[0]);
+      if(name.equals("toString"))
+        return "RequestSnapshot{principal=" + principal + "}";
+
+      if(closed)
+        throw new IllegalStateException("Batch has already returned");
+
+      if(name.equals("getUserPrincipal"))
+        return principal;
+      if(name.equals("getRemoteUser"))
+        return principal!=null ? principal.getName() : null;
+      if(name.equals("isUserInRole"))
+        return Boolean.valueOf(Boolean.TRUE.equals(roles.get(args[0])));
+      if(name.equals("getSession") && args!=null && args.length==1 && Boolean.FALSE.equals(args[0]))
+        return null; // nothing is bound to the session of a batch
+
+      throw new UnsupportedOperationException(name + "() is not available to batch sub requests");
+    }
+  }
+
+  /**
+   * The <code>Request</code> of a sub request. There are no request headers
+   * to evaluate preconditions against, so resources always answer in full.
+   */
+  private static class UnconditionalRequest implements InvocationHandler
+  {
+    static final Request INSTANCE = (Request)Proxy.newProxyInstance(
+        Request.class.getClassLoader(),
+        new Class[] {Request.class},
+        new UnconditionalRequest()
+    );
+
+    public Object invoke(Object proxy, Method method, Object[] args)
+    {
+      String name = method.getName();
+      if(name.equals("hashCode"))
+        return Integer.valueOf(System.identityHashCode(proxy));
+      if(name.equals("equals"))
+        return Boolean.valueOf(proxy==args[0]);
+      if(name.equals("toString"))
+        return "UnconditionalRequest";
+
+      if(name.equals("getMethod"))
+        return "GET";
+      if(name.equals("evaluatePreconditions"))
+        return null;
+
+      throw new UnsupportedOperationException(name + "() is not available to batch sub requests");
+    }
+  }
+
+  /**
+   * The <code>UriInfo</code> of a sub request: its path and decoded parameters
+   */
+  private static class SubRequestUriInfo implements InvocationHandler
+  {
+    private final String path;
+    private final MultivaluedMap<String, String> pathParameters;
+    private final MultivaluedMap<String, String> queryParameters;
+
+    SubRequestUriInfo(String path,
+                      MultivaluedMap<String, String> pathParameters,
+                      MultivaluedMap<String, String> queryParameters)
+    {
+      this.path = path;
+      this.pathParameters = pathParameters;
+      this.queryParameters = queryParameters;
+    }
+
+    static UriInfo create(String path, List<String> names, Matcher matcher, Map<String, List<String>> query)
+    {
+      MultivaluedMap<String, String> pathParameters = new MultivaluedMapImpl<String, String>();
+      for(int i=0; i<names.size(); i++)
+        pathParameters.add(names.get(i), decode(matcher.group(i+1)));
+
+      MultivaluedMap<String, String> queryParameters = new MultivaluedMapImpl<String, String>();
+      for(Map.Entry<String, List<String>> entry : query.entrySet())
+      {
+        for(String value : entry.getValue())
+          queryParameters.add(entry.getKey(), value);
+      }
+
+      return (UriInfo)Proxy.newProxyInstance(
+          UriInfo.class.getClassLoader(),
+          new Class[] {UriInfo.class},
+          new SubRequestUriInfo(path, pathParameters, queryParameters)
+      );
+    }
+
+    public Object invoke(Object proxy, Method method, Object[] args)
+    {
+      String name = method.getName();
+      if(name.equals("hashCode"))
+        return Integer.valueOf(System.identityHashCode(proxy));
+      if(name.equals("equals"))
+        return Boolean.valueOf(proxy==args[0]);
+      if(name.equals("toString"))
+        return "SubRequestUriInfo{path=" + path + "}";
+
+      // only the decoded forms are known
+      boolean decoded = null==args || Boolean.TRUE.equals(args[0]);
+      if(name.equals("getPath") && decoded)
+        return path;
+      if(name.equals("getPathParameters") && decoded)
+        return pathParameters;
+      if(name.equals("getQueryParameters") && decoded)
+        return queryParameters;
+
+      throw new UnsupportedOperationException(name + "() is not available to batch sub requests");
+    }
+  }
+
+  /**
+   * A resource method and its path template
+   */
+  private static class Route
+  {
+    final Object resource;
+    final Method method;
+    final String produces;
+    final boolean batchable;
+    final String[] roles;
+    final Pattern pattern;
+    final List<String> names = new ArrayList<String>();
+    final int literals;
+
+    Route(Object resource, Method method, String root, String path, Map<String, String[]> batchable)
+    {
+      this.resource = resource;
+      this.method = method;
+
+      Produces p = method.getAnnotation(Produces.class);
+      this.produces = p!=null && p.value().length>0 ? p.value()[0] : null;
+
+      String template = normalize(root + "/" + path);
+      this.batchable = batchable.containsKey(template);
+      this.roles = this.batchable ? batchable.get(template) : ADMINISTRATION;
+
+      StringBuilder regex = new StringBuilder();
+      int literalChars = 0;
+      for(String segment : template.split("/"))
+      {
+        if(segment.length()==0) continue;
+
+        regex.append('/');
+        if(segment.startsWith("{") && segment.endsWith("}"))
+        {
+          names.add(segment.substring(1, segment.length()-1).trim());
+          regex.append("([^/]+)");
+        }
+        else
+        {
+          regex.append(Pattern.quote(segment));
+          literalChars += segment.length();
+        }
+      }
+      this.pattern = Pattern.compile(regex.toString());
+      this.literals = literalChars;
+
+      if(this.batchable)
+        checkContextParameters();
+    }
+
+    private void checkContextParameters()
+    {
+      Class<?>[] types = method.getParameterTypes();
+      Annotation[][] annotations = method.getParameterAnnotations();
+      for(int i=0; i<types.length; i++)
+      {
+        for(Annotation a : annotations[i])
+        {
+          if(a instanceof Context
+              && !HttpServletRequest.class.equals(types[i])
+              && !Request.class.equals(types[i])
+              && !UriInfo.class.equals(types[i]))
+          {
+            throw new IllegalStateException(
+                "Unsupported @Context " + types[i].getName() + " of batchable resource method " + method
+            );
+          }
+        }
+      }
+    }
+
+    Object[] createArguments(
+        HttpServletRequest request, String path, Matcher matcher, Map<String, List<String>> query)
+    {
+      Class<?>[] types = method.getParameterTypes();
+      Annotation[][] annotations = method.getParameterAnnotations();
+      Object[] args = new Object[types.length];
+
+      for(int i=0; i<types.length; i++)
+      {
+        List<String> values = null;
+        String defaultValue = null;
+        boolean context = false;
+
+        for(Annotation a : annotations[i])
+        {
+          if(a instanceof PathParam)
+          {
+            int group = names.indexOf(((PathParam)a).value());
+            if(group!=-1)
+              values = Collections.singletonList(decode(matcher.group(group+1)));
+          }
+          else if(a instanceof QueryParam)
+          {
+            values = query.get(((QueryParam)a).value());
+          }
+          else if(a instanceof DefaultValue)
+          {
+            defaultValue = ((DefaultValue)a).value();
+          }
+          else if(a instanceof Context)
+          {
+            context = true;
+          }
+        }
+
+        if(context)
+        {
+          if(HttpServletRequest.class.equals(types[i]))
+            args[i] = request;
+          else if(Request.class.equals(types[i]))
+            args[i] = UnconditionalRequest.INSTANCE;
+          else if(UriInfo.class.equals(types[i]))
+            args[i] = SubRequestUriInfo.create(path, names, matcher, query);
+          else
+            throw new IllegalStateException("Unsupported @Context " + types[i].getName());
+          continue;
+        }
+
+        if((null==values || values.isEmpty()) && defaultValue!=null)
+          values = Collections.singletonList(defaultValue);
+
+        args[i] = convert(types[i], values);
+      }
+      return args;
+    }
+
+    private static Object convert(Class<?> type, List<String> values)
+    {
+      String value = values!=null && !values.isEmpty() ? values.get(0) : null;
+
+      if(type.isArray() && type.getComponentType()==String.class)
+        return values!=null ? values.toArray(new String[values.size()]) : new String[0];
+      if(type==String.class)
+        return value;
+
+      try
+      {
+        if(type==long.class || type==Long.class)
+          return value!=null ? Long.valueOf(value) : (type.isPrimitive() ? Long.valueOf(0) : null);
+        if(type==int.class || type==Integer.class)
+          return value!=null ? Integer.valueOf(value) : (type.isPrimitive() ? Integer.valueOf(0) : null);
+        if(type==boolean.class || type==Boolean.class)
+          return value!=null ? Boolean.valueOf(value) : (type.isPrimitive() ? Boolean.FALSE : null);
+      }
+      catch (NumberFormatException e)
+      {
+        throw new IllegalArgumentException("Invalid parameter value: " + value);
+      }
+
+      throw new IllegalArgumentException("Unsupported parameter type: " + type.getName());
+    }
+  }
+}
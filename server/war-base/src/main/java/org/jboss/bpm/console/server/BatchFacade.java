@@ -0,0 +1,126 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.jboss.bpm.console.client.model.BatchItemRef;
+import org.jboss.bpm.console.client.model.BatchItemRefWrapper;
+import org.jboss.bpm.console.server.gson.GsonFactory;
+import org.jboss.bpm.console.server.util.RequestMetrics;
+import org.jboss.bpm.console.server.util.RsComment;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Response;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Combines several read requests into a single round trip,
+ * i.e. to load the reference data the console needs after login.
+ * The sub requests are executed by a {@link BatchDispatcher}.
+ */
+@Path("batch")
+@RsComment(
+    title = "Batch requests",
+    description = "Executes several read requests at once"
+)
+public class BatchFacade
+{
+  private final Set<Object> resources;
+
+  private BatchDispatcher dispatcher;
+
+  /**
+   * @param resources the JAX-RS singletons, scanned on first use
+   */
+  public BatchFacade(Set<Object> resources)
+  {
+    this.resources = resources;
+  }
+
+  private synchronized BatchDispatcher getDispatcher()
+  {
+    if(null==dispatcher)
+      dispatcher = new BatchDispatcher(resources);
+    return dispatcher;
+  }
+
+  @POST
+  @Consumes("application/json")
+  @Produces("application/json")
+  @RsComment(
+      title = "Execute batch",
+      description = "Expects {\"items\":[{\"id\":..., \"path\":\"/process/definitions\"}, ...]}. " +
+          "Paths are relative to the REST root and may carry a query string. " +
+          "Only the roles, definitions, deployments and history definitions resources are supported. " +
+          "Returns the items with 'status' and 'body', in the order of the request."
+  )
+  public Response execute(
+      @Context
+      HttpServletRequest request,
+      String payload
+  )
+  {
+    Gson gson = GsonFactory.createInstance();
+
+    BatchItemRefWrapper batch;
+    try
+    {
+      batch = gson.fromJson(payload, BatchItemRefWrapper.class);
+    }
+    catch (JsonParseException e)
+    {
+      throw new WebApplicationException(e, 400);
+    }
+
+    if(null==batch || null==batch.getItems())
+      throw new WebApplicationException(new IllegalArgumentException("No sub requests"), 400);
+
+    List<BatchItemRef> results;
+    try
+    {
+      results = getDispatcher().execute(request, batch.getItems());
+    }
+    catch (IllegalArgumentException e)
+    {
+      throw new WebApplicationException(e, 400);
+    }
+
+    return createJsonResponse(new BatchItemRefWrapper(results));
+  }
+
+  private Response createJsonResponse(Object wrapper)
+  {
+    Gson gson = GsonFactory.createInstance();
+    long start = System.nanoTime();
+    String json = gson.toJson(wrapper);
+    RequestMetrics.serialized(start);
+    return Response.ok(json).type("application/json").build();
+  }
+}
@@ -0,0 +1,284 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server;
+
+import org.jboss.bpm.console.client.model.JobExecutionRef;
+import org.jboss.bpm.console.server.plugin.ProcessEnginePlugin;
+import org.jboss.bpm.console.server.util.ExecutorRegistry;
+import org.jboss.bpm.console.server.util.RateLimiter;
+import org.jboss.bpm.console.server.utils.TransactionScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes batches of jobs in the background.<br>
+ * All batches share a bounded thread pool and a rate limit,
+ * so that a mass retry doesn't swamp the engine database.
+ * The pool is shut down with the web application, which cancels the running batches.
+ * Jobs run with the access control context of the caller that submitted them
+ * (see {@link ExecutorRegistry}) and each job is a transaction scope of its own.
+ *
+ * <ul>
+ * <li>bpm.console.jobs.bulk.threads: max number of jobs executed concurrently (default 4)
+ * <li>bpm.console.jobs.bulk.rate: max number of jobs executed per second (default 20, 0 is unlimited)
+ * </ul>
+ */
+class BulkJobExecutor
+{
+  private static final Logger log = LoggerFactory.getLogger(BulkJobExecutor.class);
+
+  private static final int MAX_ERRORS = 100;
+  private static final int MAX_HISTORY = 20;
+
+  private final int threads = Integer.getInteger("bpm.console.jobs.bulk.threads", 4).intValue();
+
+  private final RateLimiter rateLimiter =
+      new RateLimiter(Integer.getInteger("bpm.console.jobs.bulk.rate", 20).intValue());
+
+  private final AtomicInteger sequence = new AtomicInteger();
+
+  private final Map<String, Execution> executions = new LinkedHashMap<String, Execution>();
+
+  private ExecutorService executor;
+
+  JobExecutionRef submit(ProcessEnginePlugin plugin, List<String> jobIds)
+  {
+    Execution execution = new Execution(
+        String.valueOf(sequence.incrementAndGet()), plugin, jobIds
+    );
+
+    synchronized(executions)
+    {
+      executions.put(execution.id, execution);
+      purge();
+    }
+
+    log.info("Bulk execution " + execution.id + " of " + jobIds.size() + " jobs");
+
+    int workers = Math.min(threads, jobIds.size());
+    if(0==workers)
+      execution.finish();
+
+    Runnable worker = ExecutorRegistry.withCallerContext(execution);
+    for(int i=0; i<workers; i++)
+      getExecutor().execute(worker);
+
+    return execution.toRef();
+  }
+
+  /**
+   * @return null if there is no such execution
+   */
+  JobExecutionRef getExecution(String id)
+  {
+    Execution execution;
+    synchronized(executions)
+    {
+      execution = executions.get(id);
+    }
+    return execution!=null ? execution.toRef() : null;
+  }
+
+  List<JobExecutionRef> getExecutions()
+  {
+    List<JobExecutionRef> result = new ArrayList<JobExecutionRef>();
+    synchronized(executions)
+    {
+      for(Execution execution : executions.values())
+        result.add(execution.toRef());
+    }
+    return result;
+  }
+
+  /**
+   * Jobs that have not been dispatched yet are skipped.
+   * @return null if there is no such execution
+   */
+  JobExecutionRef cancel(String id)
+  {
+    Execution execution;
+    synchronized(executions)
+    {
+      execution = executions.get(id);
+    }
+
+    if(null==execution)
+      return null;
+
+    execution.cancelled = true;
+    return execution.toRef();
+  }
+
+  /**
+   * Drops the oldest completed executions. Running ones are always kept.
+   */
+  private void purge()
+  {
+    Iterator<Execution> it = executions.values().iterator();
+    int excess = executions.size() - MAX_HISTORY;
+    while(excess > 0 && it.hasNext())
+    {
+      if(it.next().endTime > 0)
+      {
+        it.remove();
+        excess--;
+      }
+    }
+  }
+
+  private synchronized ExecutorService getExecutor()
+  {
+    if(null==executor)
+      executor = ExecutorRegistry.newFixedThreadPool("jobs", threads);
+    return executor;
+  }
+
+  /**
+   * A batch of jobs. Each worker thread runs the same instance
+   * and drains the shared queue.
+   */
+  private class Execution implements Runnable
+  {
+    final String id;
+    final ProcessEnginePlugin plugin;
+    final Queue<String> pending;
+    final int total;
+    final long startTime = System.currentTimeMillis();
+
+    final AtomicInteger executed = new AtomicInteger();
+    final AtomicInteger failed = new AtomicInteger();
+    final AtomicInteger workers = new AtomicInteger();
+    final List<String> errors = Collections.synchronizedList(new ArrayList<String>());
+
+    volatile boolean cancelled;
+    volatile long endTime;
+
+    Execution(String id, ProcessEnginePlugin plugin, List<String> jobIds)
+    {
+      this.id = id;
+      this.plugin = plugin;
+      this.pending = new ConcurrentLinkedQueue<String>(jobIds);
+      this.total = jobIds.size();
+    }
+
+    public void run()
+    {
+      workers.incrementAndGet();
+      try
+      {
+        String jobId;
+        while(!cancelled && (jobId = pending.poll())!=null)
+        {
+          rateLimiter.acquire();
+          execute(jobId);
+        }
+      }
+      catch (InterruptedException e)
+      {
+        // shut down
+        cancelled = true;
+        Thread.currentThread().interrupt();
+      }
+      finally
+      {
+        if(workers.decrementAndGet()==0 && (pending.isEmpty() || cancelled))
+          finish();
+      }
+    }
+
+    private void execute(String jobId)
+    {
+      String error = null;
+      TransactionScope.beginRequest();
+      try
+      {
+        plugin.executeJob(jobId);
+      }
+      catch (Exception e)
+      {
+        error = e.getMessage();
+        log.debug("Failed to execute job " + jobId, e);
+      }
+      finally
+      {
+        try
+        {
+          TransactionScope.endRequest(error!=null);
+        }
+        catch (Exception e)
+        {
+          if(null==error) error = "Failed to complete transaction: " + e.getMessage();
+          log.debug("Failed to complete transaction of job " + jobId, e);
+        }
+      }
+
+      if(null==error)
+      {
+        executed.incrementAndGet();
+      }
+      else
+      {
+        failed.incrementAndGet();
+        if(errors.size() < MAX_ERRORS)
+          errors.add(jobId + ": " + error);
+      }
+    }
+
+    synchronized void finish()
+    {
+      if(endTime > 0) return;
+
+      endTime = System.currentTimeMillis();
+      log.info("Bulk execution " + id + (cancelled ? " cancelled: " : " finished: ")
+          + executed.get() + " executed, " + failed.get() + " failed");
+    }
+
+    JobExecutionRef toRef()
+    {
+      JobExecutionRef ref = new JobExecutionRef();
+      ref.setId(id);
+      ref.setTotal(total);
+      ref.setExecuted(executed.get());
+      ref.setFailed(failed.get());
+      ref.setStartTime(startTime);
+      ref.setEndTime(endTime);
+      ref.setErrors(new ArrayList<String>(errors));
+
+      if(endTime==0)
+        ref.setStatus(JobExecutionRef.RUNNING);
+      else
+        ref.setStatus(cancelled ? JobExecutionRef.CANCELLED : JobExecutionRef.FINISHED);
+      return ref;
+    }
+  }
+}
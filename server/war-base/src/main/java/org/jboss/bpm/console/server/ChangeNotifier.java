@@ -0,0 +1,189 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server;
+
+import org.jboss.bpm.console.client.model.ChangeRef;
+import org.jboss.bpm.console.client.model.ChangeRefWrapper;
+import org.jboss.bpm.console.client.model.ParticipantRef;
+import org.jboss.bpm.console.client.model.TaskRef;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps the most recent changes made through the console facades
+ * and hands them to long polling clients.<br>
+ * Changes are numbered by a sequence that starts at the current time,
+ * so that clients notice when the server has been restarted.
+ * Task changes are keyed by the actors and groups whose task lists are affected,
+ * a poll only wakes up for the keys of its subscriber.
+ *
+ * <ul>
+ * <li>bpm.console.notifications.buffer: number of changes kept (default 1024)
+ * </ul>
+ */
+class ChangeNotifier
+{
+  private static final ChangeNotifier instance = new ChangeNotifier(
+      Integer.getInteger("bpm.console.notifications.buffer", 1024).intValue()
+  );
+
+  private final ChangeRef[] buffer;
+  private long sequence;
+
+  /**
+   * Sequence before the first change, the buffer holds nothing up to here
+   */
+  private final long start;
+
+  ChangeNotifier(int capacity)
+  {
+    this(capacity, System.currentTimeMillis());
+  }
+
+  ChangeNotifier(int capacity, long start)
+  {
+    this.buffer = new ChangeRef[capacity];
+    this.start = start;
+    this.sequence = start;
+  }
+
+  static ChangeNotifier getInstance()
+  {
+    return instance;
+  }
+
+  /**
+   * Publishes a change for the assignee and the participating users and groups of <code>task</code>.
+   *
+   * @param task the task before it has been changed, may be null
+   * @param assignee the new assignee, may be null
+   */
+  void taskChanged(TaskRef task, String assignee)
+  {
+    Set<String> idRefs = new LinkedHashSet<String>();
+    if(assignee!=null)
+      idRefs.add(assignee);
+
+    if(task!=null)
+    {
+      if(task.getAssignee()!=null)
+        idRefs.add(task.getAssignee());
+      for(ParticipantRef user : task.getParticipantUsers())
+        idRefs.add(user.getIdRef());
+      for(ParticipantRef group : task.getParticipantGroups())
+        idRefs.add(group.getIdRef());
+    }
+
+    publish(ChangeRef.TASK, idRefs);
+  }
+
+  /**
+   * @param definitionId the definition of the changed instance, null if it's unknown
+   */
+  void instanceChanged(String definitionId)
+  {
+    publish(ChangeRef.INSTANCE, definitionId);
+  }
+
+  synchronized void publish(String topic, String key)
+  {
+    append(topic, key!=null ? key : ChangeRef.ANY);
+    notifyAll();
+  }
+
+  /**
+   * One change per key, nothing if there are no keys
+   */
+  synchronized void publish(String topic, Collection<String> keys)
+  {
+    for(String key : keys)
+    {
+      if(key!=null)
+        append(topic, key);
+    }
+    notifyAll();
+  }
+
+  private void append(String topic, String key)
+  {
+    sequence++;
+    buffer[(int)(sequence % buffer.length)] = new ChangeRef(sequence, topic, key);
+  }
+
+  synchronized long getSequence()
+  {
+    return sequence;
+  }
+
+  /**
+   * Waits until there are changes after <code>since</code> that match
+   * the task lists of <code>idRefs</code> or the instances of <code>definitionId</code>.
+   *
+   * @param since last sequence the client has seen
+   * @param idRefs an actor and its groups, may be empty
+   * @param definitionId may be null
+   * @param timeout max wait in ms
+   * @return the matching changes, empty if the timeout elapsed
+   */
+  synchronized ChangeRefWrapper poll(long since, Collection<String> idRefs, String definitionId, long timeout)
+      throws InterruptedException
+  {
+    long deadline = System.currentTimeMillis() + timeout;
+    while(true)
+    {
+      // oldest change still buffered, until it wraps the buffer holds only what has been written
+      long oldest = Math.max(sequence - buffer.length + 1, start + 1);
+      if(since > sequence || since < oldest - 1)
+        return new ChangeRefWrapper(sequence, true, new ArrayList<ChangeRef>());
+
+      List<ChangeRef> changes = new ArrayList<ChangeRef>();
+      for(long seq = since + 1; seq <= sequence; seq++)
+      {
+        ChangeRef change = buffer[(int)(seq % buffer.length)];
+        if(matchesTask(change, idRefs) || change.matches(ChangeRef.INSTANCE, definitionId))
+          changes.add(change);
+      }
+
+      long remaining = deadline - System.currentTimeMillis();
+      if(!changes.isEmpty() || remaining <= 0)
+        return new ChangeRefWrapper(sequence, false, changes);
+
+      // everything up to here has been checked
+      since = sequence;
+      wait(remaining);
+    }
+  }
+
+  private static boolean matchesTask(ChangeRef change, Collection<String> idRefs)
+  {
+    for(String idRef : idRefs)
+    {
+      if(change.matches(ChangeRef.TASK, idRef))
+        return true;
+    }
+    return false;
+  }
+}
@@ -21,6 +21,11 @@
  */
 package org.jboss.bpm.console.server;
 
+import org.jboss.bpm.console.server.util.InvocationMetrics;
+import org.jboss.bpm.console.server.util.RequestMetricsInterceptor;
+import org.jboss.bpm.console.server.util.TransactionInterceptor;
+import org.jboss.bpm.console.server.utils.InstrumentationProxy;
+
 import javax.servlet.ServletContext;
 import javax.ws.rs.core.Application;
 import javax.ws.rs.core.Context;
@@ -40,6 +45,8 @@ public class ConsoleServerApplication extends Application
 
   public ConsoleServerApplication(@Context ServletContext servletContext)
   {
+    InstrumentationProxy.addListener(InvocationMetrics.getInstance());
+
     singletons.add(new InfoFacade());
     singletons.add(new ProcessMgmtFacade());
     singletons.add(new TaskListFacade());
@@ -63,6 +70,12 @@ public class ConsoleServerApplication extends Application
 		System.out.println("Unable to load ReportFacade: " + e.getMessage());
 	}
 	singletons.add(new ProcessHistoryFacade());
+    singletons.add(new NotificationFacade());
+    singletons.add(new BatchFacade(singletons));
+    singletons.add(new RequestMetricsInterceptor());
+    singletons.add(new TransactionInterceptor());
+
+    ServerWarmUp.start(singletons);
   }
 
   @Override
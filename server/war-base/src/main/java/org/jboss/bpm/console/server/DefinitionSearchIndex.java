@@ -0,0 +1,523 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server;
+
+import org.jboss.bpm.console.client.model.ProcessDefinitionRef;
+import org.jboss.bpm.console.client.model.ProcessDefinitionRefWrapper;
+import org.jboss.bpm.console.server.integration.ProcessManagement;
+
+import javax.ws.rs.core.EntityTag;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In memory search index over the process definitions.<br>
+ * Query words of three or more characters match anywhere in the name, key or id
+ * (candidates come from a trigram index), shorter words match the beginning of
+ * any of their alphanumeric parts (through an index of one and two character prefixes).
+ * Posting lists hold the definitions in result order (name, most recent version first),
+ * so that a page is cut from the matches without sorting them.
+ * <p/>
+ * The index is reconciled with the engine incrementally: only definitions that were
+ * added, changed or removed are tokenized again and only the posting lists of their
+ * tokens are merged, the others are shared with the previous state.
+ * It happens when the <code>process/definitions</code> version stamp changes,
+ * when console operations invalidate it and otherwise at most every
+ * <ul>
+ *   <li>bpm.console.definitions.search.refresh: ms (default 10000)
+ * </ul>
+ * A new state is built aside and published through a volatile reference,
+ * searches never wait for a refresh in progress, they use the previous state.
+ */
+class DefinitionSearchIndex
+{
+  // before the instance, the empty snapshot uses it
+  private static final Entry[] NONE = new Entry[0];
+
+  private static final DefinitionSearchIndex instance = new DefinitionSearchIndex(
+      Long.getLong("bpm.console.definitions.search.refresh", 10000L).longValue()
+  );
+
+  private static final Comparator<Entry> RESULT_ORDER = new Comparator<Entry>()
+  {
+    public int compare(Entry a, Entry b)
+    {
+      int result = a.name.compareTo(b.name);
+      if(result!=0) return result;
+
+      long va = a.ref.getVersion();
+      long vb = b.ref.getVersion();
+      if(va!=vb) return va > vb ? -1 : 1;
+
+      return a.id.compareTo(b.id);
+    }
+  };
+
+  private final long refreshInterval;
+  private final VersionStamps versionStamps = new VersionStamps();
+
+  // serializes the writers
+  private final ReentrantLock refreshLock = new ReentrantLock();
+
+  // written under refreshLock
+  private volatile String stamp;
+  private volatile long lastRefresh;
+
+  private volatile boolean stale = true;
+
+  private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+  DefinitionSearchIndex(long refreshInterval)
+  {
+    this.refreshInterval = refreshInterval;
+  }
+
+  static DefinitionSearchIndex getInstance()
+  {
+    return instance;
+  }
+
+  /**
+   * Forces a refresh before the next search, i.e. after deployment changes
+   */
+  void invalidate()
+  {
+    stale = true;
+  }
+
+  /**
+   * The definitions in the result are shared with the index and must not be modified.
+   *
+   * @param query words that all need to match, an empty query matches all definitions
+   * @param maxResults -1 for all
+   */
+  ProcessDefinitionRefWrapper search(ProcessManagement management, String query, int firstResult, int maxResults)
+  {
+    refreshIfNeeded(management);
+    return snapshot.search(split(query), firstResult, maxResults);
+  }
+
+  /**
+   * Offers a definition list that has been loaded anyway, i.e. for the definition list resource.
+   * It's only reconciled if a refresh is due and no other refresh is in progress.
+   *
+   * @param tag the <code>process/definitions</code> version stamp the list was loaded with, if any
+   */
+  void offer(Collection<ProcessDefinitionRef> definitions, EntityTag tag)
+  {
+    String currentStamp = tag!=null ? tag.getValue() : null;
+    long now = System.currentTimeMillis();
+    if(!isDue(currentStamp, now) || !refreshLock.tryLock())
+      return;
+
+    try
+    {
+      sync(definitions);
+      stamp = currentStamp;
+      lastRefresh = now;
+    }
+    finally
+    {
+      refreshLock.unlock();
+    }
+  }
+
+  /**
+   * Reconciles the index with a complete definition list.
+   * Only definitions that were added, changed or removed are tokenized
+   * and only their posting lists are merged again.
+   * The definitions are kept by the index and must not be modified afterwards.
+   *
+   * @return true if anything changed
+   */
+  boolean sync(Collection<ProcessDefinitionRef> definitions)
+  {
+    refreshLock.lock();
+    try
+    {
+      stale = false;
+
+      Snapshot current = snapshot;
+      List<Entry> removed = new ArrayList<Entry>();
+      List<Entry> added = new ArrayList<Entry>();
+      Set<String> ids = new HashSet<String>(definitions.size() * 2);
+      for(ProcessDefinitionRef def : definitions)
+      {
+        if(null==def.getId() || !ids.add(def.getId()))
+          continue;
+
+        Entry existing = current.byId.get(def.getId());
+        if(existing!=null && existing.ref.equals(def) && existing.ref.isSuspended()==def.isSuspended())
+          continue;
+
+        if(existing!=null)
+          removed.add(existing);
+        added.add(new Entry(def));
+      }
+
+      if(ids.size() - added.size() + removed.size() < current.ranked.length)
+      {
+        for(Entry entry : current.ranked)
+        {
+          if(!ids.contains(entry.id))
+            removed.add(entry);
+        }
+      }
+
+      if(removed.isEmpty() && added.isEmpty())
+        return false;
+
+      snapshot = current.apply(removed, added);
+      return true;
+    }
+    finally
+    {
+      refreshLock.unlock();
+    }
+  }
+
+  int size()
+  {
+    return snapshot.ranked.length;
+  }
+
+  private void refreshIfNeeded(ProcessManagement management)
+  {
+    boolean hasIndex = snapshot.ranked.length>0 || !stale;
+    if(hasIndex)
+    {
+      // somebody else is at it already
+      if(!refreshLock.tryLock())
+        return;
+    }
+    else
+    {
+      refreshLock.lock();
+    }
+
+    try
+    {
+      EntityTag tag = versionStamps.getEntityTag("process/definitions");
+      String currentStamp = tag!=null ? tag.getValue() : null;
+      long now = System.currentTimeMillis();
+
+      if(isDue(currentStamp, now))
+      {
+        sync(management.getProcessDefinitions());
+        stamp = currentStamp;
+        lastRefresh = now;
+      }
+    }
+    catch (RuntimeException e)
+    {
+      stale = true;
+      throw e;
+    }
+    finally
+    {
+      refreshLock.unlock();
+    }
+  }
+
+  private boolean isDue(String currentStamp, long now)
+  {
+    return stale
+        || (currentStamp!=null ? !currentStamp.equals(stamp) : now - lastRefresh >= refreshInterval);
+  }
+
+  /**
+   * Lower case alphanumeric parts
+   */
+  private static List<String> split(String value)
+  {
+    List<String> result = new ArrayList<String>();
+    if(null==value)
+      return result;
+
+    String lower = value.toLowerCase();
+    int start = -1;
+    for(int i=0; i<=lower.length(); i++)
+    {
+      boolean isPart = i<lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+      if(isPart && start==-1)
+      {
+        start = i;
+      }
+      else if(!isPart && start!=-1)
+      {
+        result.add(lower.substring(start, i));
+        start = -1;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * An immutable state of the index. Posting lists hold entries in result order.
+   * A new state shares the posting lists that a change doesn't touch with its predecessor.
+   */
+  private static class Snapshot
+  {
+    static final Snapshot EMPTY = new Snapshot(
+        NONE,
+        Collections.<String, Entry>emptyMap(),
+        Collections.<String, Entry[]>emptyMap(),
+        Collections.<String, Entry[]>emptyMap()
+    );
+
+    final Entry[] ranked;
+    final Map<String, Entry> byId;
+    final Map<String, Entry[]> trigrams;
+    final Map<String, Entry[]> prefixes;
+
+    private Snapshot(Entry[] ranked, Map<String, Entry> byId,
+                     Map<String, Entry[]> trigrams, Map<String, Entry[]> prefixes)
+    {
+      this.ranked = ranked;
+      this.byId = byId;
+      this.trigrams = trigrams;
+      this.prefixes = prefixes;
+    }
+
+    /**
+     * @param removed entries of this snapshot
+     * @param added new entries, at most one per id
+     */
+    Snapshot apply(List<Entry> removed, List<Entry> added)
+    {
+      Entry[] sorted = added.toArray(new Entry[added.size()]);
+      Arrays.sort(sorted, RESULT_ORDER);
+      Set<Entry> gone = new HashSet<Entry>(removed);
+
+      Map<String, Entry> ids = new HashMap<String, Entry>(byId);
+      for(Entry entry : removed)
+        ids.remove(entry.id);
+      for(Entry entry : sorted)
+        ids.put(entry.id, entry);
+
+      return new Snapshot(
+          merge(ranked, gone, Arrays.asList(sorted)),
+          ids,
+          update(trigrams, removed, gone, sorted, true),
+          update(prefixes, removed, gone, sorted, false)
+      );
+    }
+
+    /**
+     * Merges the posting lists of the tokens of the removed and added entries,
+     * the others are shared
+     */
+    private static Map<String, Entry[]> update(
+        Map<String, Entry[]> postings, List<Entry> removed, Set<Entry> gone, Entry[] sorted, boolean trigrams)
+    {
+      Map<String, List<Entry>> additions = new HashMap<String, List<Entry>>();
+      for(Entry entry : sorted)
+      {
+        for(String token : trigrams ? entry.trigrams : entry.prefixes)
+        {
+          List<Entry> list = additions.get(token);
+          if(null==list)
+          {
+            list = new ArrayList<Entry>();
+            additions.put(token, list);
+          }
+          list.add(entry);
+        }
+      }
+
+      Set<String> touched = new HashSet<String>(additions.keySet());
+      for(Entry entry : removed)
+        touched.addAll(trigrams ? entry.trigrams : entry.prefixes);
+
+      Map<String, Entry[]> result = new HashMap<String, Entry[]>(postings);
+      for(String token : touched)
+      {
+        Entry[] current = postings.get(token);
+        List<Entry> add = additions.get(token);
+        Entry[] merged = merge(
+            current!=null ? current : NONE, gone,
+            add!=null ? add : Collections.<Entry>emptyList()
+        );
+
+        if(merged.length>0)
+          result.put(token, merged);
+        else
+          result.remove(token);
+      }
+      return result;
+    }
+
+    /**
+     * @param current in result order
+     * @param add in result order
+     */
+    private static Entry[] merge(Entry[] current, Set<Entry> gone, List<Entry> add)
+    {
+      if(current.length==0)
+        return add.toArray(new Entry[add.size()]);
+
+      List<Entry> result = new ArrayList<Entry>(current.length + add.size());
+      int a = 0;
+      for(Entry entry : current)
+      {
+        if(gone.contains(entry))
+          continue;
+        while(a<add.size() && RESULT_ORDER.compare(add.get(a), entry)<0)
+          result.add(add.get(a++));
+        result.add(entry);
+      }
+      while(a<add.size())
+        result.add(add.get(a++));
+      return result.toArray(new Entry[result.size()]);
+    }
+
+    ProcessDefinitionRefWrapper search(List<String> words, int firstResult, int maxResults)
+    {
+      List<ProcessDefinitionRef> page = new ArrayList<ProcessDefinitionRef>();
+      int total = 0;
+
+      if(words.isEmpty())
+      {
+        total = ranked.length;
+        int end = maxResults>=0 ? Math.min(total, firstResult + maxResults) : total;
+        for(int i=firstResult; i<end; i++)
+          page.add(ranked[i].ref);
+      }
+      else
+      {
+        // posting lists are in result order, so are the matches
+        for(Entry entry : candidates(words))
+        {
+          if(!matches(entry, words))
+            continue;
+
+          if(total >= firstResult && (maxResults<0 || page.size()<maxResults))
+            page.add(entry.ref);
+          total++;
+        }
+      }
+
+      return new ProcessDefinitionRefWrapper(page, firstResult, total);
+    }
+
+    /**
+     * The smallest posting list among the query words
+     */
+    private Entry[] candidates(List<String> words)
+    {
+      Entry[] smallest = null;
+      for(String word : words)
+      {
+        Entry[] postings;
+        if(word.length()>=3)
+        {
+          postings = null;
+          for(int i=0; i+3<=word.length(); i++)
+          {
+            Entry[] list = trigrams.get(word.substring(i, i+3));
+            if(null==list)
+              return NONE;
+            if(null==postings || list.length<postings.length)
+              postings = list;
+          }
+        }
+        else
+        {
+          postings = prefixes.get(word);
+          if(null==postings)
+            return NONE;
+        }
+
+        if(null==smallest || postings.length<smallest.length)
+          smallest = postings;
+      }
+      return smallest;
+    }
+
+    private boolean matches(Entry entry, List<String> words)
+    {
+      for(String word : words)
+      {
+        if(word.length()>=3)
+        {
+          if(entry.text.indexOf(word)==-1)
+            return false;
+        }
+        else if(words.size()>1 && !entry.prefixes.contains(word))
+        {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * An indexed definition and its tokens, shared by successive snapshots
+   */
+  private static class Entry
+  {
+    final ProcessDefinitionRef ref;
+    final String id;
+    final String name;
+
+    // lower case name, key and id, separated so that no word matches across them
+    final String text;
+
+    final Set<String> trigrams;
+
+    // one and two character prefixes of the alphanumeric parts
+    final Set<String> prefixes;
+
+    Entry(ProcessDefinitionRef ref)
+    {
+      this.ref = ref;
+      this.id = ref.getId();
+      this.name = ref.getName()!=null ? ref.getName().toLowerCase() : "";
+      String key = ref.getKey()!=null ? ref.getKey().toLowerCase() : "";
+      this.text = name + '\n' + key + '\n' + id.toLowerCase();
+
+      Set<String> grams = new HashSet<String>();
+      for(int i=0; i+3<=text.length(); i++)
+        grams.add(text.substring(i, i+3));
+      this.trigrams = Collections.unmodifiableSet(grams);
+
+      Set<String> heads = new HashSet<String>();
+      for(String part : split(text))
+      {
+        heads.add(part.substring(0, 1));
+        if(part.length()>1)
+          heads.add(part.substring(0, 2));
+      }
+      this.prefixes = Collections.unmodifiableSet(heads);
+    }
+  }
+}
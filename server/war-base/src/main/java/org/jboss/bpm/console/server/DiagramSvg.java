@@ -0,0 +1,206 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server;
+
+import org.jboss.bpm.console.client.model.DiagramEdgeInfo;
+import org.jboss.bpm.console.client.model.DiagramInfo;
+import org.jboss.bpm.console.client.model.DiagramNodeInfo;
+import org.jboss.bpm.console.server.plugin.GraphViewerPlugin;
+import org.jboss.bpm.console.server.util.CacheRegistry;
+import org.jboss.bpm.console.server.util.ExpiringLRUCache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renders process diagrams as SVG from the {@link DiagramInfo}.<br>
+ * Nodes are drawn as <code>&lt;g class="n" data-node="name"&gt;</code> groups
+ * and styled by the embedded stylesheet, so that clients highlight active nodes
+ * by adding the <code>active</code> class instead of loading another image.
+ * Coordinates are integers and the markup doesn't repeat any styles, which keeps it small and compresses well.
+ * Only diagrams whose plugin provides the transitions can be rendered,
+ * the markup is cached per definition:
+ * <ul>
+ *   <li>bpm.console.diagram.svg.capacity: rendered diagrams in KB (default 8192)
+ *   <li>bpm.console.diagram.ttl: expiry in ms (default 600000)
+ * </ul>
+ */
+class DiagramSvg
+{
+  private static final String STYLE =
+      ".n rect{fill:#fff;stroke:#5a6e85;stroke-width:1}" +
+      ".n text{font:11px sans-serif;text-anchor:middle;fill:#333}" +
+      ".n.active rect{fill:#fde0dc;stroke:#c00;stroke-width:2}" +
+      ".e{fill:none;stroke:#5a6e85;marker-end:url(#bpm-arrow)}";
+
+  private static final DiagramSvg instance = new DiagramSvg();
+
+  private final long ttl = Long.getLong("bpm.console.diagram.ttl", 600000L).longValue();
+
+  private final ExpiringLRUCache<String, String> diagrams = CacheRegistry.register(
+      new ExpiringLRUCache<String, String>(
+          "diagram.svg", Long.getLong("bpm.console.diagram.svg.capacity", 8192L).longValue()
+      )
+  );
+
+  /**
+   * Incremented by every invalidation, a rendering that overlaps one isn't cached
+   */
+  private final AtomicLong generation = new AtomicLong();
+
+  static DiagramSvg getInstance()
+  {
+    return instance;
+  }
+
+  /**
+   * @return null if the diagram can't be rendered
+   */
+  String getSvg(GraphViewerPlugin plugin, String processId)
+  {
+    String svg = diagrams.get(processId);
+    if(svg!=null)
+      return svg;
+
+    long started = generation.get();
+    DiagramInfo info = plugin.getDiagramInfo(processId);
+    if(null==info || info.getNodeList().isEmpty()
+        || null==info.getEdgeList() || info.getEdgeList().isEmpty())
+      return null; // boxes without transitions are no replacement for the image
+
+    svg = render(info);
+    if(generation.get()==started)
+    {
+      diagrams.put(processId, svg, svg.length() / 1024 + 1, ttl);
+      if(generation.get()!=started)
+        diagrams.invalidate(processId);
+    }
+    return svg;
+  }
+
+  void invalidate(String processId)
+  {
+    generation.incrementAndGet();
+    diagrams.invalidate(processId);
+  }
+
+  /**
+   * When the changed definitions aren't known, i.e. a deployment has been removed
+   */
+  void invalidateAll()
+  {
+    generation.incrementAndGet();
+    diagrams.clear();
+  }
+
+  static String render(DiagramInfo info)
+  {
+    int width = info.getWidth();
+    int height = info.getHeight();
+    Map<String, DiagramNodeInfo> nodes = new HashMap<String, DiagramNodeInfo>();
+    for(DiagramNodeInfo node : info.getNodeList())
+    {
+      nodes.put(node.getName(), node);
+      width = Math.max(width, node.getX() + node.getWidth() + 1);
+      height = Math.max(height, node.getY() + node.getHeight() + 1);
+    }
+
+    StringBuilder sb = new StringBuilder(256 + info.getNodeList().size() * 160);
+    sb.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(width)
+        .append("\" height=\"").append(height)
+        .append("\" viewBox=\"0 0 ").append(width).append(' ').append(height).append("\">");
+    sb.append("<style>").append(STYLE).append("</style>");
+    sb.append("<defs><marker id=\"bpm-arrow\" markerWidth=\"8\" markerHeight=\"8\" refX=\"8\" refY=\"4\" orient=\"auto\">")
+        .append("<path d=\"M0,0L8,4L0,8z\" fill=\"#5a6e85\"/></marker></defs>");
+
+    for(DiagramEdgeInfo edge : info.getEdgeList())
+    {
+      DiagramNodeInfo source = nodes.get(edge.getSource());
+      DiagramNodeInfo target = nodes.get(edge.getTarget());
+      if(null==source || null==target || source==target)
+        continue;
+
+      int[] from = border(source, target);
+      int[] to = border(target, source);
+      sb.append("<path class=\"e\" d=\"M").append(from[0]).append(',').append(from[1])
+          .append('L').append(to[0]).append(',').append(to[1]).append("\"/>");
+    }
+
+    for(DiagramNodeInfo node : info.getNodeList())
+    {
+      String name = escape(node.getName());
+      sb.append("<g class=\"n\" data-node=\"").append(name).append("\">");
+      sb.append("<title>").append(name).append("</title>");
+      sb.append("<rect x=\"").append(node.getX()).append("\" y=\"").append(node.getY())
+          .append("\" width=\"").append(node.getWidth()).append("\" height=\"").append(node.getHeight())
+          .append("\" rx=\"5\"/>");
+      sb.append("<text x=\"").append(node.getX() + node.getWidth() / 2)
+          .append("\" y=\"").append(node.getY() + node.getHeight() / 2 + 4).append("\">")
+          .append(name).append("</text>");
+      sb.append("</g>");
+    }
+
+    sb.append("</svg>");
+    return sb.toString();
+  }
+
+  /**
+   * Where the line from the center of a node towards another one leaves its box
+   */
+  private static int[] border(DiagramNodeInfo node, DiagramNodeInfo towards)
+  {
+    double cx = node.getX() + node.getWidth() / 2.0;
+    double cy = node.getY() + node.getHeight() / 2.0;
+    double dx = towards.getX() + towards.getWidth() / 2.0 - cx;
+    double dy = towards.getY() + towards.getHeight() / 2.0 - cy;
+
+    double t = Math.min(
+        dx!=0 ? (node.getWidth() / 2.0) / Math.abs(dx) : Double.MAX_VALUE,
+        dy!=0 ? (node.getHeight() / 2.0) / Math.abs(dy) : Double.MAX_VALUE
+    );
+    if(t>1) t = 1; // overlapping boxes
+
+    return new int[] { (int)Math.round(cx + dx * t), (int)Math.round(cy + dy * t) };
+  }
+
+  private static String escape(String s)
+  {
+    if(null==s)
+      return "";
+
+    StringBuilder sb = new StringBuilder(s.length());
+    for(int i=0; i<s.length(); i++)
+    {
+      char c = s.charAt(i);
+      switch(c)
+      {
+        case '<': sb.append("&lt;"); break;
+        case '>': sb.append("&gt;"); break;
+        case '&': sb.append("&amp;"); break;
+        case '"': sb.append("&quot;"); break;
+        default: sb.append(c);
+      }
+    }
+    return sb.toString();
+  }
+}
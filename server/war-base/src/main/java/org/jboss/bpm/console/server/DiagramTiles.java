@@ -0,0 +1,363 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server;
+
+import org.jboss.bpm.console.client.model.DiagramInfo;
+import org.jboss.bpm.console.client.model.DiagramTileInfo;
+import org.jboss.bpm.console.server.plugin.GraphViewerPlugin;
+import org.jboss.bpm.console.server.util.CacheRegistry;
+import org.jboss.bpm.console.server.util.ExpiringLRUCache;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cuts the process diagram image into tiles at a few zoom levels,
+ * so that clients only need to load the part of a large diagram they actually show.<br>
+ * The tile grid spans the dimensions from the {@link DiagramInfo},
+ * the image itself is used if the plugin doesn't know them.
+ * <p>
+ * Decoding and scaling a large diagram is expensive and the decoded pixels are too big to keep,
+ * so the whole pyramid is encoded in one go and only the encoded tiles and the grid are cached.
+ * Concurrent requests for a diagram that isn't cached wait for a single build.
+ * A build that overlaps an invalidation doesn't cache its result, it may have read the previous diagram.
+ * <ul>
+ *   <li>bpm.console.diagram.tiles.capacity: encoded tiles in KB (default 32768)
+ *   <li>bpm.console.diagram.ttl: expiry of tiles and grids in ms (default 600000)
+ * </ul>
+ */
+class DiagramTiles
+{
+  static final int TILE_SIZE = 256;
+
+  private static final int MAX_LEVELS = 4;
+
+  private static final DiagramTiles instance = new DiagramTiles();
+
+  private final long ttl = Long.getLong("bpm.console.diagram.ttl", 600000L).longValue();
+
+  private final ExpiringLRUCache<String, DiagramTileInfo> grids = CacheRegistry.register(
+      new ExpiringLRUCache<String, DiagramTileInfo>("diagram.grids", 1000)
+  );
+
+  private final ExpiringLRUCache<String, byte[]> tiles = CacheRegistry.register(
+      new ExpiringLRUCache<String, byte[]>(
+          "diagram.tiles", Long.getLong("bpm.console.diagram.tiles.capacity", 32768L).longValue()
+      )
+  );
+
+  private final ConcurrentMap<String, FutureTask<Pyramid>> builds =
+      new ConcurrentHashMap<String, FutureTask<Pyramid>>();
+
+  /**
+   * Incremented by every invalidation. Invalidations are rare,
+   * so a single counter for all diagrams is good enough.
+   */
+  private final AtomicLong generation = new AtomicLong();
+
+  static DiagramTiles getInstance()
+  {
+    return instance;
+  }
+
+  /**
+   * @return null if there is no diagram for the process
+   */
+  DiagramTileInfo getTileInfo(GraphViewerPlugin plugin, String processId)
+  {
+    DiagramTileInfo info = grids.get(processId);
+    if(info!=null)
+      return info;
+
+    Pyramid pyramid = build(plugin, processId);
+    return pyramid!=null ? pyramid.info : null;
+  }
+
+  /**
+   * @return null if there is no diagram for the process
+   * @throws IllegalArgumentException if the tile is outside the grid
+   */
+  byte[] getTile(GraphViewerPlugin plugin, String processId, int level, int column, int row)
+  {
+    String key = key(processId, level, column, row);
+    byte[] tile = tiles.get(key);
+    if(tile!=null)
+      return tile;
+
+    DiagramTileInfo info = getTileInfo(plugin, processId);
+    if(null==info)
+      return null;
+
+    if(level<0 || level>=info.getLevels()
+        || column<0 || column>=info.getColumns(level)
+        || row<0 || row>=info.getRows(level))
+      throw new IllegalArgumentException("No such tile: " + key);
+
+    tile = tiles.get(key);
+    if(tile!=null)
+      return tile;
+
+    // the tiles have been evicted before the grid
+    Pyramid pyramid = build(plugin, processId);
+    return pyramid!=null ? pyramid.tiles.get(key) : null;
+  }
+
+  /**
+   * A (re)deployment may change the diagram
+   */
+  void invalidate(String processId)
+  {
+    generation.incrementAndGet();
+    builds.remove(processId); // later requests don't join a build of the previous diagram
+
+    DiagramTileInfo info = grids.peek(processId);
+    grids.invalidate(processId);
+    if(info!=null)
+    {
+      for(int level=0; level<info.getLevels(); level++)
+        for(int column=0; column<info.getColumns(level); column++)
+          for(int row=0; row<info.getRows(level); row++)
+            tiles.invalidate(key(processId, level, column, row));
+    }
+  }
+
+  /**
+   * When the changed definitions aren't known, i.e. a deployment has been removed
+   */
+  void invalidateAll()
+  {
+    generation.incrementAndGet();
+    builds.clear();
+    grids.clear();
+    tiles.clear();
+  }
+
+  /**
+   * Renders the pyramid once, concurrent callers wait for the same build
+   *
+   * @return null if there is no diagram for the process
+   */
+  private Pyramid build(final GraphViewerPlugin plugin, final String processId)
+  {
+    FutureTask<Pyramid> task = new FutureTask<Pyramid>(
+        new Callable<Pyramid>()
+        {
+          public Pyramid call() throws Exception
+          {
+            return render(plugin, processId);
+          }
+        }
+    );
+
+    FutureTask<Pyramid> running = builds.putIfAbsent(processId, task);
+    if(null==running)
+    {
+      running = task;
+      try
+      {
+        task.run();
+      }
+      finally
+      {
+        builds.remove(processId, task);
+      }
+    }
+
+    try
+    {
+      return running.get();
+    }
+    catch (ExecutionException e)
+    {
+      Throwable cause = e.getCause();
+      if(cause instanceof RuntimeException)
+        throw (RuntimeException)cause;
+      throw new RuntimeException("Failed to render diagram tiles of " + processId, cause);
+    }
+    catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while rendering diagram tiles of " + processId, e);
+    }
+  }
+
+  private Pyramid render(GraphViewerPlugin plugin, String processId)
+  {
+    long started = generation.get();
+
+    byte[] png = plugin.getProcessImage(processId);
+    if(null==png)
+      return null;
+
+    BufferedImage image;
+    try
+    {
+      image = ImageIO.read(new ByteArrayInputStream(png));
+    }
+    catch (IOException e)
+    {
+      throw new RuntimeException("Failed to read diagram of " + processId, e);
+    }
+    if(null==image)
+      throw new RuntimeException("Unsupported diagram format: " + processId);
+
+    int width = image.getWidth();
+    int height = image.getHeight();
+    DiagramInfo diagramInfo = plugin.getDiagramInfo(processId);
+    if(diagramInfo!=null && diagramInfo.getWidth()>0 && diagramInfo.getHeight()>0)
+    {
+      width = diagramInfo.getWidth();
+      height = diagramInfo.getHeight();
+    }
+
+    int count = 1;
+    while(count<MAX_LEVELS && Math.max(width >> (count-1), height >> (count-1)) > TILE_SIZE)
+      count++;
+
+    DiagramTileInfo info = new DiagramTileInfo(width, height, TILE_SIZE, count);
+    Map<String, byte[]> encoded = new HashMap<String, byte[]>();
+    BufferedImage source = image;
+    int sourceWidth = width;
+    int sourceHeight = height;
+    for(int level=0; level<count; level++)
+    {
+      // each level is derived from the previous one, halving keeps the bilinear filter sharp
+      BufferedImage scaled = draw(source, sourceWidth, sourceHeight, info.getWidth(level), info.getHeight(level));
+      for(int column=0; column<info.getColumns(level); column++)
+      {
+        for(int row=0; row<info.getRows(level); row++)
+        {
+          String key = key(processId, level, column, row);
+          encoded.put(key, encode(cut(scaled, column, row)));
+        }
+      }
+
+      source = scaled;
+      sourceWidth = info.getWidth(level);
+      sourceHeight = info.getHeight(level);
+    }
+
+    Pyramid pyramid = new Pyramid(info, encoded);
+    cache(processId, pyramid, started);
+    return pyramid;
+  }
+
+  /**
+   * Callers that waited for the build still get the result,
+   * but it's only cached if there hasn't been an invalidation since <code>started</code>
+   */
+  private void cache(String processId, Pyramid pyramid, long started)
+  {
+    if(generation.get()!=started)
+      return;
+
+    for(Map.Entry<String, byte[]> tile : pyramid.tiles.entrySet())
+      tiles.put(tile.getKey(), tile.getValue(), tile.getValue().length / 1024 + 1, ttl);
+    grids.put(processId, pyramid.info, ttl);
+
+    if(generation.get()!=started)
+    {
+      // invalidated while the entries were written
+      grids.invalidate(processId);
+      for(String key : pyramid.tiles.keySet())
+        tiles.invalidate(key);
+    }
+  }
+
+  private static String key(String processId, int level, int column, int row)
+  {
+    return processId + "/" + level + "/" + column + "/" + row;
+  }
+
+  /**
+   * Draws the area of the source, which may exceed the source image, onto a new image of the given size
+   */
+  private static BufferedImage draw(BufferedImage source, int sourceWidth, int sourceHeight, int width, int height)
+  {
+    BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = target.createGraphics();
+    try
+    {
+      g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      g.scale((double)width / sourceWidth, (double)height / sourceHeight);
+      g.drawImage(source, 0, 0, null);
+    }
+    finally
+    {
+      g.dispose();
+    }
+    return target;
+  }
+
+  private static BufferedImage cut(BufferedImage image, int column, int row)
+  {
+    int x = column * TILE_SIZE;
+    int y = row * TILE_SIZE;
+    return image.getSubimage(
+        x, y,
+        Math.min(TILE_SIZE, image.getWidth() - x),
+        Math.min(TILE_SIZE, image.getHeight() - y)
+    );
+  }
+
+  private static byte[] encode(BufferedImage tile)
+  {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try
+    {
+      ImageIO.write(tile, "png", out);
+    }
+    catch (IOException e)
+    {
+      throw new RuntimeException("Failed to encode diagram tile", e);
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * The result of a build, handed to every caller that waited for it
+   */
+  private static class Pyramid
+  {
+    final DiagramTileInfo info;
+    final Map<String, byte[]> tiles;
+
+    Pyramid(DiagramTileInfo info, Map<String, byte[]> tiles)
+    {
+      this.info = info;
+      this.tiles = tiles;
+    }
+  }
+}
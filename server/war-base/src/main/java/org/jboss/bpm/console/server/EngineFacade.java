@@ -24,18 +24,27 @@ package org.jboss.bpm.console.server;
 import com.google.gson.Gson;
 import org.jboss.bpm.console.client.model.DeploymentRef;
 import org.jboss.bpm.console.client.model.DeploymentRefWrapper;
+import org.jboss.bpm.console.client.model.JobExecutionRef;
+import org.jboss.bpm.console.client.model.JobExecutionRefWrapper;
 import org.jboss.bpm.console.client.model.JobRef;
 import org.jboss.bpm.console.client.model.JobRefWrapper;
 import org.jboss.bpm.console.server.gson.GsonFactory;
+import org.jboss.bpm.console.server.plugin.DeploymentQueryPlugin;
+import org.jboss.bpm.console.server.plugin.JobFilter;
+import org.jboss.bpm.console.server.plugin.JobQueryPlugin;
 import org.jboss.bpm.console.server.plugin.ProcessEnginePlugin;
 import org.jboss.bpm.console.server.plugin.PluginMgr;
 import org.jboss.bpm.console.server.util.ProjectName;
 import org.jboss.bpm.console.server.util.RsComment;
+import org.jboss.bpm.console.server.util.RequestMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.ws.rs.*;
 import javax.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 /**
@@ -48,12 +57,16 @@ import java.util.List;
     title = "Process Engine",
     description = "Process runtime state"
 )
-public class EngineFacade
+public class EngineFacade implements ServerWarmUp.Participant
 {
   private static final Logger log = LoggerFactory.getLogger(EngineFacade.class);
 
+  private static final int ID_PAGE_SIZE = 1000;
+
   private ProcessEnginePlugin processEnginePlugin;
 
+  private final BulkJobExecutor bulkExecutor = new BulkJobExecutor();
+
   private ProcessEnginePlugin getDeploymentPlugin()
   {
     if(null==this.processEnginePlugin)
@@ -64,19 +77,47 @@ public class EngineFacade
     return this.processEnginePlugin;
   }
 
+  public void warmUp(boolean syntheticCalls)
+  {
+    ProcessEnginePlugin plugin = getDeploymentPlugin();
+
+    if(syntheticCalls && plugin instanceof DeploymentQueryPlugin)
+      ((DeploymentQueryPlugin)plugin).countDeployments();
+  }
+
   @GET
   @Path("deployments")
   @Produces("application/json")
-  public Response getDeployments()
+  @RsComment(
+      title = "Deployments",
+      description = "view=summary leaves out definitions and resource names. Supports firstResult and maxResults"
+  )
+  public Response getDeployments(
+      @QueryParam("view")
+      String view,
+      @QueryParam("firstResult")
+      String firstResult,
+      @QueryParam("maxResults")
+      String maxResults
+  )
   {
 
     ProcessEnginePlugin dplPlugin = getDeploymentPlugin();
     if(processEnginePlugin !=null)
     {
-      List<DeploymentRef> dpls = dplPlugin.getDeployments();
-      return createJsonResponse(
-          new DeploymentRefWrapper(dpls)
-      );
+      boolean summary = "summary".equals(view);
+      int first = parseNonNegative("firstResult", firstResult, 0);
+      int max = parseNonNegative("maxResults", maxResults, -1);
+
+      if(!summary && first==0 && max==-1)
+      {
+        List<DeploymentRef> dpls = dplPlugin.getDeployments();
+        return createJsonResponse(
+            new DeploymentRefWrapper(dpls)
+        );
+      }
+
+      return createJsonResponse(queryDeployments(dplPlugin, summary, first, max));
     }
     else
     {
@@ -86,6 +127,83 @@ public class EngineFacade
 
   }
 
+  @GET
+  @Path("deployment/{id}")
+  @Produces("application/json")
+  @RsComment(
+      title = "Deployment details",
+      description = "A single deployment including definitions and resource names"
+  )
+  public Response getDeployment(
+      @PathParam("id")
+      String id
+  )
+  {
+    ProcessEnginePlugin dplPlugin = getDeploymentPlugin();
+    if(processEnginePlugin !=null)
+    {
+      DeploymentRef deployment = null;
+      if(dplPlugin instanceof DeploymentQueryPlugin)
+      {
+        deployment = ((DeploymentQueryPlugin)dplPlugin).getDeployment(id);
+      }
+      else
+      {
+        for(DeploymentRef dpl : dplPlugin.getDeployments())
+        {
+          if(dpl.getId().equals(id))
+          {
+            deployment = dpl;
+            break;
+          }
+        }
+      }
+
+      if(null==deployment)
+        throw new WebApplicationException(
+            new IllegalArgumentException("No such deployment: " + id), 404
+        );
+
+      return createJsonResponse(deployment);
+    }
+    else
+    {
+      log.error("ProcessEnginePlugin not available");
+      return Response.serverError().build();
+    }
+  }
+
+  private DeploymentRefWrapper queryDeployments(ProcessEnginePlugin dplPlugin, boolean summary, int first, int max)
+  {
+    List<DeploymentRef> page;
+    int total;
+    if(dplPlugin instanceof DeploymentQueryPlugin)
+    {
+      DeploymentQueryPlugin queryPlugin = (DeploymentQueryPlugin)dplPlugin;
+      total = queryPlugin.countDeployments();
+      page = (max==0 || first>=total) ?
+          new ArrayList<DeploymentRef>() :
+          queryPlugin.getDeployments(first, max==-1 ? total-first : max);
+    }
+    else
+    {
+      List<DeploymentRef> all = dplPlugin.getDeployments();
+      total = all.size();
+      int end = (max==-1) ? total : (int)Math.min((long)first+max, total);
+      page = first<end ? all.subList(first, end) : new ArrayList<DeploymentRef>();
+    }
+
+    if(summary)
+    {
+      List<DeploymentRef> summaries = new ArrayList<DeploymentRef>(page.size());
+      for(DeploymentRef dpl : page)
+        summaries.add(dpl.toSummary());
+      page = summaries;
+    }
+
+    return new DeploymentRefWrapper(page, first, total);
+  }
+
   @POST
   @Path("deployment/{id}/suspend")
   @Produces("application/json")
@@ -116,6 +234,7 @@ public class EngineFacade
     if(processEnginePlugin !=null)
     {
       processEnginePlugin.suspendDeployment(id, suspended);
+      DefinitionSearchIndex.getInstance().invalidate();
       return Response.ok().build();
     }
     else
@@ -139,6 +258,11 @@ public class EngineFacade
     if(processEnginePlugin !=null)
     {
       processEnginePlugin.deleteDeployment(id);
+      DefinitionSearchIndex.getInstance().invalidate();
+
+      // the definitions of the deployment are gone, a redeployment may reuse their ids
+      DiagramTiles.getInstance().invalidateAll();
+      DiagramSvg.getInstance().invalidateAll();
       return Response.ok().build();
     }
     else
@@ -154,16 +278,38 @@ public class EngineFacade
   @Path("jobs")
   @Produces("application/json")
   @RsComment(project = {ProjectName.JBPM})
-  public Response getJobs()
+  public Response getJobs(
+      @QueryParam("type")
+      String type,
+      @QueryParam("failed")
+      String failed,
+      @QueryParam("errMsg")
+      String errMsg,
+      @QueryParam("firstResult")
+      String firstResult,
+      @QueryParam("maxResults")
+      String maxResults
+  )
   {
 
     ProcessEnginePlugin dplPlugin = getDeploymentPlugin();
     if(processEnginePlugin !=null)
     {
-      List<JobRef> jobs = dplPlugin.getJobs();
-      return createJsonResponse(
-          new JobRefWrapper(jobs)
+      JobFilter filter = new JobFilter(
+          type, failed!=null ? Boolean.valueOf(failed) : null, errMsg
       );
+      int first = parseNonNegative("firstResult", firstResult, 0);
+      int max = parseNonNegative("maxResults", maxResults, -1);
+
+      if(filter.isEmpty() && first==0 && max==-1)
+      {
+        List<JobRef> jobs = dplPlugin.getJobs();
+        return createJsonResponse(
+            new JobRefWrapper(jobs)
+        );
+      }
+
+      return createJsonResponse(queryJobs(dplPlugin, filter, first, max));
     }
     else
     {
@@ -173,6 +319,52 @@ public class EngineFacade
 
   }
 
+  private JobRefWrapper queryJobs(ProcessEnginePlugin dplPlugin, JobFilter filter, int first, int max)
+  {
+    if(dplPlugin instanceof JobQueryPlugin)
+    {
+      JobQueryPlugin queryPlugin = (JobQueryPlugin)dplPlugin;
+      int total = queryPlugin.countJobs(filter);
+      List<JobRef> page = (max==0 || first>=total) ?
+          new ArrayList<JobRef>() :
+          queryPlugin.getJobs(filter, first, max==-1 ? total-first : max);
+      return new JobRefWrapper(page, first, total);
+    }
+
+    // filter and page within the console
+    List<JobRef> page = new ArrayList<JobRef>();
+    int total = 0;
+    for(JobRef job : dplPlugin.getJobs())
+    {
+      if(!filter.matches(job))
+        continue;
+
+      if(total>=first && (max==-1 || page.size()<max))
+        page.add(job);
+      total++;
+    }
+    return new JobRefWrapper(page, first, total);
+  }
+
+  static int parseNonNegative(String name, String value, int defaultValue)
+  {
+    if(null==value || value.trim().length()==0)
+      return defaultValue;
+
+    try
+    {
+      int i = Integer.parseInt(value.trim());
+      if(i<0) throw new NumberFormatException();
+      return i;
+    }
+    catch (NumberFormatException e)
+    {
+      throw new WebApplicationException(
+          new IllegalArgumentException("Invalid "+name+": "+value), 400
+      );
+    }
+  }
+
   @POST
   @Path("job/{id}/execute")
   @Produces("application/json")
@@ -197,10 +389,137 @@ public class EngineFacade
 
   }
 
+  @POST
+  @Path("jobs/execute")
+  @Produces("application/json")
+  @RsComment(
+      title = "Bulk job execution",
+      description = "Executes the given job ids, or all jobs matching the filter, in the background",
+      project = {ProjectName.JBPM}
+  )
+  public Response executeJobs(
+      @QueryParam("id")
+      String[] ids,
+      @QueryParam("type")
+      String type,
+      @QueryParam("failed")
+      String failed,
+      @QueryParam("errMsg")
+      String errMsg
+  )
+  {
+    ProcessEnginePlugin dplPlugin = getDeploymentPlugin();
+    if(processEnginePlugin !=null)
+    {
+      JobFilter filter = new JobFilter(
+          type, failed!=null ? Boolean.valueOf(failed) : null, errMsg
+      );
+
+      List<String> jobIds;
+      if(ids!=null && ids.length>0)
+      {
+        jobIds = new ArrayList<String>(new LinkedHashSet<String>(Arrays.asList(ids)));
+      }
+      else if(!filter.isEmpty())
+      {
+        jobIds = collectJobIds(dplPlugin, filter);
+      }
+      else
+      {
+        throw new WebApplicationException(
+            new IllegalArgumentException("Either job ids or a filter is required"), 400
+        );
+      }
+
+      return createJsonResponse(bulkExecutor.submit(dplPlugin, jobIds));
+    }
+    else
+    {
+      log.error("ProcessEnginePlugin not available");
+      return Response.serverError().build();
+    }
+  }
+
+  @GET
+  @Path("jobs/executions")
+  @Produces("application/json")
+  @RsComment(project = {ProjectName.JBPM})
+  public Response getJobExecutions()
+  {
+    return createJsonResponse(
+        new JobExecutionRefWrapper(bulkExecutor.getExecutions())
+    );
+  }
+
+  @GET
+  @Path("jobs/execution/{id}")
+  @Produces("application/json")
+  @RsComment(project = {ProjectName.JBPM})
+  public Response getJobExecution(
+      @PathParam("id")
+      String id
+  )
+  {
+    return createExecutionResponse(id, bulkExecutor.getExecution(id));
+  }
+
+  @POST
+  @Path("jobs/execution/{id}/cancel")
+  @Produces("application/json")
+  @RsComment(project = {ProjectName.JBPM})
+  public Response cancelJobExecution(
+      @PathParam("id")
+      String id
+  )
+  {
+    return createExecutionResponse(id, bulkExecutor.cancel(id));
+  }
+
+  private Response createExecutionResponse(String id, JobExecutionRef execution)
+  {
+    if(null==execution)
+      throw new WebApplicationException(
+          new IllegalArgumentException("No such job execution: " + id), 404
+      );
+
+    return createJsonResponse(execution);
+  }
+
+  /**
+   * Snapshot of the matching job ids, taken before any of them is executed.
+   */
+  private List<String> collectJobIds(ProcessEnginePlugin dplPlugin, JobFilter filter)
+  {
+    List<String> jobIds = new ArrayList<String>();
+    if(dplPlugin instanceof JobQueryPlugin)
+    {
+      JobQueryPlugin queryPlugin = (JobQueryPlugin)dplPlugin;
+      int total = queryPlugin.countJobs(filter);
+      for(int first=0; first<total; first+=ID_PAGE_SIZE)
+      {
+        List<JobRef> page = queryPlugin.getJobs(filter, first, ID_PAGE_SIZE);
+        for(JobRef job : page)
+          jobIds.add(job.getId());
+        if(page.size()<ID_PAGE_SIZE) break;
+      }
+    }
+    else
+    {
+      for(JobRef job : dplPlugin.getJobs())
+      {
+        if(filter.matches(job))
+          jobIds.add(job.getId());
+      }
+    }
+    return jobIds;
+  }
+
   private Response createJsonResponse(Object wrapper)
   {
     Gson gson = GsonFactory.createInstance();
+    long start = System.nanoTime();
     String json = gson.toJson(wrapper);
+    RequestMetrics.serialized(start);
     return Response.ok(json).type("application/json").build();
   }
 }
@@ -22,6 +22,7 @@
 package org.jboss.bpm.console.server;
 
 import org.jboss.bpm.console.client.model.ProcessInstanceRef;
+import org.jboss.bpm.console.client.model.TaskRef;
 import org.jboss.bpm.console.server.integration.ManagementFactory;
 import org.jboss.bpm.console.server.integration.ProcessManagement;
 import org.jboss.bpm.console.server.integration.TaskManagement;
@@ -59,7 +60,7 @@ import java.util.Map;
     description = "Web based form processing",
     project = {ProjectName.JBPM}
 )
-public class FormProcessingFacade
+public class FormProcessingFacade implements ServerWarmUp.Participant
 {
   private static final Logger log = LoggerFactory.getLogger(FormProcessingFacade.class);
 
@@ -116,6 +117,13 @@ public class FormProcessingFacade
   }
 
 
+  public void warmUp(boolean syntheticCalls)
+  {
+    getTaskManagement();
+    getProcessManagement();
+    getFormDispatcherPlugin();
+  }
+
   @GET
   @Path("task/{id}/render")
   @Produces("text/html")
@@ -157,6 +165,7 @@ public class FormProcessingFacade
         request.getUserPrincipal().getName() : null;
 
     String outcomeDirective = mapping.directives.get("outcome");
+    TaskRef task = getTaskManagement().getTaskById(Long.valueOf(taskId));
 
     if(outcomeDirective!=null)
     {
@@ -176,6 +185,10 @@ public class FormProcessingFacade
       );
     }
 
+    ChangeNotifier notifier = ChangeNotifier.getInstance();
+    notifier.taskChanged(task, null);
+    notifier.instanceChanged(null);
+
     return Response.ok(SUCCESSFULLY_PROCESSED_INPUT).build();
   }
 
@@ -197,6 +210,9 @@ public class FormProcessingFacade
     ProcessInstanceRef instance =
         getProcessManagement().newInstance(definitionId, mapping.processVars);
 
+    // the tasks of the new instance are not known here
+    ChangeNotifier.getInstance().instanceChanged(definitionId);
+
     return Response.ok(SUCCESSFULLY_PROCESSED_INPUT).build();
   }
 
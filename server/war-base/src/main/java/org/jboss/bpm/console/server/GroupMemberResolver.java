@@ -0,0 +1,179 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server;
+
+import org.jboss.bpm.console.server.integration.BatchUserManagement;
+import org.jboss.bpm.console.server.integration.UserManagement;
+import org.jboss.bpm.console.server.util.CacheRegistry;
+import org.jboss.bpm.console.server.util.ExecutorRegistry;
+import org.jboss.bpm.console.server.util.ExpiringLRUCache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Resolves group members through the {@link UserManagement}.<br>
+ * Members are cached per group for a limited time. Groups that are not cached
+ * are resolved in a single call if the implementation is a {@link BatchUserManagement},
+ * otherwise the lookups fan out on a bounded thread pool that is shut down with the web application.
+ * The lookups run with the caller's access control context (see {@link ExecutorRegistry}).
+ *
+ * <ul>
+ * <li>bpm.console.identity.cache.ttl: ttl of cached group members in ms (default 60000, 0 disables the cache)
+ * <li>bpm.console.identity.threads: max number of concurrent group lookups (default 8)
+ * <li>bpm.console.identity.timeout: max time to wait for group lookups in ms (default 30000)
+ * </ul>
+ */
+class GroupMemberResolver
+{
+  private static final int CAPACITY = 1000;
+
+  private final long ttl = Long.getLong("bpm.console.identity.cache.ttl", 60000L).longValue();
+  private final int threads = Integer.getInteger("bpm.console.identity.threads", 8).intValue();
+  private final long timeout = Long.getLong("bpm.console.identity.timeout", 30000L).longValue();
+
+  private final ExpiringLRUCache<String, List<String>> members =
+      CacheRegistry.register(new ExpiringLRUCache<String, List<String>>("identity.group.members", CAPACITY));
+
+  private ExecutorService executor;
+
+  List<String> getActorsForGroup(UserManagement userManagement, String groupName)
+  {
+    return getActorsForGroups(userManagement, Collections.singletonList(groupName)).get(groupName);
+  }
+
+  /**
+   * @return group name to members, in the order of the requested groups
+   */
+  Map<String, List<String>> getActorsForGroups(UserManagement userManagement, List<String> groupNames)
+  {
+    Map<String, List<String>> result = new LinkedHashMap<String, List<String>>();
+    List<String> missing = new ArrayList<String>();
+    for(String group : groupNames)
+    {
+      List<String> cached = ttl > 0 ? members.get(group) : null;
+      result.put(group, cached);
+      if(null==cached) missing.add(group);
+    }
+
+    if(!missing.isEmpty())
+    {
+      Map<String, List<String>> resolved = resolve(userManagement, missing);
+      for(String group : missing)
+      {
+        List<String> actors = resolved.get(group);
+        if(null==actors) actors = Collections.emptyList();
+
+        actors = Collections.unmodifiableList(new ArrayList<String>(actors));
+        if(ttl > 0) members.put(group, actors, ttl);
+        result.put(group, actors);
+      }
+    }
+
+    return result;
+  }
+
+  void invalidate(String groupName)
+  {
+    members.invalidate(groupName);
+  }
+
+  void invalidateAll()
+  {
+    members.clear();
+  }
+
+  private Map<String, List<String>> resolve(final UserManagement userManagement, List<String> groupNames)
+  {
+    if(userManagement instanceof BatchUserManagement)
+      return ((BatchUserManagement)userManagement).getActorsForGroups(groupNames);
+
+    Map<String, List<String>> result = new HashMap<String, List<String>>();
+    if(groupNames.size()==1)
+    {
+      String group = groupNames.get(0);
+      result.put(group, userManagement.getActorsForGroup(group));
+      return result;
+    }
+
+    Map<String, Future<List<String>>> pending = new LinkedHashMap<String, Future<List<String>>>();
+    try
+    {
+      for(final String group : groupNames)
+      {
+        pending.put(group, getExecutor().submit(ExecutorRegistry.withCallerContext(
+            new Callable<List<String>>()
+            {
+              public List<String> call() throws Exception
+              {
+                return userManagement.getActorsForGroup(group);
+              }
+            }
+        )));
+      }
+
+      long deadline = System.currentTimeMillis() + timeout;
+      for(String group : pending.keySet())
+      {
+        long remaining = Math.max(0, deadline - System.currentTimeMillis());
+        result.put(group, pending.get(group).get(remaining, TimeUnit.MILLISECONDS));
+      }
+    }
+    catch (ExecutionException e)
+    {
+      throw new RuntimeException("Failed to resolve group members", e.getCause());
+    }
+    catch (TimeoutException e)
+    {
+      throw new RuntimeException("Timeout resolving group members", e);
+    }
+    catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted resolving group members", e);
+    }
+    finally
+    {
+      for(Future<List<String>> f : pending.values())
+        f.cancel(true);
+    }
+
+    return result;
+  }
+
+  private synchronized ExecutorService getExecutor()
+  {
+    if(null==executor)
+      executor = ExecutorRegistry.newFixedThreadPool("identity", threads);
+    return executor;
+  }
+}
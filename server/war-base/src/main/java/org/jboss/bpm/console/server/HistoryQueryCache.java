@@ -0,0 +1,140 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server;
+
+import org.jboss.bpm.console.client.model.HistoryProcessInstanceRef;
+import org.jboss.bpm.console.server.plugin.ProcessHistoryPlugin;
+import org.jboss.bpm.console.server.util.CacheRegistry;
+import org.jboss.bpm.console.server.util.ExpiringLRUCache;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Caches history instance queries in front of the {@link ProcessHistoryPlugin}.<br>
+ * Results for closed time windows (end time in the past) don't change anymore
+ * and are kept until they are evicted, results for open windows expire after a short ttl.
+ * The capacity is measured in instance rows.
+ *
+ * <ul>
+ * <li>bpm.console.history.cache.capacity: max number of cached rows (default 100000, 0 disables the cache)
+ * <li>bpm.console.history.cache.ttl: ttl for open time windows in ms (default 15000)
+ * </ul>
+ */
+class HistoryQueryCache
+{
+  private final long openWindowTtl;
+  private final ExpiringLRUCache<Key, List<HistoryProcessInstanceRef>> cache;
+
+  HistoryQueryCache()
+  {
+    this(
+        Long.getLong("bpm.console.history.cache.capacity", 100000L).longValue(),
+        Long.getLong("bpm.console.history.cache.ttl", 15000L).longValue()
+    );
+  }
+
+  HistoryQueryCache(long capacity, long openWindowTtl)
+  {
+    this.openWindowTtl = openWindowTtl;
+    this.cache = capacity > 0 ?
+        CacheRegistry.register(new ExpiringLRUCache<Key, List<HistoryProcessInstanceRef>>("history.instances", capacity))
+        : null;
+  }
+
+  List<HistoryProcessInstanceRef> getHistoryProcessInstances(
+      ProcessHistoryPlugin plugin,
+      String definitionKey, String status, long starttime, long endtime, String correlationKey)
+  {
+    if(null==cache)
+      return plugin.getHistoryProcessInstances(definitionKey, status, starttime, endtime, correlationKey);
+
+    Key key = new Key(definitionKey, status, starttime, endtime, correlationKey);
+    List<HistoryProcessInstanceRef> result = cache.get(key);
+    if(null==result)
+    {
+      // the plugin sees the same query as without the cache, the key doesn't normalize it either
+      result = plugin.getHistoryProcessInstances(definitionKey, status, starttime, endtime, correlationKey);
+      result = Collections.unmodifiableList(result);
+
+      boolean closedWindow = endtime < System.currentTimeMillis();
+      cache.put(key, result, Math.max(1, result.size()), closedWindow ? 0 : openWindowTtl);
+    }
+
+    return result;
+  }
+
+  void clear()
+  {
+    if(cache!=null) cache.clear();
+  }
+
+  /**
+   * The query parameters as they are passed to the plugin. They are deliberately
+   * not normalized, the plugin may treat i.e. "completed" and "COMPLETED" differently.
+   */
+  static final class Key
+  {
+    final String definitionKey;
+    final String status;
+    final long starttime;
+    final long endtime;
+    final String correlationKey;
+
+    Key(String definitionKey, String status, long starttime, long endtime, String correlationKey)
+    {
+      this.definitionKey = definitionKey;
+      this.status = status;
+      this.starttime = starttime;
+      this.endtime = endtime;
+      this.correlationKey = correlationKey;
+    }
+
+    public boolean equals(Object o)
+    {
+      if(this==o) return true;
+      if(!(o instanceof Key)) return false;
+
+      Key other = (Key)o;
+      return starttime==other.starttime
+          && endtime==other.endtime
+          && eq(definitionKey, other.definitionKey)
+          && eq(status, other.status)
+          && eq(correlationKey, other.correlationKey);
+    }
+
+    private static boolean eq(String a, String b)
+    {
+      return a==null ? b==null : a.equals(b);
+    }
+
+    public int hashCode()
+    {
+      int h = definitionKey!=null ? definitionKey.hashCode() : 0;
+      h = 31 * h + (status!=null ? status.hashCode() : 0);
+      h = 31 * h + (int)(starttime ^ (starttime >>> 32));
+      h = 31 * h + (int)(endtime ^ (endtime >>> 32));
+      h = 31 * h + (correlationKey!=null ? correlationKey.hashCode() : 0);
+      return h;
+    }
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server;
+
+import org.jboss.bpm.console.client.model.DurationStatisticsRefWrapper;
+import org.jboss.bpm.console.client.model.HistoryActivityInstanceRef;
+import org.jboss.bpm.console.client.model.HistoryProcessInstanceRef;
+import org.jboss.bpm.console.server.plugin.ActivityHistoryPlugin;
+import org.jboss.bpm.console.server.plugin.ProcessHistoryPlugin;
+import org.jboss.bpm.console.server.util.CacheRegistry;
+import org.jboss.bpm.console.server.util.DurationHistogram;
+import org.jboss.bpm.console.server.util.ExpiringLRUCache;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Duration percentiles over history time windows.<br>
+ * The history plugins don't publish completed instances, so histograms are
+ * pre-aggregated per closed UTC day and hour from history queries rather than
+ * maintained as instances complete. A window is covered by whole days,
+ * the partial days at its edges by whole hours, only the remaining minutes
+ * at either end are read directly. Each bucket is built once and merged on request,
+ * so a window costs at most two plain history queries once its buckets are cached.
+ * Closed buckets are kept until they are evicted, the open ones expire after a ttl.
+ *
+ * <ul>
+ * <li>bpm.console.history.statistics.capacity: max number of cached histograms (default 5000)
+ * <li>bpm.console.history.statistics.ttl: ttl of the buckets that are still open in ms (default 60000)
+ * </ul>
+ */
+class HistoryStatistics
+{
+  static final long HOUR = 60 * 60 * 1000L;
+
+  static final long BUCKET_SIZE = 24 * HOUR;
+
+  static final int MAX_BUCKETS = 366;
+
+  private final long openBucketTtl;
+  private final ExpiringLRUCache<String, Histograms> buckets;
+
+  HistoryStatistics()
+  {
+    this(
+        Long.getLong("bpm.console.history.statistics.capacity", 5000L).longValue(),
+        Long.getLong("bpm.console.history.statistics.ttl", 60000L).longValue()
+    );
+  }
+
+  HistoryStatistics(long capacity, long openBucketTtl)
+  {
+    this.openBucketTtl = openBucketTtl;
+    this.buckets = CacheRegistry.register(
+        new ExpiringLRUCache<String, Histograms>("history.statistics", capacity)
+    );
+  }
+
+  DurationStatisticsRefWrapper getStatistics(
+      ProcessHistoryPlugin historyPlugin, ActivityHistoryPlugin activityPlugin,
+      String definitionKey, String status, long starttime, long endtime)
+  {
+    if(endtime<=starttime)
+      throw new IllegalArgumentException("endtime has to be after starttime");
+    if((endtime - starttime) / BUCKET_SIZE > MAX_BUCKETS)
+      throw new IllegalArgumentException("Time window exceeds " + MAX_BUCKETS + " days");
+
+    Histograms total = new Histograms();
+    add(total, historyPlugin, activityPlugin, definitionKey, status, starttime, endtime, BUCKET_SIZE);
+
+    DurationStatisticsRefWrapper result = new DurationStatisticsRefWrapper(definitionKey, starttime, endtime);
+    result.setProcess(total.process.toStatistics(definitionKey));
+    for(String activity : total.activities.keySet())
+      result.getActivities().add(total.activities.get(activity).toStatistics(activity));
+
+    return result;
+  }
+
+  /**
+   * Merges the buckets of the given size that fit into the window,
+   * the rest is covered by hourly buckets or read directly.
+   */
+  private void add(
+      Histograms total, ProcessHistoryPlugin historyPlugin, ActivityHistoryPlugin activityPlugin,
+      String definitionKey, String status, long from, long to, long size)
+  {
+    long t = from;
+    while(t<to)
+    {
+      long bucketStart = t - (t % size);
+      long bucketEnd = bucketStart + size;
+
+      if(t==bucketStart && bucketEnd<=to)
+        total.merge(getBucket(historyPlugin, activityPlugin, definitionKey, status, bucketStart, size));
+      else if(size > HOUR)
+        add(total, historyPlugin, activityPlugin, definitionKey, status, t, Math.min(bucketEnd, to), HOUR);
+      else
+        total.merge(load(historyPlugin, activityPlugin, definitionKey, status, t, Math.min(bucketEnd, to)));
+
+      t = bucketEnd;
+    }
+  }
+
+  private Histograms getBucket(
+      ProcessHistoryPlugin historyPlugin, ActivityHistoryPlugin activityPlugin,
+      String definitionKey, String status, long bucketStart, long size)
+  {
+    String key = definitionKey + "|" + status + "|" + size + "|" + bucketStart;
+    Histograms bucket = buckets.get(key);
+    if(null==bucket)
+    {
+      long bucketEnd = bucketStart + size;
+      bucket = load(historyPlugin, activityPlugin, definitionKey, status, bucketStart, bucketEnd);
+      long ttl = bucketEnd <= System.currentTimeMillis() ? 0 : openBucketTtl;
+      buckets.put(key, bucket, 1 + bucket.activities.size(), ttl);
+    }
+    return bucket;
+  }
+
+  /**
+   * @param to exclusive, adjacent buckets must not see the same instance twice
+   */
+  private Histograms load(
+      ProcessHistoryPlugin historyPlugin, ActivityHistoryPlugin activityPlugin,
+      String definitionKey, String status, long from, long to)
+  {
+    Histograms h = new Histograms();
+
+    for(HistoryProcessInstanceRef ref : historyPlugin.getHistoryProcessInstances(definitionKey, status, from, to - 1, null))
+      h.process.record(ref.getDuration());
+
+    if(activityPlugin!=null)
+    {
+      for(HistoryActivityInstanceRef ref : activityPlugin.getHistoryActivityInstances(definitionKey, from, to - 1))
+        h.activity(ref.getActivityName()).record(ref.getDuration());
+    }
+
+    return h;
+  }
+
+  private static class Histograms
+  {
+    final DurationHistogram process = new DurationHistogram();
+    final Map<String, DurationHistogram> activities = new TreeMap<String, DurationHistogram>();
+
+    DurationHistogram activity(String name)
+    {
+      DurationHistogram h = activities.get(name);
+      if(null==h)
+      {
+        h = new DurationHistogram();
+        activities.put(name, h);
+      }
+      return h;
+    }
+
+    void merge(Histograms other)
+    {
+      process.merge(other.process);
+      for(String name : other.activities.keySet())
+        activity(name).merge(other.activities.get(name));
+    }
+  }
+}
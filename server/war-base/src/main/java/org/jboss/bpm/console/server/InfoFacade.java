@@ -26,10 +26,15 @@ import org.jboss.bpm.console.server.plugin.PluginMgr;
 import org.jboss.bpm.console.server.plugin.GraphViewerPlugin;
 import org.jboss.bpm.console.server.plugin.ProcessEnginePlugin;
 import org.jboss.bpm.console.server.gson.GsonFactory;
+import org.jboss.bpm.console.server.util.CacheRegistry;
+import org.jboss.bpm.console.server.util.InvocationMetrics;
+import org.jboss.bpm.console.server.util.RequestMetrics;
 import org.jboss.bpm.console.server.util.RsDocBuilder;
 import org.jboss.bpm.console.server.util.RsComment;
 import org.jboss.bpm.console.client.model.ServerStatus;
 import org.jboss.bpm.console.client.model.PluginInfo;
+import org.jboss.bpm.console.client.model.RequestMetricsRefWrapper;
+import org.jboss.bpm.console.client.model.ServerReadiness;
 
 import javax.ws.rs.Path;
 import javax.ws.rs.GET;
@@ -49,7 +54,7 @@ import com.google.gson.Gson;
     title = "Server Info",
     description = "General REST server information"
 )
-public class InfoFacade
+public class InfoFacade implements ServerWarmUp.Participant
 {
 
   private Class[] pluginInterfaces = {
@@ -60,19 +65,59 @@ public class InfoFacade
 
   private ServerStatus status = null;
 
+  public void warmUp(boolean syntheticCalls)
+  {
+    getServerStatus();
+  }
+
   @GET
   @Path("status")
   @Produces("application/json")
   @RsComment(
       title = "Plugins",
-      description = "Plugin availability"
+      description = "Plugin availability and cache statistics"
   )
   public Response getServerInfo()
   {
-    ServerStatus status = getServerStatus();
+    ServerStatus status = new ServerStatus();
+    status.getPlugins().addAll(getServerStatus().getPlugins());
+    status.getCaches().addAll(CacheRegistry.getStatistics());
     return createJsonResponse(status);
   }
 
+  @GET
+  @Path("metrics")
+  @Produces("application/json")
+  @RsComment(
+      title = "Request metrics",
+      description = "Count, errors, bytes written and latency percentiles (in microseconds) per resource method. " +
+          "'handler' excludes the JSON serialization, which is reported separately. " +
+          "'invocations' lists latency and argument cardinality per integration layer and plugin method."
+  )
+  public Response getRequestMetrics()
+  {
+    RequestMetricsRefWrapper wrapper =
+        new RequestMetricsRefWrapper(RequestMetrics.getSince(), RequestMetrics.getStatistics());
+    wrapper.setInvocations(InvocationMetrics.getInstance().getStatistics());
+    return createJsonResponse(wrapper);
+  }
+
+  @GET
+  @Path("ready")
+  @Produces("application/json")
+  @RsComment(
+      title = "Readiness",
+      description = "200 once the server has been warmed up, 503 before. Meant to be probed by load balancers."
+  )
+  public Response getReadiness()
+  {
+    ServerReadiness readiness = ServerWarmUp.getReadiness();
+    Response response = createJsonResponse(readiness);
+    if(!readiness.isReady())
+      response = Response.fromResponse(response).status(503).build();
+    return response;
+  }
+
   private ServerStatus getServerStatus()
   {
     if(null==this.status) // expensive to create
@@ -114,7 +159,9 @@ public class InfoFacade
   private Response createJsonResponse(Object wrapper)
   {
     Gson gson = GsonFactory.createInstance();
+    long start = System.nanoTime();
     String json = gson.toJson(wrapper);
+    RequestMetrics.serialized(start);
     return Response.ok(json).type("application/json").build();
   }
 
@@ -129,7 +176,9 @@ public class InfoFacade
             UserMgmtFacade.class,
             EngineFacade.class,
             FormProcessingFacade.class,
-            ProcessHistoryFacade.class
+            ProcessHistoryFacade.class,
+            NotificationFacade.class,
+            BatchFacade.class
         };
   }
 }
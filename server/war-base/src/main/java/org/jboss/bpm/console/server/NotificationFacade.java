@@ -0,0 +1,181 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server;
+
+import com.google.gson.Gson;
+import org.jboss.bpm.console.client.model.ChangeRef;
+import org.jboss.bpm.console.client.model.ChangeRefWrapper;
+import org.jboss.bpm.console.server.gson.GsonFactory;
+import org.jboss.bpm.console.server.integration.ManagementFactory;
+import org.jboss.bpm.console.server.integration.UserManagement;
+import org.jboss.bpm.console.server.util.CacheRegistry;
+import org.jboss.bpm.console.server.util.ExpiringLRUCache;
+import org.jboss.bpm.console.server.util.RsComment;
+import org.jboss.bpm.console.server.util.RequestMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Long polling channel that tells clients when task lists
+ * or process instances have changed, so that they don't need to poll the lists themselves.<br>
+ * A held poll occupies a container request thread, so the number of held polls must stay well
+ * below the size of the connector's thread pool. Polls beyond that limit return immediately
+ * and the client backs off. A task subscription matches the actor and the groups it belongs to.
+ *
+ * <ul>
+ * <li>bpm.console.notifications.timeout: max time a poll is held open in ms (default 25000)
+ * <li>bpm.console.notifications.maxwaiters: max number of polls held open at once (default 20).
+ * Further polls return immediately.
+ * </ul>
+ */
+@Path("notifications")
+@RsComment(
+    title = "Change notifications",
+    description = "Long polling notifications for task list and process instance changes"
+)
+public class NotificationFacade
+{
+  private static final Logger log = LoggerFactory.getLogger(NotificationFacade.class);
+
+  private static final long GROUPS_TTL = 60000;
+
+  private final long timeout = Long.getLong("bpm.console.notifications.timeout", 25000L).longValue();
+  private final int maxWaiters = Integer.getInteger("bpm.console.notifications.maxwaiters", 20).intValue();
+
+  private final AtomicInteger waiters = new AtomicInteger();
+
+  private final ExpiringLRUCache<String, List<String>> groups =
+      CacheRegistry.register(new ExpiringLRUCache<String, List<String>>("notifications.groups", 1000));
+
+  private UserManagement userManagement;
+
+  @GET
+  @Produces("application/json")
+  @RsComment(
+      title = "Poll changes",
+      description = "Returns changes after 'since' for the task list of 'task' (an idRef) " +
+          "and the instances of 'instance' (a definition id). Without 'since' it returns the current sequence."
+  )
+  public Response poll(
+      @QueryParam("since")
+      String since,
+      @QueryParam("task")
+      String idRef,
+      @QueryParam("instance")
+      String definitionId
+  )
+  {
+    ChangeNotifier notifier = ChangeNotifier.getInstance();
+
+    long seq;
+    try
+    {
+      seq = (since!=null && since.length()>0) ? Long.parseLong(since) : -1;
+    }
+    catch (NumberFormatException e)
+    {
+      throw new WebApplicationException(e, 400);
+    }
+
+    if(seq<0)
+      return createJsonResponse(
+          new ChangeRefWrapper(notifier.getSequence(), false, new ArrayList<ChangeRef>())
+      );
+
+    Set<String> idRefs = new LinkedHashSet<String>();
+    if(idRef!=null)
+    {
+      idRefs.add(idRef);
+      idRefs.addAll(getGroups(idRef));
+    }
+
+    boolean hold = waiters.incrementAndGet() <= maxWaiters;
+    try
+    {
+      return createJsonResponse(notifier.poll(seq, idRefs, definitionId, hold ? timeout : 0));
+    }
+    catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      throw new WebApplicationException(e, 503);
+    }
+    finally
+    {
+      waiters.decrementAndGet();
+    }
+  }
+
+  /**
+   * Group task lists change for every member
+   */
+  private List<String> getGroups(String idRef)
+  {
+    List<String> cached = groups.get(idRef);
+    if(cached!=null)
+      return cached;
+
+    List<String> result;
+    try
+    {
+      List<String> resolved = getUserManagement().getGroupsForActor(idRef);
+      result = resolved!=null ?
+          Collections.unmodifiableList(new ArrayList<String>(resolved)) : Collections.<String>emptyList();
+    }
+    catch (RuntimeException e)
+    {
+      log.warn("Failed to resolve groups of " + idRef + ", only its own task changes are notified", e);
+      return Collections.emptyList();
+    }
+
+    groups.put(idRef, result, Math.max(1, result.size()), GROUPS_TTL);
+    return result;
+  }
+
+  private synchronized UserManagement getUserManagement()
+  {
+    if(null==userManagement)
+      userManagement = ManagementFactory.newInstance().createUserManagement();
+    return userManagement;
+  }
+
+  private Response createJsonResponse(Object wrapper)
+  {
+    Gson gson = GsonFactory.createInstance();
+    long start = System.nanoTime();
+    String json = gson.toJson(wrapper);
+    RequestMetrics.serialized(start);
+    return Response.ok(json).type("application/json").build();
+  }
+}
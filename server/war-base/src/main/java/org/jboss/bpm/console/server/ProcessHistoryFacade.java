@@ -16,10 +16,14 @@ import javax.ws.rs.core.UriInfo;
 
 import org.jboss.bpm.console.client.model.*;
 import org.jboss.bpm.console.server.gson.GsonFactory;
+import org.jboss.bpm.console.server.plugin.ActivityHistoryPlugin;
+import org.jboss.bpm.console.server.plugin.CorrelationIndexPlugin;
 import org.jboss.bpm.console.server.plugin.PluginMgr;
 import org.jboss.bpm.console.server.plugin.ProcessHistoryPlugin;
+import org.jboss.bpm.console.server.util.CompactIdSet;
 import org.jboss.bpm.console.server.util.ProjectName;
 import org.jboss.bpm.console.server.util.RsComment;
+import org.jboss.bpm.console.server.util.RequestMetrics;
 
 import com.google.gson.Gson;
 import org.slf4j.Logger;
@@ -36,11 +40,27 @@ import org.slf4j.LoggerFactory;
     description = "Process History Service",
     project = {ProjectName.RIFTSAW}
 )
-public class ProcessHistoryFacade {
+public class ProcessHistoryFacade implements ServerWarmUp.Participant {
 	
 	private static final Logger log = LoggerFactory.getLogger(ProcessHistoryFacade.class);
+
+    /**
+     * Compact id set representations, negotiated through the Accept header.
+     * Without them the id sets are returned as {@link StringRefWrapper}.
+     */
+    public static final String ID_SET_JSON = "application/vnd.bpm.idset+json";
+    public static final String ID_SET_DELTA = "application/vnd.bpm.idset.delta";
+
 	
 	private ProcessHistoryPlugin historyPlugin;
+
+	private CorrelationIndexPlugin correlationIndexPlugin;
+
+	private HistoryQueryCache queryCache = new HistoryQueryCache();
+
+	private ActivityHistoryPlugin activityPlugin;
+
+	private HistoryStatistics statistics = new HistoryStatistics();
 	
 	public ProcessHistoryPlugin getProcessHistoryPlugin() {
 		if (historyPlugin == null) {
@@ -48,7 +68,36 @@ public class ProcessHistoryFacade {
 		}
 		return historyPlugin;
 	}
+
+	/**
+	 * Optional, can be null if activity history is not available.
+	 */
+	public ActivityHistoryPlugin getActivityHistoryPlugin() {
+		if (activityPlugin == null) {
+			activityPlugin = PluginMgr.load(ActivityHistoryPlugin.class);
+		}
+		return activityPlugin;
+	}
+
+	/**
+	 * Optional, can be null if the history store doesn't index correlation keys.
+	 * Correlation lookups across definitions are not available without it.
+	 */
+	public CorrelationIndexPlugin getCorrelationIndexPlugin() {
+		if (correlationIndexPlugin == null) {
+			correlationIndexPlugin = PluginMgr.load(CorrelationIndexPlugin.class);
+		}
+		return correlationIndexPlugin;
+	}
 	
+	public void warmUp(boolean syntheticCalls) {
+		getProcessHistoryPlugin();
+		getActivityHistoryPlugin();
+		if (getCorrelationIndexPlugin() == null) {
+			log.info("No CorrelationIndexPlugin, correlation lookups are disabled");
+		}
+	}
+
 	@GET
 	@Produces("applications/json")
 	@Path("definition/{id}/instances")
@@ -63,13 +112,36 @@ public class ProcessHistoryFacade {
         checkNotNull("starttime", stime);
         checkNotNull("endtime", etime);
 
-		List<HistoryProcessInstanceRef> refs = getProcessHistoryPlugin().getHistoryProcessInstances(id, status, new Long(stime), new Long(etime), ckey);
+		List<HistoryProcessInstanceRef> refs = queryCache.getHistoryProcessInstances(
+				getProcessHistoryPlugin(), id, status, new Long(stime), new Long(etime), ckey);
 		HistoryProcessInstanceRefWrapper wrapper = new HistoryProcessInstanceRefWrapper(refs);
 		
 		return createJsonResponse(wrapper);
 	}
 
 
+    @GET
+    @Produces("application/json")
+    @Path("correlation/{key}")
+    @RsComment(
+        title = "Correlation lookup",
+        description = "History instances across all definitions that share a correlation key. " +
+            "Requires the CorrelationIndexPlugin, 501 without it."
+    )
+    public Response findInstancesByCorrelationKey(@PathParam("key") String correlationKey) {
+        checkNotNull("correlationkey", correlationKey);
+
+        // without an index in the history store, a lookup would scan the history of every definition
+        CorrelationIndexPlugin indexPlugin = getCorrelationIndexPlugin();
+        if (indexPlugin == null) {
+            throw new WebApplicationException(
+                    new UnsupportedOperationException("Correlation lookups require a CorrelationIndexPlugin"), 501);
+        }
+
+        List<HistoryProcessInstanceRef> refs = indexPlugin.getHistoryProcessInstances(correlationKey);
+        return createJsonResponse(new HistoryProcessInstanceRefWrapper(refs));
+    }
+
     @GET
     @Produces("application/json")
     @Path("definitions")
@@ -122,11 +194,12 @@ public class ProcessHistoryFacade {
     }
 
     @GET
-    @Produces("application/json")
+    @Produces({"application/json", ID_SET_JSON, ID_SET_DELTA})
     @Path("definition/{id}/instances/completed")
     public Response getCompletedInstances(@PathParam("id") String definitionId,
                                           @QueryParam("timestamp") String timestamp,
-                                          @QueryParam("timespan") String timespan) {
+                                          @QueryParam("timespan") String timespan,
+                                          @HeaderParam("Accept") String accept) {
         checkNotNull("definitionId", definitionId);
         checkNotNull("timestamp", timestamp);
         checkNotNull("timespan", timespan);
@@ -134,21 +207,16 @@ public class ProcessHistoryFacade {
         Set<String> instances = getProcessHistoryPlugin().getCompletedInstances(definitionId,
                 new Long(timestamp).longValue(), timespan);
 
-        List<StringRef> result = new ArrayList<StringRef>();
-        for (String s: instances) {
-            StringRef ref = new StringRef(s);
-            result.add(ref);
-        }
-
-        return createJsonResponse(new StringRefWrapper(result));
+        return createIdSetResponse(instances, accept);
     }
 
     @GET
-    @Produces("application/json")
+    @Produces({"application/json", ID_SET_JSON, ID_SET_DELTA})
     @Path("definition/{id}/instances/failed")
     public Response getFailedInstances(@PathParam("id") String definitionId,
                                           @QueryParam("timestamp") String timestamp,
-                                          @QueryParam("timespan") String timespan) {
+                                          @QueryParam("timespan") String timespan,
+                                          @HeaderParam("Accept") String accept) {
 
         checkNotNull("definitionId", definitionId);
         checkNotNull("timestamp", timestamp);
@@ -157,23 +225,18 @@ public class ProcessHistoryFacade {
         Set<String> instances = getProcessHistoryPlugin().getFailedInstances(definitionId,
                                     new Long(timestamp).longValue(), timespan);
 
-        List<StringRef> result = new ArrayList<StringRef>();
-        for (String s: instances) {
-            StringRef ref = new StringRef(s);
-            result.add(ref);
-        }
-
-        return createJsonResponse(new StringRefWrapper(result));
+        return createIdSetResponse(instances, accept);
     }
 
 
 
     @GET
-    @Produces("application/json")
+    @Produces({"application/json", ID_SET_JSON, ID_SET_DELTA})
     @Path("definition/{id}/instances/terminated")
     public Response getTerminatedInstances(@PathParam("id") String definitionId,
                                           @QueryParam("timestamp") String timestamp,
-                                          @QueryParam("timespan") String timespan) {
+                                          @QueryParam("timespan") String timespan,
+                                          @HeaderParam("Accept") String accept) {
         checkNotNull("definitionId", definitionId);
         checkNotNull("timestamp", timestamp);
         checkNotNull("timespan", timespan);
@@ -181,16 +244,39 @@ public class ProcessHistoryFacade {
         Set<String> instances = getProcessHistoryPlugin().getTerminatedInstances(definitionId,
                                     new Long(timestamp).longValue(), timespan);
 
-        List<StringRef> result = new ArrayList<StringRef>();
-        for (String s: instances) {
-            StringRef ref = new StringRef(s);
-            result.add(ref);
+        return createIdSetResponse(instances, accept);
+    }
+
+
+    @GET
+    @Produces("application/json")
+    @Path("definition/{id}/statistics")
+    @RsComment(
+        title = "Duration statistics",
+        description = "p50/p90/p99/max durations of a definition and its activities within a time window. "+
+            "Status defaults to COMPLETED, activities require the ActivityHistoryPlugin."
+    )
+    public Response getDurationStatistics(@PathParam("id") String definitionId,
+                                          @QueryParam("starttime") String stime,
+                                          @QueryParam("endtime") String etime,
+                                          @QueryParam("status") String status) {
+        checkNotNull("definitionId", definitionId);
+        checkNotNull("starttime", stime);
+        checkNotNull("endtime", etime);
+        if (status == null || "".equals(status.trim())) {
+            status = "COMPLETED";
         }
 
-        return createJsonResponse(new StringRefWrapper(result));
+        try {
+            DurationStatisticsRefWrapper result = statistics.getStatistics(
+                    getProcessHistoryPlugin(), getActivityHistoryPlugin(),
+                    definitionId, status, new Long(stime).longValue(), new Long(etime).longValue());
+            return createJsonResponse(result);
+        } catch (IllegalArgumentException e) {
+            throw new WebApplicationException(e, 400);
+        }
     }
 
-
     @GET
     @Produces("application/json")
     @Path("definition/{id}/instances/chart/completed")
@@ -214,9 +300,37 @@ public class ProcessHistoryFacade {
     }
 
 
+    /**
+     * Encodes an instance id set according to the requested media type.
+     * The delta encoding only applies to numeric ids, other sets
+     * fall back to the plain JSON array.
+     */
+    private Response createIdSetResponse(Set<String> instances, String accept) {
+        CompactIdSet ids = CompactIdSet.valueOf(instances);
+
+        if (accepts(accept, ID_SET_DELTA) && ids.isNumeric()) {
+            return Response.ok(ids.toDeltaEncoding()).type(ID_SET_DELTA).build();
+        }
+        else if (accepts(accept, ID_SET_JSON) || accepts(accept, ID_SET_DELTA)) {
+            return Response.ok(ids.toJsonArray()).type(ID_SET_JSON).build();
+        }
+
+        List<StringRef> result = new ArrayList<StringRef>(ids.size());
+        for (String s: ids.toStringList()) {
+            result.add(new StringRef(s));
+        }
+        return createJsonResponse(new StringRefWrapper(result));
+    }
+
+    private boolean accepts(String accept, String mediaType) {
+        return accept != null && accept.indexOf(mediaType) != -1;
+    }
+
 	private Response createJsonResponse(Object wrapper) {
 	    Gson gson = GsonFactory.createInstance();
+	    long start = System.nanoTime();
 	    String json = gson.toJson(wrapper);
+	    RequestMetrics.serialized(start);
 	    return Response.ok(json).type("application/json").build();
 	}
 
@@ -31,12 +31,15 @@ import org.jboss.bpm.console.server.plugin.*;
 import org.jboss.bpm.console.server.util.Payload2XML;
 import org.jboss.bpm.console.server.util.ProjectName;
 import org.jboss.bpm.console.server.util.RsComment;
+import org.jboss.bpm.console.server.util.RequestMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.*;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.Response.Status;
@@ -44,6 +47,7 @@ import javax.ws.rs.core.Response.Status;
 import java.io.UnsupportedEncodingException;
 import java.net.URL;
 import java.net.URLDecoder;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -57,7 +61,7 @@ import java.util.Map;
 @RsComment(
     title = "Process Management",
     description = "Process related data.")
-public class ProcessMgmtFacade
+public class ProcessMgmtFacade implements ServerWarmUp.Participant
 {
   private static final Logger log = LoggerFactory.getLogger(ProcessMgmtFacade.class);
 
@@ -67,6 +71,12 @@ public class ProcessMgmtFacade
 
   private FormDispatcherPlugin formPlugin;
 
+  private final VersionStamps versionStamps = new VersionStamps();
+
+  private final DiagramTiles diagramTiles = DiagramTiles.getInstance();
+
+  private final DiagramSvg diagramSvg = DiagramSvg.getInstance();
+
   /**
    * Lazy load the {@link org.jboss.bpm.console.server.plugin.FormDispatcherPlugin}.
    * Can be null if the plugin is not available.
@@ -117,13 +127,60 @@ public class ProcessMgmtFacade
     return activityPlugin;
   }
 
+  public void warmUp(boolean syntheticCalls)
+  {
+    getFormDispatcherPlugin();
+    getGraphViewerPlugin();
+    getActivityPlugin();
+    ProcessManagement management = getProcessManagement();
+
+    if(syntheticCalls)
+      decorateProcessDefintions(management.getProcessDefinitions());
+  }
+
   @GET
   @Path("definitions")
   @Produces("application/json")
-  public Response getDefinitionsJSON()
+  public Response getDefinitionsJSON(
+      @Context
+      Request request
+  )
   {
+    EntityTag tag = versionStamps.getEntityTag("process/definitions");
+    Response notModified = VersionStamps.evaluate(request, tag);
+    if(notModified!=null)
+      return notModified;
+
     List<ProcessDefinitionRef> processDefinitions = getProcessManagement().getProcessDefinitions();
-    return decorateProcessDefintions(processDefinitions);
+    DefinitionSearchIndex.getInstance().offer(processDefinitions, tag);
+    return VersionStamps.tag(decorateProcessDefintions(processDefinitions), tag);
+  }
+
+  @GET
+  @Path("definitions/search")
+  @Produces("application/json")
+  @RsComment(
+      description = "Definitions matching all words of q. Words of three or more characters match anywhere " +
+          "in the name, key or id, shorter ones the beginning of a word. " +
+          "Ordered by name and most recent version first. Supports firstResult and maxResults (default 100)"
+  )
+  public Response searchDefinitionsJSON(
+      @QueryParam("q")
+      String query,
+      @QueryParam("firstResult")
+      String firstResult,
+      @QueryParam("maxResults")
+      String maxResults
+  )
+  {
+    int first = EngineFacade.parseNonNegative("firstResult", firstResult, 0);
+    int max = EngineFacade.parseNonNegative("maxResults", maxResults, 100);
+
+    ProcessDefinitionRefWrapper wrapper =
+        DefinitionSearchIndex.getInstance().search(getProcessManagement(), query, first, max);
+    return createJsonResponse(
+        new ProcessDefinitionRefWrapper(decorate(wrapper.getDefinitions()), first, wrapper.getTotalCount())
+    );
   }
 
   /**
@@ -132,6 +189,20 @@ public class ProcessMgmtFacade
    */
   private Response decorateProcessDefintions( List<ProcessDefinitionRef> processDefinitions)
   {
+    ProcessDefinitionRefWrapper wrapper =
+        new ProcessDefinitionRefWrapper(decorate(processDefinitions));
+    return createJsonResponse(wrapper);
+  }
+
+  /**
+   * Decorates copies, the definitions may be shared with the {@link DefinitionSearchIndex}
+   */
+  private List<ProcessDefinitionRef> decorate(List<ProcessDefinitionRef> definitions)
+  {
+    List<ProcessDefinitionRef> processDefinitions = new ArrayList<ProcessDefinitionRef>(definitions.size());
+    for(ProcessDefinitionRef def : definitions)
+      processDefinitions.add(copy(def));
+
     // decorate process form URL if plugin available
     FormDispatcherPlugin formPlugin = getFormDispatcherPlugin();
     if(formPlugin!=null)
@@ -162,9 +233,20 @@ public class ProcessMgmtFacade
       }
     }
 
-    ProcessDefinitionRefWrapper wrapper =
-        new ProcessDefinitionRefWrapper(processDefinitions);
-    return createJsonResponse(wrapper);
+    return processDefinitions;
+  }
+
+  private static ProcessDefinitionRef copy(ProcessDefinitionRef def)
+  {
+    ProcessDefinitionRef copy = new ProcessDefinitionRef(def.getId(), def.getName(), def.getVersion());
+    copy.setKey(def.getKey());
+    copy.setDescription(def.getDescription());
+    copy.setPackageName(def.getPackageName());
+    copy.setDeploymentId(def.getDeploymentId());
+    copy.setSuspended(def.isSuspended());
+    copy.setFormUrl(def.getFormUrl());
+    copy.setDiagramUrl(def.getDiagramUrl());
+    return copy;
   }
 
   @POST
@@ -178,6 +260,10 @@ public class ProcessMgmtFacade
   {
     ProcessDefinitionRefWrapper wrapper =
         new ProcessDefinitionRefWrapper( getProcessManagement().removeProcessDefinition(definitionId));
+    ChangeNotifier.getInstance().instanceChanged(definitionId);
+    DefinitionSearchIndex.getInstance().invalidate();
+    diagramTiles.invalidate(definitionId);
+    diagramSvg.invalidate(definitionId);
     return createJsonResponse(wrapper);
   }
 
@@ -207,6 +293,7 @@ public class ProcessMgmtFacade
     try
     {
       instance = getProcessManagement().newInstance(definitionId);
+      notifyInstanceChanged(definitionId);
       return createJsonResponse(instance);
     }
     catch (Throwable t)
@@ -253,6 +340,7 @@ public class ProcessMgmtFacade
 	  ProcessInstanceRef.STATE state = ProcessInstanceRef.STATE.valueOf(next);
 	  log.debug("Change instance (ID "+executionId+") to state " +state);
 	  getProcessManagement().setProcessState(executionId, state);
+	  notifyInstanceChanged(null);
 	  return Response.ok().type("application/json").build();
     } catch (Exception e) {
 	  log.error("Error when getting changing state of process instance", e);	
@@ -276,6 +364,7 @@ public class ProcessMgmtFacade
 	  ProcessInstanceRef.RESULT result = ProcessInstanceRef.RESULT.valueOf(resultValue);
 	  log.debug("Change instance (ID "+executionId+") to state " + ProcessInstanceRef.STATE.ENDED);
 	  getProcessManagement().endInstance(executionId, result);
+	  notifyInstanceChanged(null);
 	  return Response.ok().type("application/json").build();
   	} catch (Exception e) {
 	  log.error("Error when getting ending of process instance", e);	
@@ -298,6 +387,7 @@ public class ProcessMgmtFacade
 	try {
 	  log.debug("Delete instance (ID "+executionId+")");
       getProcessManagement().deleteInstance(executionId);
+      notifyInstanceChanged(null);
       return Response.ok().type("application/json").build();
   	} catch (Exception e) {
 	  log.error("Error when getting ending of process instance", e);	
@@ -329,6 +419,7 @@ public class ProcessMgmtFacade
       signalName = null;
 
     getProcessManagement().signalExecution(id, signalName);
+    notifyInstanceChanged(null);
     return Response.ok().type("application/json").build();
   }
 
@@ -348,6 +439,7 @@ public class ProcessMgmtFacade
     log.debug("Signal token " + id);
 
     getProcessManagement().signalExecution(id, null);
+    notifyInstanceChanged(null);
     return Response.ok().type("application/json").build();
   }
 
@@ -376,6 +468,101 @@ public class ProcessMgmtFacade
     );
   }
 
+  @GET
+  @Path("definition/{id}/svg")
+  @Produces("image/svg+xml")
+  @RsComment(
+      description = "Vector diagram rendered from the node and transition coordinates. " +
+          "Nodes are <g class=\"n\" data-node=\"name\"> groups, active ones are highlighted by adding the 'active' class. " +
+          "404 if the plugin doesn't provide the transitions.",
+      project = {ProjectName.JBPM}
+  )
+  public Response getProcessSvg(
+      @PathParam("id")
+      String id
+  )
+  {
+    GraphViewerPlugin plugin = getGraphViewerPlugin();
+    if(plugin !=null)
+    {
+      String svg = diagramSvg.getSvg(plugin, id);
+      if(svg!=null)
+        return Response.ok(svg).type("image/svg+xml").build();
+      else
+        return Response.status(404).build();
+    }
+
+    throw new RuntimeException(
+        GraphViewerPlugin.class.getName()+ " not available."
+    );
+  }
+
+  @GET
+  @Path("definition/{id}/tiles")
+  @Produces("application/json")
+  @RsComment(
+      description = "Tile grid of the process diagram. Level 0 is full size, each level halves the previous one.",
+      project = {ProjectName.JBPM}
+  )
+  public Response getProcessImageTiles(
+      @PathParam("id")
+      String id
+  )
+  {
+    GraphViewerPlugin plugin = getGraphViewerPlugin();
+    if(plugin !=null)
+    {
+      DiagramTileInfo info = diagramTiles.getTileInfo(plugin, id);
+      if(info!=null)
+        return createJsonResponse(info);
+      else
+        return Response.status(404).build();
+    }
+
+    throw new RuntimeException(
+        GraphViewerPlugin.class.getName()+ " not available."
+    );
+  }
+
+  @GET
+  @Path("definition/{id}/tiles/{level}/{column}/{row}")
+  @Produces("image/*")
+  @RsComment(project = {ProjectName.JBPM})
+  public Response getProcessImageTile(
+      @PathParam("id")
+      String id,
+      @PathParam("level")
+      int level,
+      @PathParam("column")
+      int column,
+      @PathParam("row")
+      int row
+  )
+  {
+    GraphViewerPlugin plugin = getGraphViewerPlugin();
+    if(plugin !=null)
+    {
+      byte[] tile;
+      try
+      {
+        tile = diagramTiles.getTile(plugin, id, level, column, row);
+      }
+      catch (IllegalArgumentException e)
+      {
+        throw new WebApplicationException(e, 404);
+      }
+
+      if(tile!=null)
+        return Response.ok(tile).type("image/png").build();
+      else
+        return Response.status(404).build();
+    }
+
+    throw new RuntimeException(
+        GraphViewerPlugin.class.getName()+ " not available."
+    );
+  }
+
   @GET
   @Path("definition/{id}/image/{instance}")
   @Produces("image/*")
@@ -447,10 +634,22 @@ public class ProcessMgmtFacade
 
   }
 
+  /**
+   * Only new instances tell the definition without an extra lookup.
+   * Tasks created or removed along the way are not known here,
+   * clients pick them up with their periodic task list resync.
+   */
+  private void notifyInstanceChanged(String definitionId)
+  {
+    ChangeNotifier.getInstance().instanceChanged(definitionId);
+  }
+
   private Response createJsonResponse(Object wrapper)
   {
     Gson gson = GsonFactory.createInstance();
+    long start = System.nanoTime();
     String json = gson.toJson(wrapper);
+    RequestMetrics.serialized(start);
     return Response.ok(json).type("application/json").build();
   }
 }
@@ -0,0 +1,142 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server;
+
+import com.google.gson.Gson;
+import org.jboss.bpm.console.client.model.ServerReadiness;
+import org.jboss.bpm.console.client.model.ServerStatus;
+import org.jboss.bpm.console.server.gson.GsonFactory;
+import org.jboss.bpm.console.server.util.Payload2XML;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Prepares the server before it receives user traffic: resolves the plugins
+ * and the integration layer, primes the JSON and XML serializers and,
+ * optionally, issues read-only synthetic calls against the process engine.
+ * Runs on a background thread, the server reports to be ready when it's done.
+ * <p>
+ * Configuration (system properties):
+ * <ul>
+ * <li>bpm.console.warmup: set to "false" to skip the warm-up (default true)
+ * <li>bpm.console.warmup.calls: issue synthetic calls (default true)
+ * </ul>
+ */
+final class ServerWarmUp implements Runnable
+{
+  /**
+   * Resources that take part in the warm-up
+   */
+  interface Participant
+  {
+    /**
+     * @param syntheticCalls issue read-only calls against the process engine
+     */
+    void warmUp(boolean syntheticCalls) throws Exception;
+  }
+
+  private static final Logger log = LoggerFactory.getLogger(ServerWarmUp.class);
+
+  private static final boolean ENABLED =
+      !"false".equalsIgnoreCase(System.getProperty("bpm.console.warmup"));
+
+  private static final boolean SYNTHETIC_CALLS =
+      !"false".equalsIgnoreCase(System.getProperty("bpm.console.warmup.calls"));
+
+  private static volatile ServerReadiness readiness =
+      new ServerReadiness(!ENABLED, System.currentTimeMillis(), 0, Collections.<String>emptyList());
+
+  private final List<Participant> participants = new ArrayList<Participant>();
+
+  private ServerWarmUp(Collection<Object> resources)
+  {
+    for(Object resource : resources)
+    {
+      if(resource instanceof Participant)
+        participants.add((Participant)resource);
+    }
+  }
+
+  static void start(Collection<Object> resources)
+  {
+    if(!ENABLED) return;
+
+    readiness = new ServerReadiness(false, System.currentTimeMillis(), 0, Collections.<String>emptyList());
+
+    Thread thread = new Thread(new ServerWarmUp(resources), "bpm-console-warmup");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  static ServerReadiness getReadiness()
+  {
+    return readiness;
+  }
+
+  public void run()
+  {
+    long start = readiness.getStartTime();
+    List<String> failures = new ArrayList<String>();
+
+    for(Participant participant : participants)
+    {
+      try
+      {
+        participant.warmUp(SYNTHETIC_CALLS);
+      }
+      catch (Throwable t)
+      {
+        log.warn("Warm-up failed: " + participant.getClass().getSimpleName(), t);
+        failures.add(participant.getClass().getSimpleName() + ": " + t);
+      }
+    }
+
+    try
+    {
+      primeSerializers();
+    }
+    catch (Throwable t)
+    {
+      log.warn("Warm-up failed: serializers", t);
+      failures.add("serializers: " + t);
+    }
+
+    long duration = System.currentTimeMillis() - start;
+    readiness = new ServerReadiness(true, start, duration, failures);
+    log.info("Warm-up finished in " + duration + " ms" +
+        (failures.isEmpty() ? "" : ", " + failures.size() + " step(s) failed"));
+  }
+
+  private static void primeSerializers()
+  {
+    Gson gson = GsonFactory.createInstance();
+    gson.toJson(new ServerStatus());
+
+    // the first JAXB context is expensive to create
+    new Payload2XML().convert("warmup", Collections.<String, Object>singletonMap("warmup", "warmup"));
+  }
+}
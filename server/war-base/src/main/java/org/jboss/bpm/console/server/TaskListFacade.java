@@ -32,6 +32,7 @@ import org.jboss.bpm.console.server.plugin.FormAuthorityRef;
 import org.jboss.bpm.console.server.plugin.FormDispatcherPlugin;
 import org.jboss.bpm.console.server.util.ProjectName;
 import org.jboss.bpm.console.server.util.RsComment;
+import org.jboss.bpm.console.server.util.RequestMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,6 +40,9 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import java.net.URL;
 import java.util.List;
@@ -54,13 +58,15 @@ import java.util.List;
     description = "Access task lists",
     project = {ProjectName.JBPM}
 )
-public class TaskListFacade
+public class TaskListFacade implements ServerWarmUp.Participant
 {
   private static final Logger log = LoggerFactory.getLogger(TaskMgmtFacade.class);
 
   private TaskManagement taskManagement;
   private FormDispatcherPlugin formPlugin;
 
+  private final VersionStamps versionStamps = new VersionStamps();
+
   /**
    * Lazy load the {@link org.jboss.bpm.console.server.integration.TaskManagement}
    */
@@ -90,28 +96,48 @@ public class TaskListFacade
     return this.formPlugin;
   }
 
+  public void warmUp(boolean syntheticCalls)
+  {
+    getTaskManagement();
+    getFormDispatcherPlugin();
+  }
+
   @GET
   @Path("{idRef}")
   @Produces("application/json")
   public Response getTasksForIdRef(
+      @Context
+      Request request,
       @PathParam("idRef")
       String idRef
   )
   {
+    EntityTag tag = versionStamps.getEntityTag("tasks/" + idRef);
+    Response notModified = VersionStamps.evaluate(request, tag);
+    if(notModified!=null)
+      return notModified;
+
     List<TaskRef> assignedTasks = getTaskManagement().getAssignedTasks(idRef);
-    return processTaskListResponse(assignedTasks);
+    return VersionStamps.tag(processTaskListResponse(assignedTasks), tag);
   }
 
   @GET
   @Path("{idRef}/participation")
   @Produces("application/json")
   public Response getTasksForIdRefParticipation(
+      @Context
+      Request request,
       @PathParam("idRef")
       String idRef
   )
   {
+    EntityTag tag = versionStamps.getEntityTag("tasks/" + idRef + "/participation");
+    Response notModified = VersionStamps.evaluate(request, tag);
+    if(notModified!=null)
+      return notModified;
+
     List<TaskRef> taskParticipation = getTaskManagement().getUnassignedTasks(idRef, null);
-    return processTaskListResponse(taskParticipation);
+    return VersionStamps.tag(processTaskListResponse(taskParticipation), tag);
   }
 
   private Response processTaskListResponse(List<TaskRef> taskList)
@@ -139,7 +165,9 @@ public class TaskListFacade
   private Response createJsonResponse(Object wrapper)
   {
     Gson gson = GsonFactory.createInstance();
+    long start = System.nanoTime();
     String json = gson.toJson(wrapper);
+    RequestMetrics.serialized(start);
     return Response.ok(json).type("application/json").build();
   }
 }
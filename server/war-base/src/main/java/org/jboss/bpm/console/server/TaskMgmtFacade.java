@@ -21,6 +21,7 @@
  */
 package org.jboss.bpm.console.server;
 
+import org.jboss.bpm.console.client.model.TaskRef;
 import org.jboss.bpm.console.server.integration.ManagementFactory;
 import org.jboss.bpm.console.server.integration.TaskManagement;
 import org.jboss.bpm.console.server.plugin.FormDispatcherPlugin;
@@ -46,7 +47,7 @@ import javax.ws.rs.core.Response;
     description = "Manage task instances",
     project = {ProjectName.JBPM}
 )
-public class TaskMgmtFacade
+public class TaskMgmtFacade implements ServerWarmUp.Participant
 {
   private static final Logger log = LoggerFactory.getLogger(TaskMgmtFacade.class);
 
@@ -83,6 +84,12 @@ public class TaskMgmtFacade
     return this.formPlugin;
   }
 
+  public void warmUp(boolean syntheticCalls)
+  {
+    getTaskManagement();
+    getFormDispatcherPlugin();
+  }
+
   @POST
   @Path("{taskId}/assign/{ifRef}")
   @Produces("application/json")
@@ -96,7 +103,10 @@ public class TaskMgmtFacade
   )
   {
     log.debug("Assign task " + taskId + " to '" + idRef +"'");
+    TaskRef task = getTaskManagement().getTaskById(taskId);
     getTaskManagement().assignTask(taskId, idRef, request.getUserPrincipal().getName());
+    // the task leaves the group task lists as well
+    ChangeNotifier.getInstance().taskChanged(task, idRef);
     return Response.ok().build();
   }
 
@@ -111,7 +121,9 @@ public class TaskMgmtFacade
   )
   {
     log.debug("Release task " + taskId);
+    TaskRef task = getTaskManagement().getTaskById(taskId);
     getTaskManagement().assignTask(taskId, null, request.getUserPrincipal().getName());
+    ChangeNotifier.getInstance().taskChanged(task, null);
     return Response.ok().build();
   }
 
@@ -126,7 +138,9 @@ public class TaskMgmtFacade
   )
   {
     log.debug("Close task " + taskId );
+    TaskRef task = getTaskManagement().getTaskById(taskId);
     getTaskManagement().completeTask(taskId, null, request.getUserPrincipal().getName());
+    notifyTaskCompleted(task);
     return Response.ok().build();
   }
 
@@ -143,8 +157,21 @@ public class TaskMgmtFacade
   )
   {
     log.debug("Close task " + taskId + " outcome " + outcome);
+    TaskRef task = getTaskManagement().getTaskById(taskId);
     getTaskManagement().completeTask(taskId, outcome, null, request.getUserPrincipal().getName());
+    notifyTaskCompleted(task);
     return Response.ok().build();
   }
 
+  /**
+   * Completion moves the instance on. Follow-up tasks are not known here,
+   * their participants pick them up with the periodic task list resync of the client.
+   */
+  private void notifyTaskCompleted(TaskRef task)
+  {
+    ChangeNotifier notifier = ChangeNotifier.getInstance();
+    notifier.taskChanged(task, null);
+    notifier.instanceChanged(null);
+  }
+
 }
@@ -27,12 +27,16 @@ import org.jboss.bpm.console.client.model.RoleAssignmentRefWrapper;
 import org.jboss.bpm.console.server.gson.GsonFactory;
 import org.jboss.bpm.console.server.integration.ManagementFactory;
 import org.jboss.bpm.console.server.integration.UserManagement;
+import org.jboss.bpm.console.server.util.CacheRegistry;
+import org.jboss.bpm.console.server.util.ExpiringLRUCache;
 import org.jboss.bpm.console.server.util.ProjectName;
 import org.jboss.bpm.console.server.util.RsComment;
+import org.jboss.bpm.console.server.util.RequestMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
 import javax.ws.rs.*;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.Response;
@@ -49,13 +53,24 @@ import java.util.*;
     description = "Manage user and groups",
     project = {ProjectName.JBPM}
 )
-public class UserMgmtFacade
+public class UserMgmtFacade implements ServerWarmUp.Participant
 {
 
   private static final Logger log = LoggerFactory.getLogger(UserMgmtFacade.class);
 
   private UserManagement userManagement;
 
+  private GroupMemberResolver groupMembers = new GroupMemberResolver();
+
+  /**
+   * Role check results per session and principal.
+   * The ttl is configured through bpm.console.identity.roles.ttl (ms, default 300000).
+   */
+  private ExpiringLRUCache<String, Map<String, Boolean>> roleAssignments =
+      CacheRegistry.register(new ExpiringLRUCache<String, Map<String, Boolean>>("identity.roles", 10000));
+
+  private long roleAssignmentTtl = Long.getLong("bpm.console.identity.roles.ttl", 300000L).longValue();
+
   private UserManagement getUserManagement()
   {
     if(null==userManagement)
@@ -67,6 +82,11 @@ public class UserMgmtFacade
     return this.userManagement;
   }
 
+  public void warmUp(boolean syntheticCalls)
+  {
+    getUserManagement();
+  }
+
   @GET
   @Path("sid")
   @Produces("text/plain")
@@ -86,6 +106,10 @@ public class UserMgmtFacade
       HttpServletRequest request
   )
   {
+    String key = getRoleAssignmentKey(request);
+    if(key!=null)
+      roleAssignments.invalidate(key);
+
     request.getSession().invalidate();
     return Response.ok().build();
   }
@@ -120,15 +144,43 @@ public class UserMgmtFacade
 
     List<RoleAssignmentRef> actualRoles = new ArrayList<RoleAssignmentRef>();
 
+    String key = getRoleAssignmentKey(request);
+    Map<String, Boolean> cached = key!=null ? roleAssignments.get(key) : null;
+    Map<String, Boolean> checked = cached!=null ?
+        new HashMap<String, Boolean>(cached) : new HashMap<String, Boolean>();
+
     StringTokenizer tok = new StringTokenizer(roleCheck, ",");
     while(tok.hasMoreTokens())
     {
       String possibleRole = tok.nextToken();
-      actualRoles.add( new RoleAssignmentRef(possibleRole, request.isUserInRole(possibleRole)));
+      Boolean assigned = checked.get(possibleRole);
+      if(null==assigned)
+      {
+        assigned = Boolean.valueOf(request.isUserInRole(possibleRole));
+        checked.put(possibleRole, assigned);
+      }
+      actualRoles.add( new RoleAssignmentRef(possibleRole, assigned.booleanValue()));
     }
+
+    if(key!=null && (null==cached || cached.size()!=checked.size()))
+      roleAssignments.put(key, Collections.unmodifiableMap(checked), roleAssignmentTtl);
+
     return createJsonResponse( new RoleAssignmentRefWrapper(actualRoles));
   }
 
+  /**
+   * Role assignments are cached per session and principal.
+   * Returns null when there is no session to bind them to.
+   */
+  private String getRoleAssignmentKey(HttpServletRequest request)
+  {
+    HttpSession session = request.getSession(false);
+    if(null==session || null==request.getUserPrincipal() || roleAssignmentTtl<=0)
+      return null;
+
+    return session.getId() + "|" + request.getUserPrincipal().getName();
+  }
+
   @GET
   @Path("user/{actorId}/groups/")
   @Produces("application/json")
@@ -149,7 +201,7 @@ public class UserMgmtFacade
       String groupName
   )
   {
-    List<String> groups = getUserManagement().getActorsForGroup(groupName);
+    List<String> groups = groupMembers.getActorsForGroup(getUserManagement(), groupName);
     return createJsonResponse(groups);
   }
 
@@ -163,9 +215,9 @@ public class UserMgmtFacade
   {
     Set<String> users = new HashSet<String>();
     List<String> groups = getUserManagement().getGroupsForActor(actorId);
-    for(String group : groups)
+    Map<String, List<String>> members = groupMembers.getActorsForGroups(getUserManagement(), groups);
+    for(List<String> actors : members.values())
     {
-      List<String> actors = getUserManagement().getActorsForGroup(group);
       users.addAll(actors);
     }
 
@@ -175,10 +227,33 @@ public class UserMgmtFacade
     return createJsonResponse(availableActors);
   }
 
+  @POST
+  @Path("cache/invalidate")
+  @Produces("text/plain")
+  public Response invalidateGroupMembers()
+  {
+    groupMembers.invalidateAll();
+    return Response.ok().build();
+  }
+
+  @POST
+  @Path("cache/group/{groupName}/invalidate")
+  @Produces("text/plain")
+  public Response invalidateGroupMembers(
+      @PathParam("groupName")
+      String groupName
+  )
+  {
+    groupMembers.invalidate(groupName);
+    return Response.ok().build();
+  }
+
   private Response createJsonResponse(Object wrapper)
   {
     Gson gson = GsonFactory.createInstance();
+    long start = System.nanoTime();
     String json = gson.toJson(wrapper);
+    RequestMetrics.serialized(start);
     return Response.ok(json).type("application/json").build();
   }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server;
+
+import org.jboss.bpm.console.server.plugin.PluginMgr;
+import org.jboss.bpm.console.server.plugin.VersionStampPlugin;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+
+/**
+ * Conditional requests based on the {@link VersionStampPlugin}.
+ * Without the plugin all methods are no-ops and the
+ * {@link org.jboss.bpm.console.server.util.ETagFilter} takes over.
+ */
+class VersionStamps
+{
+  private VersionStampPlugin plugin;
+  private boolean resolved;
+
+  private synchronized VersionStampPlugin getPlugin()
+  {
+    if(!resolved)
+    {
+      plugin = PluginMgr.load(VersionStampPlugin.class);
+      resolved = true;
+    }
+    return plugin;
+  }
+
+  /**
+   * @return null if there is no stamp for the resource
+   */
+  EntityTag getEntityTag(String resource)
+  {
+    VersionStampPlugin plugin = getPlugin();
+    String stamp = plugin!=null ? plugin.getVersionStamp(resource) : null;
+    return stamp!=null ? new EntityTag(stamp) : null;
+  }
+
+  /**
+   * @return a 304 response if the client is up to date, otherwise null
+   */
+  static Response evaluate(Request request, EntityTag tag)
+  {
+    if(null==tag)
+      return null;
+
+    Response.ResponseBuilder builder = request.evaluatePreconditions(tag);
+    return builder!=null ? builder.build() : null;
+  }
+
+  static Response tag(Response response, EntityTag tag)
+  {
+    return tag!=null ? Response.fromResponse(response).tag(tag).build() : response;
+  }
+}
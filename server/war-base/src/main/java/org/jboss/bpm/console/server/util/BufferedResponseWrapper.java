@@ -26,6 +26,7 @@ import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpServletResponseWrapper;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintWriter;
 
 /**
@@ -37,6 +38,8 @@ public class BufferedResponseWrapper extends HttpServletResponseWrapper
    private ByteArrayOutputStream output;
    private int contentLength;
    private String contentType = "";
+   private int status = SC_OK;
+   private String etag;
 
    public BufferedResponseWrapper(HttpServletResponse httpServletResponse)
    {
@@ -73,4 +76,40 @@ public class BufferedResponseWrapper extends HttpServletResponseWrapper
    public String getContentType() {
       return contentType;
    }
+
+   public void setStatus(int sc) {
+      this.status = sc;
+      super.setStatus(sc);
+   }
+
+   public void sendError(int sc) throws IOException {
+      this.status = sc;
+      super.sendError(sc);
+   }
+
+   public void sendError(int sc, String msg) throws IOException {
+      this.status = sc;
+      super.sendError(sc, msg);
+   }
+
+   public int getStatus() {
+      return status;
+   }
+
+   public void setHeader(String name, String value) {
+      if("ETag".equalsIgnoreCase(name)) this.etag = value;
+      super.setHeader(name, value);
+   }
+
+   public void addHeader(String name, String value) {
+      if("ETag".equalsIgnoreCase(name)) this.etag = value;
+      super.addHeader(name, value);
+   }
+
+   /**
+    * @return the ETag set by the resource, if any
+    */
+   public String getETag() {
+      return etag;
+   }
 }
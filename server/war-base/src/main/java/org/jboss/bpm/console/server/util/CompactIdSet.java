@@ -0,0 +1,243 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server.util;
+
+import com.google.gson.Gson;
+import org.jboss.bpm.console.server.gson.GsonFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable, sorted set of instance ids.<br>
+ * Ids that are all canonical decimal numbers are kept in a <code>long[]</code>,
+ * anything else falls back to a sorted <code>String[]</code>.
+ * Numeric sets can be written in a delta encoded binary form:
+ * a version byte, the number of ids and the gaps between consecutive ids,
+ * all as unsigned varints (the first id is zig-zag encoded).
+ */
+public final class CompactIdSet
+{
+  public static final byte DELTA_VERSION = 1;
+
+  private final long[] numericIds;
+  private final String[] ids;
+
+  private CompactIdSet(long[] numericIds, String[] ids)
+  {
+    this.numericIds = numericIds;
+    this.ids = ids;
+  }
+
+  public static CompactIdSet valueOf(Collection<String> source)
+  {
+    long[] numeric = new long[source.size()];
+    int i = 0;
+    try
+    {
+      for(String s : source)
+      {
+        if(!isCanonicalNumber(s))
+          throw new NumberFormatException(s);
+        numeric[i++] = Long.parseLong(s);
+      }
+    }
+    catch (NumberFormatException e)
+    {
+      String[] values = source.toArray(new String[source.size()]);
+      Arrays.sort(values);
+      return new CompactIdSet(null, values);
+    }
+
+    Arrays.sort(numeric);
+    return new CompactIdSet(distinct(numeric), null);
+  }
+
+  public static CompactIdSet fromDeltaEncoding(byte[] data)
+  {
+    int[] pos = new int[] {0};
+    if(data.length==0 || data[pos[0]++]!=DELTA_VERSION)
+      throw new IllegalArgumentException("Unsupported id set encoding");
+
+    int size = (int)readVarLong(data, pos);
+    long[] values = new long[size];
+    long last = 0;
+    for(int i=0; i<size; i++)
+    {
+      long v = readVarLong(data, pos);
+      last = (i==0) ? (v >>> 1) ^ -(v & 1) : last + v;
+      values[i] = last;
+    }
+    return new CompactIdSet(values, null);
+  }
+
+  public int size()
+  {
+    return isNumeric() ? numericIds.length : ids.length;
+  }
+
+  public boolean isNumeric()
+  {
+    return numericIds!=null;
+  }
+
+  public boolean contains(String id)
+  {
+    if(id==null) return false;
+
+    if(!isNumeric())
+      return Arrays.binarySearch(ids, id)>=0;
+
+    try
+    {
+      return isCanonicalNumber(id) && Arrays.binarySearch(numericIds, Long.parseLong(id))>=0;
+    }
+    catch (NumberFormatException e)
+    {
+      return false;
+    }
+  }
+
+  public List<String> toStringList()
+  {
+    List<String> result = new ArrayList<String>(size());
+    if(isNumeric())
+    {
+      for(long id : numericIds)
+        result.add(String.valueOf(id));
+    }
+    else
+    {
+      result.addAll(Arrays.asList(ids));
+    }
+    return result;
+  }
+
+  /**
+   * Plain JSON array of strings, i.e. <code>["1","2","5"]</code>
+   */
+  public String toJsonArray()
+  {
+    if(!isNumeric())
+    {
+      Gson gson = GsonFactory.createInstance();
+      return gson.toJson(ids);
+    }
+
+    // numbers don't need escaping
+    StringBuilder sb = new StringBuilder(numericIds.length * 8 + 2);
+    sb.append('[');
+    for(int i=0; i<numericIds.length; i++)
+    {
+      if(i>0) sb.append(',');
+      sb.append('"').append(numericIds[i]).append('"');
+    }
+    sb.append(']');
+    return sb.toString();
+  }
+
+  /**
+   * Delta encoded binary representation. Only available for numeric sets.
+   */
+  public byte[] toDeltaEncoding()
+  {
+    if(!isNumeric())
+      throw new IllegalStateException("Delta encoding requires numeric ids");
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream(numericIds.length * 2 + 8);
+    out.write(DELTA_VERSION);
+    writeVarLong(out, numericIds.length);
+    for(int i=0; i<numericIds.length; i++)
+    {
+      if(i==0)
+        writeVarLong(out, (numericIds[0] << 1) ^ (numericIds[0] >> 63));
+      else
+        writeVarLong(out, numericIds[i] - numericIds[i-1]);
+    }
+    return out.toByteArray();
+  }
+
+  private static boolean isCanonicalNumber(String s)
+  {
+    if(s==null || s.length()==0 || s.length()>20)
+      return false;
+
+    int start = s.charAt(0)=='-' ? 1 : 0;
+    if(start==s.length())
+      return false;
+
+    for(int i=start; i<s.length(); i++)
+    {
+      char c = s.charAt(i);
+      if(c<'0' || c>'9') return false;
+    }
+
+    // leading zeros (or "-0") would not survive a round trip
+    return s.charAt(start)!='0' || s.length()==1;
+  }
+
+  private static long[] distinct(long[] sorted)
+  {
+    if(sorted.length<2) return sorted;
+
+    int n = 1;
+    for(int i=1; i<sorted.length; i++)
+    {
+      if(sorted[i]!=sorted[n-1])
+        sorted[n++] = sorted[i];
+    }
+    if(n==sorted.length) return sorted;
+
+    long[] result = new long[n];
+    System.arraycopy(sorted, 0, result, 0, n);
+    return result;
+  }
+
+  private static void writeVarLong(ByteArrayOutputStream out, long value)
+  {
+    while((value & ~0x7FL) != 0)
+    {
+      out.write((int)((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.write((int)value);
+  }
+
+  private static long readVarLong(byte[] data, int[] pos)
+  {
+    long value = 0;
+    int shift = 0;
+    while(true)
+    {
+      if(pos[0]>=data.length || shift>63)
+        throw new IllegalArgumentException("Malformed id set encoding");
+
+      byte b = data[pos[0]++];
+      value |= (long)(b & 0x7F) << shift;
+      if((b & 0x80)==0) return value;
+      shift += 7;
+    }
+  }
+}
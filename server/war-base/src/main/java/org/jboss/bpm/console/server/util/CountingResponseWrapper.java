@@ -0,0 +1,124 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server.util;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * Passes the response through, counting the bytes written and recording the status.
+ */
+public class CountingResponseWrapper extends HttpServletResponseWrapper
+{
+  private int status = SC_OK;
+  private long count = 0;
+
+  private ServletOutputStream output;
+  private PrintWriter writer;
+
+  public CountingResponseWrapper(HttpServletResponse response)
+  {
+    super(response);
+  }
+
+  public ServletOutputStream getOutputStream() throws IOException
+  {
+    if(null==output)
+    {
+      final ServletOutputStream delegate = super.getOutputStream();
+      output = new ServletOutputStream()
+      {
+        public void write(int b) throws IOException
+        {
+          delegate.write(b);
+          count++;
+        }
+
+        public void write(byte[] b, int off, int len) throws IOException
+        {
+          delegate.write(b, off, len);
+          count += len;
+        }
+
+        public void flush() throws IOException
+        {
+          delegate.flush();
+        }
+
+        public void close() throws IOException
+        {
+          delegate.close();
+        }
+      };
+    }
+    return output;
+  }
+
+  public PrintWriter getWriter() throws IOException
+  {
+    if(null==writer)
+    {
+      String encoding = getCharacterEncoding()!=null ? getCharacterEncoding() : "ISO-8859-1";
+      writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), encoding));
+    }
+    return writer;
+  }
+
+  public void flushBuffer() throws IOException
+  {
+    if(writer!=null) writer.flush();
+    super.flushBuffer();
+  }
+
+  public void setStatus(int sc)
+  {
+    this.status = sc;
+    super.setStatus(sc);
+  }
+
+  public void sendError(int sc) throws IOException
+  {
+    this.status = sc;
+    super.sendError(sc);
+  }
+
+  public void sendError(int sc, String msg) throws IOException
+  {
+    this.status = sc;
+    super.sendError(sc, msg);
+  }
+
+  public int getStatus()
+  {
+    return status;
+  }
+
+  public long getCount()
+  {
+    if(writer!=null) writer.flush();
+    return count;
+  }
+}
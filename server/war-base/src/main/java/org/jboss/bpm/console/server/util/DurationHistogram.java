@@ -0,0 +1,132 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server.util;
+
+import org.jboss.bpm.console.client.model.DurationStatisticsRef;
+
+/**
+ * Mergeable log-linear histogram for durations (in the spirit of HdrHistogram).<br>
+ * Values below 64 are counted exactly, larger values go into 32 linear
+ * sub buckets per power of two, which bounds the relative error of
+ * reported percentiles to about 3%. The counts array only grows to the
+ * largest recorded magnitude, i.e. durations up to a day take less than 7 KB.
+ */
+public class DurationHistogram
+{
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+  private long[] counts = new long[2 * SUB_BUCKET_COUNT];
+  private long totalCount = 0;
+  private long max = 0;
+
+  public void record(long value)
+  {
+    if(value<0) value = 0;
+
+    int index = bucketIndex(value);
+    ensureCapacity(index + 1);
+    counts[index]++;
+    totalCount++;
+    if(value>max) max = value;
+  }
+
+  public void merge(DurationHistogram other)
+  {
+    ensureCapacity(other.counts.length);
+    for(int i=0; i<other.counts.length; i++)
+      counts[i] += other.counts[i];
+
+    totalCount += other.totalCount;
+    if(other.max>max) max = other.max;
+  }
+
+  public long getCount()
+  {
+    return totalCount;
+  }
+
+  public long getMax()
+  {
+    return max;
+  }
+
+  /**
+   * @param percentile between 0 and 100
+   * @return the highest value equivalent to the percentile, 0 when empty
+   */
+  public long getValueAtPercentile(double percentile)
+  {
+    if(totalCount==0) return 0;
+
+    long rank = (long)Math.ceil(percentile / 100.0 * totalCount);
+    if(rank<1) rank = 1;
+
+    long seen = 0;
+    for(int i=0; i<counts.length; i++)
+    {
+      seen += counts[i];
+      if(seen>=rank)
+        return Math.min(max, highestEquivalentValue(i));
+    }
+    return max;
+  }
+
+  public DurationStatisticsRef toStatistics(String name)
+  {
+    return new DurationStatisticsRef(
+        name, totalCount,
+        getValueAtPercentile(50), getValueAtPercentile(90), getValueAtPercentile(99),
+        max
+    );
+  }
+
+  static int bucketIndex(long value)
+  {
+    if(value < 2 * SUB_BUCKET_COUNT)
+      return (int)value;
+
+    int magnitude = 63 - Long.numberOfLeadingZeros(value);
+    int shift = magnitude - SUB_BUCKET_BITS;
+    int subBucket = (int)(value >>> shift) - SUB_BUCKET_COUNT;
+    return SUB_BUCKET_COUNT * (shift + 1) + subBucket;
+  }
+
+  static long highestEquivalentValue(int index)
+  {
+    if(index < 2 * SUB_BUCKET_COUNT)
+      return index;
+
+    int shift = index / SUB_BUCKET_COUNT - 1;
+    long subBucket = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+    return ((subBucket + 1) << shift) - 1;
+  }
+
+  private void ensureCapacity(int length)
+  {
+    if(length<=counts.length) return;
+
+    long[] grown = new long[Math.max(length, counts.length + SUB_BUCKET_COUNT * 4)];
+    System.arraycopy(counts, 0, grown, 0, counts.length);
+    counts = grown;
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server.util;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.StringTokenizer;
+
+/**
+ * Answers conditional GET requests.<br>
+ * Successful responses get a weak ETag computed from the serialized payload,
+ * unless the resource did set an ETag itself (i.e. from a version stamp).
+ * A matching <code>If-None-Match</code> is answered with 304 and an empty body.
+ * Needs to be mapped before the {@link GWTJsonFilter}, so that it hashes the final payload.
+ */
+public class ETagFilter implements Filter
+{
+  private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  public void init(FilterConfig filterConfig) throws ServletException
+  {
+  }
+
+  public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+      throws IOException, ServletException
+  {
+    HttpServletRequest httpRequest = (HttpServletRequest)request;
+    HttpServletResponse httpResponse = (HttpServletResponse)response;
+
+    if(!"GET".equals(httpRequest.getMethod()))
+    {
+      chain.doFilter(request, response);
+      return;
+    }
+
+    BufferedResponseWrapper wrapper = new BufferedResponseWrapper(httpResponse);
+    chain.doFilter(request, wrapper);
+
+    byte[] data = wrapper.getData();
+    if(wrapper.getStatus()==HttpServletResponse.SC_OK && wrapper.getETag()==null)
+    {
+      String etag = createETag(data);
+      httpResponse.setHeader("ETag", etag);
+      // make browsers revalidate instead of serving XHR responses from their cache
+      httpResponse.setHeader("Cache-Control", "private, no-cache");
+
+      if(matches(httpRequest.getHeader("If-None-Match"), etag))
+      {
+        httpResponse.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        return;
+      }
+    }
+
+    OutputStream out = httpResponse.getOutputStream();
+    out.write(data);
+    out.flush();
+    out.close();
+  }
+
+  /**
+   * 64 bit FNV-1a hash of the payload, plus its length
+   */
+  static String createETag(byte[] data)
+  {
+    long hash = FNV_OFFSET;
+    for(int i=0; i<data.length; i++)
+    {
+      hash ^= (data[i] & 0xff);
+      hash *= FNV_PRIME;
+    }
+    return "W/\"" + Integer.toHexString(data.length) + "-" + Long.toHexString(hash) + "\"";
+  }
+
+  static boolean matches(String ifNoneMatch, String etag)
+  {
+    if(null==ifNoneMatch)
+      return false;
+
+    String value = opaqueTag(etag);
+    StringTokenizer tokens = new StringTokenizer(ifNoneMatch, ",");
+    while(tokens.hasMoreTokens())
+    {
+      String candidate = tokens.nextToken().trim();
+      if("*".equals(candidate) || value.equals(opaqueTag(candidate)))
+        return true;
+    }
+    return false;
+  }
+
+  // If-None-Match uses weak comparison
+  private static String opaqueTag(String tag)
+  {
+    return tag.startsWith("W/") ? tag.substring(2) : tag;
+  }
+
+  public void destroy()
+  {
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import java.security.AccessControlContext;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps track of the server side thread pools,
+ * so that they are shut down when the web application is undeployed
+ * (registered as a listener in web.xml).
+ * <p>
+ * Pool threads don't inherit anything from the thread that submits a task.
+ * Tasks wrapped by <code>withCallerContext</code> run with the caller's
+ * access control context, and thus its JAAS subject, and context class loader.
+ * Transactions are bound to a thread and can't be carried over:
+ * tasks that call the engine demarcate their own, see
+ * {@link org.jboss.bpm.console.server.utils.TransactionScope#beginRequest()}.
+ */
+public class ExecutorRegistry implements ServletContextListener
+{
+  private static final Logger log = LoggerFactory.getLogger(ExecutorRegistry.class);
+
+  private static List<ExecutorService> executors = new CopyOnWriteArrayList<ExecutorService>();
+
+  /**
+   * @param name part of the thread names
+   */
+  public static ExecutorService newFixedThreadPool(final String name, int threads)
+  {
+    ExecutorService executor = Executors.newFixedThreadPool(threads,
+        new ThreadFactory()
+        {
+          private final AtomicInteger count = new AtomicInteger();
+
+          public Thread newThread(Runnable r)
+          {
+            Thread t = new Thread(r, "bpm-console-" + name + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+          }
+        }
+    );
+    executors.add(executor);
+    return executor;
+  }
+
+  /**
+   * Interrupts running tasks and drops the queued ones
+   */
+  public static void shutdown()
+  {
+    for(ExecutorService executor : executors)
+    {
+      int dropped = executor.shutdownNow().size();
+      if(dropped > 0)
+        log.info("Dropped " + dropped + " queued task(s) on shutdown");
+    }
+    executors.clear();
+  }
+
+  public static Runnable withCallerContext(final Runnable task)
+  {
+    final AccessControlContext context = AccessController.getContext();
+    final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+
+    return new Runnable()
+    {
+      public void run()
+      {
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        try
+        {
+          AccessController.doPrivileged(
+              new PrivilegedAction<Object>()
+              {
+                public Object run()
+                {
+                  task.run();
+                  return null;
+                }
+              }, context
+          );
+        }
+        finally
+        {
+          thread.setContextClassLoader(previous);
+        }
+      }
+    };
+  }
+
+  public static <T> Callable<T> withCallerContext(final Callable<T> task)
+  {
+    final AccessControlContext context = AccessController.getContext();
+    final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+
+    return new Callable<T>()
+    {
+      public T call() throws Exception
+      {
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        try
+        {
+          return AccessController.doPrivileged(
+              new PrivilegedExceptionAction<T>()
+              {
+                public T run() throws Exception
+                {
+                  return task.call();
+                }
+              }, context
+          );
+        }
+        catch (PrivilegedActionException e)
+        {
+          throw e.getException();
+        }
+        finally
+        {
+          thread.setContextClassLoader(previous);
+        }
+      }
+    };
+  }
+
+  public void contextInitialized(ServletContextEvent event)
+  {
+  }
+
+  public void contextDestroyed(ServletContextEvent event)
+  {
+    shutdown();
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server.util;
+
+import org.jboss.bpm.console.client.model.CacheStatistics;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size bounded LRU cache with optional per entry expiry.<br>
+ * Each entry carries a weight (i.e. the number of rows it holds)
+ * and least recently used entries are evicted once the total weight
+ * exceeds the capacity. Entries put with a ttl &lt;= 0 never expire.
+ */
+public class ExpiringLRUCache<K,V>
+{
+  private final String name;
+  private final long capacity;
+
+  private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true);
+  private long weight = 0;
+
+  private long hits = 0;
+  private long misses = 0;
+  private long evictions = 0;
+
+  public ExpiringLRUCache(String name, long capacity)
+  {
+    this.name = name;
+    this.capacity = capacity;
+  }
+
+  public String getName()
+  {
+    return name;
+  }
+
+  public synchronized V get(K key)
+  {
+    Entry<V> entry = lookup(key);
+    if(entry==null)
+    {
+      misses++;
+      return null;
+    }
+
+    hits++;
+    return entry.value;
+  }
+
+  /**
+   * Like {@link #get(Object)}, but doesn't count towards the statistics.
+   */
+  public synchronized V peek(K key)
+  {
+    Entry<V> entry = lookup(key);
+    return entry!=null ? entry.value : null;
+  }
+
+  public void put(K key, V value, long ttl)
+  {
+    put(key, value, 1, ttl);
+  }
+
+  public synchronized void put(K key, V value, long entryWeight, long ttl)
+  {
+    if(entryWeight>capacity)
+      return; // would flush everything else
+
+    remove(key);
+
+    long expires = ttl > 0 ? System.currentTimeMillis() + ttl : Long.MAX_VALUE;
+    entries.put(key, new Entry<V>(value, entryWeight, expires));
+    weight += entryWeight;
+
+    Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+    while(weight>capacity && it.hasNext())
+    {
+      Entry<V> eldest = it.next().getValue();
+      it.remove();
+      weight -= eldest.weight;
+      evictions++;
+    }
+  }
+
+  public synchronized void invalidate(K key)
+  {
+    remove(key);
+  }
+
+  public synchronized void clear()
+  {
+    entries.clear();
+    weight = 0;
+  }
+
+  public synchronized int size()
+  {
+    return entries.size();
+  }
+
+  public synchronized CacheStatistics getStatistics()
+  {
+    return new CacheStatistics(name, weight, capacity, hits, misses, evictions);
+  }
+
+  private Entry<V> lookup(K key)
+  {
+    Entry<V> entry = entries.get(key);
+    if(entry!=null && entry.isExpired(System.currentTimeMillis()))
+    {
+      remove(key);
+      entry = null;
+    }
+    return entry;
+  }
+
+  private void remove(K key)
+  {
+    Entry<V> previous = entries.remove(key);
+    if(previous!=null)
+      weight -= previous.weight;
+  }
+
+  private static class Entry<V>
+  {
+    final V value;
+    final long weight;
+    final long expires;
+
+    Entry(V value, long weight, long expires)
+    {
+      this.value = value;
+      this.weight = weight;
+      this.expires = expires;
+    }
+
+    boolean isExpired(long now)
+    {
+      return now >= expires;
+    }
+  }
+}
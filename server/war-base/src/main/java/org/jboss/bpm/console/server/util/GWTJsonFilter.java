@@ -95,7 +95,10 @@ public class GWTJsonFilter implements Filter
       out.close();
    }
 
-   private String trimPayload(String payload)
+   /**
+    * Strips the collection wrapper from a JSON payload
+    */
+   public static String trimPayload(String payload)
    {
       String s = payload;
       if(s.startsWith(COLLECTION_PREFIX))
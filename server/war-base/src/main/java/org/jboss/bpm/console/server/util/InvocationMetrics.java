@@ -0,0 +1,147 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server.util;
+
+import org.jboss.bpm.console.client.model.InvocationMetricsRef;
+import org.jboss.bpm.console.server.utils.InstrumentationProxy;
+import org.jboss.bpm.console.server.utils.InvocationListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency and argument cardinality histograms of the integration layer and plugin
+ * invocations, as recorded by the {@link InstrumentationProxy}.
+ * Together with the {@link RequestMetrics} this tells engine time from console time.
+ */
+public final class InvocationMetrics implements InvocationListener
+{
+  private static final InvocationMetrics instance = new InvocationMetrics();
+
+  private final ConcurrentMap<String, MethodMetrics> methods =
+      new ConcurrentHashMap<String, MethodMetrics>();
+
+  private InvocationMetrics()
+  {
+  }
+
+  public static InvocationMetrics getInstance()
+  {
+    return instance;
+  }
+
+  public void invoked(String method, long durationNanos, int cardinality, Throwable failure)
+  {
+    MethodMetrics metrics = methods.get(method);
+    if(null==metrics)
+    {
+      MethodMetrics created = new MethodMetrics(method);
+      metrics = methods.putIfAbsent(method, created);
+      if(null==metrics) metrics = created;
+    }
+
+    metrics.record(
+        TimeUnit.NANOSECONDS.toMicros(durationNanos), cardinality, failure!=null,
+        durationNanos>=InstrumentationProxy.getSlowCallThreshold()
+    );
+  }
+
+  public List<InvocationMetricsRef> getStatistics()
+  {
+    List<InvocationMetricsRef> result = new ArrayList<InvocationMetricsRef>();
+    for(MethodMetrics metrics : methods.values())
+      result.add(metrics.toRef());
+
+    Collections.sort(result, new Comparator<InvocationMetricsRef>()
+    {
+      public int compare(InvocationMetricsRef a, InvocationMetricsRef b)
+      {
+        return a.getMethod().compareTo(b.getMethod());
+      }
+    });
+    return result;
+  }
+
+  /**
+   * @return null if there is no such method
+   */
+  public InvocationMetricsRef getStatistics(String method)
+  {
+    MethodMetrics metrics = methods.get(method);
+    return metrics!=null ? metrics.toRef() : null;
+  }
+
+  public void reset()
+  {
+    methods.clear();
+  }
+
+  private static class MethodMetrics
+  {
+    final String method;
+    final AtomicLong count = new AtomicLong();
+    final AtomicLong errors = new AtomicLong();
+    final AtomicLong slowCalls = new AtomicLong();
+
+    // guarded by this
+    final DurationHistogram latency = new DurationHistogram();
+    final DurationHistogram cardinality = new DurationHistogram();
+
+    MethodMetrics(String method)
+    {
+      this.method = method;
+    }
+
+    void record(long latencyMicros, int size, boolean failed, boolean slow)
+    {
+      count.incrementAndGet();
+      if(failed) errors.incrementAndGet();
+      if(slow) slowCalls.incrementAndGet();
+
+      synchronized(this)
+      {
+        latency.record(latencyMicros);
+        cardinality.record(size);
+      }
+    }
+
+    InvocationMetricsRef toRef()
+    {
+      InvocationMetricsRef ref = new InvocationMetricsRef(method);
+      ref.setCount(count.get());
+      ref.setErrors(errors.get());
+      ref.setSlowCalls(slowCalls.get());
+      synchronized(this)
+      {
+        ref.setLatency(latency.toStatistics("latency"));
+        ref.setCardinality(cardinality.toStatistics("cardinality"));
+      }
+      return ref;
+    }
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces out permits evenly at a fixed rate, shared by all calling threads.
+ * A rate of zero or less doesn't limit at all.
+ */
+public final class RateLimiter
+{
+  private final long intervalNanos;
+  private long next = System.nanoTime();
+
+  /**
+   * @param permitsPerSecond max number of permits handed out per second
+   */
+  public RateLimiter(double permitsPerSecond)
+  {
+    this.intervalNanos = permitsPerSecond > 0 ?
+        (long)(TimeUnit.SECONDS.toNanos(1) / permitsPerSecond) : 0;
+  }
+
+  /**
+   * Blocks until the next permit is available.
+   */
+  public void acquire() throws InterruptedException
+  {
+    long wait = reserve();
+    if(wait > 0)
+      TimeUnit.NANOSECONDS.sleep(wait);
+  }
+
+  private synchronized long reserve()
+  {
+    if(intervalNanos==0) return 0;
+
+    long now = System.nanoTime();
+    // don't bank permits while idle
+    long at = next - now > 0 ? next : now;
+    next = at + intervalNanos;
+    return at - now;
+  }
+}
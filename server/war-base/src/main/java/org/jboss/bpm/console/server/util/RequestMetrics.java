@@ -0,0 +1,218 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server.util;
+
+import org.jboss.bpm.console.client.model.RequestMetricsRef;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per resource method request statistics.<br>
+ * The {@link RequestMetricsFilter} brackets each request,
+ * the {@link RequestMetricsInterceptor} tells which resource method handles it
+ * and the facades report the time spent serializing the response.
+ */
+public final class RequestMetrics
+{
+  private static final ConcurrentMap<String, MethodMetrics> methods =
+      new ConcurrentHashMap<String, MethodMetrics>();
+
+  private static final ThreadLocal<Context> current = new ThreadLocal<Context>();
+
+  private static volatile long since = System.currentTimeMillis();
+
+  private RequestMetrics()
+  {
+  }
+
+  static void begin()
+  {
+    current.set(new Context());
+  }
+
+  /**
+   * @param method i.e. <code>ProcessMgmtFacade.getInstancesJSON</code>
+   */
+  static void methodStarted(String method)
+  {
+    Context ctx = current.get();
+    if(ctx!=null)
+    {
+      ctx.method = method;
+      ctx.handlerStart = System.nanoTime();
+    }
+  }
+
+  static void methodFinished()
+  {
+    Context ctx = current.get();
+    if(ctx!=null && ctx.handlerStart!=0)
+      ctx.handlerEnd = System.nanoTime();
+  }
+
+  /**
+   * Reports JSON serialization within the current resource method.
+   *
+   * @param startNanos <code>System.nanoTime()</code> when serialization started
+   */
+  public static void serialized(long startNanos)
+  {
+    Context ctx = current.get();
+    if(ctx!=null)
+      ctx.serialization += System.nanoTime() - startNanos;
+  }
+
+  /**
+   * Requests that didn't reach a resource method are not recorded.
+   */
+  static void end(long bytes, boolean failed)
+  {
+    Context ctx = current.get();
+    current.remove();
+    if(null==ctx || null==ctx.method)
+      return;
+
+    long now = System.nanoTime();
+    long handler = (ctx.handlerEnd!=0 ? ctx.handlerEnd : now) - ctx.handlerStart - ctx.serialization;
+
+    MethodMetrics metrics = methods.get(ctx.method);
+    if(null==metrics)
+    {
+      MethodMetrics created = new MethodMetrics(ctx.method);
+      metrics = methods.putIfAbsent(ctx.method, created);
+      if(null==metrics) metrics = created;
+    }
+
+    metrics.record(
+        toMicros(now - ctx.start), toMicros(Math.max(handler, 0)), toMicros(ctx.serialization),
+        bytes, failed
+    );
+  }
+
+  public static List<RequestMetricsRef> getStatistics()
+  {
+    List<RequestMetricsRef> result = new ArrayList<RequestMetricsRef>();
+    for(MethodMetrics metrics : methods.values())
+      result.add(metrics.toRef());
+
+    Collections.sort(result, new Comparator<RequestMetricsRef>()
+    {
+      public int compare(RequestMetricsRef a, RequestMetricsRef b)
+      {
+        return a.getMethod().compareTo(b.getMethod());
+      }
+    });
+    return result;
+  }
+
+  /**
+   * @return null if there is no such method
+   */
+  public static RequestMetricsRef getStatistics(String method)
+  {
+    MethodMetrics metrics = methods.get(method);
+    return metrics!=null ? metrics.toRef() : null;
+  }
+
+  /**
+   * @return start of the recording period
+   */
+  public static long getSince()
+  {
+    return since;
+  }
+
+  public static void reset()
+  {
+    methods.clear();
+    InvocationMetrics.getInstance().reset();
+    since = System.currentTimeMillis();
+  }
+
+  private static long toMicros(long nanos)
+  {
+    return TimeUnit.NANOSECONDS.toMicros(nanos);
+  }
+
+  private static class Context
+  {
+    final long start = System.nanoTime();
+    String method;
+    long handlerStart;
+    long handlerEnd;
+    long serialization;
+  }
+
+  private static class MethodMetrics
+  {
+    final String method;
+    final AtomicLong count = new AtomicLong();
+    final AtomicLong errors = new AtomicLong();
+    final AtomicLong bytes = new AtomicLong();
+
+    // guarded by this
+    final DurationHistogram total = new DurationHistogram();
+    final DurationHistogram handler = new DurationHistogram();
+    final DurationHistogram serialization = new DurationHistogram();
+
+    MethodMetrics(String method)
+    {
+      this.method = method;
+    }
+
+    void record(long totalMicros, long handlerMicros, long serializationMicros, long written, boolean failed)
+    {
+      count.incrementAndGet();
+      bytes.addAndGet(written);
+      if(failed) errors.incrementAndGet();
+
+      synchronized(this)
+      {
+        total.record(totalMicros);
+        handler.record(handlerMicros);
+        serialization.record(serializationMicros);
+      }
+    }
+
+    RequestMetricsRef toRef()
+    {
+      RequestMetricsRef ref = new RequestMetricsRef(method);
+      ref.setCount(count.get());
+      ref.setErrors(errors.get());
+      ref.setBytes(bytes.get());
+      synchronized(this)
+      {
+        ref.setTotal(total.toStatistics("total"));
+        ref.setHandler(handler.toStatistics("handler"));
+        ref.setSerialization(serialization.toStatistics("serialization"));
+      }
+      return ref;
+    }
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Records {@link RequestMetrics} for each REST request.
+ * Needs to be the first filter in the chain, so that the latency and the bytes written
+ * cover the other filters as well.<br>
+ * Registers the {@link RequestStatisticsMBean} with the platform MBean server.
+ */
+public class RequestMetricsFilter implements Filter
+{
+  private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+  private ObjectName objectName;
+
+  public void init(FilterConfig filterConfig) throws ServletException
+  {
+    try
+    {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = new ObjectName(RequestStatisticsMBean.OBJECT_NAME);
+      if(!server.isRegistered(name))
+      {
+        server.registerMBean(new RequestStatistics(), name);
+        objectName = name;
+      }
+    }
+    catch (Exception e)
+    {
+      log.warn("Failed to register request statistics MBean", e);
+    }
+  }
+
+  public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+      throws IOException, ServletException
+  {
+    CountingResponseWrapper wrapper = new CountingResponseWrapper((HttpServletResponse)response);
+    boolean failed = true;
+
+    RequestMetrics.begin();
+    try
+    {
+      chain.doFilter(request, wrapper);
+      failed = wrapper.getStatus() >= 500;
+    }
+    finally
+    {
+      RequestMetrics.end(wrapper.getCount(), failed);
+    }
+  }
+
+  public void destroy()
+  {
+    if(objectName!=null)
+    {
+      try
+      {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+      }
+      catch (Exception e)
+      {
+        log.warn("Failed to unregister request statistics MBean", e);
+      }
+    }
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server.util;
+
+import org.jboss.bpm.console.client.model.DurationStatisticsRef;
+import org.jboss.bpm.console.client.model.InvocationMetricsRef;
+import org.jboss.bpm.console.client.model.RequestMetricsRef;
+
+import java.util.List;
+
+public class RequestStatistics implements RequestStatisticsMBean
+{
+  public long getRequestCount()
+  {
+    long count = 0;
+    for(RequestMetricsRef ref : RequestMetrics.getStatistics())
+      count += ref.getCount();
+    return count;
+  }
+
+  public long getErrorCount()
+  {
+    long errors = 0;
+    for(RequestMetricsRef ref : RequestMetrics.getStatistics())
+      errors += ref.getErrors();
+    return errors;
+  }
+
+  public long getBytesWritten()
+  {
+    long bytes = 0;
+    for(RequestMetricsRef ref : RequestMetrics.getStatistics())
+      bytes += ref.getBytes();
+    return bytes;
+  }
+
+  public String[] getMethods()
+  {
+    List<RequestMetricsRef> refs = RequestMetrics.getStatistics();
+    String[] methods = new String[refs.size()];
+    for(int i=0; i<methods.length; i++)
+      methods[i] = refs.get(i).getMethod();
+    return methods;
+  }
+
+  public String getMethodStatistics(String method)
+  {
+    RequestMetricsRef ref = RequestMetrics.getStatistics(method);
+    if(null==ref)
+      return null;
+
+    return "count=" + ref.getCount() + ", errors=" + ref.getErrors() + ", bytes=" + ref.getBytes()
+        + ", " + format(ref.getTotal())
+        + ", " + format(ref.getHandler())
+        + ", " + format(ref.getSerialization());
+  }
+
+  public String[] getInvocations()
+  {
+    List<InvocationMetricsRef> refs = InvocationMetrics.getInstance().getStatistics();
+    String[] methods = new String[refs.size()];
+    for(int i=0; i<methods.length; i++)
+      methods[i] = refs.get(i).getMethod();
+    return methods;
+  }
+
+  public String getInvocationStatistics(String method)
+  {
+    InvocationMetricsRef ref = InvocationMetrics.getInstance().getStatistics(method);
+    if(null==ref)
+      return null;
+
+    return "count=" + ref.getCount() + ", errors=" + ref.getErrors() + ", slowCalls=" + ref.getSlowCalls()
+        + ", " + format(ref.getLatency())
+        + ", " + format(ref.getCardinality());
+  }
+
+  public void reset()
+  {
+    RequestMetrics.reset();
+  }
+
+  private static String format(DurationStatisticsRef stats)
+  {
+    return stats.getName() + "[p50=" + stats.getP50() + ", p90=" + stats.getP90()
+        + ", p99=" + stats.getP99() + ", max=" + stats.getMax() + "]";
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server.util;
+
+/**
+ * JMX view on the {@link RequestMetrics}. Latencies are in microseconds.
+ */
+public interface RequestStatisticsMBean
+{
+  String OBJECT_NAME = "org.jboss.bpm.console:type=RequestStatistics";
+
+  long getRequestCount();
+
+  long getErrorCount();
+
+  long getBytesWritten();
+
+  /**
+   * @return the recorded resource methods, i.e. <code>ProcessMgmtFacade.getInstancesJSON</code>
+   */
+  String[] getMethods();
+
+  /**
+   * @return count, errors, bytes and latency percentiles of a resource method
+   */
+  String getMethodStatistics(String method);
+
+  /**
+   * @return the recorded integration layer and plugin methods, i.e. <code>ProcessManagement.getInstances</code>
+   */
+  String[] getInvocations();
+
+  /**
+   * @return count, errors, slow calls, latency and argument cardinality percentiles of an integration method
+   */
+  String getInvocationStatistics(String method);
+
+  void reset();
+}
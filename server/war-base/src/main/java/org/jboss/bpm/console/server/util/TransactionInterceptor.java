@@ -0,0 +1,65 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server.util;
+
+import org.jboss.bpm.console.server.utils.TransactionScope;
+import org.jboss.resteasy.annotations.interception.ServerInterceptor;
+import org.jboss.resteasy.core.ResourceMethod;
+import org.jboss.resteasy.core.ServerResponse;
+import org.jboss.resteasy.spi.Failure;
+import org.jboss.resteasy.spi.HttpRequest;
+import org.jboss.resteasy.spi.interception.PostProcessInterceptor;
+import org.jboss.resteasy.spi.interception.PreProcessInterceptor;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Opens a request scoped transaction around each resource method,
+ * in case the transaction demarcation is {@link TransactionScope.Demarcation#REQUEST}.
+ * The transaction begins with the first integration call and is completed
+ * before the response is written, so that a failed commit still turns into an error response.
+ * The {@link TransactionFilter} rolls back what's left after a failed request.
+ */
+@Provider
+@ServerInterceptor
+public class TransactionInterceptor implements PreProcessInterceptor, PostProcessInterceptor
+{
+  public ServerResponse preProcess(HttpRequest request, ResourceMethod method)
+      throws Failure, WebApplicationException
+  {
+    TransactionScope.beginRequest();
+    return null;
+  }
+
+  public void postProcess(ServerResponse response)
+  {
+    try
+    {
+      TransactionScope.endRequest(response.getStatus() >= 500);
+    }
+    catch (Exception e)
+    {
+      throw new WebApplicationException(e, 500);
+    }
+  }
+}
@@ -0,0 +1,342 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server;
+
+import junit.framework.TestCase;
+import org.jboss.bpm.console.client.model.BatchItemRef;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.UriInfo;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BatchDispatcherTestCase extends TestCase
+{
+  private static final String[] ANY_ROLE = new String[0];
+
+  private static HttpServletRequest leaked;
+
+  @Path("things")
+  public static class ThingResource
+  {
+    @GET
+    @Path("latest")
+    public String getLatest()
+    {
+      return "latest";
+    }
+
+    @GET
+    @Path("{id}")
+    public String getThing(
+        @PathParam("id")
+        String id,
+        @QueryParam("n") @DefaultValue("5")
+        int n,
+        @QueryParam("tag")
+        String[] tags
+    )
+    {
+      return id + ":" + n + ":" + Arrays.asList(tags);
+    }
+
+    @GET
+    @Path("{id}/uri")
+    public String getUri(
+        @Context
+        UriInfo info
+    )
+    {
+      return info.getPath() + " " + info.getPathParameters().getFirst("id") + " " + info.getQueryParameters().get("q");
+    }
+
+    @GET
+    @Path("conditional")
+    public String getConditional(
+        @Context
+        Request request
+    )
+    {
+      return null==request.evaluatePreconditions(new EntityTag("v1")) ? "full" : "not modified";
+    }
+
+    @GET
+    @Path("roles")
+    public String getRoles(
+        @Context
+        HttpServletRequest request,
+        @QueryParam("roleCheck")
+        String roleCheck
+    )
+    {
+      leaked = request;
+      StringBuilder sb = new StringBuilder(request.getRemoteUser());
+      for(String role : roleCheck.split(","))
+        sb.append(' ').append(role).append('=').append(request.isUserInRole(role));
+      return sb.toString();
+    }
+
+    @GET
+    @Path("admin")
+    public String getAdmin()
+    {
+      return "admin";
+    }
+
+    @GET
+    @Path("secret")
+    public String getSecret()
+    {
+      return "secret";
+    }
+
+    @GET
+    @Path("slow")
+    public String getSlow() throws InterruptedException
+    {
+      Thread.sleep(10000);
+      return "slow";
+    }
+  }
+
+  @Path("broken")
+  public static class BrokenResource
+  {
+    @GET
+    public String get(
+        @Context
+        ServletContext context
+    )
+    {
+      return "broken";
+    }
+  }
+
+  private final Map<String, String[]> batchable = new HashMap<String, String[]>();
+
+  protected void setUp() throws Exception
+  {
+    batchable.put("/things/latest", ANY_ROLE);
+    batchable.put("/things/{id}", ANY_ROLE);
+    batchable.put("/things/{id}/uri", ANY_ROLE);
+    batchable.put("/things/conditional", ANY_ROLE);
+    batchable.put("/things/roles", ANY_ROLE);
+    batchable.put("/things/slow", ANY_ROLE);
+    batchable.put("/things/admin", new String[] {"administrator", "manager"});
+  }
+
+  public void testLiteralPathsTakePrecedence() throws Exception
+  {
+    BatchDispatcher dispatcher = createDispatcher();
+    List<BatchItemRef> results = dispatcher.execute(
+        createRequest("alice"), items("/things/latest", "/things/latest/", "things/42")
+    );
+
+    assertItem(results.get(0), 200, "latest");
+    assertItem(results.get(1), 200, "latest");
+    assertItem(results.get(2), 200, "42:5:[]");
+  }
+
+  public void testPathAndQueryParameters() throws Exception
+  {
+    BatchDispatcher dispatcher = createDispatcher();
+    List<BatchItemRef> results = dispatcher.execute(
+        createRequest("alice"), items("/things/a%20b?n=7&tag=x&tag=y%2Cz", "/things/a?n=seven")
+    );
+
+    assertItem(results.get(0), 200, "a b:7:[x, y,z]");
+    assertEquals(400, results.get(1).getStatus());
+  }
+
+  public void testUnknownAndNotBatchableResources() throws Exception
+  {
+    BatchDispatcher dispatcher = createDispatcher();
+    List<BatchItemRef> results = dispatcher.execute(
+        createRequest("alice"), items("/things/secret", "/nothing/here", "/things/1/2/3")
+    );
+
+    assertEquals(415, results.get(0).getStatus());
+    assertEquals(404, results.get(1).getStatus());
+    assertEquals(404, results.get(2).getStatus());
+  }
+
+  public void testRequiredRoles() throws Exception
+  {
+    BatchDispatcher dispatcher = createDispatcher();
+
+    assertEquals(403, dispatcher.execute(createRequest("alice", "user"), items("/things/admin")).get(0).getStatus());
+    assertItem(dispatcher.execute(createRequest("bob", "manager"), items("/things/admin")).get(0), 200, "admin");
+  }
+
+  public void testRequestSnapshot() throws Exception
+  {
+    BatchDispatcher dispatcher = createDispatcher();
+    List<BatchItemRef> results = dispatcher.execute(
+        createRequest("alice", "user"), items("/things/roles?roleCheck=user,administrator")
+    );
+
+    assertItem(results.get(0), 200, "alice user=true administrator=false");
+
+    // the request doesn't outlive the batch
+    try
+    {
+      leaked.getUserPrincipal();
+      fail("Snapshot used after the batch returned");
+    }
+    catch (IllegalStateException e)
+    {
+      // expected
+    }
+  }
+
+  public void testContextParameters() throws Exception
+  {
+    BatchDispatcher dispatcher = createDispatcher();
+    List<BatchItemRef> results = dispatcher.execute(
+        createRequest("alice"), items("/things/conditional", "/things/a%2Fb/uri?q=1&q=2")
+    );
+
+    assertItem(results.get(0), 200, "full");
+    assertItem(results.get(1), 200, "/things/a%2Fb/uri a/b [1, 2]");
+  }
+
+  public void testUnsupportedContextIsRejected() throws Exception
+  {
+    List<Object> resources = new ArrayList<Object>();
+    resources.add(new BrokenResource());
+
+    // fine as long as it can't be batched
+    new BatchDispatcher(resources, batchable);
+
+    batchable.put("/broken", ANY_ROLE);
+    try
+    {
+      new BatchDispatcher(resources, batchable);
+      fail("Unsupported @Context accepted");
+    }
+    catch (IllegalStateException e)
+    {
+      // expected
+    }
+  }
+
+  public void testTooManyItems() throws Exception
+  {
+    BatchDispatcher dispatcher = createDispatcher();
+    String[] paths = new String[dispatcher.getMaxItems()+1];
+    Arrays.fill(paths, "/things/latest");
+    try
+    {
+      dispatcher.execute(createRequest("alice"), items(paths));
+      fail("Batch size not enforced");
+    }
+    catch (IllegalArgumentException e)
+    {
+      // expected
+    }
+  }
+
+  public void testTimeout() throws Exception
+  {
+    System.setProperty("bpm.console.batch.timeout", "200");
+    BatchDispatcher dispatcher;
+    try
+    {
+      dispatcher = createDispatcher();
+    }
+    finally
+    {
+      System.clearProperty("bpm.console.batch.timeout");
+    }
+
+    long start = System.currentTimeMillis();
+    List<BatchItemRef> results = dispatcher.execute(createRequest("alice"), items("/things/latest", "/things/slow"));
+
+    assertTrue(System.currentTimeMillis() - start < 5000);
+    assertItem(results.get(0), 200, "latest");
+    assertEquals(504, results.get(1).getStatus());
+  }
+
+  private BatchDispatcher createDispatcher()
+  {
+    return new BatchDispatcher(Collections.<Object>singletonList(new ThingResource()), batchable);
+  }
+
+  private static List<BatchItemRef> items(String... paths)
+  {
+    List<BatchItemRef> items = new ArrayList<BatchItemRef>();
+    for(int i=0; i<paths.length; i++)
+      items.add(new BatchItemRef(String.valueOf(i), paths[i]));
+    return items;
+  }
+
+  private static void assertItem(BatchItemRef item, int status, String body)
+  {
+    assertEquals(item.getBody(), status, item.getStatus());
+    assertEquals(body, item.getBody());
+  }
+
+  private static HttpServletRequest createRequest(final String user, String... roles)
+  {
+    final List<String> granted = Arrays.asList(roles);
+    final Principal principal = new Principal()
+    {
+      public String getName()
+      {
+        return user;
+      }
+    };
+
+    return (HttpServletRequest)Proxy.newProxyInstance(
+        HttpServletRequest.class.getClassLoader(),
+        new Class[] {HttpServletRequest.class},
+        new InvocationHandler()
+        {
+          public Object invoke(Object proxy, Method method, Object[] args)
+          {
+            if(method.getName().equals("getUserPrincipal"))
+              return principal;
+            if(method.getName().equals("isUserInRole"))
+              return Boolean.valueOf(granted.contains(args[0]));
+            throw new UnsupportedOperationException(method.getName());
+          }
+        }
+    );
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server;
+
+import junit.framework.TestCase;
+import org.jboss.bpm.console.client.model.ChangeRef;
+import org.jboss.bpm.console.client.model.ChangeRefWrapper;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+public class ChangeNotifierTestCase extends TestCase
+{
+  private static final Collection<String> JOHN = Arrays.asList("john", "users");
+
+  public void testChangesAfterSince() throws Exception
+  {
+    ChangeNotifier notifier = new ChangeNotifier(8, 1000);
+    notifier.publish(ChangeRef.TASK, Collections.singleton("john"));
+    notifier.publish(ChangeRef.TASK, Collections.singleton("mary"));
+    notifier.instanceChanged("order");
+
+    ChangeRefWrapper result = notifier.poll(1000, JOHN, "order", 0);
+    assertFalse(result.isReset());
+    assertEquals(1003, result.getSequence());
+    assertEquals(2, result.getChanges().size());
+    assertEquals(1001, result.getChanges().get(0).getSequence());
+    assertEquals(1003, result.getChanges().get(1).getSequence());
+  }
+
+  public void testSinceBeforeFirstChange() throws Exception
+  {
+    ChangeNotifier notifier = new ChangeNotifier(8, 1000);
+    notifier.publish(ChangeRef.TASK, Collections.singleton("john"));
+
+    // i.e. a client of an instance that has been restarted within the buffer size
+    ChangeRefWrapper result = notifier.poll(996, JOHN, null, 0);
+    assertTrue(result.isReset());
+    assertEquals(1001, result.getSequence());
+    assertTrue(result.getChanges().isEmpty());
+  }
+
+  public void testSinceOverwritten() throws Exception
+  {
+    ChangeNotifier notifier = new ChangeNotifier(4, 1000);
+    for(int i=0; i<6; i++)
+      notifier.publish(ChangeRef.TASK, Collections.singleton("john"));
+
+    assertTrue(notifier.poll(1001, JOHN, null, 0).isReset());
+
+    ChangeRefWrapper result = notifier.poll(1002, JOHN, null, 0);
+    assertFalse(result.isReset());
+    assertEquals(4, result.getChanges().size());
+  }
+
+  public void testSinceAhead() throws Exception
+  {
+    ChangeNotifier notifier = new ChangeNotifier(4, 1000);
+    assertTrue(notifier.poll(2000, JOHN, null, 0).isReset());
+  }
+
+  public void testTimeoutWithoutChanges() throws Exception
+  {
+    ChangeNotifier notifier = new ChangeNotifier(4, 1000);
+    ChangeRefWrapper result = notifier.poll(1000, JOHN, null, 10);
+    assertFalse(result.isReset());
+    assertTrue(result.getChanges().isEmpty());
+  }
+}
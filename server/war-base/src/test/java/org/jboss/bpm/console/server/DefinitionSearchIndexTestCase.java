@@ -0,0 +1,293 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server;
+
+import junit.framework.TestCase;
+import org.jboss.bpm.console.client.model.ProcessDefinitionRef;
+import org.jboss.bpm.console.client.model.ProcessDefinitionRefWrapper;
+import org.jboss.bpm.console.server.integration.ProcessManagement;
+
+import javax.ws.rs.core.EntityTag;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class DefinitionSearchIndexTestCase extends TestCase
+{
+  private final List<ProcessDefinitionRef> deployed = new ArrayList<ProcessDefinitionRef>();
+
+  private int loads;
+
+  private final ProcessManagement management = (ProcessManagement)Proxy.newProxyInstance(
+      ProcessManagement.class.getClassLoader(),
+      new Class[] {ProcessManagement.class},
+      new InvocationHandler()
+      {
+        public Object invoke(Object proxy, Method method, Object[] args)
+        {
+          if(!method.getName().equals("getProcessDefinitions"))
+            throw new UnsupportedOperationException(method.getName());
+          loads++;
+          return new ArrayList<ProcessDefinitionRef>(deployed);
+        }
+      }
+  );
+
+  public void testTrigramMatchesAnywhere() throws Exception
+  {
+    DefinitionSearchIndex index = createIndex();
+    deploy("OrderProcess", "order", 1);
+    deploy("Reorder", "reorder", 1);
+    deploy("Invoice", "invoice", 1);
+
+    assertEquals(ids("OrderProcess-1", "Reorder-1"), ids(index.search(management, "order", 0, -1)));
+    assertEquals(ids("OrderProcess-1"), ids(index.search(management, "process", 0, -1)));
+    assertEquals(ids(), ids(index.search(management, "zzz", 0, -1)));
+  }
+
+  public void testShortWordsMatchPrefixes() throws Exception
+  {
+    DefinitionSearchIndex index = createIndex();
+    deploy("OrderProcess", "order", 1);
+    deploy("Reorder", "reorder", 1);
+    deploy("shipping_claim", "claim", 1);
+
+    // 'or' starts a part of OrderProcess only, in Reorder it's in the middle
+    assertEquals(ids("OrderProcess-1"), ids(index.search(management, "or", 0, -1)));
+    assertEquals(ids("shipping_claim-1"), ids(index.search(management, "c", 0, -1)));
+  }
+
+  public void testAllWordsMustMatch() throws Exception
+  {
+    DefinitionSearchIndex index = createIndex();
+    deploy("payment_review", "pay", 1);
+    deploy("payment_refund", "pay", 1);
+    deploy("code_review", "code", 1);
+
+    assertEquals(ids("payment_review-1"), ids(index.search(management, "pay rev", 0, -1)));
+    assertEquals(ids("payment_refund-1", "payment_review-1"), ids(index.search(management, "pay r", 0, -1)));
+  }
+
+  public void testResultOrderAndPaging() throws Exception
+  {
+    DefinitionSearchIndex index = createIndex();
+    for(int version=1; version<=5; version++)
+    {
+      deploy("beta", "beta", version);
+      deploy("alpha", "alpha", version);
+    }
+
+    ProcessDefinitionRefWrapper all = index.search(management, "", 0, -1);
+    assertEquals(10, all.getTotalCount());
+    assertEquals("alpha-5", all.getDefinitions().get(0).getId());
+    assertEquals("alpha-1", all.getDefinitions().get(4).getId());
+    assertEquals("beta-5", all.getDefinitions().get(5).getId());
+
+    ProcessDefinitionRefWrapper page = index.search(management, "", 3, 4);
+    assertEquals(10, page.getTotalCount());
+    assertEquals(3, page.getFirstResult());
+    assertEquals(ids("alpha-2", "alpha-1", "beta-5", "beta-4"), ids(page));
+
+    page = index.search(management, "b", 2, 2);
+    assertEquals(5, page.getTotalCount());
+    assertEquals(ids("beta-3", "beta-2"), ids(page));
+
+    assertEquals(0, index.search(management, "", 10, 4).getDefinitions().size());
+  }
+
+  public void testSyncAddsChangesAndRemoves() throws Exception
+  {
+    DefinitionSearchIndex index = createIndex();
+    List<ProcessDefinitionRef> defs = new ArrayList<ProcessDefinitionRef>();
+    defs.add(createDefinition("order", "order", 1));
+    defs.add(createDefinition("invoice", "invoice", 1));
+
+    assertTrue(index.sync(defs));
+    assertFalse(index.sync(new ArrayList<ProcessDefinitionRef>(defs)));
+    assertEquals(2, index.size());
+
+    defs.remove(1);
+    defs.add(createDefinition("shipping", "shipping", 1));
+    assertTrue(index.sync(defs));
+    assertEquals(ids(), ids(index.search(management, "invoice", 0, -1)));
+    assertEquals(ids("shipping-1"), ids(index.search(management, "ship", 0, -1)));
+
+    // a renamed definition is indexed again
+    ProcessDefinitionRef renamed = createDefinition("order", "order", 1);
+    renamed.setName("purchase");
+    defs.set(0, renamed);
+    assertTrue(index.sync(defs));
+    assertEquals(ids("order-1"), ids(index.search(management, "purchase", 0, -1)));
+    assertEquals(2, index.size());
+  }
+
+  public void testIncrementalSyncMatchesRebuild() throws Exception
+  {
+    DefinitionSearchIndex index = createIndex();
+    String[] words = {"order", "invoice", "ship", "pay", "review"};
+    Random random = new Random(42);
+    List<ProcessDefinitionRef> defs = new ArrayList<ProcessDefinitionRef>();
+    String[] queries = {"", "or", "order", "pay rev", "i", "ship_3", "view"};
+
+    for(int round=0; round<50; round++)
+    {
+      for(int i=0; i<5; i++)
+      {
+        int change = random.nextInt(3);
+        if(change==0 || defs.isEmpty())
+        {
+          String name = words[random.nextInt(words.length)] + "_" + random.nextInt(10);
+          defs.add(createDefinition(name, name, 1 + random.nextInt(5)));
+        }
+        else if(change==1)
+        {
+          defs.remove(random.nextInt(defs.size()));
+        }
+        else
+        {
+          ProcessDefinitionRef renamed = defs.get(random.nextInt(defs.size()));
+          ProcessDefinitionRef def = createDefinition(words[random.nextInt(words.length)], renamed.getKey(), renamed.getVersion());
+          def.setId(renamed.getId());
+          defs.set(defs.indexOf(renamed), def);
+        }
+      }
+
+      index.sync(new ArrayList<ProcessDefinitionRef>(defs));
+
+      DefinitionSearchIndex rebuilt = createIndex();
+      rebuilt.sync(new ArrayList<ProcessDefinitionRef>(defs));
+      for(String query : queries)
+      {
+        assertEquals("round " + round + ", query '" + query + "'",
+            ids(rebuilt.search(management, query, 0, -1)), ids(index.search(management, query, 0, -1)));
+      }
+    }
+  }
+
+  public void testOfferedListsOnlySyncWhenTheStampChanges() throws Exception
+  {
+    DefinitionSearchIndex index = createIndex();
+    List<ProcessDefinitionRef> defs = new ArrayList<ProcessDefinitionRef>();
+    defs.add(createDefinition("order", "order", 1));
+    index.offer(new ArrayList<ProcessDefinitionRef>(defs), new EntityTag("v1"));
+    assertEquals(1, index.size());
+
+    defs.add(createDefinition("invoice", "invoice", 1));
+    index.offer(new ArrayList<ProcessDefinitionRef>(defs), new EntityTag("v1"));
+    assertEquals(1, index.size());
+
+    index.offer(new ArrayList<ProcessDefinitionRef>(defs), new EntityTag("v2"));
+    assertEquals(2, index.size());
+  }
+
+  public void testInvalidateReloadsDefinitions() throws Exception
+  {
+    DefinitionSearchIndex index = createIndex();
+    deploy("order", "order", 1);
+    assertEquals(1, index.search(management, "", 0, -1).getTotalCount());
+    assertEquals(1, loads);
+
+    deploy("invoice", "invoice", 1);
+    assertEquals(1, index.search(management, "", 0, -1).getTotalCount());
+    assertEquals(1, loads);
+
+    index.invalidate();
+    assertEquals(2, index.search(management, "", 0, -1).getTotalCount());
+    assertEquals(2, loads);
+  }
+
+  public void testLargeIndex() throws Exception
+  {
+    DefinitionSearchIndex index = createIndex();
+    String[] words = {"order", "invoice", "shipping", "payment", "review", "claim", "approval", "onboarding"};
+    for(int i=0; i<2500; i++)
+    {
+      String name = words[i % words.length] + "_" + words[(i / words.length) % words.length] + "_" + i;
+      for(int version=1; version<=20; version++)
+        deploy(name, name, version);
+    }
+    assertEquals(50000, index.search(management, "", 0, 100).getTotalCount());
+
+    String[] queries = {"order", "ord", "pay rev", "o", "claim_17", "onboarding 3", "zzz"};
+    int rounds = 20;
+    long start = System.nanoTime();
+    for(int round=0; round<rounds; round++)
+    {
+      for(String query : queries)
+        index.search(management, query, 0, 100);
+    }
+    double avgMillis = (System.nanoTime() - start) / 1000000.0 / (rounds * queries.length);
+
+    // i=1232 is named "order_shipping_1232"
+    ProcessDefinitionRefWrapper result = index.search(management, "order_shipping_1232", 0, 100);
+    assertEquals(20, result.getTotalCount());
+    assertEquals(20, result.getDefinitions().get(0).getVersion());
+    assertEquals(0, index.search(management, "order_claim_1232", 0, 100).getTotalCount());
+
+    // a generous bound, it's ~1 ms on a desktop machine
+    assertTrue("Average search took " + avgMillis + " ms", avgMillis < 50);
+
+    // a new version is merged into the existing posting lists
+    deploy("order_shipping_1232", "order_shipping_1232", 21);
+    assertTrue(index.sync(new ArrayList<ProcessDefinitionRef>(deployed)));
+    result = index.search(management, "order_shipping_1232", 0, 100);
+    assertEquals(21, result.getTotalCount());
+    assertEquals(21, result.getDefinitions().get(0).getVersion());
+  }
+
+  private DefinitionSearchIndex createIndex()
+  {
+    return new DefinitionSearchIndex(Long.MAX_VALUE);
+  }
+
+  private void deploy(String name, String key, long version)
+  {
+    deployed.add(createDefinition(name, key, version));
+  }
+
+  private static ProcessDefinitionRef createDefinition(String name, String key, long version)
+  {
+    ProcessDefinitionRef def = new ProcessDefinitionRef(name + "-" + version, name, version);
+    def.setKey(key);
+    return def;
+  }
+
+  private static List<String> ids(String... ids)
+  {
+    List<String> result = new ArrayList<String>();
+    for(String id : ids)
+      result.add(id);
+    return result;
+  }
+
+  private static List<String> ids(ProcessDefinitionRefWrapper wrapper)
+  {
+    List<String> result = new ArrayList<String>();
+    for(ProcessDefinitionRef def : wrapper.getDefinitions())
+      result.add(def.getId());
+    return result;
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.server;
+
+import junit.framework.TestCase;
+import org.jboss.bpm.console.client.model.DiagramEdgeInfo;
+import org.jboss.bpm.console.client.model.DiagramInfo;
+import org.jboss.bpm.console.client.model.DiagramNodeInfo;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+
+public class DiagramSvgTestCase extends TestCase
+{
+  private static final DiagramNodeInfo START = new DiagramNodeInfo("start", 0, 0, 100, 40);
+  private static final DiagramNodeInfo BELOW = new DiagramNodeInfo("below", 0, 100, 100, 40);
+  private static final DiagramNodeInfo RIGHT = new DiagramNodeInfo("right", 200, 0, 100, 40);
+  private static final DiagramNodeInfo DIAGONAL = new DiagramNodeInfo("diagonal", 200, 100, 100, 40);
+
+  public void testNodeMarkup() throws Exception
+  {
+    Document doc = parse(render(edge("start", "below")));
+
+    Element svg = doc.getDocumentElement();
+    assertEquals("svg", svg.getTagName());
+    assertEquals("http://www.w3.org/2000/svg", svg.getNamespaceURI());
+
+    NodeList groups = doc.getElementsByTagName("g");
+    assertEquals(4, groups.getLength());
+    Element first = (Element)groups.item(0);
+    assertEquals("n", first.getAttribute("class"));
+    assertEquals("start", first.getAttribute("data-node"));
+    assertEquals("start", first.getElementsByTagName("title").item(0).getTextContent());
+    assertEquals("start", first.getElementsByTagName("text").item(0).getTextContent());
+
+    Element rect = (Element)first.getElementsByTagName("rect").item(0);
+    assertEquals("0", rect.getAttribute("x"));
+    assertEquals("0", rect.getAttribute("y"));
+    assertEquals("100", rect.getAttribute("width"));
+    assertEquals("40", rect.getAttribute("height"));
+  }
+
+  public void testSizeCoversNodes() throws Exception
+  {
+    Element svg = parse(render(edge("start", "below"))).getDocumentElement();
+    assertEquals("301", svg.getAttribute("width"));
+    assertEquals("141", svg.getAttribute("height"));
+    assertEquals("0 0 301 141", svg.getAttribute("viewBox"));
+  }
+
+  public void testEscaping() throws Exception
+  {
+    String name = "a<b & \"c\">";
+    DiagramInfo info = new DiagramInfo(
+        -1, -1,
+        Arrays.asList(START, new DiagramNodeInfo(name, 0, 100, 100, 40)),
+        Arrays.asList(edge("start", name))
+    );
+
+    String svg = DiagramSvg.render(info);
+    assertTrue(svg.contains("data-node=\"a&lt;b &amp; &quot;c&quot;&gt;\""));
+    assertFalse(svg.contains(name));
+
+    Element group = (Element)parse(svg).getElementsByTagName("g").item(1);
+    assertEquals(name, group.getAttribute("data-node"));
+    assertEquals(name, group.getElementsByTagName("text").item(0).getTextContent());
+  }
+
+  public void testEdgesClippedAtBorders() throws Exception
+  {
+    String svg = render(edge("start", "below"), edge("start", "right"), edge("start", "diagonal"));
+
+    NodeList paths = parse(svg).getElementsByTagName("path");
+    // the first path is the arrow marker
+    assertEquals(4, paths.getLength());
+    assertEquals("M50,40L50,100", ((Element)paths.item(1)).getAttribute("d"));
+    assertEquals("M100,20L200,20", ((Element)paths.item(2)).getAttribute("d"));
+    assertEquals("M90,40L210,100", ((Element)paths.item(3)).getAttribute("d"));
+    assertEquals("e", ((Element)paths.item(1)).getAttribute("class"));
+  }
+
+  public void testSkipsUnknownNodesAndSelfLoops() throws Exception
+  {
+    String svg = render(edge("start", "missing"), edge("start", "start"), edge("right", "diagonal"));
+
+    NodeList paths = parse(svg).getElementsByTagName("path");
+    assertEquals(2, paths.getLength());
+    assertEquals("M250,40L250,100", ((Element)paths.item(1)).getAttribute("d"));
+  }
+
+  private static DiagramEdgeInfo edge(String source, String target)
+  {
+    return new DiagramEdgeInfo(source, target);
+  }
+
+  private static String render(DiagramEdgeInfo... edges)
+  {
+    return DiagramSvg.render(
+        new DiagramInfo(-1, -1, Arrays.asList(START, BELOW, RIGHT, DIAGONAL), Arrays.asList(edges))
+    );
+  }
+
+  private static Document parse(String svg) throws Exception
+  {
+    DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+    factory.setNamespaceAware(true);
+    return factory.newDocumentBuilder().parse(new ByteArrayInputStream(svg.getBytes("UTF-8")));
+  }
+}
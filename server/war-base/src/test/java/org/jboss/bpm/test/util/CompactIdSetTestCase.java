@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.test.util;
+
+import junit.framework.TestCase;
+import org.jboss.bpm.console.server.util.CompactIdSet;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class CompactIdSetTestCase extends TestCase
+{
+  public void testNumericRoundTrip() throws Exception
+  {
+    Set<String> ids = new HashSet<String>(Arrays.asList("1002", "7", "-3", "1001", "9223372036854775807"));
+    CompactIdSet set = CompactIdSet.valueOf(ids);
+
+    assertTrue(set.isNumeric());
+    assertEquals(5, set.size());
+    assertTrue(set.contains("1001"));
+    assertFalse(set.contains("1003"));
+
+    CompactIdSet decoded = CompactIdSet.fromDeltaEncoding(set.toDeltaEncoding());
+    assertEquals(set.toStringList(), decoded.toStringList());
+    assertEquals("[\"-3\",\"7\",\"1001\",\"1002\",\"9223372036854775807\"]", decoded.toJsonArray());
+  }
+
+  public void testNonNumericFallback() throws Exception
+  {
+    Set<String> ids = new HashSet<String>(Arrays.asList("42", "007", "order.\"17\""));
+    CompactIdSet set = CompactIdSet.valueOf(ids);
+
+    assertFalse(set.isNumeric());
+    assertTrue(set.contains("007"));
+    assertEquals("[\"007\",\"42\",\"order.\\\"17\\\"\"]", set.toJsonArray());
+
+    try
+    {
+      set.toDeltaEncoding();
+      fail("Delta encoding should require numeric ids");
+    }
+    catch (IllegalStateException e)
+    {
+      // expected
+    }
+  }
+
+  public void testDenseRangeIsCompact() throws Exception
+  {
+    Set<String> ids = new HashSet<String>();
+    for(int i=100000; i<110000; i++)
+      ids.add(String.valueOf(i));
+
+    byte[] encoded = CompactIdSet.valueOf(ids).toDeltaEncoding();
+    assertTrue("Expected about one byte per id: " + encoded.length, encoded.length < 10010);
+  }
+}
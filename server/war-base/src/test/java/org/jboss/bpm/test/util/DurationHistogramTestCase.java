@@ -0,0 +1,75 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.test.util;
+
+import junit.framework.TestCase;
+import org.jboss.bpm.console.server.util.DurationHistogram;
+
+public class DurationHistogramTestCase extends TestCase
+{
+  public void testPercentiles() throws Exception
+  {
+    DurationHistogram h = new DurationHistogram();
+    for(long i=1; i<=100000; i++)
+      h.record(i * 10);
+
+    assertEquals(100000, h.getCount());
+    assertEquals(1000000, h.getMax());
+    assertWithin(500000, h.getValueAtPercentile(50));
+    assertWithin(900000, h.getValueAtPercentile(90));
+    assertWithin(990000, h.getValueAtPercentile(99));
+    assertEquals(1000000, h.getValueAtPercentile(100));
+  }
+
+  public void testSmallValuesAreExact() throws Exception
+  {
+    DurationHistogram h = new DurationHistogram();
+    h.record(3);
+    h.record(5);
+    h.record(7);
+    assertEquals(5, h.getValueAtPercentile(50));
+    assertEquals(7, h.getValueAtPercentile(99));
+  }
+
+  public void testMerge() throws Exception
+  {
+    DurationHistogram a = new DurationHistogram();
+    DurationHistogram b = new DurationHistogram();
+    for(int i=0; i<1000; i++)
+    {
+      a.record(100);
+      b.record(86400000L);
+    }
+
+    a.merge(b);
+    assertEquals(2000, a.getCount());
+    assertEquals(86400000L, a.getMax());
+    assertWithin(100, a.getValueAtPercentile(50));
+    assertWithin(86400000L, a.getValueAtPercentile(90));
+  }
+
+  private void assertWithin(long expected, long actual)
+  {
+    double error = Math.abs(actual - expected) / (double)expected;
+    assertTrue("Expected ~" + expected + " but was " + actual, error <= 0.035);
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.test.util;
+
+import junit.framework.TestCase;
+import org.jboss.bpm.console.client.model.CacheStatistics;
+import org.jboss.bpm.console.server.util.ExpiringLRUCache;
+
+public class ExpiringLRUCacheTestCase extends TestCase
+{
+  public void testWeightedEviction() throws Exception
+  {
+    ExpiringLRUCache<String,String> cache = new ExpiringLRUCache<String,String>("test", 10);
+    cache.put("a", "A", 4, 0);
+    cache.put("b", "B", 4, 0);
+    assertEquals("A", cache.get("a")); // 'b' is now least recently used
+
+    cache.put("c", "C", 4, 0);
+    assertNull(cache.get("b"));
+    assertEquals("A", cache.get("a"));
+    assertEquals("C", cache.get("c"));
+
+    CacheStatistics stats = cache.getStatistics();
+    assertEquals(8, stats.getSize());
+    assertEquals(1, stats.getEvictions());
+    assertEquals(3, stats.getHits());
+    assertEquals(1, stats.getMisses());
+  }
+
+  public void testExpiry() throws Exception
+  {
+    ExpiringLRUCache<String,String> cache = new ExpiringLRUCache<String,String>("test", 10);
+    cache.put("open", "O", 1);
+    cache.put("closed", "C", 0);
+    Thread.sleep(20);
+
+    assertNull(cache.get("open"));
+    assertEquals("C", cache.get("closed"));
+    assertEquals(1, cache.size());
+  }
+}
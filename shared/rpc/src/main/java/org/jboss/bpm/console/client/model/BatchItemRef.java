@@ -0,0 +1,88 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.client.model;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * A sub request of a batch and its outcome.
+ * Requests carry the <code>path</code> (relative to the REST root, including the query string),
+ * responses the HTTP <code>status</code> and the payload as <code>body</code>.
+ */
+@XmlRootElement(name = "batchItem")
+public class BatchItemRef
+{
+  private String id;
+  private String path;
+  private int status;
+  private String body;
+
+  public BatchItemRef()
+  {
+  }
+
+  public BatchItemRef(String id, String path)
+  {
+    this.id = id;
+    this.path = path;
+  }
+
+  public String getId()
+  {
+    return id;
+  }
+
+  public void setId(String id)
+  {
+    this.id = id;
+  }
+
+  public String getPath()
+  {
+    return path;
+  }
+
+  public void setPath(String path)
+  {
+    this.path = path;
+  }
+
+  public int getStatus()
+  {
+    return status;
+  }
+
+  public void setStatus(int status)
+  {
+    this.status = status;
+  }
+
+  public String getBody()
+  {
+    return body;
+  }
+
+  public void setBody(String body)
+  {
+    this.body = body;
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.client.model;
+
+/**
+ * Usage statistics of a server side cache.
+ */
+public class CacheStatistics
+{
+  private String name;
+  private long size;
+  private long capacity;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  public CacheStatistics()
+  {
+  }
+
+  public CacheStatistics(String name, long size, long capacity, long hits, long misses, long evictions)
+  {
+    this.name = name;
+    this.size = size;
+    this.capacity = capacity;
+    this.hits = hits;
+    this.misses = misses;
+    this.evictions = evictions;
+  }
+
+  public String getName()
+  {
+    return name;
+  }
+
+  public void setName(String name)
+  {
+    this.name = name;
+  }
+
+  public long getSize()
+  {
+    return size;
+  }
+
+  public void setSize(long size)
+  {
+    this.size = size;
+  }
+
+  public long getCapacity()
+  {
+    return capacity;
+  }
+
+  public void setCapacity(long capacity)
+  {
+    this.capacity = capacity;
+  }
+
+  public long getHits()
+  {
+    return hits;
+  }
+
+  public void setHits(long hits)
+  {
+    this.hits = hits;
+  }
+
+  public long getMisses()
+  {
+    return misses;
+  }
+
+  public void setMisses(long misses)
+  {
+    this.misses = misses;
+  }
+
+  public long getEvictions()
+  {
+    return evictions;
+  }
+
+  public void setEvictions(long evictions)
+  {
+    this.evictions = evictions;
+  }
+}
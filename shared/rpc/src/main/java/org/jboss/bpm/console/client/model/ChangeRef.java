@@ -0,0 +1,92 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.client.model;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Notification that something changed on the server.
+ * <code>topic</code> is either {@link #TASK} (keyed by idRef)
+ * or {@link #INSTANCE} (keyed by process definition id).
+ * A key of {@link #ANY} affects all subscribers of the topic.
+ */
+@XmlRootElement(name = "change")
+public class ChangeRef
+{
+  public static final String TASK = "task";
+  public static final String INSTANCE = "instance";
+  public static final String ANY = "*";
+
+  private long sequence;
+  private String topic;
+  private String key;
+
+  public ChangeRef()
+  {
+  }
+
+  public ChangeRef(long sequence, String topic, String key)
+  {
+    this.sequence = sequence;
+    this.topic = topic;
+    this.key = key;
+  }
+
+  public long getSequence()
+  {
+    return sequence;
+  }
+
+  public void setSequence(long sequence)
+  {
+    this.sequence = sequence;
+  }
+
+  public String getTopic()
+  {
+    return topic;
+  }
+
+  public void setTopic(String topic)
+  {
+    this.topic = topic;
+  }
+
+  public String getKey()
+  {
+    return key;
+  }
+
+  public void setKey(String key)
+  {
+    this.key = key;
+  }
+
+  /**
+   * @param key the subscribed key, null if the topic isn't subscribed
+   */
+  public boolean matches(String topic, String key)
+  {
+    return key!=null && this.topic.equals(topic)
+        && (ANY.equals(this.key) || this.key.equals(key));
+  }
+}
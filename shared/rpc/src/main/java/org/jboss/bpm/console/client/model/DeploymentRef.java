@@ -102,4 +102,18 @@ public class DeploymentRef
   {
     return resourceNames;
   }
+
+  /**
+   * A copy without definitions and resource names,
+   * i.e. for listing large numbers of deployments.
+   */
+  public DeploymentRef toSummary()
+  {
+    DeploymentRef summary = new DeploymentRef(id, suspended);
+    summary.name = name;
+    summary.timestamp = timestamp;
+    summary.definitions = null;
+    summary.resourceNames = null;
+    return summary;
+  }
 }
@@ -32,7 +32,8 @@ import java.util.ArrayList;
 public class DeploymentRefWrapper
 {
   List<DeploymentRef> deployments = new ArrayList<DeploymentRef>();
-
+  int firstResult = 0;
+  int totalCount = 0;
 
   public DeploymentRefWrapper()
   {
@@ -41,6 +42,19 @@ public class DeploymentRefWrapper
   public DeploymentRefWrapper(List<DeploymentRef> deployments)
   {
     this.deployments = deployments;
+    this.totalCount = deployments.size();
+  }
+
+  /**
+   * A single page of a larger result.
+   *
+   * @param totalCount number of deployments across all pages
+   */
+  public DeploymentRefWrapper(List<DeploymentRef> deployments, int firstResult, int totalCount)
+  {
+    this.deployments = deployments;
+    this.firstResult = firstResult;
+    this.totalCount = totalCount;
   }
 
   public List<DeploymentRef> getDeployments()
@@ -51,10 +65,16 @@ public class DeploymentRefWrapper
   public void setDeployments(List<DeploymentRef> deployments)
   {
     this.deployments = deployments;
+    this.totalCount = deployments.size();
+  }
+
+  public int getFirstResult()
+  {
+    return firstResult;
   }
 
   public int getTotalCount()
   {
-    return deployments.size();
+    return totalCount;
   }
 }
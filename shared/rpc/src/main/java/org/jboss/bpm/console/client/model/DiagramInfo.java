@@ -33,6 +33,7 @@ public class DiagramInfo
    private int width = -1;
    private int height = -1;
    private List<DiagramNodeInfo> nodeList = new ArrayList<DiagramNodeInfo>();
+   private List<DiagramEdgeInfo> edgeList = new ArrayList<DiagramEdgeInfo>();
 
    public DiagramInfo()
    {
@@ -48,6 +49,15 @@ public class DiagramInfo
       nodeList = Collections.unmodifiableList(list);
    }
 
+   /**
+    * Plugins that know the transitions pass them along,
+    * so that the diagram can be rendered without the image.
+    */
+   public DiagramInfo(final int height, final int width, final List<DiagramNodeInfo> l, final List<DiagramEdgeInfo> edges) {
+      this(height, width, l);
+      edgeList = Collections.unmodifiableList(new ArrayList<DiagramEdgeInfo>(edges));
+   }
+
    public int getWidth()
    {
       return width;
@@ -78,4 +88,17 @@ public class DiagramInfo
       this.nodeList = nodeList;
    }
 
+   /**
+    * Empty if the plugin doesn't provide the transitions
+    */
+   public List<DiagramEdgeInfo> getEdgeList()
+   {
+      return edgeList;
+   }
+
+   public void setEdgeList(List<DiagramEdgeInfo> edgeList)
+   {
+      this.edgeList = edgeList;
+   }
+
 }
@@ -0,0 +1,116 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.client.model;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Tile grid of a process diagram.<br>
+ * Level 0 is the diagram at full size, each further level halves
+ * the width and height of the previous one. Every level is cut into
+ * square tiles of <code>tileSize</code> pixels, starting at the top left corner.
+ */
+@XmlRootElement(name = "diagramTileInfo")
+public class DiagramTileInfo
+{
+  private int width;
+  private int height;
+  private int tileSize;
+  private int levels;
+
+  public DiagramTileInfo()
+  {
+  }
+
+  public DiagramTileInfo(int width, int height, int tileSize, int levels)
+  {
+    this.width = width;
+    this.height = height;
+    this.tileSize = tileSize;
+    this.levels = levels;
+  }
+
+  public int getWidth()
+  {
+    return width;
+  }
+
+  public void setWidth(int width)
+  {
+    this.width = width;
+  }
+
+  public int getHeight()
+  {
+    return height;
+  }
+
+  public void setHeight(int height)
+  {
+    this.height = height;
+  }
+
+  public int getTileSize()
+  {
+    return tileSize;
+  }
+
+  public void setTileSize(int tileSize)
+  {
+    this.tileSize = tileSize;
+  }
+
+  public int getLevels()
+  {
+    return levels;
+  }
+
+  public void setLevels(int levels)
+  {
+    this.levels = levels;
+  }
+
+  public int getWidth(int level)
+  {
+    return scale(width, level);
+  }
+
+  public int getHeight(int level)
+  {
+    return scale(height, level);
+  }
+
+  public int getColumns(int level)
+  {
+    return (getWidth(level) + tileSize - 1) / tileSize;
+  }
+
+  public int getRows(int level)
+  {
+    return (getHeight(level) + tileSize - 1) / tileSize;
+  }
+
+  private static int scale(int size, int level)
+  {
+    return Math.max(1, (size + (1 << level) - 1) >> level);
+  }
+}
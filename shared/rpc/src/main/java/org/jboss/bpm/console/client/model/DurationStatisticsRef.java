@@ -0,0 +1,112 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.client.model;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Duration percentiles (in ms) of a process definition or activity.
+ */
+@XmlRootElement(name = "durationStatistics")
+public class DurationStatisticsRef
+{
+  private String name;
+  private long count;
+  private long p50;
+  private long p90;
+  private long p99;
+  private long max;
+
+  public DurationStatisticsRef()
+  {
+  }
+
+  public DurationStatisticsRef(String name, long count, long p50, long p90, long p99, long max)
+  {
+    this.name = name;
+    this.count = count;
+    this.p50 = p50;
+    this.p90 = p90;
+    this.p99 = p99;
+    this.max = max;
+  }
+
+  public String getName()
+  {
+    return name;
+  }
+
+  public void setName(String name)
+  {
+    this.name = name;
+  }
+
+  public long getCount()
+  {
+    return count;
+  }
+
+  public void setCount(long count)
+  {
+    this.count = count;
+  }
+
+  public long getP50()
+  {
+    return p50;
+  }
+
+  public void setP50(long p50)
+  {
+    this.p50 = p50;
+  }
+
+  public long getP90()
+  {
+    return p90;
+  }
+
+  public void setP90(long p90)
+  {
+    this.p90 = p90;
+  }
+
+  public long getP99()
+  {
+    return p99;
+  }
+
+  public void setP99(long p99)
+  {
+    this.p99 = p99;
+  }
+
+  public long getMax()
+  {
+    return max;
+  }
+
+  public void setMax(long max)
+  {
+    this.max = max;
+  }
+}
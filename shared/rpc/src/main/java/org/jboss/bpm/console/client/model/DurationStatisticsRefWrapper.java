@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.client.model;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Duration statistics of a process definition and its activities
+ * over a time window.
+ */
+@XmlRootElement(name = "wrapper")
+public class DurationStatisticsRefWrapper
+{
+  private String definitionId;
+  private long starttime;
+  private long endtime;
+
+  private DurationStatisticsRef process;
+  private List<DurationStatisticsRef> activities = new ArrayList<DurationStatisticsRef>();
+
+  public DurationStatisticsRefWrapper()
+  {
+  }
+
+  public DurationStatisticsRefWrapper(String definitionId, long starttime, long endtime)
+  {
+    this.definitionId = definitionId;
+    this.starttime = starttime;
+    this.endtime = endtime;
+  }
+
+  public String getDefinitionId()
+  {
+    return definitionId;
+  }
+
+  public void setDefinitionId(String definitionId)
+  {
+    this.definitionId = definitionId;
+  }
+
+  public long getStarttime()
+  {
+    return starttime;
+  }
+
+  public void setStarttime(long starttime)
+  {
+    this.starttime = starttime;
+  }
+
+  public long getEndtime()
+  {
+    return endtime;
+  }
+
+  public void setEndtime(long endtime)
+  {
+    this.endtime = endtime;
+  }
+
+  public DurationStatisticsRef getProcess()
+  {
+    return process;
+  }
+
+  public void setProcess(DurationStatisticsRef process)
+  {
+    this.process = process;
+  }
+
+  public List<DurationStatisticsRef> getActivities()
+  {
+    return activities;
+  }
+
+  public void setActivities(List<DurationStatisticsRef> activities)
+  {
+    this.activities = activities;
+  }
+}
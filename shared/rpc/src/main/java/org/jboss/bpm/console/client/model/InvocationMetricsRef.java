@@ -0,0 +1,109 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.client.model;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Statistics of a single integration layer or plugin method, i.e. <code>ProcessManagement.getInstances</code>.
+ * The latency is in microseconds, the cardinality is the size of the largest
+ * collection or array argument per invocation.
+ */
+@XmlRootElement(name = "invocationMetrics")
+public class InvocationMetricsRef
+{
+  private String method;
+  private long count;
+  private long errors;
+  private long slowCalls;
+  private DurationStatisticsRef latency;
+  private DurationStatisticsRef cardinality;
+
+  public InvocationMetricsRef()
+  {
+  }
+
+  public InvocationMetricsRef(String method)
+  {
+    this.method = method;
+  }
+
+  public String getMethod()
+  {
+    return method;
+  }
+
+  public void setMethod(String method)
+  {
+    this.method = method;
+  }
+
+  public long getCount()
+  {
+    return count;
+  }
+
+  public void setCount(long count)
+  {
+    this.count = count;
+  }
+
+  public long getErrors()
+  {
+    return errors;
+  }
+
+  public void setErrors(long errors)
+  {
+    this.errors = errors;
+  }
+
+  public long getSlowCalls()
+  {
+    return slowCalls;
+  }
+
+  public void setSlowCalls(long slowCalls)
+  {
+    this.slowCalls = slowCalls;
+  }
+
+  public DurationStatisticsRef getLatency()
+  {
+    return latency;
+  }
+
+  public void setLatency(DurationStatisticsRef latency)
+  {
+    this.latency = latency;
+  }
+
+  public DurationStatisticsRef getCardinality()
+  {
+    return cardinality;
+  }
+
+  public void setCardinality(DurationStatisticsRef cardinality)
+  {
+    this.cardinality = cardinality;
+  }
+}
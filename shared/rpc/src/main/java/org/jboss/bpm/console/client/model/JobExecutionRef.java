@@ -0,0 +1,136 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.client.model;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Progress of a bulk job execution.
+ * <code>errors</code> holds the first few failures as <code>jobId: message</code>.
+ */
+@XmlRootElement(name = "jobExecution")
+public class JobExecutionRef
+{
+  public static final String RUNNING = "RUNNING";
+  public static final String FINISHED = "FINISHED";
+  public static final String CANCELLED = "CANCELLED";
+
+  private String id;
+  private String status;
+  private int total;
+  private int executed;
+  private int failed;
+  private long startTime;
+  private long endTime;
+  private List<String> errors = new ArrayList<String>();
+
+  public JobExecutionRef()
+  {
+  }
+
+  public String getId()
+  {
+    return id;
+  }
+
+  public void setId(String id)
+  {
+    this.id = id;
+  }
+
+  public String getStatus()
+  {
+    return status;
+  }
+
+  public void setStatus(String status)
+  {
+    this.status = status;
+  }
+
+  public int getTotal()
+  {
+    return total;
+  }
+
+  public void setTotal(int total)
+  {
+    this.total = total;
+  }
+
+  public int getExecuted()
+  {
+    return executed;
+  }
+
+  public void setExecuted(int executed)
+  {
+    this.executed = executed;
+  }
+
+  public int getFailed()
+  {
+    return failed;
+  }
+
+  public void setFailed(int failed)
+  {
+    this.failed = failed;
+  }
+
+  public long getStartTime()
+  {
+    return startTime;
+  }
+
+  public void setStartTime(long startTime)
+  {
+    this.startTime = startTime;
+  }
+
+  public long getEndTime()
+  {
+    return endTime;
+  }
+
+  public void setEndTime(long endTime)
+  {
+    this.endTime = endTime;
+  }
+
+  public List<String> getErrors()
+  {
+    return errors;
+  }
+
+  public void setErrors(List<String> errors)
+  {
+    this.errors = errors;
+  }
+
+  public int getRemaining()
+  {
+    return total - executed - failed;
+  }
+}
@@ -32,7 +32,8 @@ import java.util.ArrayList;
 public class JobRefWrapper
 {
   List<JobRef> jobs = new ArrayList<JobRef>();
-
+  int firstResult = 0;
+  int totalCount = 0;
 
   public JobRefWrapper()
   {
@@ -41,6 +42,19 @@ public class JobRefWrapper
   public JobRefWrapper(List<JobRef> deployments)
   {
     this.jobs = deployments;
+    this.totalCount = deployments.size();
+  }
+
+  /**
+   * A single page of a larger result.
+   *
+   * @param totalCount number of jobs across all pages
+   */
+  public JobRefWrapper(List<JobRef> jobs, int firstResult, int totalCount)
+  {
+    this.jobs = jobs;
+    this.firstResult = firstResult;
+    this.totalCount = totalCount;
   }
 
   public List<JobRef> getJobs()
@@ -51,10 +65,16 @@ public class JobRefWrapper
   public void setJobs(List<JobRef> jobs)
   {
     this.jobs = jobs;
+    this.totalCount = jobs.size();
+  }
+
+  public int getFirstResult()
+  {
+    return firstResult;
   }
 
   public int getTotalCount()
   {
-    return jobs.size();
+    return totalCount;
   }
 }
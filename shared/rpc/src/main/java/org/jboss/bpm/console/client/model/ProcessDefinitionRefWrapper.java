@@ -33,6 +33,8 @@ public class ProcessDefinitionRefWrapper
 {
 
    List<ProcessDefinitionRef> definitions;
+   int firstResult = 0;
+   int totalCount = 0;
 
    public ProcessDefinitionRefWrapper()
    {
@@ -41,6 +43,19 @@ public class ProcessDefinitionRefWrapper
    public ProcessDefinitionRefWrapper(List<ProcessDefinitionRef> defs)
    {
       this.definitions = defs;
+      this.totalCount = defs!=null ? defs.size() : 0;
+   }
+
+   /**
+    * A single page of a larger result.
+    *
+    * @param totalCount number of definitions across all pages
+    */
+   public ProcessDefinitionRefWrapper(List<ProcessDefinitionRef> defs, int firstResult, int totalCount)
+   {
+      this.definitions = defs;
+      this.firstResult = firstResult;
+      this.totalCount = totalCount;
    }
 
    @XmlElement
@@ -49,14 +64,21 @@ public class ProcessDefinitionRefWrapper
       return definitions;
    }
 
+   @XmlElement(name = "firstResult")
+   public int getFirstResult()
+   {
+      return firstResult;
+   }
+
    @XmlElement(name = "totalCount")
    public int getTotalCount()
    {
-      return definitions.size();
+      return totalCount;
    }
 
    public void setDefinitions(List<ProcessDefinitionRef> definitions)
    {
       this.definitions = definitions;
+      this.totalCount = definitions!=null ? definitions.size() : 0;
    }
 }
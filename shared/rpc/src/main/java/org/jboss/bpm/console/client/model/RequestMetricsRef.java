@@ -0,0 +1,124 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.client.model;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Request statistics of a single REST resource method, i.e. <code>ProcessMgmtFacade.getInstancesJSON</code>.
+ * Latencies are in microseconds:
+ * <ul>
+ * <li>total: from receiving the request until the response has been written
+ * <li>handler: the resource method without JSON serialization, mostly spent in the integration layer
+ * <li>serialization: JSON serialization within the resource method
+ * </ul>
+ */
+@XmlRootElement(name = "requestMetrics")
+public class RequestMetricsRef
+{
+  private String method;
+  private long count;
+  private long errors;
+  private long bytes;
+  private DurationStatisticsRef total;
+  private DurationStatisticsRef handler;
+  private DurationStatisticsRef serialization;
+
+  public RequestMetricsRef()
+  {
+  }
+
+  public RequestMetricsRef(String method)
+  {
+    this.method = method;
+  }
+
+  public String getMethod()
+  {
+    return method;
+  }
+
+  public void setMethod(String method)
+  {
+    this.method = method;
+  }
+
+  public long getCount()
+  {
+    return count;
+  }
+
+  public void setCount(long count)
+  {
+    this.count = count;
+  }
+
+  public long getErrors()
+  {
+    return errors;
+  }
+
+  public void setErrors(long errors)
+  {
+    this.errors = errors;
+  }
+
+  public long getBytes()
+  {
+    return bytes;
+  }
+
+  public void setBytes(long bytes)
+  {
+    this.bytes = bytes;
+  }
+
+  public DurationStatisticsRef getTotal()
+  {
+    return total;
+  }
+
+  public void setTotal(DurationStatisticsRef total)
+  {
+    this.total = total;
+  }
+
+  public DurationStatisticsRef getHandler()
+  {
+    return handler;
+  }
+
+  public void setHandler(DurationStatisticsRef handler)
+  {
+    this.handler = handler;
+  }
+
+  public DurationStatisticsRef getSerialization()
+  {
+    return serialization;
+  }
+
+  public void setSerialization(DurationStatisticsRef serialization)
+  {
+    this.serialization = serialization;
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.client.model;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import java.util.ArrayList;
+import java.util.List;
+
+@XmlRootElement(name = "wrapper")
+public class RequestMetricsRefWrapper
+{
+  long since;
+  List<RequestMetricsRef> methods = new ArrayList<RequestMetricsRef>();
+  List<InvocationMetricsRef> invocations = new ArrayList<InvocationMetricsRef>();
+
+  public RequestMetricsRefWrapper()
+  {
+  }
+
+  /**
+   * @param since start of the recording period
+   */
+  public RequestMetricsRefWrapper(long since, List<RequestMetricsRef> methods)
+  {
+    this.since = since;
+    this.methods = methods;
+  }
+
+  public long getSince()
+  {
+    return since;
+  }
+
+  public List<RequestMetricsRef> getMethods()
+  {
+    return methods;
+  }
+
+  public void setMethods(List<RequestMetricsRef> methods)
+  {
+    this.methods = methods;
+  }
+
+  /**
+   * @return integration layer and plugin invocations
+   */
+  public List<InvocationMetricsRef> getInvocations()
+  {
+    return invocations;
+  }
+
+  public void setInvocations(List<InvocationMetricsRef> invocations)
+  {
+    this.invocations = invocations;
+  }
+
+  public int getTotalCount()
+  {
+    return methods.size();
+  }
+}
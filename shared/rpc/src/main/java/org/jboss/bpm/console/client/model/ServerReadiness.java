@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2006, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.bpm.console.client.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of the server warm-up. Failed warm-up steps don't prevent
+ * the server from becoming ready, they are listed for diagnostics.
+ */
+public class ServerReadiness
+{
+  boolean ready;
+  long startTime;
+  long duration;
+  List<String> failures = new ArrayList<String>();
+
+  public ServerReadiness()
+  {
+  }
+
+  public ServerReadiness(boolean ready, long startTime, long duration, List<String> failures)
+  {
+    this.ready = ready;
+    this.startTime = startTime;
+    this.duration = duration;
+    this.failures = failures;
+  }
+
+  public boolean isReady()
+  {
+    return ready;
+  }
+
+  public long getStartTime()
+  {
+    return startTime;
+  }
+
+  /**
+   * @return warm-up duration in milliseconds, 0 while it's still running
+   */
+  public long getDuration()
+  {
+    return duration;
+  }
+
+  public List<String> getFailures()
+  {
+    return failures;
+  }
+}
@@ -30,9 +30,16 @@ import java.util.ArrayList;
 public class ServerStatus
 {
   List<PluginInfo> plugins = new ArrayList<PluginInfo>();
+
+  List<CacheStatistics> caches = new ArrayList<CacheStatistics>();
   
   public List<PluginInfo> getPlugins()
   {
     return plugins;
   }
+
+  public List<CacheStatistics> getCaches()
+  {
+    return caches;
+  }
 }